@@ -1,7 +1,9 @@
 package com.hartwig.hmftools.amber;
 
 import static java.lang.Double.isFinite;
+import static java.lang.Math.max;
 import static java.lang.String.format;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
 import static com.hartwig.hmftools.amber.AmberConfig.AMB_LOGGER;
@@ -18,35 +20,39 @@ import static com.hartwig.hmftools.common.utils.config.VersionInfo.fromAppName;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.amber.contamination.TumorContamination;
 import com.hartwig.hmftools.amber.contamination.TumorContaminationModel;
-import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.amber.blacklist.AmberBlacklistFile;
 import com.hartwig.hmftools.amber.blacklist.AmberBlacklistPoint;
 import com.hartwig.hmftools.amber.purity.PurityAnalysisConfig;
 import com.hartwig.hmftools.amber.purity.TumorOnlyPurityAnalysis;
 import com.hartwig.hmftools.amber.purity.CandidatePeak;
 import com.hartwig.hmftools.common.amber.AmberBAF;
-import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays.ChromosomeSites;
 import com.hartwig.hmftools.common.amber.AmberSitesFile;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
-import com.hartwig.hmftools.common.genome.position.GenomePositionImpl;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.region.BaseRegion;
+import com.hartwig.hmftools.common.region.SortedIntervals;
 import com.hartwig.hmftools.common.utils.config.VersionInfo;
 
 import htsjdk.samtools.SamReaderFactory;
@@ -58,7 +64,7 @@ public class AmberApplication implements AutoCloseable
 
     private ResultsWriter mPersistence;
     private VersionInfo mVersionInfo;
-    private ImmutableListMultimap<Chromosome, AmberSite> mChromosomeSites;
+    private AmberSiteArrays mAmberSites;
 
     public AmberApplication(final ConfigBuilder configBuilder)
     {
@@ -73,7 +79,7 @@ public class AmberApplication implements AutoCloseable
 
         mPersistence = new ResultsWriter(mConfig);
 
-        mChromosomeSites = loadAmberSites();
+        mAmberSites = loadAmberSites();
 
         if(!mConfig.isValid())
         {
@@ -99,97 +105,87 @@ public class AmberApplication implements AutoCloseable
         return 0;
     }
 
-    private ImmutableListMultimap<Chromosome, AmberSite> loadAmberSites() throws IOException
+    private AmberSiteArrays loadAmberSites() throws IOException
     {
-        ListMultimap<Chromosome,AmberSite> amberSitesMap = AmberSitesFile.sites(mConfig.BafLociPath);
+        AmberSiteArrays amberSites = AmberSitesFile.siteArrays(mConfig.BafLociPath);
 
-        if(mConfig.SpecificChrRegions.hasFilters())
-        {
-            ListMultimap<Chromosome,AmberSite> filteredSitesMap = ArrayListMultimap.create();
-
-            for(AmberSite amberSite : amberSitesMap.values())
-            {
-                if(mConfig.SpecificChrRegions.includePosition(amberSite.Chromosome, amberSite.Position))
-                    filteredSitesMap.put(amberSite.chr(), amberSite);
-            }
+        Map<Chromosome,List<BaseRegion>> targetRegions = null;
 
-            amberSitesMap = filteredSitesMap;
-        }
+        // blacklisted positions held as a sorted array per chromosome
+        Map<Chromosome,int[]> blacklistedPoints = Maps.newHashMap();
 
-        if(mConfig.TargetRegionsBed == null)
+        if(mConfig.TargetRegionsBed != null)
         {
-            return ImmutableListMultimap.copyOf(amberSitesMap);
-        }
+            try
+            {
+                targetRegions = loadBedFileChrMap(mConfig.TargetRegionsBed);
+            }
+            catch(Exception e)
+            {
+                AMB_LOGGER.error(format("failed to load target regions file(): {%s}", mConfig.TargetRegionsBed), e);
+                System.exit(1);
+            }
 
-        Multimap<Chromosome, GenomePositionImpl> blacklistedPoints = HashMultimap.create();
-        if(mConfig.BlacklistedSitesPath != null)
-        {
-            List<AmberBlacklistPoint> blacklistPoints = AmberBlacklistFile.readFromFile(new File(mConfig.BlacklistedSitesPath));
-            for(AmberBlacklistPoint point : blacklistPoints)
+            if(mConfig.BlacklistedSitesPath != null)
             {
-                blacklistedPoints.put(point.chr(), new GenomePositionImpl(point));
+                List<AmberBlacklistPoint> blacklistPoints = AmberBlacklistFile.readFromFile(new File(mConfig.BlacklistedSitesPath));
+
+                blacklistPoints.stream().collect(groupingBy(AmberBlacklistPoint::chr)).forEach((chromosome, points) ->
+                        blacklistedPoints.put(chromosome, points.stream().mapToInt(AmberBlacklistPoint::position).sorted().toArray()));
             }
         }
 
-        ListMultimap<Chromosome, AmberSite> targetRegionSites = ArrayListMultimap.create();
-        try
-        {
-            Map<Chromosome, List<BaseRegion>> targetRegions = loadBedFileChrMap(mConfig.TargetRegionsBed);
+        // sites are kept in their per-chromosome arrays, with only those passing the filters copied into new arrays
+        Map<String,ChromosomeSites> filteredSites = Maps.newLinkedHashMap();
 
-            for(Map.Entry<Chromosome, List<BaseRegion>> entry : targetRegions.entrySet())
-            {
-                Chromosome chromosome = entry.getKey();
-                Collection<GenomePositionImpl> blacklistedPositions = blacklistedPoints.get(chromosome);
-                List<BaseRegion> regions = entry.getValue();
+        for(ChromosomeSites chrSites : amberSites.chromosomeSites().values())
+        {
+            if(!HumanChromosome.contains(chrSites.Chromosome))
+                continue;
 
-                Collection<AmberSite> amberSites = amberSitesMap.get(chromosome);
+            Chromosome chromosome = HumanChromosome.fromString(chrSites.Chromosome);
 
-                int regionIndex = 0;
-                BaseRegion currentRegion = regions.get(0);
+            if(mConfig.SpecificChrRegions.hasFilters())
+            {
+                final ChromosomeSites sites = chrSites;
+                chrSites = sites.filter(i -> mConfig.SpecificChrRegions.includePosition(sites.Chromosome, sites.position(i)));
+            }
 
-                for(AmberSite amberSite : amberSites)
-                {
-                    if(blacklistedPositions.contains(amberSite.rawPosition()))
-                        continue;
+            if(targetRegions != null)
+            {
+                List<BaseRegion> regions = targetRegions.get(chromosome);
 
-                    if(amberSite.position() < currentRegion.start() - TARGET_REGION_SITE_BUFFER)
-                        continue;
+                if(regions == null || regions.isEmpty())
+                    continue;
 
-                    while(amberSite.position() > currentRegion.end() + TARGET_REGION_SITE_BUFFER)
-                    {
-                        ++regionIndex;
+                chrSites = filterTargetRegionSites(chrSites, regions, blacklistedPoints.getOrDefault(chromosome, new int[0]));
+            }
 
-                        if(regionIndex >= regions.size())
-                            break;
+            if(chrSites.size() > 0)
+                filteredSites.put(chrSites.Chromosome, chrSites);
+        }
 
-                        currentRegion = regions.get(regionIndex);
-                    }
+        return new AmberSiteArrays(filteredSites);
+    }
 
-                    if(regionIndex >= regions.size())
-                        break;
+    private static ChromosomeSites filterTargetRegionSites(
+            final ChromosomeSites chrSites, final List<BaseRegion> regions, final int[] blacklistedPositions)
+    {
+        List<BaseRegion> sortedRegions = regions.stream().sorted(Comparator.comparingInt(BaseRegion::start)).toList();
 
-                    if(amberSite.position() >= currentRegion.start() - TARGET_REGION_SITE_BUFFER
-                    && amberSite.position() <= currentRegion.end() + TARGET_REGION_SITE_BUFFER)
-                    {
-                        targetRegionSites.put(chromosome, amberSite);
-                    }
-                }
-            }
+        SortedIntervals bufferedRegions = SortedIntervals.from(
+                sortedRegions, x -> x.start() - TARGET_REGION_SITE_BUFFER, x -> x.end() + TARGET_REGION_SITE_BUFFER);
 
-            return ImmutableListMultimap.copyOf(targetRegionSites);
-        }
-        catch(Exception e)
+        return chrSites.filter(i ->
         {
-            AMB_LOGGER.error(format("failed to load target regions file(): {%s}", mConfig.TargetRegionsBed), e);
-            System.exit(1);
-        }
-
-        return ImmutableListMultimap.copyOf(targetRegionSites);
+            int position = chrSites.position(i);
+            return Arrays.binarySearch(blacklistedPositions, position) < 0 && bufferedRegions.overlapsAny(position, position);
+        });
     }
 
     private void runGermlineOnly() throws Exception
     {
-        GermlineAnalysis germline = new GermlineAnalysis(mConfig, readerFactory(mConfig), mChromosomeSites);
+        GermlineAnalysis germline = new GermlineAnalysis(mConfig, readerFactory(mConfig), mAmberSites);
 
         List<AmberBAF> amberBAFList = Lists.newArrayList();
 
@@ -217,9 +213,36 @@ public class AmberApplication implements AutoCloseable
     {
         SamReaderFactory readerFactory = readerFactory(mConfig);
 
-        GermlineAnalysis germline = new GermlineAnalysis(mConfig, readerFactory, mChromosomeSites);
+        // read the tumor BAM at all sites alongside the reference BAMs, splitting threads between them, and only restrict its
+        // evidence to the germline heterozygous and homozygous sites once both are complete
+        int referenceThreads = max((mConfig.Threads + 1) / 2, 1);
+        int tumorThreads = max(mConfig.Threads - referenceThreads, 1);
+
+        ExecutorService tumorExecutor = Executors.newSingleThreadExecutor();
+
+        Future<Map<PositionEvidence,PositionEvidence>> tumorEvidenceFuture = tumorExecutor.submit(
+                () -> TumorAnalysis.collectSiteEvidence(mConfig, readerFactory, mAmberSites, tumorThreads));
+
+        GermlineAnalysis germline;
+        Map<PositionEvidence,PositionEvidence> tumorSiteEvidence;
+
+        try
+        {
+            germline = new GermlineAnalysis(mConfig, readerFactory, mAmberSites, referenceThreads);
+            tumorSiteEvidence = tumorEvidenceFuture.get();
+        }
+        catch(Exception e)
+        {
+            // stop reading the tumor BAM if the reference pass fails
+            tumorEvidenceFuture.cancel(true);
+            throw e;
+        }
+        finally
+        {
+            tumorExecutor.shutdown();
+        }
 
-        TumorAnalysis tumor = new TumorAnalysis(mConfig, readerFactory, germline.getHeterozygousLoci(), germline.getHomozygousLoci());
+        TumorAnalysis tumor = new TumorAnalysis(mConfig, tumorSiteEvidence, germline.getHeterozygousLoci(), germline.getHomozygousLoci());
 
         List<TumorBAF> tumorBAFList = tumor.chrBafMap().values().stream()
                 .filter(x -> x.TumorEvidence.ReadDepth >= mConfig.TumorMinDepth)
@@ -275,7 +298,7 @@ public class AmberApplication implements AutoCloseable
         }
 
         PurityAnalysisConfig purityAnalysisConfig = new PurityAnalysisConfig(mConfig);
-        TumorOnlyPurityAnalysis noiseFloorAnalysis = new TumorOnlyPurityAnalysis(rawData, mChromosomeSites, purityAnalysisConfig);
+        TumorOnlyPurityAnalysis noiseFloorAnalysis = new TumorOnlyPurityAnalysis(rawData, mAmberSites, purityAnalysisConfig);
         double noiseFloor = noiseFloorAnalysis.cutoff();
 
         double contamination = noiseFloorAnalysis.contaminationPeaks().stream().map(CandidatePeak::vaf).max(Double::compare).orElse(0.0);
@@ -305,25 +328,32 @@ public class AmberApplication implements AutoCloseable
         int numBlackListed = 0;
 
         // filter out everything in loaded genome positions that are in these regions
-        for(Map.Entry<Chromosome, AmberSite> entry : mChromosomeSites.entries())
+        for(ChromosomeSites chrSites : mAmberSites.chromosomeSites().values())
         {
-            // check against black list
-            boolean blacklisted = false;
-            for(GenomeRegion gr : excludedRegions)
+            Chromosome chromosome = HumanChromosome.fromString(chrSites.Chromosome);
+
+            for(int i = 0; i < chrSites.size(); ++i)
             {
-                if(gr.contains(entry.getValue()))
+                int position = chrSites.position(i);
+
+                // check against black list
+                boolean blacklisted = false;
+                for(GenomeRegion gr : excludedRegions)
                 {
-                    blacklisted = true;
-                    break;
+                    if(gr.chromosome().equals(chrSites.Chromosome) && gr.start() <= position && position <= gr.end())
+                    {
+                        blacklisted = true;
+                        break;
+                    }
+                }
+                if(blacklisted)
+                {
+                    numBlackListed++;
+                }
+                else
+                {
+                    result.put(chromosome, PositionEvidenceChecker.fromSite(chrSites, i));
                 }
-            }
-            if(blacklisted)
-            {
-                numBlackListed++;
-            }
-            else
-            {
-                result.put(entry.getKey(), PositionEvidenceChecker.fromAmberSite(entry.getValue()));
             }
         }
 
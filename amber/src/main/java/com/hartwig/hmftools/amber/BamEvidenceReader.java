@@ -25,10 +25,17 @@ public class BamEvidenceReader
 {
     private final AmberConfig mConfig;
     private final PositionEvidenceChecker mEvidenceChecker;
+    private final int mThreads;
 
     public BamEvidenceReader(final AmberConfig config)
+    {
+        this(config, config.Threads);
+    }
+
+    public BamEvidenceReader(final AmberConfig config, int threads)
     {
         mConfig = config;
+        mThreads = threads;
         mEvidenceChecker = new PositionEvidenceChecker(mConfig.MinMappingQuality, mConfig.MinBaseQuality);
     }
 
@@ -44,7 +51,7 @@ public class BamEvidenceReader
 
         List<BamReaderThread> bamReaders = new ArrayList<BamReaderThread>();
 
-        for(int i = 0; i < max(mConfig.Threads, 1); ++i)
+        for(int i = 0; i < max(mThreads, 1); ++i)
         {
             BamReaderThread thread = new BamReaderThread(bamFile, samReaderFactory, taskQueue);
             thread.setName(format("worker-%d", i));
@@ -4,6 +4,7 @@ import static java.util.stream.Collectors.toList;
 
 import static com.hartwig.hmftools.amber.AmberConfig.AMB_LOGGER;
 import static com.hartwig.hmftools.amber.PositionEvidenceChecker.fromAmberSite;
+import static com.hartwig.hmftools.amber.PositionEvidenceChecker.fromSite;
 import static com.hartwig.hmftools.common.utils.Multimaps.filterEntries;
 
 import java.io.IOException;
@@ -17,7 +18,10 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays.ChromosomeSites;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -32,24 +36,33 @@ public class GermlineAnalysis
     private final ListMultimap<Chromosome, PositionEvidence> mHeterozygousLoci;
     private final List<RegionOfHomozygosity> mRegionsOfHomozygosity;
     private final double mConsanguinityProportion;
+    private final int mThreads;
 
     @Nullable private final Chromosome mUniparentalDisomy;
 
     public GermlineAnalysis(
-            final AmberConfig config, SamReaderFactory readerFactory, ListMultimap<Chromosome,AmberSite> chrAmberSites)
+            final AmberConfig config, SamReaderFactory readerFactory, final AmberSiteArrays amberSites)
+            throws IOException
+    {
+        this(config, readerFactory, amberSites, config.Threads);
+    }
+
+    public GermlineAnalysis(
+            final AmberConfig config, SamReaderFactory readerFactory, final AmberSiteArrays amberSites, int threads)
             throws IOException
     {
         mConfig = config;
+        mThreads = threads;
 
         final Predicate<PositionEvidence> isValidFilter = PositionEvidence::isValid;
         Predicate<PositionEvidence> homozygousFilter = new NormalHomozygousFilter().and(isValidFilter);
         Predicate<PositionEvidence> heterozygousFilter = new NormalHeterozygousFilter(mConfig.MinHetAfPercent, mConfig.MaxHetAfPercent).and(isValidFilter);
-        Predicate<PositionEvidence> snpCheckFilter = new SnpCheckFilter(chrAmberSites);
+        Predicate<PositionEvidence> snpCheckFilter = new SnpCheckFilter(amberSites);
 
         mHetNormalEvidence = new HetNormalEvidence();
 
         // Primary Reference Data
-        ListMultimap<Chromosome, PositionEvidence> unfilteredLoci = germlineDepth(readerFactory, mConfig.ReferenceBams.get(0), chrAmberSites);
+        ListMultimap<Chromosome, PositionEvidence> unfilteredLoci = germlineDepth(readerFactory, mConfig.ReferenceBams.get(0), siteEvidence(amberSites));
 
         final Predicate<PositionEvidence> depthFilter = new BaseDepthFilter(mConfig.MinDepthPercent, mConfig.MaxDepthPercent, unfilteredLoci);
         mSnpCheckedLoci = filterEntries(unfilteredLoci, snpCheckFilter);
@@ -62,7 +75,8 @@ public class GermlineAnalysis
         {
             final String sample = mConfig.ReferenceIds.get(i);
             final String sampleBam = mConfig.ReferenceBams.get(i);
-            final Collection<PositionEvidence> additional = germlineDepth(readerFactory, sampleBam, mHetNormalEvidence.intersection()).values();
+            final Collection<PositionEvidence> additional = germlineDepth(
+                    readerFactory, sampleBam, siteEvidence(mHetNormalEvidence.intersection())).values();
             final Predicate<PositionEvidence> filter = new BaseDepthFilter(mConfig.MinDepthPercent, mConfig.MaxDepthPercent, additional);
             final Collection<PositionEvidence> additionalHetNormal = additional.stream().filter(filter.and(heterozygousFilter)).collect(toList());
             mHetNormalEvidence.add(sample, additionalHetNormal);
@@ -92,12 +106,27 @@ public class GermlineAnalysis
     @Nullable
     Chromosome getUniparentalDisomy() { return mUniparentalDisomy; }
 
-    private ListMultimap<Chromosome, PositionEvidence> germlineDepth(
-            final SamReaderFactory readerFactory, final String bamPath,
-            final ListMultimap<Chromosome,AmberSite> chrAmberSites)
+    private static Map<Chromosome,List<PositionEvidence>> siteEvidence(final AmberSiteArrays amberSites)
     {
-        AMB_LOGGER.info("processing {} Amber sites in reference bam({})", chrAmberSites.values().size(), bamPath);
+        Map<Chromosome,List<PositionEvidence>> chrPositionEvidence = Maps.newHashMap();
+
+        for(ChromosomeSites chrSites : amberSites.chromosomeSites().values())
+        {
+            List<PositionEvidence> positions = Lists.newArrayListWithCapacity(chrSites.size());
+
+            for(int i = 0; i < chrSites.size(); ++i)
+            {
+                positions.add(fromSite(chrSites, i));
+            }
+
+            chrPositionEvidence.put(HumanChromosome.fromString(chrSites.Chromosome), positions);
+        }
 
+        return chrPositionEvidence;
+    }
+
+    private static Map<Chromosome,List<PositionEvidence>> siteEvidence(final ListMultimap<Chromosome,AmberSite> chrAmberSites)
+    {
         Map<Chromosome,List<PositionEvidence>> chrPositionEvidence = Maps.newHashMap();
 
         for(Map.Entry<Chromosome,AmberSite> entry : chrAmberSites.entries())
@@ -115,7 +144,16 @@ public class GermlineAnalysis
             positions.add(fromAmberSite(entry.getValue()));
         }
 
-        BamEvidenceReader bamEvidenceReader = new BamEvidenceReader(mConfig);
+        return chrPositionEvidence;
+    }
+
+    private ListMultimap<Chromosome, PositionEvidence> germlineDepth(
+            final SamReaderFactory readerFactory, final String bamPath, final Map<Chromosome,List<PositionEvidence>> chrPositionEvidence)
+    {
+        AMB_LOGGER.info("processing {} Amber sites in reference bam({})",
+                chrPositionEvidence.values().stream().mapToInt(List::size).sum(), bamPath);
+
+        BamEvidenceReader bamEvidenceReader = new BamEvidenceReader(mConfig, mThreads);
         bamEvidenceReader.processBam(bamPath, readerFactory, chrPositionEvidence);
 
         ListMultimap<Chromosome, PositionEvidence> normalEvidence = ArrayListMultimap.create();
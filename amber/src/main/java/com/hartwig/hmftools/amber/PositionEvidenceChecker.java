@@ -5,6 +5,7 @@ import static com.hartwig.hmftools.amber.AmberConfig.isUltima;
 import java.util.List;
 
 import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays.ChromosomeSites;
 import com.hartwig.hmftools.common.sequencing.UltimaBamUtils;
 
 import htsjdk.samtools.SAMRecord;
@@ -116,4 +117,9 @@ public class PositionEvidenceChecker
     {
         return new PositionEvidence(site.chromosome(), site.position(), site.ref(), site.alt());
     }
+
+    public static PositionEvidence fromSite(final ChromosomeSites sites, int index)
+    {
+        return new PositionEvidence(sites.Chromosome, sites.position(index), sites.ref(index), sites.alt(index));
+    }
 }
@@ -1,46 +1,54 @@
 package com.hartwig.hmftools.amber;
 
-import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.amber.AmberSite;
-import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays.ChromosomeSites;
 
 public class SnpCheckFilter implements Predicate<PositionEvidence>
 {
-    private final Map<String,List<AmberSite>> mSnpLoci;
+    private final Map<String,ChromosomeSites> mSnpLoci;
 
-    public SnpCheckFilter(final Multimap<Chromosome, AmberSite> snpLoci)
+    public SnpCheckFilter(final AmberSiteArrays amberSites)
     {
         mSnpLoci = Maps.newHashMap();
 
-        for(AmberSite amberSite : snpLoci.values())
+        for(ChromosomeSites chrSites : amberSites.chromosomeSites().values())
         {
-            if(!amberSite.snpCheck())
-                continue;
+            ChromosomeSites snpCheckSites = chrSites.filter(chrSites::snpCheck);
 
-            List<AmberSite> chrSites = mSnpLoci.get(amberSite.Chromosome);
-
-            if(chrSites == null)
-            {
-                chrSites = Lists.newArrayList();
-                mSnpLoci.put(amberSite.Chromosome, chrSites);
-            }
-
-            chrSites.add(amberSite);
+            if(snpCheckSites.size() > 0)
+                mSnpLoci.put(chrSites.Chromosome, snpCheckSites);
         }
     }
 
     @Override
     public boolean test(final PositionEvidence baseDepth)
     {
-        List<AmberSite> chrSites = mSnpLoci.get(baseDepth.Chromosome);
+        ChromosomeSites chrSites = mSnpLoci.get(baseDepth.Chromosome);
+
+        if(chrSites == null)
+            return false;
+
+        int index = chrSites.indexOf(baseDepth.Position);
+
+        if(index < 0)
+            return false;
+
+        // sites are ordered by position, so any others at this position are adjacent to the one found
+        while(index > 0 && chrSites.position(index - 1) == baseDepth.Position)
+        {
+            --index;
+        }
+
+        for(; index < chrSites.size() && chrSites.position(index) == baseDepth.Position; ++index)
+        {
+            if(chrSites.ref(index).equals(baseDepth.ref()) && chrSites.alt(index).equals(baseDepth.alt()))
+                return true;
+        }
 
-        return chrSites != null && chrSites.stream()
-                .anyMatch(x -> x.matches(baseDepth.Chromosome, baseDepth.Position, baseDepth.ref(), baseDepth.alt()));
+        return false;
     }
 }
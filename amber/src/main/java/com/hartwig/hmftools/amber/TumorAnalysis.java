@@ -3,6 +3,7 @@ package com.hartwig.hmftools.amber;
 import static com.hartwig.hmftools.amber.AmberConfig.AMB_LOGGER;
 import static com.hartwig.hmftools.amber.AmberConstants.CONTAMINATON_MIN_NORMAL_READ_DEPTH;
 import static com.hartwig.hmftools.amber.AmberUtils.aboveQualFilter;
+import static com.hartwig.hmftools.amber.PositionEvidenceChecker.fromSite;
 
 import java.util.Collections;
 import java.util.List;
@@ -13,6 +14,8 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.amber.contamination.TumorContamination;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays.ChromosomeSites;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
@@ -42,6 +45,66 @@ public class TumorAnalysis
         tumorBAFAndContamination(readerFactory, germlineHetLoci, germlineHomLoci);
     }
 
+    // takes tumor evidence already collected at all sites, for when the tumor BAM is read alongside the reference BAMs
+    public TumorAnalysis(
+            final AmberConfig config, final Map<PositionEvidence,PositionEvidence> tumorSiteEvidence,
+            final ListMultimap<Chromosome, PositionEvidence> germlineHetLoci,
+            final ListMultimap<Chromosome, PositionEvidence> germlineHomLoci)
+    {
+        mConfig = config;
+        mContaminationSites = Lists.newArrayList();
+        mBafs = ArrayListMultimap.create();
+
+        AMB_LOGGER.info("filtering tumor evidence to germline heterozygous({}) and homozygous({}) sites",
+                germlineHetLoci.values().size(), germlineHomLoci.size());
+
+        List<TumorBAF> tumorBAFs = Lists.newArrayListWithCapacity(germlineHetLoci.size());
+        Map<PositionEvidence, PositionEvidence> contaminationBafMap = Maps.newHashMap();
+
+        for(PositionEvidence normal : germlineHetLoci.values())
+        {
+            PositionEvidence tumor = tumorSiteEvidence.get(normal);
+            tumorBAFs.add(tumor != null ? TumorBAF.fromNormal(normal, tumor) : TumorBAF.fromNormal(normal));
+        }
+
+        for(PositionEvidence normal : germlineHomLoci.values())
+        {
+            PositionEvidence tumor = tumorSiteEvidence.get(normal);
+            contaminationBafMap.put(normal, tumor != null ? tumor : PositionEvidence.copy(normal));
+        }
+
+        formBafsAndContamination(tumorBAFs, contaminationBafMap);
+    }
+
+    public static Map<PositionEvidence,PositionEvidence> collectSiteEvidence(
+            final AmberConfig config, final SamReaderFactory readerFactory, final AmberSiteArrays amberSites, int threads)
+    {
+        int siteCount = amberSites.siteCount();
+        AMB_LOGGER.info("processing {} Amber sites in tumor bam({})", siteCount, config.TumorBam);
+
+        Map<Chromosome, List<PositionEvidence>> chrPositionEvidence = Maps.newHashMap();
+        Map<PositionEvidence,PositionEvidence> siteEvidence = Maps.newHashMapWithExpectedSize(siteCount);
+
+        for(ChromosomeSites chrSites : amberSites.chromosomeSites().values())
+        {
+            List<PositionEvidence> positions = Lists.newArrayListWithCapacity(chrSites.size());
+
+            for(int i = 0; i < chrSites.size(); ++i)
+            {
+                PositionEvidence tumor = fromSite(chrSites, i);
+                positions.add(tumor);
+                siteEvidence.put(tumor, tumor);
+            }
+
+            chrPositionEvidence.put(HumanChromosome.fromString(chrSites.Chromosome), positions);
+        }
+
+        BamEvidenceReader bamEvidenceReader = new BamEvidenceReader(config, threads);
+        bamEvidenceReader.processBam(config.TumorBam, readerFactory, chrPositionEvidence);
+
+        return siteEvidence;
+    }
+
     private void tumorBAFAndContamination(
             final SamReaderFactory readerFactory, final ListMultimap<Chromosome, PositionEvidence> germlineHetLoci,
             final ListMultimap<Chromosome, PositionEvidence> germlineHomLoci)
@@ -97,6 +160,11 @@ public class TumorAnalysis
         BamEvidenceReader bamEvidenceReader = new BamEvidenceReader(mConfig);
         bamEvidenceReader.processBam(mConfig.TumorBam, readerFactory, chrPositionEvidence);
 
+        formBafsAndContamination(tumorBAFs, contaminationBafMap);
+    }
+
+    private void formBafsAndContamination(final List<TumorBAF> tumorBAFs, final Map<PositionEvidence, PositionEvidence> contaminationBafMap)
+    {
         tumorBAFs.stream()
                 .filter(x -> x.TumorEvidence.IndelCount == 0)
                 .forEach(x -> mBafs.put(HumanChromosome.fromString(x.chromosome()), x));
@@ -31,6 +31,24 @@ public class TumorBAF implements GenomePosition
         return TumorEvidence.AltSupport / (double)TumorEvidence.ReadDepth;
     }
 
+    private TumorBAF(final PositionEvidence tumorEvidence)
+    {
+        NormalReadDepth = 0;
+        NormalRefSupport = 0;
+        NormalAltSupport = 0;
+
+        TumorEvidence = tumorEvidence;
+    }
+
+    public static TumorBAF fromNormal(final PositionEvidence normal, final PositionEvidence tumorEvidence)
+    {
+        TumorBAF tumorBAF = new TumorBAF(tumorEvidence);
+        tumorBAF.NormalReadDepth = normal.ReadDepth;
+        tumorBAF.NormalRefSupport = normal.RefSupport;
+        tumorBAF.NormalAltSupport = normal.AltSupport;
+        return tumorBAF;
+    }
+
     public static TumorBAF fromNormal(final PositionEvidence normal)
     {
         TumorBAF tumorBAF = new TumorBAF(normal.Chromosome, normal.Position, normal.ref(), normal.alt());
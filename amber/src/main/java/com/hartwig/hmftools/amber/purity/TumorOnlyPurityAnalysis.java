@@ -17,11 +17,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Range;
 import com.hartwig.hmftools.amber.PositionEvidence;
-import com.hartwig.hmftools.common.amber.AmberSite;
-import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
 import com.hartwig.hmftools.common.immune.ImmuneRegions;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
@@ -59,7 +57,7 @@ public class TumorOnlyPurityAnalysis
 
     public TumorOnlyPurityAnalysis(
             final List<PositionEvidence> evidence,
-            final ListMultimap<Chromosome, AmberSite> amberSites,
+            final AmberSiteArrays amberSites,
             final PurityAnalysisConfig config)
     {
         AMB_LOGGER.debug(format("evaluating noise floor with %d evidence points", evidence.size()));
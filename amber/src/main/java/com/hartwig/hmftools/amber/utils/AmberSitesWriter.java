@@ -3,6 +3,7 @@ package com.hartwig.hmftools.amber.utils;
 import static java.lang.String.format;
 
 import static com.hartwig.hmftools.amber.AmberConfig.AMB_LOGGER;
+import static com.hartwig.hmftools.common.amber.AmberSiteArrays.BINARY_FILE_EXTENSION;
 import static com.hartwig.hmftools.common.genome.refgenome.GenomeLiftoverCache.UNMAPPED_POSITION;
 import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.V37;
 import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.V38;
@@ -22,6 +23,7 @@ import java.util.Map;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays;
 import com.hartwig.hmftools.common.amber.AmberSitesFile;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
@@ -36,12 +38,14 @@ public class AmberSitesWriter
     private static final String INPUT_GERMLINE_HET_FILE = "input_sites_file";
     private static final String SNP_CHECKS_FILE = "snp_check_sites_file";
     private static final String SOURCE_REF_GEN_VERSION = "source_ref_genome_version";
+    private static final String WRITE_BINARY = "write_binary";
 
     private final String mInputFile;
     private final String mOutputDir;
     private final String mSnpCheckFile;
     private final GenomeLiftoverCache mGenomeLiftoverCache;
     private final RefGenomeVersion mSourceRefGenVersion;
+    private final boolean mWriteBinary;
 
     public AmberSitesWriter(final ConfigBuilder configBuilder)
     {
@@ -49,6 +53,7 @@ public class AmberSitesWriter
         mOutputDir = parseOutputDir(configBuilder);
         mSnpCheckFile = configBuilder.getValue(SNP_CHECKS_FILE);
         mSourceRefGenVersion = RefGenomeVersion.from(configBuilder.getValue(SOURCE_REF_GEN_VERSION));
+        mWriteBinary = configBuilder.hasFlag(WRITE_BINARY);
 
         mGenomeLiftoverCache = new GenomeLiftoverCache(true);
     }
@@ -58,6 +63,11 @@ public class AmberSitesWriter
         return "AmberGermlineSites." + version.identifier() + TSV_EXTENSION + ".gz";
     }
 
+    public static String amberSitesBinaryFilename(final RefGenomeVersion version)
+    {
+        return "AmberGermlineSites." + version.identifier() + BINARY_FILE_EXTENSION;
+    }
+
     public void run()
     {
         AMB_LOGGER.info("generating Amber sites");
@@ -137,6 +147,15 @@ public class AmberSitesWriter
 
             writers.values().forEach(x -> closeBufferedWriter(x));
 
+            if(mWriteBinary)
+            {
+                for(RefGenomeVersion version : RefGenomeVersion.values())
+                {
+                    ListMultimap<Chromosome,AmberSite> versionSites = AmberSitesFile.loadFile(mOutputDir + amberSitesFilename(version));
+                    AmberSiteArrays.writeBinaryFile(versionSites, mOutputDir + amberSitesBinaryFilename(version));
+                }
+            }
+
             AMB_LOGGER.info("Amber site files generated");
         }
         catch(IOException e)
@@ -210,6 +229,7 @@ public class AmberSitesWriter
         configBuilder.addPath(INPUT_GERMLINE_HET_FILE, true, "Input germline locations file");
         configBuilder.addPath(SNP_CHECKS_FILE, true, "Input germline locations file");
         configBuilder.addConfigItem(SOURCE_REF_GEN_VERSION, true, "Ref genome version to convert to V37 or 38)");
+        configBuilder.addFlag(WRITE_BINARY, "Also write each sites file in the binary form which can be memory-mapped");
         addOutputDir(configBuilder);
         addLoggingOptions(configBuilder);
 
@@ -0,0 +1,122 @@
+package com.hartwig.hmftools.amber;
+
+import static com.hartwig.hmftools.amber.AmberConfig.LOCI_FILE;
+import static com.hartwig.hmftools.amber.AmberConstants.CONTAMINATON_MIN_NORMAL_READ_DEPTH;
+import static com.hartwig.hmftools.amber.PositionEvidenceChecker.fromAmberSite;
+import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.REF_GENOME_VERSION;
+import static com.hartwig.hmftools.common.utils.config.CommonConfig.TUMOR;
+import static com.hartwig.hmftools.common.utils.config.CommonConfig.TUMOR_BAM;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.io.Resources;
+import com.hartwig.hmftools.amber.contamination.TumorContamination;
+import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays;
+import com.hartwig.hmftools.common.amber.AmberSitesFile;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+
+import org.junit.Test;
+
+import htsjdk.samtools.SamReaderFactory;
+
+public class TumorAnalysisTest
+{
+    private static final String SITES_FILE = Resources.getResource("e2e/TwoChromosomes.tsv").getPath();
+    private static final String TUMOR_BAM_FILE = Resources.getResource("e2e/TwoChromosomes.tumor.bam").getPath();
+
+    @Test
+    public void testDeferredFilteringMatchesSequential() throws Exception
+    {
+        AmberConfig config = createConfig();
+        SamReaderFactory readerFactory = SamReaderFactory.make();
+
+        ListMultimap<Chromosome,AmberSite> chrSites = AmberSitesFile.loadFile(SITES_FILE);
+
+        // assign sites alternately to the germline heterozygous and homozygous loci
+        ListMultimap<Chromosome,PositionEvidence> germlineHetLoci = ArrayListMultimap.create();
+        ListMultimap<Chromosome,PositionEvidence> germlineHomLoci = ArrayListMultimap.create();
+
+        int siteIndex = 0;
+        for(Map.Entry<Chromosome,AmberSite> entry : chrSites.entries())
+        {
+            PositionEvidence normal = fromAmberSite(entry.getValue());
+            normal.ReadDepth = CONTAMINATON_MIN_NORMAL_READ_DEPTH + 20;
+            normal.RefSupport = CONTAMINATON_MIN_NORMAL_READ_DEPTH + 10;
+            normal.AltSupport = siteIndex % 2 == 0 ? 10 : 0;
+
+            if(siteIndex++ % 2 == 0)
+                germlineHetLoci.put(entry.getKey(), normal);
+            else
+                germlineHomLoci.put(entry.getKey(), normal);
+        }
+
+        TumorAnalysis sequential = new TumorAnalysis(config, readerFactory, germlineHetLoci, germlineHomLoci);
+
+        Map<PositionEvidence,PositionEvidence> tumorSiteEvidence = TumorAnalysis.collectSiteEvidence(
+                config, readerFactory, AmberSiteArrays.fromSites(chrSites), 2);
+        assertEquals(chrSites.size(), tumorSiteEvidence.size());
+
+        TumorAnalysis deferred = new TumorAnalysis(config, tumorSiteEvidence, germlineHetLoci, germlineHomLoci);
+
+        assertFalse(sequential.chrBafMap().isEmpty());
+        assertEquals(sequential.chrBafMap().keySet(), deferred.chrBafMap().keySet());
+
+        for(Chromosome chromosome : sequential.chrBafMap().keySet())
+        {
+            List<TumorBAF> expectedBafs = sequential.chrBafMap().get(chromosome);
+            List<TumorBAF> actualBafs = deferred.chrBafMap().get(chromosome);
+            assertEquals(expectedBafs.size(), actualBafs.size());
+
+            for(int i = 0; i < expectedBafs.size(); ++i)
+            {
+                TumorBAF expected = expectedBafs.get(i);
+                TumorBAF actual = actualBafs.get(i);
+                assertEquals(expected.TumorEvidence, actual.TumorEvidence);
+                assertEquals(expected.TumorEvidence.toBaseDepthData(), actual.TumorEvidence.toBaseDepthData());
+                assertEquals(expected.NormalReadDepth, actual.NormalReadDepth);
+                assertEquals(expected.NormalRefSupport, actual.NormalRefSupport);
+                assertEquals(expected.NormalAltSupport, actual.NormalAltSupport);
+            }
+        }
+
+        assertTrue(sequential.chrBafMap().values().stream().anyMatch(x -> x.TumorEvidence.ReadDepth > 0));
+
+        assertFalse(sequential.contaminationSites().isEmpty());
+        assertEquals(sequential.contaminationSites().size(), deferred.contaminationSites().size());
+
+        for(TumorContamination expected : sequential.contaminationSites())
+        {
+            TumorContamination actual = deferred.contaminationSites().stream()
+                    .filter(x -> x.Chromosome.equals(expected.Chromosome) && x.Position == expected.Position)
+                    .findFirst().orElseThrow();
+
+            assertEquals(expected.Normal, actual.Normal);
+            assertEquals(expected.Tumor, actual.Tumor);
+        }
+    }
+
+    private static AmberConfig createConfig()
+    {
+        ConfigBuilder configBuilder = new ConfigBuilder("Amber");
+        AmberConfig.registerConfig(configBuilder);
+
+        String[] args = {
+                "-" + TUMOR, "TwoChromosomes_tumor",
+                "-" + TUMOR_BAM, TUMOR_BAM_FILE,
+                "-" + LOCI_FILE, SITES_FILE,
+                "-" + REF_GENOME_VERSION, "38" };
+
+        assertTrue(configBuilder.parseCommandLine(args));
+
+        return new AmberConfig(configBuilder);
+    }
+}
@@ -13,6 +13,7 @@ import com.google.common.base.Stopwatch;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays;
 import com.hartwig.hmftools.common.amber.AmberSitesFile;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
@@ -39,8 +40,8 @@ public class DefaultGnomadFrequencySupplierTest
         addSite(_1, 80_000, 0.043);
         addSite(_2, 2_000, 0.02);
         addSite(_3, 3_000, 0.24);
-        DefaultGnomadFrequencySupplier supplier = new DefaultGnomadFrequencySupplier(sites, V38);
-        Assert.assertEquals(0.01, supplier.getFrequency(V38.versionedChromosome(_1), 1000), 0.00001);
+        DefaultGnomadFrequencySupplier supplier = new DefaultGnomadFrequencySupplier(AmberSiteArrays.fromSites(sites), V38);
+        Assert.assertEquals(0.01, supplier.getFrequency(V38.versionedChromosome(_1), 1000), 0);
         Assert.assertEquals(0.02, supplier.getFrequency(V38.versionedChromosome(_1), 2000), 0.00001);
         Assert.assertEquals(0.03, supplier.getFrequency(V38.versionedChromosome(_1), 3000), 0.00001);
         Assert.assertEquals(0.042, supplier.getFrequency(V38.versionedChromosome(_1), 50_000), 0.00001);
@@ -52,7 +53,7 @@ public class DefaultGnomadFrequencySupplierTest
     @Test
     public void throwExceptionForUnknownPositionTest()
     {
-        DefaultGnomadFrequencySupplier supplier = new DefaultGnomadFrequencySupplier(sites, V38);
+        DefaultGnomadFrequencySupplier supplier = new DefaultGnomadFrequencySupplier(AmberSiteArrays.fromSites(sites), V38);
         Assert.assertThrows(IllegalArgumentException.class, () -> supplier.getFrequency(V38.versionedChromosome(_1), 1000));
     }
 
@@ -61,14 +62,14 @@ public class DefaultGnomadFrequencySupplierTest
     {
         addSite(_1, 1_000, 0.01);
         addSite(_1, 3_000, 0.03);
-        DefaultGnomadFrequencySupplier supplier = new DefaultGnomadFrequencySupplier(sites, V38);
+        DefaultGnomadFrequencySupplier supplier = new DefaultGnomadFrequencySupplier(AmberSiteArrays.fromSites(sites), V38);
         Assert.assertThrows(IllegalArgumentException.class, () -> supplier.getFrequency(V38.versionedChromosome(_1), 2_000));
     }
 
     @Test
     public void throwExceptionForUnknownChromosomeTest()
     {
-        DefaultGnomadFrequencySupplier supplier = new DefaultGnomadFrequencySupplier(sites, V38);
+        DefaultGnomadFrequencySupplier supplier = new DefaultGnomadFrequencySupplier(AmberSiteArrays.fromSites(sites), V38);
         Assert.assertThrows(IllegalArgumentException.class, () -> supplier.getFrequency(V38.versionedChromosome(_Y), 1000));
     }
 
@@ -79,7 +80,7 @@ public class DefaultGnomadFrequencySupplierTest
         long before = getMemoryUsageEstimate();
 
         Stopwatch creationTimer = Stopwatch.createStarted();
-        GnomadFrequencySupplier supplier = new DefaultGnomadFrequencySupplier(sites, V38);
+        GnomadFrequencySupplier supplier = new DefaultGnomadFrequencySupplier(AmberSiteArrays.fromSites(sites), V38);
         creationTimer.stop();
         System.out.println("creation time: " + creationTimer.elapsed(TimeUnit.MILLISECONDS));
 
@@ -22,6 +22,7 @@ import com.google.common.collect.ListMultimap;
 import com.hartwig.hmftools.amber.AmberConstants;
 import com.hartwig.hmftools.amber.PositionEvidence;
 import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteArrays;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.segmentation.Arm;
@@ -172,7 +173,7 @@ public class TumorOnlyPurityAnalysisTest extends PurityTestBase
             sites.putAll(chromosome, SitesByChromosome.get(chromosome));
         }
         PurityAnalysisConfig config = new PurityAnalysisConfig(TUMOR_ID, V38, OutputDir.getAbsolutePath(), 8);
-        Analysis = new TumorOnlyPurityAnalysis(evidence, sites, config);
+        Analysis = new TumorOnlyPurityAnalysis(evidence, AmberSiteArrays.fromSites(sites), config);
     }
 
     private int startPosition(ChrArm chrArm)
@@ -1,13 +1,14 @@
 package com.hartwig.hmftools.bamtools.metrics;
 
-import static com.hartwig.hmftools.common.region.BaseRegion.positionWithin;
-import static com.hartwig.hmftools.common.region.BaseRegion.positionsOverlap;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
 import static com.hartwig.hmftools.common.sv.StartEndIterator.SE_END;
 import static com.hartwig.hmftools.common.sv.StartEndIterator.SE_START;
 
-import static htsjdk.samtools.CigarOperator.M;
-
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
@@ -16,16 +17,21 @@ import com.hartwig.hmftools.common.region.BaseRegion;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 
 import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.CigarOperator;
 import htsjdk.samtools.SAMRecord;
 
+// accumulates depth as a difference array, adding each run of counted bases at its boundaries, and only resolves per-base depth
+// when the metrics are formed, at which point bases above the max coverage are reclassified
 public class BaseCoverage
 {
     private final MetricsConfig mConfig;
     private final int mRegionSize;
     private int mRegionStart;
-    private final List<ChrBaseRegion> mUnmappableRegions;
+    private final int mRegionEnd;
+    private final List<int[]> mUnmappableRegions; // start and end positions
 
-    private final int[] mBaseDepth;
+    private final int[] mDepthChanges; // depth change at each base, with a trailing entry for reads ending at the region end
+    private final int[] mBaseDepth; // resolved from the depth changes
     private final long[] mFilterTypeCounts;
 
     public BaseCoverage(final MetricsConfig config, int regionStart, int regionEnd, final List<ChrBaseRegion> unmappableRegions)
@@ -33,15 +39,24 @@ public class BaseCoverage
         mConfig = config;
         mRegionSize = regionEnd - regionStart + 1;
         mRegionStart = regionStart;
+        mRegionEnd = regionEnd;
+        mDepthChanges = new int[mRegionSize + 1];
         mBaseDepth = new int[mRegionSize];
         mFilterTypeCounts = new long[FilterType.values().length];
-        mUnmappableRegions = unmappableRegions;
+
+        mUnmappableRegions = unmappableRegions.stream().map(x -> new int[] { x.start(), x.end() }).collect(Collectors.toList());
     }
 
     public void processRead(final SAMRecord read, final List<int[]> mateBaseCoords, boolean isConsensusRead)
     {
         // some filters exclude all matched bases
-        int alignedBases = read.getCigar().getCigarElements().stream().filter(x -> x.getOperator() == M).mapToInt(x -> x.getLength()).sum();
+        int alignedBases = 0;
+
+        for(CigarElement element : read.getCigar().getCigarElements())
+        {
+            if(element.getOperator() == CigarOperator.M)
+                alignedBases += element.getLength();
+        }
 
         // the order in which the filters are applied matters and matches Picard CollectWgsMetrics
         if(read.getMappingQuality() < mConfig.MapQualityThreshold)
@@ -94,7 +109,7 @@ public class BaseCoverage
                     break;
 
                 case M:
-                    processMatchedBases(read, position, readIndex, element.getLength(), mateBaseCoords);
+                    processMatchedBases(read.getBaseQualities(), position, readIndex, element.getLength(), mateBaseCoords);
 
                     position += element.getLength();
                     readIndex += element.getLength();
@@ -107,109 +122,203 @@ public class BaseCoverage
     }
 
     private void processMatchedBases(
-            final SAMRecord read, int posStart, int readIndexStart, int matchLength, final List<int[]> mateBaseCoords)
+            final byte[] baseQualities, int posStart, int readIndexStart, int matchLength, @Nullable final List<int[]> mateBaseCoords)
     {
-        boolean checkUnmappable = !mUnmappableRegions.isEmpty()
-                && mUnmappableRegions.stream().anyMatch(x -> positionsOverlap(x.start(), x.end(), posStart, read.getAlignmentEnd()));
+        // split the aligned block into runs which are unmappable, overlapped by the mate, or to be counted
+        int position = max(posStart, mRegionStart);
+        int posEnd = min(posStart + matchLength - 1, mRegionEnd);
 
-        for(int i = 0; i < matchLength; ++i)
+        while(position <= posEnd)
         {
-            int position = posStart + i;
+            int unmappableEnd = coveringEnd(mUnmappableRegions, position);
 
-            if(position < mRegionStart)
+            if(unmappableEnd >= position)
+            {
+                // unmappable bases are not counted at all
+                position = unmappableEnd + 1;
                 continue;
+            }
 
-            if(position >= mRegionStart + mRegionSize)
-                break;
-
-            if(checkUnmappable && mUnmappableRegions.stream().anyMatch(x -> x.containsPosition(position)))
-                continue;
+            int runEnd = min(posEnd, nextStart(mUnmappableRegions, position) - 1);
 
-            int readIndex = readIndexStart + i;
-            int baseIndex = position - mRegionStart;
+            if(mateBaseCoords != null)
+            {
+                int overlapEnd = coveringEnd(mateBaseCoords, position);
+
+                if(overlapEnd >= position)
+                {
+                    // overlapping fragments count once towards unfiltered and a second time towards overlap counts
+                    runEnd = min(runEnd, overlapEnd);
+                    mFilterTypeCounts[FilterType.OVERLAPPED.ordinal()] += runEnd - position + 1;
+                    position = runEnd + 1;
+                    continue;
+                }
 
-            boolean lowBaseQual = read.getBaseQualities()[readIndex] < mConfig.BaseQualityThreshold;
+                runEnd = min(runEnd, nextStart(mateBaseCoords, position) - 1);
+            }
 
-            boolean overlapped = mateBaseCoords != null && mateBaseCoords.stream().anyMatch(x -> positionWithin(position, x[SE_START], x[SE_END]));
+            addQualifiedBases(baseQualities, position, runEnd, readIndexStart + position - posStart);
+            position = runEnd + 1;
+        }
+    }
 
-            boolean exceedsCoverage = mBaseDepth[baseIndex] >= mConfig.MaxCoverage;
+    private void addQualifiedBases(final byte[] baseQualities, int posStart, int posEnd, int readIndexStart)
+    {
+        int readIndex = readIndexStart;
+        int qualifiedStart = -1;
 
-            if(!lowBaseQual && !exceedsCoverage && !overlapped)
+        for(int position = posStart; position <= posEnd; ++position, ++readIndex)
+        {
+            if(baseQualities[readIndex] < mConfig.BaseQualityThreshold)
             {
-                ++mBaseDepth[baseIndex];
+                if(qualifiedStart >= 0)
+                {
+                    addDepth(qualifiedStart, position - 1);
+                    qualifiedStart = -1;
+                }
 
-                // overlapping fragments count once towards unfiltered and a second time towards overlap counts
-                ++mFilterTypeCounts[FilterType.UNFILTERED.ordinal()];
+                ++mFilterTypeCounts[FilterType.LOW_BASE_QUAL.ordinal()];
             }
-            else
+            else if(qualifiedStart < 0)
             {
-                if(overlapped)
-                    ++mFilterTypeCounts[FilterType.OVERLAPPED.ordinal()];
-                else if(lowBaseQual)
-                    ++mFilterTypeCounts[FilterType.LOW_BASE_QUAL.ordinal()];
-                else if(exceedsCoverage)
-                    ++mFilterTypeCounts[FilterType.MAX_COVERAGE.ordinal()];
+                qualifiedStart = position;
             }
         }
+
+        if(qualifiedStart >= 0)
+            addDepth(qualifiedStart, posEnd);
+    }
+
+    private void addDepth(int posStart, int posEnd)
+    {
+        ++mDepthChanges[posStart - mRegionStart];
+        --mDepthChanges[posEnd - mRegionStart + 1];
+
+        // bases over the max coverage are moved from unfiltered once depth is resolved
+        mFilterTypeCounts[FilterType.UNFILTERED.ordinal()] += posEnd - posStart + 1;
+    }
+
+    // returns the number of bases exceeding max coverage
+    private long resolveDepth()
+    {
+        int maxCoverage = mConfig.MaxCoverage;
+        int depth = 0;
+        long excessBases = 0;
+
+        for(int i = 0; i < mRegionSize; ++i)
+        {
+            depth += mDepthChanges[i];
+            int cappedDepth = min(depth, maxCoverage);
+            excessBases += depth - cappedDepth;
+            mBaseDepth[i] = cappedDepth;
+        }
+
+        return excessBases;
     }
 
     public CoverageMetrics createMetrics(@Nullable final List<BaseRegion> targetRegions)
     {
         CoverageMetrics metrics = new CoverageMetrics(mConfig.MaxCoverage);
 
-        long coverageBases = 0;
-        long zeroCoverageBases = 0;
+        long excessBases = resolveDepth();
 
-        for(int i = 0; i < mBaseDepth.length; ++i)
-        {
-            int position = mRegionStart + i;
+        List<int[]> targetCoords = targetRegions != null
+                ? targetRegions.stream().map(x -> new int[] { x.start(), x.end() }).collect(Collectors.toList()) : null;
 
-            if(targetRegions != null && targetRegions.stream().noneMatch(x -> x.containsPosition(position)))
-                continue;
+        long[] coverageFrequency = metrics.CoverageFrequency;
+        int position = mRegionStart;
+
+        while(position <= mRegionEnd)
+        {
+            int unmappableEnd = coveringEnd(mUnmappableRegions, position);
 
-            if(!mUnmappableRegions.isEmpty() && mUnmappableRegions.stream().anyMatch(x -> x.containsPosition(position)))
+            if(unmappableEnd >= position)
+            {
+                position = unmappableEnd + 1;
                 continue;
+            }
 
-            int coverage = mBaseDepth[i];
+            int runEnd = min(mRegionEnd, nextStart(mUnmappableRegions, position) - 1);
 
-            if(coverage == 0)
+            if(targetCoords != null)
             {
-                ++zeroCoverageBases;
+                int targetEnd = coveringEnd(targetCoords, position);
 
-                if(mConfig.ExcludeZeroCoverage)
+                if(targetEnd < position)
+                {
+                    position = nextStart(targetCoords, position);
                     continue;
+                }
+
+                runEnd = min(runEnd, targetEnd);
             }
-            else
+
+            for(int i = position - mRegionStart; i <= runEnd - mRegionStart; ++i)
             {
-                ++coverageBases;
+                ++coverageFrequency[mBaseDepth[i]];
             }
 
-            ++metrics.CoverageFrequency[coverage];
+            position = runEnd + 1;
         }
 
+        long zeroCoverageBases = coverageFrequency[0];
+        long coverageBases = Arrays.stream(coverageFrequency).sum() - zeroCoverageBases;
+
+        if(mConfig.ExcludeZeroCoverage)
+            coverageFrequency[0] = 0;
+
         for(FilterType type : FilterType.values())
         {
             metrics.FilterTypeCounts[type.ordinal()] += mFilterTypeCounts[type.ordinal()];
         }
 
+        metrics.FilterTypeCounts[FilterType.UNFILTERED.ordinal()] -= excessBases;
+        metrics.FilterTypeCounts[FilterType.MAX_COVERAGE.ordinal()] += excessBases;
+
         metrics.addCoverageBases(coverageBases, zeroCoverageBases);
 
         return metrics;
     }
 
-    public void clear()
+    // returns the furthest end of the intervals containing the position, or -1 if none do
+    private static int coveringEnd(final List<int[]> intervals, int position)
     {
-        for(int i = 0; i < mBaseDepth.length; ++i)
+        int end = -1;
+
+        for(int[] interval : intervals)
         {
-            mBaseDepth[i] = 0;
+            if(interval[SE_START] <= position && interval[SE_END] >= position)
+                end = max(end, interval[SE_END]);
         }
 
-        for(int i = 0; i < mFilterTypeCounts.length; ++i)
+        return end;
+    }
+
+    // returns the nearest start of the intervals beginning after the position
+    private static int nextStart(final List<int[]> intervals, int position)
+    {
+        int start = Integer.MAX_VALUE;
+
+        for(int[] interval : intervals)
         {
-            mFilterTypeCounts[i] = 0;
+            if(interval[SE_START] > position)
+                start = min(start, interval[SE_START]);
         }
+
+        return start;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(mDepthChanges, 0);
+        Arrays.fill(mBaseDepth, 0);
+        Arrays.fill(mFilterTypeCounts, 0);
     }
 
     @VisibleForTesting
-    public int[] baseDepth() { return mBaseDepth; }
+    public int[] baseDepth()
+    {
+        resolveDepth();
+        return mBaseDepth;
+    }
 }
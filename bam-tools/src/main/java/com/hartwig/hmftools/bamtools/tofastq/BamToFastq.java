@@ -62,7 +62,11 @@ public class BamToFastq
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("thread-%0" + numDigits + "d").build();
         ExecutorService executorService = Executors.newFixedThreadPool(mConfig.Threads, namedThreadFactory);
 
-        final ThreadData threadData = new ThreadData(mConfig, remoteReadHandler);
+        // all fastq files share one pool for block compression, kept separate from the reader threads
+        ExecutorService compressionService = Executors.newFixedThreadPool(
+                mConfig.CompressionThreads, new ThreadFactoryBuilder().setNameFormat("compress-%d").setDaemon(true).build());
+
+        final ThreadData threadData = new ThreadData(mConfig, remoteReadHandler, compressionService);
 
         BT_LOGGER.debug("splitting {} partitions across {} threads", partitions.size(), mConfig.Threads);
 
@@ -87,6 +91,7 @@ public class BamToFastq
 
         threadData.closePartitionReaders();
         threadData.closeFastqWriters();
+        compressionService.shutdown();
 
         // might need to combine the fastq files of all the threads
         mergeThreadFastqFiles(threadData.getAllThreadFastqWriterCaches(), executorService);
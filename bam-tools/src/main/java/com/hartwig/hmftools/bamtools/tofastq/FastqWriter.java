@@ -7,11 +7,13 @@ import static com.hartwig.hmftools.bamtools.tofastq.ToFastqUtils.UNPAIRED;
 import static com.hartwig.hmftools.bamtools.tofastq.ToFastqUtils.formFilename;
 import static com.hartwig.hmftools.common.bam.SamRecordUtils.readToString;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.closeBufferedWriter;
-import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBufferedWriter;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
 
 import com.hartwig.hmftools.common.codon.Nucleotides;
 
@@ -31,14 +33,21 @@ public class FastqWriter
 
     @Nullable private BufferedWriter mWriterUnpaired;
 
+    @Nullable private final ExecutorService mCompressionService;
+
+    // bounds the memory held by each file's blocks awaiting compression
+    private static final int MAX_PENDING_BLOCKS = 8;
+
     public String getFastqR1() { return mFastqR1; }
     public String getFastqR2() { return mFastqR2; }
 
     @Nullable
     public String getFastqUnpaired() { return mFastqUnpaired; }
 
-    public FastqWriter(final String filePrefix)
+    public FastqWriter(final String filePrefix, @Nullable final ExecutorService compressionService)
     {
+        mCompressionService = compressionService;
+
         mFastqR1 = formFilename(filePrefix, R1);
         mWriterR1 = initialise(mFastqR1);
 
@@ -52,7 +61,8 @@ public class FastqWriter
     {
         try
         {
-            return createBufferedWriter(filename);
+            ParallelBgzfOutputStream outputStream = new ParallelBgzfOutputStream(filename, mCompressionService, MAX_PENDING_BLOCKS);
+            return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
         }
         catch(IOException e)
         {
@@ -0,0 +1,225 @@
+package com.hartwig.hmftools.bamtools.tofastq;
+
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.BGZF_ID1;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.BGZF_ID2;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.BGZF_LEN;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.BLOCK_FOOTER_LENGTH;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.DEFAULT_UNCOMPRESSED_BLOCK_SIZE;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.EMPTY_GZIP_BLOCK;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.GZIP_CM_DEFLATE;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.GZIP_FLG;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.GZIP_ID1;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.GZIP_ID2;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.GZIP_OS_UNKNOWN;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.GZIP_XFL;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.GZIP_XLEN;
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.MAX_COMPRESSED_BLOCK_SIZE;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.jetbrains.annotations.Nullable;
+
+// writes BGZF, which is valid multi-member gzip, with each block compressed on a shared worker pool and written out in order
+// the number of blocks in flight per stream is bounded, so a writer waits for its oldest block rather than buffering without limit
+public class ParallelBgzfOutputStream extends OutputStream
+{
+    private final OutputStream mOutputStream;
+    @Nullable private final ExecutorService mCompressionService;
+    private final int mMaxPendingBlocks;
+
+    private final ArrayDeque<Future<byte[]>> mPendingBlocks;
+    private byte[] mBuffer;
+    private int mBufferLength;
+    private boolean mClosed;
+
+    private static final int OUTPUT_BUFFER_SIZE = 256 * 1024;
+
+    // deflaters are reused by each compression thread
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private static final ThreadLocal<Deflater> NO_COMPRESSION_DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.NO_COMPRESSION, true));
+
+    public ParallelBgzfOutputStream(final String filename, @Nullable final ExecutorService compressionService, int maxPendingBlocks)
+            throws IOException
+    {
+        mOutputStream = new BufferedOutputStream(new FileOutputStream(filename), OUTPUT_BUFFER_SIZE);
+        mCompressionService = compressionService;
+        mMaxPendingBlocks = Math.max(maxPendingBlocks, 1);
+        mPendingBlocks = new ArrayDeque<>();
+        mBuffer = new byte[DEFAULT_UNCOMPRESSED_BLOCK_SIZE];
+        mBufferLength = 0;
+        mClosed = false;
+    }
+
+    @Override
+    public void write(int b) throws IOException
+    {
+        if(mBufferLength == mBuffer.length)
+            submitBlock();
+
+        mBuffer[mBufferLength++] = (byte)b;
+    }
+
+    @Override
+    public void write(final byte[] bytes, int offset, int length) throws IOException
+    {
+        while(length > 0)
+        {
+            if(mBufferLength == mBuffer.length)
+                submitBlock();
+
+            int copyLength = Math.min(length, mBuffer.length - mBufferLength);
+            System.arraycopy(bytes, offset, mBuffer, mBufferLength, copyLength);
+            mBufferLength += copyLength;
+            offset += copyLength;
+            length -= copyLength;
+        }
+    }
+
+    private void submitBlock() throws IOException
+    {
+        if(mBufferLength == 0)
+            return;
+
+        if(mCompressionService == null)
+        {
+            mOutputStream.write(compressBlock(mBuffer, mBufferLength));
+            mBufferLength = 0;
+            return;
+        }
+
+        while(mPendingBlocks.size() >= mMaxPendingBlocks)
+        {
+            writeNextBlock();
+        }
+
+        // hand the filled buffer to the compression task and start a new one
+        final byte[] block = mBuffer;
+        final int blockLength = mBufferLength;
+        mPendingBlocks.add(mCompressionService.submit(() -> compressBlock(block, blockLength)));
+
+        mBuffer = new byte[DEFAULT_UNCOMPRESSED_BLOCK_SIZE];
+        mBufferLength = 0;
+    }
+
+    private void writeNextBlock() throws IOException
+    {
+        try
+        {
+            mOutputStream.write(mPendingBlocks.poll().get());
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        catch(ExecutionException e)
+        {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        submitBlock();
+
+        while(!mPendingBlocks.isEmpty())
+        {
+            writeNextBlock();
+        }
+
+        mOutputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if(mClosed)
+            return;
+
+        mClosed = true;
+
+        flush();
+        mOutputStream.write(EMPTY_GZIP_BLOCK);
+        mOutputStream.close();
+    }
+
+    static byte[] compressBlock(final byte[] data, int length)
+    {
+        byte[] compressed = new byte[MAX_COMPRESSED_BLOCK_SIZE];
+        int maxDeflatedLength = MAX_COMPRESSED_BLOCK_SIZE - BLOCK_HEADER_LENGTH - BLOCK_FOOTER_LENGTH;
+
+        int deflatedLength = deflate(DEFLATER.get(), data, length, compressed, maxDeflatedLength);
+
+        if(deflatedLength < 0)
+        {
+            // incompressible data can expand beyond the block limit, so store it uncompressed instead
+            deflatedLength = deflate(NO_COMPRESSION_DEFLATER.get(), data, length, compressed, maxDeflatedLength);
+
+            if(deflatedLength < 0)
+                throw new IllegalStateException("BGZF block exceeds maximum size");
+        }
+
+        int blockLength = BLOCK_HEADER_LENGTH + deflatedLength + BLOCK_FOOTER_LENGTH;
+
+        // gzip header with the BGZF extra field holding the total block size minus one
+        compressed[0] = (byte)GZIP_ID1;
+        compressed[1] = (byte)GZIP_ID2;
+        compressed[2] = GZIP_CM_DEFLATE;
+        compressed[3] = GZIP_FLG;
+        compressed[4] = 0; // modification time
+        compressed[5] = 0;
+        compressed[6] = 0;
+        compressed[7] = 0;
+        compressed[8] = GZIP_XFL;
+        compressed[9] = (byte)GZIP_OS_UNKNOWN;
+        writeShort(compressed, 10, GZIP_XLEN);
+        compressed[12] = BGZF_ID1;
+        compressed[13] = BGZF_ID2;
+        writeShort(compressed, 14, BGZF_LEN);
+        writeShort(compressed, 16, blockLength - 1);
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+
+        int footerStart = BLOCK_HEADER_LENGTH + deflatedLength;
+        writeInt(compressed, footerStart, (int)crc.getValue());
+        writeInt(compressed, footerStart + 4, length);
+
+        return Arrays.copyOf(compressed, blockLength);
+    }
+
+    private static int deflate(final Deflater deflater, final byte[] data, int length, final byte[] output, int maxLength)
+    {
+        deflater.reset();
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+
+        int deflatedLength = deflater.deflate(output, BLOCK_HEADER_LENGTH, maxLength);
+
+        return deflater.finished() ? deflatedLength : -1;
+    }
+
+    private static void writeShort(final byte[] bytes, int offset, int value)
+    {
+        bytes[offset] = (byte)(value & 0xFF);
+        bytes[offset + 1] = (byte)((value >> 8) & 0xFF);
+    }
+
+    private static void writeInt(final byte[] bytes, int offset, int value)
+    {
+        writeShort(bytes, offset, value & 0xFFFF);
+        writeShort(bytes, offset + 2, (value >> 16) & 0xFFFF);
+    }
+}
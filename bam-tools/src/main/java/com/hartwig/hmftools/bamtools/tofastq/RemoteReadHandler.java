@@ -3,21 +3,16 @@ package com.hartwig.hmftools.bamtools.tofastq;
 import static com.hartwig.hmftools.bamtools.common.CommonUtils.BT_LOGGER;
 import static com.hartwig.hmftools.common.bam.SamRecordUtils.CONSENSUS_READ_ATTRIBUTE;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
-import com.hartwig.hmftools.bamtools.common.HashBamWriter;
-
 import org.apache.logging.log4j.Level;
 
 import htsjdk.samtools.CigarOperator;
@@ -25,16 +20,18 @@ import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SAMRecordIterator;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
 
 public class RemoteReadHandler
 {
     private static final int UNMAPPED_READ_CHUNK_SIZE = 100_000;
-    private static final int NUM_HASH_BAMS = 256;
+    private static final int NUM_BUCKETS = 256;
+
+    // per-thread buffer of encoded reads which is sorted and written out as a run once full
+    private static final long RUN_BUFFER_SIZE = 64L * 1024 * 1024;
 
     private final ToFastqConfig mConfig;
 
-    private final HashBamWriter mHashBamWriter;
+    private final SortedReadRuns mSortedReadRuns;
 
     private final AtomicLong mRemoteReadCount = new AtomicLong();
 
@@ -52,108 +49,106 @@ public class RemoteReadHandler
             throw new UncheckedIOException(e);
         }
 
-        String tempDirPrefix = Paths.get(mConfig.BamFile).getFileName().toString().replace('.', '_') + "_hashbams_";
-        mHashBamWriter = new HashBamWriter(samHeader, tempDirPrefix, NUM_HASH_BAMS);
+        String tempDirPrefix = Paths.get(mConfig.BamFile).getFileName().toString().replace('.', '_') + "_readruns_";
+        mSortedReadRuns = new SortedReadRuns(samHeader, tempDirPrefix, NUM_BUCKETS, RUN_BUFFER_SIZE);
     }
 
     public void cacheRemoteRead(SAMRecord read)
     {
-        mHashBamWriter.writeToHashBam(read);
+        // reads which will not be written are dropped before being spilled
+        if(ToFastqUtils.canIgnoreRead(read))
+            return;
+
+        if(read.getCigar().containsOperator(CigarOperator.HARD_CLIP))
+            return;
+
+        mSortedReadRuns.addRead(read);
     }
 
     public void writeRemoteReadsToFastq(ExecutorService executorService, final ThreadData threadData)
             throws ExecutionException, InterruptedException
     {
-        // must close and finalise all hashbam writers
-        mHashBamWriter.close();
+        // write out the reads still held in memory as final runs
+        mSortedReadRuns.finishRuns();
+
+        BT_LOGGER.debug("merging {} sorted read runs across {} buckets", mSortedReadRuns.numRuns(), mSortedReadRuns.numBuckets());
 
         final List<CompletableFuture<Void>> futures = new ArrayList<>();
 
-        // use multiple threads to process the hash bams
-        for(File hashBam : mHashBamWriter.getHashBams().values())
+        // use multiple threads to merge the buckets
+        for(int i = 0; i < mSortedReadRuns.numBuckets(); ++i)
         {
-            futures.add(CompletableFuture.runAsync(() -> processHashBam(threadData, hashBam), executorService));
+            final int bucketIndex = i;
+            futures.add(CompletableFuture.runAsync(() -> processBucket(threadData, bucketIndex), executorService));
         }
 
         // wait for completion
         CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
 
+        mSortedReadRuns.deleteRunFiles();
+
         BT_LOGGER.printf(Level.INFO, "processed %,d total remote reads", mRemoteReadCount.get());
     }
 
-    private void processHashBam(final ThreadData threadData, final File hashBam)
+    private void processBucket(final ThreadData threadData, int bucketIndex)
     {
         FastqWriterCache fastqWriterCache = threadData.getFastqWriterCache();
 
-        int numReads = 0;
-
-        Map<String,SAMRecord> unmatchedReads = new HashMap<>();
+        int[] readCounts = new int[2]; // reads and those left unpaired
 
-        try(SamReader samReader = SamReaderFactory.makeDefault().open(hashBam))
-        {
-            try(final SAMRecordIterator iterator = samReader.iterator())
-            {
-                while(iterator.hasNext())
+        // mates arrive together since each bucket is merged in read name order
+        mSortedReadRuns.mergeBucket(bucketIndex,
+                (first, second) ->
                 {
-                    processSamRecord(iterator.next(), unmatchedReads, fastqWriterCache);
-                    ++numReads;
-                }
-            }
-        }
-        catch(IOException e)
-        {
-            throw new UncheckedIOException(e);
-        }
-
-        // now process all remaining reads that are not paired. Log error if they are paired but mate cannot be found
-        if(!unmatchedReads.isEmpty())
-        {
-            BT_LOGGER.info("writing {} unmapped & unpaired reads", unmatchedReads.size());
-            for(SAMRecord read : unmatchedReads.values())
-            {
-                if(read.getReadPairedFlag())
+                    readCounts[0] += 2;
+                    writeReadPair(first, second, fastqWriterCache);
+                },
+                read ->
                 {
-                    BT_LOGGER.error("mate not found for paired read: {}", read);
-                }
-                fastqWriterCache.writeUnpairedRead(read);
-            }
-        }
+                    ++readCounts[0];
 
-        BT_LOGGER.debug("processed {} remote reads in {}}", numReads, hashBam.getName());
-    }
+                    if(read.getReadPairedFlag())
+                    {
+                        mRemoteReadCount.incrementAndGet();
+                        ++readCounts[1];
+                        BT_LOGGER.error("mate not found for paired read: {}", read);
+                    }
 
-    private void processSamRecord(final SAMRecord read, Map<String,SAMRecord> unmatchedReads, FastqWriterCache fastqWriterCache)
-    {
-        if(ToFastqUtils.canIgnoreRead(read))
-            return;
+                    fastqWriterCache.writeUnpairedRead(read);
+                });
 
-        // check for hard clip
-        if(read.getCigar().containsOperator(CigarOperator.HARD_CLIP))
-            return;
+        if(readCounts[1] > 0)
+            BT_LOGGER.info("wrote {} unpaired remote reads in bucket({})", readCounts[1], bucketIndex);
 
-        if(!read.getReadPairedFlag())
+        BT_LOGGER.debug("processed {} remote reads in bucket({})", readCounts[0], bucketIndex);
+    }
+
+    private void writeReadPair(final SAMRecord first, final SAMRecord second, final FastqWriterCache fastqWriterCache)
+    {
+        if(first.getReadPairedFlag() && second.getReadPairedFlag())
         {
-            fastqWriterCache.writeUnpairedRead(read);
+            mRemoteReadCount.addAndGet(2);
+            fastqWriterCache.writeReadPair(first, second);
             return;
         }
 
-        mRemoteReadCount.incrementAndGet();
-        SAMRecord mate = unmatchedReads.remove(read.getReadName());
-
-        if(mate != null)
+        // reads with a shared name but not flagged as paired are written individually, as before
+        for(SAMRecord read : new SAMRecord[] { first, second })
         {
-            fastqWriterCache.writeReadPair(read, mate);
-            return;
-        }
+            if(read.getReadPairedFlag())
+            {
+                mRemoteReadCount.incrementAndGet();
+                BT_LOGGER.error("mate not found for paired read: {}", read);
+            }
 
-        unmatchedReads.put(read.getReadName(), read);
+            fastqWriterCache.writeUnpairedRead(read);
+        }
     }
 
-    // Write all the unmapped reads into the hash bams
+    // Write all the unmapped reads into the sorted read runs
     public void cacheAllUnmappedReads(int numTasks, int taskId)
     {
-        BT_LOGGER.debug("start writing unmapped reads to {} hash bams (task {} of {})",
-                mHashBamWriter.numHashBams(), taskId, numTasks);
+        BT_LOGGER.debug("start writing unmapped reads to sorted read runs (task {} of {})", taskId, numTasks);
 
         try(SamReader samReader = ToFastqUtils.openSamReader(mConfig))
         {
@@ -175,7 +170,7 @@ public class RemoteReadHandler
 
                     if(!read.isSecondaryOrSupplementary() && !read.hasAttribute(CONSENSUS_READ_ATTRIBUTE))
                     {
-                        mHashBamWriter.writeToHashBam(read);
+                        cacheRemoteRead(read);
                     }
                 }
             }
@@ -185,8 +180,8 @@ public class RemoteReadHandler
                 BT_LOGGER.warn("unable to convert record: {}", e.toString());
             }
 
-            BT_LOGGER.printf(Level.INFO, "finished writing %,d unmapped reads to %d hash bams (task %d of %d)",
-                    readCount, mHashBamWriter.numHashBams(), taskId, numTasks);
+            BT_LOGGER.printf(Level.INFO, "finished writing %,d unmapped reads to sorted read runs (task %d of %d)",
+                    readCount, taskId, numTasks);
         }
         catch(IOException e)
         {
@@ -0,0 +1,408 @@
+package com.hartwig.hmftools.bamtools.tofastq;
+
+import static com.hartwig.hmftools.bamtools.common.CommonUtils.BT_LOGGER;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMTag;
+
+// spills reads to disk in a compact binary form, as runs sorted by read name within each hash bucket, and then pairs mates
+// by merging a bucket's segments from all runs, so memory is bounded by the run buffers and the files are only read sequentially
+//
+// each record is: record length (int), read name length (short) and name, flags (short), read group length (short) and ID,
+// bases length (int) and bases, base quals length (int) and base quals
+public class SortedReadRuns
+{
+    private final SAMFileHeader mSamHeader;
+    private final int mNumBuckets;
+    private final long mRunBufferSize;
+    private final File mTempDir;
+
+    private final ThreadLocal<RunBuffer> mThreadRunBuffer;
+    private final List<RunBuffer> mRunBuffers = Collections.synchronizedList(new ArrayList<>());
+    private final List<RunFile> mRunFiles = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger mNextRunId = new AtomicInteger();
+
+    private static final int NAME_OFFSET = 2;
+    private static final int MERGE_READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final Comparator<byte[]> NAME_COMPARATOR = SortedReadRuns::compareNames;
+
+    public SortedReadRuns(final SAMFileHeader samHeader, final String tempDirPrefix, int numBuckets, long runBufferSize)
+    {
+        mSamHeader = samHeader;
+        mNumBuckets = numBuckets;
+        mRunBufferSize = runBufferSize;
+
+        try
+        {
+            mTempDir = Files.createTempDirectory(tempDirPrefix).toFile();
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        BT_LOGGER.trace("writing sorted read runs in {}", mTempDir);
+
+        // add a hook to delete the temp directory on exit
+        Runtime.getRuntime().addShutdownHook(new Thread(this::deleteRunFiles));
+
+        mThreadRunBuffer = ThreadLocal.withInitial(() -> {
+            RunBuffer runBuffer = new RunBuffer();
+            mRunBuffers.add(runBuffer);
+            return runBuffer;
+        });
+    }
+
+    public int numBuckets() { return mNumBuckets; }
+    public int numRuns() { return mRunFiles.size(); }
+
+    public void addRead(final SAMRecord read)
+    {
+        RunBuffer runBuffer = mThreadRunBuffer.get();
+        runBuffer.add(bucketIndex(read.getReadName()), encode(read));
+
+        if(runBuffer.ByteCount >= mRunBufferSize)
+            writeRun(runBuffer);
+    }
+
+    // must be called once all reads have been added and the adding threads are complete
+    public void finishRuns()
+    {
+        for(RunBuffer runBuffer : mRunBuffers)
+        {
+            if(runBuffer.ByteCount > 0)
+                writeRun(runBuffer);
+        }
+
+        mRunBuffers.clear();
+
+        // each run file is opened once and shared by the merge tasks, which only use positional reads
+        try
+        {
+            for(RunFile runFile : mRunFiles)
+            {
+                runFile.Channel = FileChannel.open(runFile.File.toPath(), StandardOpenOption.READ);
+            }
+        }
+        catch(IOException e)
+        {
+            BT_LOGGER.error("failed to open read run files: {}", e.toString());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int bucketIndex(final String readName)
+    {
+        return Math.abs(readName.hashCode() % mNumBuckets);
+    }
+
+    private class RunBuffer
+    {
+        public final List<byte[]>[] BucketRecords;
+        public long ByteCount;
+
+        @SuppressWarnings("unchecked")
+        public RunBuffer()
+        {
+            BucketRecords = new List[mNumBuckets];
+
+            for(int i = 0; i < mNumBuckets; ++i)
+            {
+                BucketRecords[i] = new ArrayList<>();
+            }
+
+            ByteCount = 0;
+        }
+
+        public void add(int bucketIndex, final byte[] record)
+        {
+            BucketRecords[bucketIndex].add(record);
+            ByteCount += record.length;
+        }
+    }
+
+    private static class RunFile
+    {
+        public final File File;
+        public final long[] BucketOffsets; // start of each bucket's segment, with the file length at the end
+        public FileChannel Channel;
+
+        public RunFile(final File file, final long[] bucketOffsets)
+        {
+            File = file;
+            BucketOffsets = bucketOffsets;
+            Channel = null;
+        }
+    }
+
+    private void writeRun(final RunBuffer runBuffer)
+    {
+        File runFile = new File(mTempDir, String.format("%d.run", mNextRunId.getAndIncrement()));
+        long[] bucketOffsets = new long[mNumBuckets + 1];
+        long offset = 0;
+
+        try(DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(runFile))))
+        {
+            for(int i = 0; i < mNumBuckets; ++i)
+            {
+                bucketOffsets[i] = offset;
+
+                List<byte[]> records = runBuffer.BucketRecords[i];
+                records.sort(NAME_COMPARATOR);
+
+                for(byte[] record : records)
+                {
+                    outputStream.writeInt(record.length);
+                    outputStream.write(record);
+                    offset += Integer.BYTES + record.length;
+                }
+
+                records.clear();
+            }
+
+            bucketOffsets[mNumBuckets] = offset;
+        }
+        catch(IOException e)
+        {
+            BT_LOGGER.error("failed to write read run file({}): {}", runFile, e.toString());
+            throw new UncheckedIOException(e);
+        }
+
+        runBuffer.ByteCount = 0;
+        mRunFiles.add(new RunFile(runFile, bucketOffsets));
+    }
+
+    // merges the bucket's segments from every run, so reads with the same name arrive together, passing on mate pairs and
+    // any reads without a mate
+    public void mergeBucket(int bucketIndex, final BiConsumer<SAMRecord,SAMRecord> pairConsumer, final Consumer<SAMRecord> unpairedConsumer)
+    {
+        try
+        {
+            PriorityQueue<RunCursor> cursors = new PriorityQueue<>((first, second) -> compareNames(first.Record, second.Record));
+
+            for(RunFile runFile : mRunFiles)
+            {
+                long start = runFile.BucketOffsets[bucketIndex];
+                long end = runFile.BucketOffsets[bucketIndex + 1];
+
+                if(start == end)
+                    continue;
+
+                RunCursor cursor = new RunCursor(runFile.Channel, start, end);
+
+                if(cursor.next())
+                    cursors.add(cursor);
+            }
+
+            byte[] pendingRecord = null;
+
+            while(!cursors.isEmpty())
+            {
+                RunCursor cursor = cursors.poll();
+                byte[] record = cursor.Record;
+
+                if(cursor.next())
+                    cursors.add(cursor);
+
+                if(pendingRecord != null && compareNames(pendingRecord, record) == 0)
+                {
+                    pairConsumer.accept(decode(pendingRecord), decode(record));
+                    pendingRecord = null;
+                    continue;
+                }
+
+                if(pendingRecord != null)
+                    unpairedConsumer.accept(decode(pendingRecord));
+
+                pendingRecord = record;
+            }
+
+            if(pendingRecord != null)
+                unpairedConsumer.accept(decode(pendingRecord));
+        }
+        catch(IOException e)
+        {
+            BT_LOGGER.error("failed to merge read runs for bucket({}): {}", bucketIndex, e.toString());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class RunCursor
+    {
+        private final FileChannel mChannel;
+        private final long mEnd;
+        private long mPosition;
+        private ByteBuffer mBuffer;
+
+        public byte[] Record;
+
+        public RunCursor(final FileChannel channel, long start, long end)
+        {
+            mChannel = channel;
+            mPosition = start;
+            mEnd = end;
+            mBuffer = ByteBuffer.allocate(MERGE_READ_BUFFER_SIZE);
+            mBuffer.limit(0);
+            Record = null;
+        }
+
+        public boolean next() throws IOException
+        {
+            if(mBuffer.remaining() == 0 && mPosition >= mEnd)
+                return false;
+
+            ensureAvailable(Integer.BYTES);
+            int recordLength = mBuffer.getInt();
+
+            ensureAvailable(recordLength);
+            Record = new byte[recordLength];
+            mBuffer.get(Record);
+            return true;
+        }
+
+        private void ensureAvailable(int length) throws IOException
+        {
+            if(mBuffer.remaining() >= length)
+                return;
+
+            if(mBuffer.capacity() < length)
+            {
+                ByteBuffer newBuffer = ByteBuffer.allocate(length);
+                newBuffer.put(mBuffer);
+                mBuffer = newBuffer;
+            }
+            else
+            {
+                mBuffer.compact();
+            }
+
+            // read sequentially from this segment of the run file
+            while(mBuffer.position() < length)
+            {
+                int maxRead = (int)Math.min(mBuffer.remaining(), mEnd - mPosition);
+
+                if(maxRead <= 0)
+                    throw new IOException("truncated read run record");
+
+                ByteBuffer readBuffer = mBuffer.duplicate();
+                readBuffer.limit(mBuffer.position() + maxRead);
+
+                int bytesRead = mChannel.read(readBuffer, mPosition);
+
+                if(bytesRead < 0)
+                    throw new IOException("unexpected end of read run file");
+
+                mPosition += bytesRead;
+                mBuffer.position(mBuffer.position() + bytesRead);
+            }
+
+            mBuffer.flip();
+        }
+    }
+
+    private static byte[] encode(final SAMRecord read)
+    {
+        byte[] readName = read.getReadName().getBytes(StandardCharsets.US_ASCII);
+        String readGroupId = read.getStringAttribute(SAMTag.RG.name());
+        byte[] readGroup = readGroupId != null ? readGroupId.getBytes(StandardCharsets.US_ASCII) : new byte[0];
+        byte[] bases = read.getReadBases();
+        byte[] baseQuals = read.getBaseQualities();
+
+        ByteBuffer buffer = ByteBuffer.allocate(
+                Short.BYTES + readName.length + Short.BYTES + Short.BYTES + readGroup.length
+                        + Integer.BYTES + bases.length + Integer.BYTES + baseQuals.length);
+
+        buffer.putShort((short)readName.length);
+        buffer.put(readName);
+        buffer.putShort((short)read.getFlags());
+        buffer.putShort((short)readGroup.length);
+        buffer.put(readGroup);
+        buffer.putInt(bases.length);
+        buffer.put(bases);
+        buffer.putInt(baseQuals.length);
+        buffer.put(baseQuals);
+
+        return buffer.array();
+    }
+
+    // forms an unmapped record with only the fields needed to write a fastq
+    private SAMRecord decode(final byte[] record)
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+
+        byte[] readName = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(readName);
+        int flags = buffer.getShort() & 0xFFFF;
+        byte[] readGroup = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(readGroup);
+        byte[] bases = new byte[buffer.getInt()];
+        buffer.get(bases);
+        byte[] baseQuals = new byte[buffer.getInt()];
+        buffer.get(baseQuals);
+
+        SAMRecord read = new SAMRecord(mSamHeader);
+        read.setReadName(new String(readName, StandardCharsets.US_ASCII));
+        read.setFlags(flags);
+        read.setReadBases(bases);
+        read.setBaseQualities(baseQuals);
+
+        if(readGroup.length > 0)
+            read.setAttribute(SAMTag.RG.name(), new String(readGroup, StandardCharsets.US_ASCII));
+
+        return read;
+    }
+
+    private static int nameLength(final byte[] record)
+    {
+        return ((record[0] & 0xFF) << 8) | (record[1] & 0xFF);
+    }
+
+    private static int compareNames(final byte[] first, final byte[] second)
+    {
+        return Arrays.compareUnsigned(
+                first, NAME_OFFSET, NAME_OFFSET + nameLength(first), second, NAME_OFFSET, NAME_OFFSET + nameLength(second));
+    }
+
+    public void deleteRunFiles()
+    {
+        for(RunFile runFile : mRunFiles)
+        {
+            try
+            {
+                if(runFile.Channel != null)
+                    runFile.Channel.close();
+            }
+            catch(IOException e)
+            {
+                BT_LOGGER.warn("failed to close read run file({}): {}", runFile.File, e.toString());
+            }
+
+            runFile.File.delete();
+        }
+
+        mTempDir.delete();
+    }
+}
@@ -3,8 +3,11 @@ package com.hartwig.hmftools.bamtools.tofastq;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.jetbrains.annotations.Nullable;
+
 // a simple class to manage thread local data
 public class ThreadData
 {
@@ -20,11 +23,13 @@ public class ThreadData
         return mPartitionReaderList;
     }
 
-    public ThreadData(final ToFastqConfig config, final RemoteReadHandler remoteReadHandler)
+    public ThreadData(
+            final ToFastqConfig config, final RemoteReadHandler remoteReadHandler, @Nullable final ExecutorService compressionService)
     {
         mThreadFastqWriterCache = ThreadLocal.withInitial(() -> {
             // we need to assign a unique id
-            FastqWriterCache fastqWriterCache = new FastqWriterCache(config, String.format("t%d", mNextId.incrementAndGet()));
+            FastqWriterCache fastqWriterCache = new FastqWriterCache(
+                    config, String.format("t%d", mNextId.incrementAndGet()), compressionService);
             mFastqWriterCacheList.add(fastqWriterCache);
             return fastqWriterCache;
         });
@@ -41,6 +41,7 @@ public class ToFastqConfig
     public final String OutputId;
     public final FileSplitMode SplitMode;
     public final int Threads;
+    public final int CompressionThreads;
     public final int PartitionSize;
     public final boolean BqsrReverse;
 
@@ -49,6 +50,7 @@ public class ToFastqConfig
 
     private static final String FILE_SPLIT_MODE = "split_mode";
     private static final String BQSR_REVERSE = "bqsr_reverse";
+    private static final String COMPRESSION_THREADS = "compression_threads";
 
     public static final String CHR_UNMAPPED = "unmapped"; // to test unmapped reads
 
@@ -91,11 +93,14 @@ public class ToFastqConfig
         }
 
         Threads = Math.max(parseThreads(configBuilder), 1);
+
+        int compressionThreads = configBuilder.getInteger(COMPRESSION_THREADS);
+        CompressionThreads = compressionThreads > 0 ? compressionThreads : Threads;
         PerfDebug = configBuilder.hasFlag(PERF_DEBUG);
         BqsrReverse = configBuilder.hasFlag(BQSR_REVERSE);
         SplitMode = FileSplitMode.valueOf(configBuilder.getValue(FILE_SPLIT_MODE));
 
-        BT_LOGGER.info("threads({})", Threads);
+        BT_LOGGER.info("threads({}) compressionThreads({})", Threads, CompressionThreads);
         BT_LOGGER.info("splitMode({})", SplitMode);
     }
 
@@ -134,6 +139,7 @@ public class ToFastqConfig
         configBuilder.addInteger(PARTITION_SIZE, "Partition split size", DEFAULT_PARTITION_SIZE);
 
         configBuilder.addFlag(BQSR_REVERSE, "Reverse BQSR to original quals");
+        configBuilder.addInteger(COMPRESSION_THREADS, "Threads for compressing fastq output, defaults to thread count", 0);
         configBuilder.addFlag(PERF_DEBUG, PERF_DEBUG_DESC);
 
         addOutputOptions(configBuilder);
@@ -8,6 +8,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
+import java.util.List;
 
 import com.hartwig.hmftools.common.bam.ConsensusType;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
@@ -249,4 +250,130 @@ public class CoverageTest
 
         assertTrue(bamReader.readGroupMap().isEmpty());
     }
+
+    @Test
+    public void testOverlappingReadDepth()
+    {
+        BaseCoverage baseCoverage = new BaseCoverage(mConfig, 1, 100, Collections.emptyList());
+
+        String testBases = MockRefGenome.generateRandomBases(20);
+
+        // reads covering 10-29 and 20-39, and one clipped by the region end
+        baseCoverage.processRead(createRead(10, testBases, "20M"), null, false);
+        baseCoverage.processRead(createRead(20, testBases, "20M"), null, false);
+        baseCoverage.processRead(createRead(91, testBases, "20M"), null, false);
+
+        int[] baseDepth = baseCoverage.baseDepth();
+
+        for(int i = 0; i < baseDepth.length; ++i)
+        {
+            int position = i + 1;
+            int expectedDepth = 0;
+
+            if(position >= 10 && position <= 29)
+                ++expectedDepth;
+
+            if(position >= 20 && position <= 39)
+                ++expectedDepth;
+
+            if(position >= 91)
+                ++expectedDepth;
+
+            assertEquals(expectedDepth, baseDepth[i]);
+        }
+
+        CoverageMetrics metrics = baseCoverage.createMetrics(null);
+
+        assertEquals(50, metrics.FilterTypeCounts[FilterType.UNFILTERED.ordinal()]);
+        assertEquals(0, metrics.FilterTypeCounts[FilterType.MAX_COVERAGE.ordinal()]);
+        assertEquals(60, metrics.CoverageFrequency[0]);
+        assertEquals(30, metrics.CoverageFrequency[1]);
+        assertEquals(10, metrics.CoverageFrequency[2]);
+    }
+
+    @Test
+    public void testDepthAboveMaxCoverage()
+    {
+        BaseCoverage baseCoverage = new BaseCoverage(mConfig, 1, 100, Collections.emptyList());
+
+        // depth of 15 at 10-14, 20 at 15-19 and 5 at 20-24, against a max coverage of 10
+        for(int i = 0; i < 15; ++i)
+        {
+            baseCoverage.processRead(createRead(10, TEST_READ_BASES, TEST_CIGAR), null, false);
+        }
+
+        for(int i = 0; i < 5; ++i)
+        {
+            baseCoverage.processRead(createRead(15, TEST_READ_BASES, TEST_CIGAR), null, false);
+        }
+
+        CoverageMetrics metrics = baseCoverage.createMetrics(null);
+
+        int[] baseDepth = baseCoverage.baseDepth();
+
+        for(int position = 10; position <= 19; ++position)
+        {
+            assertEquals(mConfig.MaxCoverage, baseDepth[position - 1]);
+        }
+
+        for(int position = 20; position <= 24; ++position)
+        {
+            assertEquals(5, baseDepth[position - 1]);
+        }
+
+        // excess depth is 5 over 5 bases and 10 over 5 bases
+        assertEquals(125, metrics.FilterTypeCounts[FilterType.UNFILTERED.ordinal()]);
+        assertEquals(75, metrics.FilterTypeCounts[FilterType.MAX_COVERAGE.ordinal()]);
+        assertEquals(10, metrics.CoverageFrequency[mConfig.MaxCoverage]);
+        assertEquals(5, metrics.CoverageFrequency[5]);
+        assertEquals(85, metrics.CoverageFrequency[0]);
+    }
+
+    @Test
+    public void testReadsPartlyInUnmappableRegions()
+    {
+        // overlapping unmappable regions at 15-29, another at 40-44 and one extending past the region end
+        List<ChrBaseRegion> unmappableRegions = List.of(
+                new ChrBaseRegion(CHR_1, 15, 24),
+                new ChrBaseRegion(CHR_1, 20, 29),
+                new ChrBaseRegion(CHR_1, 40, 44),
+                new ChrBaseRegion(CHR_1, 95, 110));
+
+        BaseCoverage baseCoverage = new BaseCoverage(mConfig, 1, 100, unmappableRegions);
+
+        String testBases = MockRefGenome.generateRandomBases(40);
+
+        // covers 10-49, of which 10-14, 30-39 and 45-49 are counted
+        baseCoverage.processRead(createRead(10, testBases, "40M"), null, false);
+
+        // covers 90-100, of which 90-94 are counted
+        baseCoverage.processRead(createRead(90, testBases.substring(0, 11), "11M"), null, false);
+
+        CoverageMetrics metrics = baseCoverage.createMetrics(null);
+
+        int[] baseDepth = baseCoverage.baseDepth();
+
+        for(int i = 0; i < baseDepth.length; ++i)
+        {
+            int position = i + 1;
+
+            boolean counted = (position >= 10 && position <= 14) || (position >= 30 && position <= 39)
+                    || (position >= 45 && position <= 49) || (position >= 90 && position <= 94);
+
+            assertEquals(counted ? 1 : 0, baseDepth[i]);
+        }
+
+        // unmappable bases are neither counted nor filtered, and are excluded from the coverage territory
+        assertEquals(25, metrics.FilterTypeCounts[FilterType.UNFILTERED.ordinal()]);
+        assertEquals(25, metrics.CoverageFrequency[1]);
+        assertEquals(49, metrics.CoverageFrequency[0]);
+        assertEquals(74, metrics.genomeTerritory());
+    }
+
+    private SAMRecord createRead(int readStart, final String readBases, final String cigar)
+    {
+        return SamRecordTestUtils.createSamRecord(
+                mReadIdGen.nextId(), CHR_1, readStart, readBases, cigar, CHR_1, 200,
+                false, false, null);
+    }
 }
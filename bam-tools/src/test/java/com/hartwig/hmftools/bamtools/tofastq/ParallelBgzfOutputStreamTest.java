@@ -0,0 +1,68 @@
+package com.hartwig.hmftools.bamtools.tofastq;
+
+import static htsjdk.samtools.util.BlockCompressedInputStream.FileTermination.HAS_TERMINATOR_BLOCK;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import htsjdk.samtools.util.BlockCompressedInputStream;
+
+public class ParallelBgzfOutputStreamTest
+{
+    @Test
+    public void testWriteBlocks() throws IOException
+    {
+        // spans several blocks, with a random section which does not compress
+        byte[] data = new byte[500_000];
+        Random random = new Random(0);
+
+        for(int i = 0; i < data.length; ++i)
+        {
+            data[i] = i < 100_000 ? (byte)random.nextInt() : (byte)"ACGT\n".charAt(i % 5);
+        }
+
+        ExecutorService compressionService = Executors.newFixedThreadPool(3);
+
+        try
+        {
+            for(ExecutorService executorService : new ExecutorService[] { null, compressionService })
+            {
+                File file = File.createTempFile("bgzf_test", ".fastq.gz");
+                file.deleteOnExit();
+
+                ParallelBgzfOutputStream outputStream = new ParallelBgzfOutputStream(file.getAbsolutePath(), executorService, 2);
+                outputStream.write(data, 0, 12345);
+                outputStream.write(data[12345]);
+                outputStream.write(data, 12346, data.length - 12346);
+                outputStream.close();
+
+                assertEquals(HAS_TERMINATOR_BLOCK, BlockCompressedInputStream.checkTermination(file));
+
+                try(InputStream inputStream = new GZIPInputStream(new FileInputStream(file)))
+                {
+                    assertArrayEquals(data, inputStream.readAllBytes());
+                }
+
+                try(InputStream inputStream = new BlockCompressedInputStream(file))
+                {
+                    assertArrayEquals(data, inputStream.readAllBytes());
+                }
+            }
+        }
+        finally
+        {
+            compressionService.shutdown();
+        }
+    }
+}
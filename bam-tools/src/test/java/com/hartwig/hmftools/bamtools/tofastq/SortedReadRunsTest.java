@@ -0,0 +1,92 @@
+package com.hartwig.hmftools.bamtools.tofastq;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMReadGroupRecord;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMTag;
+
+public class SortedReadRunsTest
+{
+    @Test
+    public void testMergePairsAcrossRuns()
+    {
+        SAMFileHeader samHeader = new SAMFileHeader();
+        samHeader.addReadGroup(new SAMReadGroupRecord("RG1"));
+
+        // a small buffer forces the reads to be spread over many runs
+        SortedReadRuns sortedReadRuns = new SortedReadRuns(samHeader, "sorted_read_runs_test_", 4, 200);
+
+        int pairCount = 50;
+        List<SAMRecord> secondReads = new ArrayList<>();
+
+        for(int i = 0; i < pairCount; ++i)
+        {
+            sortedReadRuns.addRead(createRead(samHeader, "READ_" + i, true));
+            secondReads.add(createRead(samHeader, "READ_" + i, false));
+        }
+
+        secondReads.forEach(sortedReadRuns::addRead);
+
+        SAMRecord unpairedRead = createRead(samHeader, "READ_UNPAIRED", true);
+        sortedReadRuns.addRead(unpairedRead);
+
+        sortedReadRuns.finishRuns();
+        assertTrue(sortedReadRuns.numRuns() > 1);
+
+        Map<String,SAMRecord[]> pairs = new HashMap<>();
+        List<SAMRecord> unpairedReads = new ArrayList<>();
+
+        for(int i = 0; i < sortedReadRuns.numBuckets(); ++i)
+        {
+            sortedReadRuns.mergeBucket(
+                    i, (first, second) -> pairs.put(first.getReadName(), new SAMRecord[] { first, second }), unpairedReads::add);
+        }
+
+        sortedReadRuns.deleteRunFiles();
+
+        assertEquals(pairCount, pairs.size());
+        assertEquals(1, unpairedReads.size());
+        assertEquals(unpairedRead.getReadName(), unpairedReads.get(0).getReadName());
+
+        for(SAMRecord[] pair : pairs.values())
+        {
+            assertEquals(pair[0].getReadName(), pair[1].getReadName());
+            assertTrue(pair[0].getFirstOfPairFlag() != pair[1].getFirstOfPairFlag());
+
+            for(SAMRecord read : pair)
+            {
+                SAMRecord expected = createRead(samHeader, read.getReadName(), read.getFirstOfPairFlag());
+                assertEquals(expected.getFlags(), read.getFlags());
+                assertEquals(expected.getReadString(), read.getReadString());
+                assertEquals(expected.getBaseQualityString(), read.getBaseQualityString());
+                assertEquals("RG1", read.getReadGroup().getReadGroupId());
+            }
+        }
+    }
+
+    private static SAMRecord createRead(final SAMFileHeader samHeader, final String readName, boolean firstInPair)
+    {
+        SAMRecord read = new SAMRecord(samHeader);
+        read.setReadName(readName);
+        read.setReadPairedFlag(true);
+        read.setReadUnmappedFlag(true);
+        read.setMateUnmappedFlag(true);
+        read.setFirstOfPairFlag(firstInPair);
+        read.setSecondOfPairFlag(!firstInPair);
+        read.setReadNegativeStrandFlag(!firstInPair);
+        read.setReadString(firstInPair ? "ACGTACGTAA" : "TTGCAACGTC");
+        read.setBaseQualityString(firstInPair ? "FFFFF:FFFF" : "FF,FFFFF:F");
+        read.setAttribute(SAMTag.RG.name(), "RG1");
+        return read;
+    }
+}
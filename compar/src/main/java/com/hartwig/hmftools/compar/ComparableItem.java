@@ -5,6 +5,7 @@ import java.util.List;
 
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -14,6 +15,13 @@ public interface ComparableItem
 
     boolean matches(final ComparableItem other);
 
+    // optional keys to index items for matching: if this.matches(other) then this item's match lookup key must equal the other
+    // item's match key, and any candidates sharing a key are still confirmed with matches(); null means items must all be scanned
+    default MatchKey matchKey() { return null; }
+
+    // the lookup key can differ from the match key when matching uses a lifted-over comparison position
+    default MatchKey matchLookupKey() { return matchKey(); }
+
     Mismatch findMismatch(
             final ComparableItem other, final MatchLevel matchLevel, final DiffThresholds thresholds, final boolean includeMatches);
 
@@ -281,6 +281,117 @@ public class CommonUtils
     public static void compareItems(
             final List<Mismatch> mismatches, final MatchLevel matchLevel, final DiffThresholds thresholds, final boolean includeMatches,
             final List<ComparableItem> items1, final List<ComparableItem> items2)
+    {
+        MatchKey[] lookupKeys = new MatchKey[items1.size()];
+        MatchKey[] matchKeys = new MatchKey[items2.size()];
+
+        if(populateMatchKeys(items1, items2, lookupKeys, matchKeys))
+        {
+            compareItemsByKey(mismatches, matchLevel, thresholds, includeMatches, items1, items2, lookupKeys, matchKeys);
+        }
+        else
+        {
+            compareItemsByScan(mismatches, matchLevel, thresholds, includeMatches, items1, items2);
+        }
+
+        if(items1.isEmpty() && items2.isEmpty())
+        {
+            return;
+        }
+
+        List<String> emptyDiffs = Lists.newArrayList();
+
+        items1.stream().filter(x -> matchLevel != REPORTABLE || x.reportable())
+                .forEach(x -> mismatches.add(new Mismatch(x, null, OLD_ONLY, emptyDiffs)));
+
+        items2.stream().filter(x -> matchLevel != REPORTABLE || x.reportable())
+                .forEach(x -> mismatches.add(new Mismatch(null, x, NEW_ONLY, emptyDiffs)));
+    }
+
+    private static boolean populateMatchKeys(
+            final List<ComparableItem> items1, final List<ComparableItem> items2, final MatchKey[] lookupKeys, final MatchKey[] matchKeys)
+    {
+        for(int i = 0; i < items1.size(); ++i)
+        {
+            lookupKeys[i] = items1.get(i).matchLookupKey();
+
+            if(lookupKeys[i] == null)
+                return false;
+        }
+
+        for(int i = 0; i < items2.size(); ++i)
+        {
+            matchKeys[i] = items2.get(i).matchKey();
+
+            if(matchKeys[i] == null)
+                return false;
+        }
+
+        return true;
+    }
+
+    private static void compareItemsByKey(
+            final List<Mismatch> mismatches, final MatchLevel matchLevel, final DiffThresholds thresholds, final boolean includeMatches,
+            final List<ComparableItem> items1, final List<ComparableItem> items2, final MatchKey[] lookupKeys, final MatchKey[] matchKeys)
+    {
+        // index the second items by key, keeping their original order so each item is matched to the same item as a full scan would
+        Map<MatchKey,List<Integer>> keyIndices = Maps.newHashMap();
+
+        for(int index2 = 0; index2 < items2.size(); ++index2)
+        {
+            keyIndices.computeIfAbsent(matchKeys[index2], k -> Lists.newArrayListWithCapacity(1)).add(index2);
+        }
+
+        boolean[] matched1 = new boolean[items1.size()];
+        boolean[] matched2 = new boolean[items2.size()];
+
+        for(int index1 = 0; index1 < items1.size(); ++index1)
+        {
+            List<Integer> candidates = keyIndices.get(lookupKeys[index1]);
+
+            if(candidates == null)
+                continue;
+
+            final ComparableItem item1 = items1.get(index1);
+
+            for(int i = 0; i < candidates.size(); ++i)
+            {
+                int index2 = candidates.get(i);
+                final ComparableItem item2 = items2.get(index2);
+
+                if(!item1.matches(item2))
+                    continue;
+
+                candidates.remove(i);
+                matched1[index1] = true;
+                matched2[index2] = true;
+
+                checkMatchedItems(mismatches, matchLevel, thresholds, includeMatches, item1, item2);
+                break;
+            }
+        }
+
+        removeMatched(items1, matched1);
+        removeMatched(items2, matched2);
+    }
+
+    private static void removeMatched(final List<ComparableItem> items, final boolean[] matched)
+    {
+        List<ComparableItem> unmatched = Lists.newArrayList();
+
+        for(int i = 0; i < items.size(); ++i)
+        {
+            if(!matched[i])
+                unmatched.add(items.get(i));
+        }
+
+        items.clear();
+        items.addAll(unmatched);
+    }
+
+    private static void compareItemsByScan(
+            final List<Mismatch> mismatches, final MatchLevel matchLevel, final DiffThresholds thresholds, final boolean includeMatches,
+            final List<ComparableItem> items1, final List<ComparableItem> items2)
     {
         int index1 = 0;
         while(index1 < items1.size())
@@ -300,19 +411,7 @@ public class CommonUtils
                     items2.remove(index2);
                     matched = true;
 
-                    // skip checking for diffs if the items are not reportable
-                    boolean eitherReportable = item1.reportable() || item2.reportable();
-
-                    if(matchLevel != REPORTABLE || eitherReportable)
-                    {
-                        Mismatch mismatch = item1.findMismatch(item2, matchLevel, thresholds, includeMatches);
-
-                        if(mismatch != null)
-                        {
-                            mismatches.add(mismatch);
-                        }
-                    }
-
+                    checkMatchedItems(mismatches, matchLevel, thresholds, includeMatches, item1, item2);
                     break;
                 }
                 else
@@ -326,19 +425,24 @@ public class CommonUtils
                 ++index1;
             }
         }
+    }
 
-        if(items1.isEmpty() && items2.isEmpty())
-        {
-            return;
-        }
-
-        List<String> emptyDiffs = Lists.newArrayList();
+    private static void checkMatchedItems(
+            final List<Mismatch> mismatches, final MatchLevel matchLevel, final DiffThresholds thresholds, final boolean includeMatches,
+            final ComparableItem item1, final ComparableItem item2)
+    {
+        // skip checking for diffs if the items are not reportable
+        boolean eitherReportable = item1.reportable() || item2.reportable();
 
-        items1.stream().filter(x -> matchLevel != REPORTABLE || x.reportable())
-                .forEach(x -> mismatches.add(new Mismatch(x, null, OLD_ONLY, emptyDiffs)));
+        if(matchLevel != REPORTABLE || eitherReportable)
+        {
+            Mismatch mismatch = item1.findMismatch(item2, matchLevel, thresholds, includeMatches);
 
-        items2.stream().filter(x -> matchLevel != REPORTABLE || x.reportable())
-                .forEach(x -> mismatches.add(new Mismatch(null, x, NEW_ONLY, emptyDiffs)));
+            if(mismatch != null)
+            {
+                mismatches.add(mismatch);
+            }
+        }
     }
 
     public static BasePosition determineComparisonGenomePosition(
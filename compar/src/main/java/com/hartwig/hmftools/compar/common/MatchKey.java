@@ -0,0 +1,35 @@
+package com.hartwig.hmftools.compar.common;
+
+import java.util.Arrays;
+
+// a composite of the fields which must be equal for two items to match, used to index items so matching avoids comparing all pairs
+public final class MatchKey
+{
+    private final Object[] mValues;
+    private final int mHashCode;
+
+    public MatchKey(final Object... values)
+    {
+        mValues = values;
+        mHashCode = Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        if(this == other)
+            return true;
+
+        if(!(other instanceof MatchKey))
+            return false;
+
+        final MatchKey otherKey = (MatchKey)other;
+        return mHashCode == otherKey.mHashCode && Arrays.equals(mValues, otherKey.mValues);
+    }
+
+    @Override
+    public int hashCode() { return mHashCode; }
+
+    @Override
+    public String toString() { return Arrays.toString(mValues); }
+}
@@ -20,6 +20,7 @@ import com.hartwig.hmftools.common.purple.ReportedStatus;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -85,6 +86,9 @@ public class DriverData implements ComparableItem
     @Override
     public String geneName() { return DriverCatalog.gene(); }
 
+    @Override
+    public MatchKey matchKey() { return new MatchKey(DriverCatalog.gene(), DriverCatalog.driver()); }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
@@ -16,6 +16,7 @@ import com.hartwig.hmftools.common.rna.GeneExpression;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -55,6 +56,9 @@ public record IsofoxGeneData(GeneExpression GeneExpression) implements Comparabl
         return GeneExpression.geneName();
     }
 
+    @Override
+    public MatchKey matchKey() { return new MatchKey(GeneExpression.geneName()); }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
@@ -14,6 +14,7 @@ import com.hartwig.hmftools.common.rna.TranscriptExpression;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -52,6 +53,9 @@ public record IsofoxTranscriptData(TranscriptExpression TranscriptExpression) im
         return TranscriptExpression.geneName();
     }
 
+    @Override
+    public MatchKey matchKey() { return new MatchKey(TranscriptExpression.transcriptName()); }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
@@ -17,6 +17,7 @@ import com.hartwig.hmftools.common.rna.NovelSpliceJunction;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -71,6 +72,22 @@ public record NovelSpliceJunctionData(NovelSpliceJunction NovelSpliceJunction, B
         return NovelSpliceJunction.geneName();
     }
 
+    @Override
+    public MatchKey matchKey()
+    {
+        return new MatchKey(
+                NovelSpliceJunction.geneName(), NovelSpliceJunction.chromosome(),
+                NovelSpliceJunction.junctionStart(), NovelSpliceJunction.junctionEnd());
+    }
+
+    @Override
+    public MatchKey matchLookupKey()
+    {
+        return new MatchKey(
+                NovelSpliceJunction.geneName(), ComparisonPositionStart.Chromosome,
+                ComparisonPositionStart.Position, ComparisonPositionEnd.Position);
+    }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
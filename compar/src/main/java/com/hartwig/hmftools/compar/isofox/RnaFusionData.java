@@ -14,6 +14,7 @@ import com.hartwig.hmftools.common.rna.RnaFusion;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -73,6 +74,21 @@ public record RnaFusionData(RnaFusion RnaFusion, BasePosition ComparisonPosition
         return true;
     }
 
+    @Override
+    public MatchKey matchKey()
+    {
+        return new MatchKey(
+                RnaFusion.name(), RnaFusion.chromosomeUp(), RnaFusion.chromosomeDown(), RnaFusion.positionUp(), RnaFusion.positionDown());
+    }
+
+    @Override
+    public MatchKey matchLookupKey()
+    {
+        return new MatchKey(
+                RnaFusion.name(), ComparisonPositionUp.Chromosome, ComparisonPositionDown.Chromosome,
+                ComparisonPositionUp.Position, ComparisonPositionDown.Position);
+    }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
@@ -14,6 +14,7 @@ import com.hartwig.hmftools.common.linx.LinxFusion;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -91,6 +92,9 @@ public class FusionData implements ComparableItem
         return Fusion.reported();
     }
 
+    @Override
+    public MatchKey matchKey() { return new MatchKey(GeneMappedName); }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
@@ -30,6 +30,7 @@ import com.hartwig.hmftools.common.variant.SmallVariant;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -82,6 +83,12 @@ public class GermlineVariantData implements ComparableItem
     @Override
     public String geneName() { return Variant.gene(); }
 
+    @Override
+    public MatchKey matchKey() { return new MatchKey(Variant.chromosome(), Variant.position(), Variant.ref(), Variant.alt(), Variant.type()); }
+
+    @Override
+    public MatchKey matchLookupKey() { return new MatchKey(mComparisonPosition.Chromosome, mComparisonPosition.Position, Variant.ref(), Variant.alt(), Variant.type()); }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
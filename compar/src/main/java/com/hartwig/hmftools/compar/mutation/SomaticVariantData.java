@@ -53,6 +53,7 @@ import com.hartwig.hmftools.compar.ComparConfig;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 import com.hartwig.hmftools.compar.common.SourceType;
@@ -194,6 +195,12 @@ public class SomaticVariantData implements ComparableItem
     @Override
     public String geneName() { return Gene; }
 
+    @Override
+    public MatchKey matchKey() { return new MatchKey(Chromosome, Position, Ref, Alt, Type); }
+
+    @Override
+    public MatchKey matchLookupKey() { return new MatchKey(mComparisonChromosome, mComparisonPosition, Ref, Alt, Type); }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
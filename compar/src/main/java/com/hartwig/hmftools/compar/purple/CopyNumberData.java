@@ -14,6 +14,7 @@ import com.hartwig.hmftools.common.region.BasePosition;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -66,6 +67,12 @@ public record CopyNumberData(
         return false;
     }
 
+    @Override
+    public MatchKey matchKey() { return new MatchKey(chromosome, positionStart, positionEnd); }
+
+    @Override
+    public MatchKey matchLookupKey() { return new MatchKey(comparisonPositionStart.Chromosome, comparisonPositionStart.Position, comparisonPositionEnd.Position); }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
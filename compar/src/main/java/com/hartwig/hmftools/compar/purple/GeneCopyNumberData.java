@@ -13,6 +13,7 @@ import com.hartwig.hmftools.common.purple.GeneCopyNumber;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -59,6 +60,9 @@ public class GeneCopyNumberData implements ComparableItem
     @Override
     public String geneName() { return CopyNumber.GeneName; }
 
+    @Override
+    public MatchKey matchKey() { return new MatchKey(CopyNumber.geneName()); }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
@@ -17,6 +17,7 @@ import com.hartwig.hmftools.common.purple.GermlineAmpDel;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -66,6 +67,9 @@ public class GermlineAmpDelData implements ComparableItem
     @Override
     public String geneName() { return AmpDelData.GeneName; }
 
+    @Override
+    public MatchKey matchKey() { return new MatchKey(AmpDelData.GeneName); }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
@@ -14,6 +14,7 @@ import com.hartwig.hmftools.common.region.BasePosition;
 import com.hartwig.hmftools.compar.ComparableItem;
 import com.hartwig.hmftools.compar.common.CategoryType;
 import com.hartwig.hmftools.compar.common.DiffThresholds;
+import com.hartwig.hmftools.compar.common.MatchKey;
 import com.hartwig.hmftools.compar.common.MatchLevel;
 import com.hartwig.hmftools.compar.common.Mismatch;
 
@@ -71,6 +72,12 @@ public class SnpGenotypeData implements ComparableItem
         return values;
     }
 
+    @Override
+    public MatchKey matchKey() { return new MatchKey(Chromosome, Position, Ref); }
+
+    @Override
+    public MatchKey matchLookupKey() { return new MatchKey(mComparisonPosition.Chromosome, mComparisonPosition.Position, Ref); }
+
     @Override
     public boolean matches(final ComparableItem other)
     {
@@ -14,6 +14,8 @@ import java.util.List;
 import com.hartwig.hmftools.common.genome.refgenome.GenomeLiftoverCache;
 import com.hartwig.hmftools.common.region.BasePosition;
 import com.hartwig.hmftools.compar.ComparableItem;
+import com.hartwig.hmftools.compar.mutation.SomaticVariantData;
+import com.hartwig.hmftools.compar.mutation.TestSomaticVariantDataBuilder;
 
 import org.junit.Test;
 
@@ -35,6 +37,41 @@ public class CommonUtilsTest
         assertTrue(mismatches.isEmpty());
     }
 
+    @Test
+    public void testKeyedItemMatching()
+    {
+        DiffThresholds diffThresholds = new DiffThresholds();
+
+        // old variants are matched on their comparison position, and only to a new variant with the same alleles
+        List<ComparableItem> refItems = new ArrayList<>();
+        refItems.add(TestSomaticVariantDataBuilder.BUILDER.create(b -> { b.position = 100; b.comparisonPosition = 200; }));
+        refItems.add(TestSomaticVariantDataBuilder.BUILDER.create(b -> { b.position = 300; b.comparisonPosition = 300; }));
+        refItems.add(TestSomaticVariantDataBuilder.BUILDER.create(b -> { b.position = 400; b.comparisonPosition = 400; }));
+
+        List<ComparableItem> newItems = new ArrayList<>();
+        newItems.add(TestSomaticVariantDataBuilder.BUILDER.create(b -> { b.position = 400; b.alt = "G"; }));
+        newItems.add(TestSomaticVariantDataBuilder.BUILDER.create(b -> { b.position = 300; b.qual = 10; }));
+        newItems.add(TestSomaticVariantDataBuilder.BUILDER.create(b -> { b.position = 200; }));
+
+        List<Mismatch> mismatches = new ArrayList<>();
+        CommonUtils.compareItems(mismatches, MatchLevel.DETAILED, diffThresholds, false, refItems, newItems);
+
+        assertEquals(3, mismatches.size());
+
+        assertEquals(MismatchType.VALUE, mismatches.get(0).Type);
+        assertEquals(300, ((SomaticVariantData)mismatches.get(0).OldItem).Position);
+
+        assertEquals(MismatchType.OLD_ONLY, mismatches.get(1).Type);
+        assertEquals(400, ((SomaticVariantData)mismatches.get(1).OldItem).Position);
+
+        assertEquals(MismatchType.NEW_ONLY, mismatches.get(2).Type);
+        assertEquals("G", ((SomaticVariantData)mismatches.get(2).NewItem).Alt);
+
+        // matched items are removed from the input lists
+        assertEquals(1, refItems.size());
+        assertEquals(1, newItems.size());
+    }
+
     @Test
     public void testDetermineComparisonGenomePositionWithoutLiftover()
     {
@@ -34,12 +34,13 @@ import com.hartwig.hmftools.cup.prep.CategoryPrep;
 import com.hartwig.hmftools.cup.prep.DataItem;
 import com.hartwig.hmftools.cup.prep.ItemType;
 import com.hartwig.hmftools.cup.prep.PrepConfig;
-import com.hartwig.hmftools.cup.somatics.SomaticVariantsLoader;
+import com.hartwig.hmftools.cup.prep.SampleDataCache;
 import com.hartwig.hmftools.cup.somatics.SomaticVariant;
 
 public class DriverPrep implements CategoryPrep
 {
     private final PrepConfig mConfig;
+    private final SampleDataCache mSampleDataCache;
 
     LinkedHashMap<DataItem.Index, DataItem> mDataItemsMap = new LinkedHashMap<>();
 
@@ -54,8 +55,14 @@ public class DriverPrep implements CategoryPrep
     private static final String PROMISCUOUS_3_SUFFIX = "_PROM3";
 
     public DriverPrep(final PrepConfig config)
+    {
+        this(config, new SampleDataCache(config));
+    }
+
+    public DriverPrep(final PrepConfig config, final SampleDataCache sampleDataCache)
     {
         mConfig = config;
+        mSampleDataCache = sampleDataCache;
     }
 
     @Override
@@ -126,14 +133,14 @@ public class DriverPrep implements CategoryPrep
 
     public void getIndelDrivers(String sampleId) throws IOException
     {
-        PurplePurity purity = PurplePurity.read(mConfig.purplePurityFile(sampleId));
+        PurplePurity purity = mSampleDataCache.purity(sampleId);
 
         boolean isMicrosatelliteStable = purity.MsStatus == MSS;
 
         if(!isMicrosatelliteStable)
             return;
 
-        final List<SomaticVariant> variants = SomaticVariantsLoader.loadFromConfig(mConfig, sampleId, null);
+        final List<SomaticVariant> variants = mSampleDataCache.somaticVariants(sampleId);
         for(SomaticVariant variant : variants)
         {
             String gene = variant.Gene;
@@ -6,11 +6,11 @@ import static com.hartwig.hmftools.cup.common.CupConstants.APP_NAME;
 import static com.hartwig.hmftools.cup.common.CupConstants.CUP_LOGGER;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 import com.hartwig.hmftools.common.perf.TaskExecutor;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
@@ -31,34 +31,40 @@ public class CuppaDataPrep
     @Nullable public List<DataItem> mDataItems; // only used for tests
     @Nullable public HashMap<CategoryType, DataItemMatrix> mDataItemMatricesByCategory = new HashMap<>(); // only used for tests
 
+    private final Map<String,Integer> mRefAltSjIndexMap;
+
     public CuppaDataPrep(final ConfigBuilder configBuilder)
     {
-        mConfig = new PrepConfig(configBuilder);
+        this(new PrepConfig(configBuilder));
     }
 
     public CuppaDataPrep(final PrepConfig prepConfig)
     {
         mConfig = prepConfig;
+        mRefAltSjIndexMap = new HashMap<>();
+
+        if(mConfig.Categories.contains(CategoryType.ALT_SJ))
+            AltSpliceJunctionPrep.loadRefAltSjIndices(mConfig.AltSpliceJunctionSites, mRefAltSjIndexMap);
     }
 
-    public CategoryPrep createCategoryPrep(final CategoryType categoryType)
+    public CategoryPrep createCategoryPrep(final CategoryType categoryType, final SampleDataCache sampleDataCache)
     {
         switch(categoryType)
         {
             case SNV:
-                return new SomaticVariantPrep(mConfig);
+                return new SomaticVariantPrep(mConfig, sampleDataCache);
 
             case SV:
                 return new StructuralVariantPrep(mConfig);
 
             case SAMPLE_TRAIT:
-                return new SampleTraitPrep(mConfig);
+                return new SampleTraitPrep(mConfig, sampleDataCache);
 
             case DRIVER:
-                return new DriverPrep(mConfig);
+                return new DriverPrep(mConfig, sampleDataCache);
 
             case ALT_SJ:
-                return new AltSpliceJunctionPrep(mConfig);
+                return new AltSpliceJunctionPrep(mConfig, mRefAltSjIndexMap);
 
             case GENE_EXP:
                 return new GeneExpressionPrep(mConfig);
@@ -93,17 +99,11 @@ public class CuppaDataPrep
 
     public void extractSingleSample(boolean keepDataItems)
     {
-        List<DataItem> dataItems = new ArrayList<>();
-
-        for(CategoryType categoryType : mConfig.Categories)
-        {
-            CUP_LOGGER.info("Extracting category({})", categoryType);
+        CUP_LOGGER.info("Extracting categories({})", mConfig.Categories);
 
-            CategoryPrep categoryPrep = createCategoryPrep(categoryType);
-            SamplePrepTask sampleTask = new SamplePrepTask(0, mConfig, categoryPrep, null);
-            sampleTask.run();
-            dataItems.addAll(sampleTask.dataItems());
-        }
+        SamplePrepTask sampleTask = new SamplePrepTask(0, this, null);
+        sampleTask.run();
+        List<DataItem> dataItems = sampleTask.dataItems();
 
         if(keepDataItems)
             mDataItems = dataItems;
@@ -112,37 +112,33 @@ public class CuppaDataPrep
         DataItemsIO.writeDataItemList(dataItems, outputPath);
     }
 
-    public DataItemMatrix extractMultiSampleOneCategory(final CategoryType categoryType)
+    public void extractMultiSample(final boolean keepDataItems)
     {
-        CUP_LOGGER.info("Extracting category({})", categoryType);
+        CUP_LOGGER.info("Extracting CUPPA features in multi sample mode: {} samples, {} threads",
+                mConfig.SampleIds.size(), mConfig.Threads);
 
-        ConcurrentHashMap<DataItem.Index, String[]> featureBySampleMatrix = new ConcurrentHashMap<>();
+        // each sample is processed once for all categories, with its values added to each category's matrix
+        Map<CategoryType,DataItemMatrix> categoryMatrices = new EnumMap<>(CategoryType.class);
 
-        List<SamplePrepTask> sampleTasks = new ArrayList<>();
-        for(int sampleIndex = 0; sampleIndex < mConfig.SampleIds.size(); ++sampleIndex)
+        for(CategoryType categoryType : mConfig.Categories)
         {
-            CategoryPrep categoryPrep = createCategoryPrep(categoryType);
-            sampleTasks.add(new SamplePrepTask(sampleIndex, mConfig, categoryPrep, featureBySampleMatrix));
+            categoryMatrices.put(categoryType, new DataItemMatrix(mConfig.SampleIds));
         }
 
-        List<Callable<Void>> callableTasks = sampleTasks.stream().collect(Collectors.toList());
-        TaskExecutor.executeTasks(callableTasks, mConfig.Threads);
-
-        DataItemMatrix matrix = new DataItemMatrix(mConfig.SampleIds, featureBySampleMatrix);
-        matrix.sortIndexes();
+        List<Callable<Void>> sampleTasks = new ArrayList<>();
 
-        return matrix;
-    }
+        for(int sampleIndex = 0; sampleIndex < mConfig.SampleIds.size(); ++sampleIndex)
+        {
+            sampleTasks.add(new SamplePrepTask(sampleIndex, this, categoryMatrices));
+        }
 
-    public void extractMultiSample(final boolean keepDataItems)
-    {
-        CUP_LOGGER.info("Extracting CUPPA features in multi sample mode: {} samples, {} threads",
-                mConfig.SampleIds.size(), mConfig.Threads);
+        TaskExecutor.executeTasks(sampleTasks, mConfig.Threads);
 
         int i = 0;
         for(CategoryType categoryType : mConfig.Categories)
         {
-            DataItemMatrix dataItemMatrix = extractMultiSampleOneCategory(categoryType);
+            DataItemMatrix dataItemMatrix = categoryMatrices.get(categoryType);
+            dataItemMatrix.sortIndexes();
 
             if(keepDataItems)
             {
@@ -12,6 +12,10 @@ public class DataItem implements Comparable<DataItem>
     public final Index Index;
     public final String Value;
 
+    // typed form of the value, so multi-sample matrices can hold primitives and only format values when written
+    public final double NumericValue; // NaN when the value was provided as text
+    public final String NumberFormat; // null for whole numbers and text
+
     public static final String FLD_SOURCE = "Source";
     public static final String FLD_CATEGORY = "Category";
     public static final String FLD_KEY = "Key";
@@ -21,18 +25,24 @@ public class DataItem implements Comparable<DataItem>
     {
         Index = new Index(source, type, key);
         Value = String.valueOf(intValue);
+        NumericValue = intValue;
+        NumberFormat = null;
     }
 
     public DataItem(final DataSource source, final ItemType type, final String key, final boolean boolValue)
     {
         Index = new Index(source, type, key);
         Value = boolValue ? "1" : "0";
+        NumericValue = boolValue ? 1 : 0;
+        NumberFormat = null;
     }
 
     public DataItem(final DataSource source, final ItemType type, final String key, final double doubleValue, String numberFormat)
     {
         Index = new Index(source, type, key);
         Value = String.format(Locale.ENGLISH, numberFormat, doubleValue);
+        NumericValue = doubleValue;
+        NumberFormat = numberFormat;
     }
 
     @VisibleForTesting
@@ -40,8 +50,14 @@ public class DataItem implements Comparable<DataItem>
     {
         Index = new Index(source, type, key);
         Value = stringValue;
+        NumericValue = Double.NaN;
+        NumberFormat = null;
     }
 
+    public boolean isText() { return Double.isNaN(NumericValue); }
+
+    public boolean isWholeNumber() { return !isText() && NumberFormat == null; }
+
     public static class Index implements Comparable<Index>
     {
         public final DataSource Source;
@@ -4,44 +4,100 @@ import static com.hartwig.hmftools.cup.common.CupConstants.CUP_LOGGER;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 import com.google.common.annotations.VisibleForTesting;
 
 public class DataItemMatrix
 {
     public final List<String> SampleIds;
-    public final Map<DataItem.Index, String[]> FeatureBySampleMatrix;
     public List<DataItem.Index> Indexes;
 
+    // each feature's values across samples are held as a primitive column, and only converted to text when read or written
+    private final Map<DataItem.Index,FeatureValues> mFeatureValues;
+
+    public DataItemMatrix(final List<String> sampleIds)
+    {
+        SampleIds = sampleIds;
+        Indexes = new ArrayList<>();
+        mFeatureValues = new HashMap<>();
+    }
+
     public DataItemMatrix(
             final List<String> sampleIds,
             final Map<DataItem.Index, String[]> featureBySampleMatrix
     ){
-        SampleIds = sampleIds;
-        FeatureBySampleMatrix = featureBySampleMatrix;
-        Indexes = new ArrayList<>(FeatureBySampleMatrix.keySet());
+        this(sampleIds);
 
-        checkDimensions();
+        for(Map.Entry<DataItem.Index, String[]> entry : featureBySampleMatrix.entrySet())
+        {
+            if(nSamples() != entry.getValue().length)
+            {
+                CUP_LOGGER.error("Found FeatureBySampleMatrix row with length {}, but required {} (= number of SampleIds)",
+                        entry.getValue().length, nSamples());
+                System.exit(1);
+            }
+
+            Indexes.add(entry.getKey());
+            mFeatureValues.put(entry.getKey(), new TextValues(entry.getValue()));
+        }
     }
 
-    private void checkDimensions()
+    public synchronized void addSampleData(int sampleIndex, final List<DataItem> dataItems)
     {
-        for(String[] row : FeatureBySampleMatrix.values())
+        for(DataItem dataItem : dataItems)
         {
-            if(nSamples() != row.length)
+            FeatureValues featureValues = mFeatureValues.get(dataItem.Index);
+
+            if(featureValues == null)
             {
-                CUP_LOGGER.error("Found FeatureBySampleMatrix row with length {}, but required {} (= number of SampleIds)", row.length, nSamples());
-                System.exit(1);
+                featureValues = createFeatureValues(dataItem);
+                mFeatureValues.put(dataItem.Index, featureValues);
+                Indexes.add(dataItem.Index);
             }
+            else if(!featureValues.accepts(dataItem))
+            {
+                // fall back to text if a feature's values are not consistently typed
+                featureValues = new TextValues(featureValues, nSamples());
+                mFeatureValues.put(dataItem.Index, featureValues);
+            }
+
+            featureValues.set(sampleIndex, dataItem);
         }
     }
 
+    private FeatureValues createFeatureValues(final DataItem dataItem)
+    {
+        if(dataItem.isWholeNumber())
+            return new IntValues(nSamples());
+
+        if(!dataItem.isText())
+            return new DoubleValues(nSamples(), dataItem.NumberFormat);
+
+        return new TextValues(new String[nSamples()]);
+    }
+
     public String[] get(DataItem.Index index)
     {
-        return FeatureBySampleMatrix.get(index);
+        FeatureValues featureValues = mFeatureValues.get(index);
+
+        if(featureValues == null)
+            return null;
+
+        String[] values = new String[nSamples()];
+
+        for(int sampleIndex = 0; sampleIndex < values.length; ++sampleIndex)
+        {
+            values[sampleIndex] = featureValues.get(sampleIndex);
+        }
+
+        return values;
     }
 
     public int nFeatures()
@@ -75,10 +131,110 @@ public class DataItemMatrix
         int i = 0;
         for(DataItem.Index dataItemIndex : Indexes)
         {
-            featureValues[i] = get(dataItemIndex)[sampleIndex];
+            featureValues[i] = mFeatureValues.get(dataItemIndex).get(sampleIndex);
             i++;
         }
 
         return featureValues;
     }
+
+    private interface FeatureValues
+    {
+        boolean accepts(final DataItem dataItem);
+
+        void set(int sampleIndex, final DataItem dataItem);
+
+        // the value as written to file, or null if the sample has no value
+        String get(int sampleIndex);
+    }
+
+    private static class IntValues implements FeatureValues
+    {
+        private final int[] mValues;
+        private final BitSet mHasValue;
+
+        public IntValues(int sampleCount)
+        {
+            mValues = new int[sampleCount];
+            mHasValue = new BitSet(sampleCount);
+        }
+
+        @Override
+        public boolean accepts(final DataItem dataItem) { return dataItem.isWholeNumber(); }
+
+        @Override
+        public void set(int sampleIndex, final DataItem dataItem)
+        {
+            mValues[sampleIndex] = (int)dataItem.NumericValue;
+            mHasValue.set(sampleIndex);
+        }
+
+        @Override
+        public String get(int sampleIndex)
+        {
+            return mHasValue.get(sampleIndex) ? String.valueOf(mValues[sampleIndex]) : null;
+        }
+    }
+
+    private static class DoubleValues implements FeatureValues
+    {
+        private final double[] mValues;
+        private final BitSet mHasValue;
+        private final String mNumberFormat;
+
+        public DoubleValues(int sampleCount, final String numberFormat)
+        {
+            mValues = new double[sampleCount];
+            mHasValue = new BitSet(sampleCount);
+            mNumberFormat = numberFormat;
+        }
+
+        @Override
+        public boolean accepts(final DataItem dataItem)
+        {
+            return !dataItem.isText() && Objects.equals(mNumberFormat, dataItem.NumberFormat);
+        }
+
+        @Override
+        public void set(int sampleIndex, final DataItem dataItem)
+        {
+            mValues[sampleIndex] = dataItem.NumericValue;
+            mHasValue.set(sampleIndex);
+        }
+
+        @Override
+        public String get(int sampleIndex)
+        {
+            return mHasValue.get(sampleIndex) ? String.format(Locale.ENGLISH, mNumberFormat, mValues[sampleIndex]) : null;
+        }
+    }
+
+    private static class TextValues implements FeatureValues
+    {
+        private final String[] mValues;
+
+        public TextValues(final String[] values)
+        {
+            mValues = values;
+        }
+
+        public TextValues(final FeatureValues other, int sampleCount)
+        {
+            mValues = new String[sampleCount];
+
+            for(int sampleIndex = 0; sampleIndex < sampleCount; ++sampleIndex)
+            {
+                mValues[sampleIndex] = other.get(sampleIndex);
+            }
+        }
+
+        @Override
+        public boolean accepts(final DataItem dataItem) { return true; }
+
+        @Override
+        public void set(int sampleIndex, final DataItem dataItem) { mValues[sampleIndex] = dataItem.Value; }
+
+        @Override
+        public String get(int sampleIndex) { return mValues[sampleIndex]; }
+    }
 }
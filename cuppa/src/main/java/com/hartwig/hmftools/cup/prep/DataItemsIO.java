@@ -86,19 +86,18 @@ public class DataItemsIO
 
             for(DataItem.Index index : dataItemMatrix.Indexes)
             {
-                joiner = new StringJoiner(TSV_DELIM);
+                writer.write(index.Source.toString());
+                writer.write(TSV_DELIM);
+                writer.write(index.Type.getAlias());
+                writer.write(TSV_DELIM);
+                writer.write(index.Key);
 
-                joiner.add(index.Source.toString());
-                joiner.add(index.Type.getAlias());
-                joiner.add(index.Key);
-
-                for(int sampleIndex = 0; sampleIndex < dataItemMatrix.nSamples(); sampleIndex++)
+                for(String value : dataItemMatrix.get(index))
                 {
-                    String value = dataItemMatrix.get(index)[sampleIndex];
-                    joiner.add(value);
+                    writer.write(TSV_DELIM);
+                    writer.write(String.valueOf(value));
                 }
 
-                writer.write(joiner.toString());
                 writer.newLine();
             }
 
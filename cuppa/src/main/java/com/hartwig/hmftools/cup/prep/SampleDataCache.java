@@ -0,0 +1,58 @@
+package com.hartwig.hmftools.cup.prep;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+
+import com.hartwig.hmftools.common.purple.PurplePurity;
+import com.hartwig.hmftools.cup.somatics.SomaticVariant;
+import com.hartwig.hmftools.cup.somatics.SomaticVariantsLoader;
+
+// holds a sample's input files which are used by more than one category, so each is only read once per sample
+public class SampleDataCache
+{
+    private final PrepConfig mConfig;
+
+    private String mSampleId;
+    private PurplePurity mPurity;
+    private List<SomaticVariant> mSomaticVariants;
+
+    public SampleDataCache(final PrepConfig config)
+    {
+        mConfig = config;
+        mSampleId = null;
+        mPurity = null;
+        mSomaticVariants = null;
+    }
+
+    private void checkSample(final String sampleId)
+    {
+        if(sampleId.equals(mSampleId))
+            return;
+
+        mSampleId = sampleId;
+        mPurity = null;
+        mSomaticVariants = null;
+    }
+
+    public PurplePurity purity(final String sampleId) throws IOException
+    {
+        checkSample(sampleId);
+
+        if(mPurity == null)
+            mPurity = PurplePurity.read(mConfig.purplePurityFile(sampleId));
+
+        return mPurity;
+    }
+
+    // all unfiltered somatic variants, of every type
+    public List<SomaticVariant> somaticVariants(final String sampleId) throws NoSuchFileException
+    {
+        checkSample(sampleId);
+
+        if(mSomaticVariants == null)
+            mSomaticVariants = SomaticVariantsLoader.loadFromConfig(mConfig, sampleId, null);
+
+        return mSomaticVariants;
+    }
+}
@@ -2,96 +2,92 @@ package com.hartwig.hmftools.cup.prep;
 
 import static com.hartwig.hmftools.cup.common.CupConstants.CUP_LOGGER;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetbrains.annotations.Nullable;
 
+// extracts all categories for a sample in a single pass, so input files used by several categories are only read once
 public class SamplePrepTask implements Callable<Void>
 {
+    private final CuppaDataPrep mDataPrep;
     private final PrepConfig mConfig;
     private final int mSampleIndex;
-    private final String mSampleId;
 
-    private CategoryPrep mCategoryPrep;
-
-    @Nullable private List<DataItem> mDataItems;
-    @Nullable private ConcurrentHashMap<DataItem.Index, String[]> FeatureBySampleMatrix;
+    @Nullable private final Map<CategoryType,DataItemMatrix> mCategoryMatrices;
+    private final List<DataItem> mDataItems;
 
     private static final int PROGRESS_INTERVAL = 100;
 
     public SamplePrepTask(
             final int sampleIndex,
-            final PrepConfig prepConfig,
-            final CategoryPrep categoryPrep,
-            @Nullable final ConcurrentHashMap<DataItem.Index, String[]> featureBySampleMatrix)
+            final CuppaDataPrep dataPrep,
+            @Nullable final Map<CategoryType,DataItemMatrix> categoryMatrices)
     {
-        mConfig = prepConfig;
-        mCategoryPrep = categoryPrep;
+        mDataPrep = dataPrep;
+        mConfig = dataPrep.mConfig;
         mSampleIndex = sampleIndex;
 
-        mSampleId = categoryPrep.categoryType().isRna()
-                ? mConfig.RnaSampleIds.get(mSampleIndex)
-                : mConfig.SampleIds.get(mSampleIndex);
-
-        if(mConfig.isMultiSample() & featureBySampleMatrix == null)
+        if(mConfig.isMultiSample() & categoryMatrices == null)
         {
-            CUP_LOGGER.error("`featureBySampleMatrix` must not be null in multi sample mode");
+            CUP_LOGGER.error("`categoryMatrices` must not be null in multi sample mode");
             System.exit(1);
         }
 
-        FeatureBySampleMatrix = featureBySampleMatrix;
-    }
-
-    public synchronized void addDataItemsToMatrix()
-    {
-        int nSamples = mConfig.SampleIds.size();
-
-        for(DataItem dataItem : mDataItems)
-        {
-            FeatureBySampleMatrix.computeIfAbsent(dataItem.Index, k -> new String[nSamples]);
-            FeatureBySampleMatrix.get(dataItem.Index)[mSampleIndex] = dataItem.Value;
-        }
+        mCategoryMatrices = categoryMatrices;
+        mDataItems = new ArrayList<>();
     }
 
     public List<DataItem> dataItems() { return mDataItems; }
 
-    public void clearDataItems() { mDataItems = null; }
-
-    public void clearCategoryPrep() { mCategoryPrep = null; }
-
     public void run()
     {
         if(mConfig.isMultiSample() & (mSampleIndex < PROGRESS_INTERVAL || mSampleIndex % PROGRESS_INTERVAL == 0))
         {
             int sampleNum = mSampleIndex + 1;
             int totalSamples = mConfig.SampleIds.size();
-            CUP_LOGGER.debug("{}/{}: sample({})", sampleNum, totalSamples, mSampleId);
+            CUP_LOGGER.debug("{}/{}: sample({})", sampleNum, totalSamples, mConfig.SampleIds.get(mSampleIndex));
         }
 
-        boolean skipRnaCategory = mCategoryPrep.categoryType().isRna() && mSampleId.equals(SampleIdsLoader.NO_RNA_SAMPLE_ID);
-        if(!skipRnaCategory)
-            mDataItems = mCategoryPrep.extractSampleData(mSampleId);
+        SampleDataCache sampleDataCache = new SampleDataCache(mConfig);
 
-        if(mConfig.isMultiSample())
+        for(CategoryType categoryType : mConfig.Categories)
         {
-            if(mDataItems == null)
+            String sampleId = categoryType.isRna() ? mConfig.RnaSampleIds.get(mSampleIndex) : mConfig.SampleIds.get(mSampleIndex);
+
+            List<DataItem> dataItems = null;
+
+            boolean skipRnaCategory = categoryType.isRna() && sampleId.equals(SampleIdsLoader.NO_RNA_SAMPLE_ID);
+
+            if(!skipRnaCategory)
+            {
+                CategoryPrep categoryPrep = mDataPrep.createCategoryPrep(categoryType, sampleDataCache);
+                dataItems = categoryPrep.extractSampleData(sampleId);
+            }
+
+            if(!mConfig.isMultiSample())
+            {
+                if(dataItems != null)
+                    mDataItems.addAll(dataItems);
+
+                continue;
+            }
+
+            if(dataItems == null)
             {
                 // The matrix header will always use `SampleId`, and not `RnaSampleId`
-                String sampleIdForLog =  mConfig.SampleIds.get(mSampleIndex);
+                String sampleIdForLog = mConfig.SampleIds.get(mSampleIndex);
 
                 CUP_LOGGER.warn("multi-sample feature matrix will contain nulls for sample({}) category({})",
-                        sampleIdForLog, mCategoryPrep.categoryType());
+                        sampleIdForLog, categoryType);
             }
             else
             {
-                addDataItemsToMatrix();
-                clearDataItems();
+                mCategoryMatrices.get(categoryType).addSampleData(mSampleIndex, dataItems);
             }
         }
-
-        clearCategoryPrep();
     }
 
     @Override
@@ -36,13 +36,18 @@ public class AltSpliceJunctionPrep implements CategoryPrep
 
     public AltSpliceJunctionPrep(final PrepConfig config)
     {
-        mConfig = config;
-
-        mRefAsjIndexMap = Maps.newHashMap();
+        this(config, Maps.newHashMap());
 
         loadRefAltSjIndices(mConfig.AltSpliceJunctionSites, mRefAsjIndexMap);
     }
 
+    public AltSpliceJunctionPrep(final PrepConfig config, final Map<String,Integer> refAsjIndexMap)
+    {
+        // the reference sites are only read from, so can be loaded once and shared across samples
+        mConfig = config;
+        mRefAsjIndexMap = refAsjIndexMap;
+    }
+
     @Override
     public CategoryType categoryType() { return CategoryType.ALT_SJ; }
 
@@ -89,7 +94,7 @@ public class AltSpliceJunctionPrep implements CategoryPrep
         return dataItems;
     }
 
-    protected static boolean loadRefAltSjIndices(final String filename, final Map<String,Integer> refAsjIndexMap)
+    public static boolean loadRefAltSjIndices(final String filename, final Map<String,Integer> refAsjIndexMap)
     {
         try
         {
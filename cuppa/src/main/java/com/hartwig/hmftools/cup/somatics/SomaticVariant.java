@@ -4,13 +4,16 @@ import static com.hartwig.hmftools.common.utils.file.FileDelimiters.CSV_DELIM;
 import static com.hartwig.hmftools.common.variant.SageVcfTags.REPEAT_COUNT;
 import static com.hartwig.hmftools.common.variant.SageVcfTags.TRINUCLEOTIDE_CONTEXT;
 import static com.hartwig.hmftools.common.variant.impact.VariantImpactSerialiser.VAR_IMPACT;
+import static com.hartwig.hmftools.common.variant.impact.VariantImpactSerialiser.fromAttributeValues;
 import static com.hartwig.hmftools.common.variant.impact.VariantImpactSerialiser.fromVariantContext;
 
+import java.util.Arrays;
 import java.util.StringJoiner;
 
 import com.hartwig.hmftools.common.utils.file.FileWriterUtils;
 import com.hartwig.hmftools.common.variant.VariantType;
 import com.hartwig.hmftools.common.variant.impact.VariantImpact;
+import com.hartwig.hmftools.common.variant.vcf.VcfRecord;
 
 import htsjdk.variant.variantcontext.VariantContext;
 
@@ -83,6 +86,52 @@ public class SomaticVariant
                 variantContext.getAttributeAsInt(REPEAT_COUNT, 0));
     }
 
+    public static SomaticVariant fromRecord(final VcfRecord record)
+    {
+        String ref = record.ref();
+        String alt = record.firstAlt();
+
+        VariantType type = variantType(ref, record.alt());
+
+        if(alt.equals("*") || alt.equals("N") || alt.equals(".")) // unhandled for now
+            alt = ref;
+
+        String gene = "";
+
+        if(record.hasInfo(VAR_IMPACT))
+        {
+            VariantImpact impact = fromAttributeValues(Arrays.asList(record.infoValues(VAR_IMPACT)));
+            gene = impact.GeneName;
+        }
+
+        return new SomaticVariant(
+                record.chromosome(), record.position(), ref, alt, type, gene,
+                record.infoString(TRINUCLEOTIDE_CONTEXT, ""), record.infoInt(REPEAT_COUNT, 0));
+    }
+
+    private static VariantType variantType(final String ref, final String alts)
+    {
+        // as per htsjdk's typing, a site whose alts differ in type is mixed and so undefined
+        VariantType type = null;
+
+        for(String alt : alts.split(",", -1))
+        {
+            VariantType altType = isSymbolicOrMissing(alt) ? VariantType.UNDEFINED : VariantType.type(ref, alt);
+
+            if(type == null)
+                type = altType;
+            else if(type != altType)
+                return VariantType.UNDEFINED;
+        }
+
+        return type;
+    }
+
+    private static boolean isSymbolicOrMissing(final String alt)
+    {
+        return alt.equals(".") || alt.equals("*") || alt.startsWith("<") || alt.contains("[") || alt.contains("]");
+    }
+
     public static String csvHeader()
     {
         StringJoiner sj = new StringJoiner(CSV_DELIM);
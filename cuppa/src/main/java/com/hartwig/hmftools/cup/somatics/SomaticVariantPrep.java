@@ -15,7 +15,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.sigs.SnvSigUtils;
 import com.hartwig.hmftools.cup.prep.CategoryType;
@@ -24,11 +23,13 @@ import com.hartwig.hmftools.cup.prep.CategoryPrep;
 import com.hartwig.hmftools.cup.prep.DataItem;
 import com.hartwig.hmftools.cup.prep.ItemType;
 import com.hartwig.hmftools.cup.prep.PrepConfig;
+import com.hartwig.hmftools.cup.prep.SampleDataCache;
 import com.hartwig.hmftools.cup.traits.SampleTraitType;
 
 public class SomaticVariantPrep implements CategoryPrep
 {
     private final PrepConfig mConfig;
+    private final SampleDataCache mSampleDataCache;
 
     private static final String FLOAT_FORMAT_SIG_ALLOCATION = "%.1f";
 
@@ -39,8 +40,14 @@ public class SomaticVariantPrep implements CategoryPrep
     private int mTotalSnvCount = 0;
 
     public SomaticVariantPrep(final PrepConfig config)
+    {
+        this(config, new SampleDataCache(config));
+    }
+
+    public SomaticVariantPrep(final PrepConfig config, final SampleDataCache sampleDataCache)
     {
         mConfig = config;
+        mSampleDataCache = sampleDataCache;
     }
 
     @Override
@@ -48,8 +55,7 @@ public class SomaticVariantPrep implements CategoryPrep
 
     private void loadVariants(String sampleId) throws NoSuchFileException
     {
-        List<SomaticVariant> variants = SomaticVariantsLoader.loadFromConfig(mConfig, sampleId, Lists.newArrayList(SNP));
-        mVariants.addAll(variants);
+        mSampleDataCache.somaticVariants(sampleId).stream().filter(x -> x.Type == SNP).forEach(mVariants::add);
     }
 
     private void getTrinucleotideCounts()
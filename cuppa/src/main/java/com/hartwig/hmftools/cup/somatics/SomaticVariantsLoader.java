@@ -21,15 +21,12 @@ import java.util.Map;
 
 import com.hartwig.hmftools.common.utils.file.FileReaderUtils;
 import com.hartwig.hmftools.common.variant.VariantType;
-import com.hartwig.hmftools.common.variant.VcfFileReader;
+import com.hartwig.hmftools.common.variant.vcf.VcfRecord;
+import com.hartwig.hmftools.common.variant.vcf.VcfRecordReader;
 import com.hartwig.hmftools.cup.prep.PrepConfig;
 
 import org.jetbrains.annotations.Nullable;
 
-import htsjdk.variant.variantcontext.VariantContext;
-import htsjdk.variant.variantcontext.filter.CompoundFilter;
-import htsjdk.variant.variantcontext.filter.PassingVariantFilter;
-
 public class SomaticVariantsLoader
 {
     public static List<SomaticVariant> loadFromConfig(
@@ -59,30 +56,30 @@ public class SomaticVariantsLoader
 
     private static List<SomaticVariant> loadFromVcf(final String vcfFile, @Nullable final List<VariantType> variantTypes)
     {
-        CompoundFilter filter = new CompoundFilter(true);
-        filter.add(new PassingVariantFilter());
-
         List<SomaticVariant> variants = new ArrayList<>();
 
-        VcfFileReader vcfFileReader = new VcfFileReader(vcfFile);
+        // only a few fields are required, so avoid fully decoding each record
+        VcfRecordReader vcfReader = VcfRecordReader.open(vcfFile);
 
-        if(!vcfFileReader.fileValid())
+        if(vcfReader == null)
         {
             CUP_LOGGER.error("Invalid somatic VCF file({})", vcfFile);
             System.exit(1);
         }
 
-        for(VariantContext variantContext : vcfFileReader.iterator())
+        for(VcfRecord record : vcfReader)
         {
-            if(!filter.test(variantContext))
+            if(record.isFiltered())
                 continue;
 
-            if(variantTypes == null || variantTypes.contains(VariantType.type(variantContext)))
-            {
-                variants.add(SomaticVariant.fromContext(variantContext));
-            }
+            SomaticVariant variant = SomaticVariant.fromRecord(record);
+
+            if(variantTypes == null || variantTypes.contains(variant.Type))
+                variants.add(variant);
         }
 
+        vcfReader.close();
+
         return variants;
     }
 
@@ -114,7 +111,7 @@ public class SomaticVariantsLoader
                         values[chrIndex], Integer.parseInt(values[posIndex]), values[refIndex], values[altIndex],
                         VariantType.valueOf(values[typeIndex]), values[geneIndex], values[tnIndex], Integer.parseInt(values[rcIndex]));
 
-                if(variantTypes == null && !variantTypes.contains(variant.Type))
+                if(variantTypes != null && !variantTypes.contains(variant.Type))
                     continue;
 
                 variants.add(variant);
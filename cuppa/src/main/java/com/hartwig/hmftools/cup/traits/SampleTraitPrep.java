@@ -16,16 +16,24 @@ import com.hartwig.hmftools.cup.prep.CategoryPrep;
 import com.hartwig.hmftools.cup.prep.DataItem;
 import com.hartwig.hmftools.cup.prep.ItemType;
 import com.hartwig.hmftools.cup.prep.PrepConfig;
+import com.hartwig.hmftools.cup.prep.SampleDataCache;
 
 public class SampleTraitPrep implements CategoryPrep
 {
     private final PrepConfig mConfig;
+    private final SampleDataCache mSampleDataCache;
 
     private static final String FLOAT_FORMAT_MS_INDELS_TMB = "%.4f";
 
     public SampleTraitPrep(final PrepConfig config)
+    {
+        this(config, new SampleDataCache(config));
+    }
+
+    public SampleTraitPrep(final PrepConfig config, final SampleDataCache sampleDataCache)
     {
         mConfig = config;
+        mSampleDataCache = sampleDataCache;
     }
 
     @Override
@@ -38,7 +46,7 @@ public class SampleTraitPrep implements CategoryPrep
 
         try
         {
-            PurplePurity purity = PurplePurity.read(mConfig.purplePurityFile(sampleId));
+            PurplePurity purity = mSampleDataCache.purity(sampleId);
 
             dataItems.add(new DataItem(
                     DNA, ItemType.SAMPLE_TRAIT, GENDER.getAlias(),
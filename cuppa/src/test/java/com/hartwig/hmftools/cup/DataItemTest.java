@@ -76,7 +76,7 @@ public class DataItemTest
 
         DataItemMatrix dataItemMatrix = new DataItemMatrix(sampleIds, featureBySampleMatrix);
 
-        int nKeys = (int) dataItemMatrix.FeatureBySampleMatrix.keySet()
+        int nKeys = (int) dataItemMatrix.Indexes
                 .stream()
                 .distinct()
                 .count();
@@ -93,4 +93,41 @@ public class DataItemTest
                 dataItemMatrix.get(new DataItem.Index(DataSource.DNA, ItemType.DRIVER, "TP53.mut"))
         );
     }
+
+    @Test
+    public void canAddTypedSampleDataToMatrix()
+    {
+        List<String> sampleIds = Arrays.asList("Sample1", "Sample2", "Sample3");
+        DataItemMatrix dataItemMatrix = new DataItemMatrix(sampleIds);
+
+        dataItemMatrix.addSampleData(0, List.of(
+                new DataItem(DataSource.DNA, ItemType.SNV96, "C>T_TCC", 2),
+                new DataItem(DataSource.DNA, ItemType.DRIVER, "TP53.mut", 0.5, "%.4f")
+        ));
+
+        dataItemMatrix.addSampleData(2, List.of(
+                new DataItem(DataSource.DNA, ItemType.SNV96, "C>T_TCC", 7),
+                new DataItem(DataSource.DNA, ItemType.SAMPLE_TRAIT, "is_male", true)
+        ));
+
+        assertEquals(3, dataItemMatrix.nFeatures());
+
+        assertEquals(
+                new String[] { "2", null, "7" },
+                dataItemMatrix.get(new DataItem.Index(DataSource.DNA, ItemType.SNV96, "C>T_TCC"))
+        );
+
+        assertEquals(
+                new String[] { "0.5000", null, null },
+                dataItemMatrix.get(new DataItem.Index(DataSource.DNA, ItemType.DRIVER, "TP53.mut"))
+        );
+
+        // a text value for a numeric feature converts the feature's values to text
+        dataItemMatrix.addSampleData(1, List.of(new DataItem(DataSource.DNA, ItemType.SNV96, "C>T_TCC", "NA")));
+
+        assertEquals(
+                new String[] { "2", "NA", "7" },
+                dataItemMatrix.get(new DataItem.Index(DataSource.DNA, ItemType.SNV96, "C>T_TCC"))
+        );
+    }
 }
@@ -19,12 +19,18 @@ import com.hartwig.hmftools.esvee.depth.DepthAnnotator;
 import com.hartwig.hmftools.esvee.depth.DepthConfig;
 import com.hartwig.hmftools.esvee.prep.PrepApplication;
 import com.hartwig.hmftools.esvee.prep.PrepConfig;
+import com.hartwig.hmftools.esvee.prep.PrepHandoff;
+
+import org.jetbrains.annotations.Nullable;
 
 public class EsveeApplication
 {
     private final ConfigBuilder mConfigBuilder;
     private final List<Stage> mStages;
 
+    @Nullable
+    private final PrepHandoff mPrepHandoff;
+
     private enum Stage
     {
         PREP,
@@ -34,6 +40,7 @@ public class EsveeApplication
     }
 
     private static final String CFG_STAGE = "stages";
+    private static final String CFG_IN_MEMORY_HANDOFF = "in_memory_handoff";
 
     public EsveeApplication(final ConfigBuilder configBuilder)
     {
@@ -45,6 +52,23 @@ public class EsveeApplication
         {
             Arrays.stream(configBuilder.getValue(CFG_STAGE).split(ITEM_DELIM, -1)).forEach(x -> mStages.add(Stage.valueOf(x)));
         }
+
+        if(configBuilder.hasFlag(CFG_IN_MEMORY_HANDOFF))
+        {
+            if(runStage(Stage.PREP) && runStage(Stage.ASSEMBLY))
+            {
+                mPrepHandoff = new PrepHandoff();
+            }
+            else
+            {
+                SV_LOGGER.warn("in-memory handoff requires both prep and assembly stages, using prep files");
+                mPrepHandoff = null;
+            }
+        }
+        else
+        {
+            mPrepHandoff = null;
+        }
     }
 
     public void run()
@@ -76,7 +100,7 @@ public class EsveeApplication
         if(!runStage(Stage.PREP))
             return;
 
-        PrepApplication prepApplication = new PrepApplication(mConfigBuilder);
+        PrepApplication prepApplication = new PrepApplication(mConfigBuilder, mPrepHandoff);
         prepApplication.run();
     }
 
@@ -85,9 +109,12 @@ public class EsveeApplication
         if(!runStage(Stage.ASSEMBLY))
             return;
 
-        AssemblyApplication assemblyApplication = new AssemblyApplication(mConfigBuilder, true);
+        AssemblyApplication assemblyApplication = new AssemblyApplication(mConfigBuilder, true, mPrepHandoff);
         assemblyApplication.run();
         assemblyApplication.close();
+
+        if(mPrepHandoff != null)
+            mPrepHandoff.clear(); // release candidate reads before the depth and calling stages
     }
 
     private void runDepthAnnotation()
@@ -113,6 +140,8 @@ public class EsveeApplication
         ConfigBuilder configBuilder = new ConfigBuilder(APP_NAME);
 
         configBuilder.addConfigItem(CFG_STAGE, false, enumValueSelectionAsStr(Stage.values(), "Stages"));
+        configBuilder.addFlag(
+                CFG_IN_MEMORY_HANDOFF, "Pass prep junctions and candidate reads to assembly in memory, writing prep files only if set in write types");
 
         PrepConfig.registerConfig(configBuilder);
         AssemblyConfig.registerConfig(configBuilder);
@@ -68,6 +68,7 @@ import com.hartwig.hmftools.esvee.common.saga.SagaMatcherFactory;
 import com.hartwig.hmftools.esvee.common.WriteType;
 import com.hartwig.hmftools.esvee.common.saga.SagaSequenceMatcher;
 import com.hartwig.hmftools.esvee.prep.FragmentSizeDistribution;
+import com.hartwig.hmftools.esvee.prep.PrepHandoff;
 import com.hartwig.hmftools.esvee.prep.types.DiscordantStats;
 
 import org.jetbrains.annotations.Nullable;
@@ -82,6 +83,9 @@ public class AssemblyApplication
 
     private final List<BamReader> mBamReaders;
 
+    @Nullable
+    private final PrepHandoff mPrepHandoff;
+
     @Nullable
     private final SagaMatcherFactory mSagaMatcherFactory;
 
@@ -94,7 +98,13 @@ public class AssemblyApplication
 
     public AssemblyApplication(final ConfigBuilder configBuilder, boolean asSubRoutine)
     {
-        mConfig = new AssemblyConfig(configBuilder, asSubRoutine);
+        this(configBuilder, asSubRoutine, null);
+    }
+
+    public AssemblyApplication(final ConfigBuilder configBuilder, boolean asSubRoutine, @Nullable final PrepHandoff prepHandoff)
+    {
+        mConfig = new AssemblyConfig(configBuilder, asSubRoutine, prepHandoff != null);
+        mPrepHandoff = prepHandoff;
 
         mChrJunctionsMap = Maps.newHashMap();
         mJunctionGroupMap = new TreeMap<>();
@@ -198,7 +208,7 @@ public class AssemblyApplication
             return true;
         }
 
-        if(mConfig.JunctionFile == null || !Files.exists(Paths.get(mConfig.JunctionFile)))
+        if(mPrepHandoff == null && (mConfig.JunctionFile == null || !Files.exists(Paths.get(mConfig.JunctionFile))))
         {
             SV_LOGGER.error("invalid junction file({})", mConfig.JunctionFile);
             System.exit(1);
@@ -223,8 +233,16 @@ public class AssemblyApplication
                     minHotspotFrags, minJunctionFrags, minDiscordantFrags, format("%.3f", discordantRate));
         }
 
-        mChrJunctionsMap.putAll(Junction.loadJunctions(
-                mConfig.JunctionFile, mConfig.SpecificChrRegions, minJunctionFrags, minHotspotFrags, minDiscordantFrags));
+        if(mPrepHandoff != null)
+        {
+            mChrJunctionsMap.putAll(Junction.filterJunctions(
+                    mPrepHandoff.junctions(), mConfig.SpecificChrRegions, minJunctionFrags, minHotspotFrags, minDiscordantFrags, "prep"));
+        }
+        else
+        {
+            mChrJunctionsMap.putAll(Junction.loadJunctions(
+                    mConfig.JunctionFile, mConfig.SpecificChrRegions, minJunctionFrags, minHotspotFrags, minDiscordantFrags));
+        }
 
         // if(AssemblyConfig.DevDebug && !validateJunctionMap(mChrJunctionsMap))
         //    System.exit(1);
@@ -257,7 +275,7 @@ public class AssemblyApplication
     {
         for(int i = 0; i < taskCount; ++i)
         {
-            BamReader bamReader = new BamReader(mConfig);
+            BamReader bamReader = new BamReader(mConfig, mPrepHandoff);
             mBamReaders.add(bamReader);
         }
     }
@@ -87,6 +87,7 @@ public class AssemblyConfig
 
     public final String JunctionFile;
     public final String PrepDir;
+    public final boolean PrepInMemory; // junctions and candidate reads are taken from prep directly rather than from its files
 
     public final RefGenomeVersion RefGenVersion;
     public final RefGenomeCoordinates RefGenomeCoords;
@@ -163,6 +164,13 @@ public class AssemblyConfig
 
     public AssemblyConfig(final ConfigBuilder configBuilder, boolean asSubRoutine)
     {
+        this(configBuilder, asSubRoutine, false);
+    }
+
+    public AssemblyConfig(final ConfigBuilder configBuilder, boolean asSubRoutine, boolean prepInMemory)
+    {
+        PrepInMemory = prepInMemory;
+
         String prepBamDir = null;
 
         if(!asSubRoutine)
@@ -203,23 +211,27 @@ public class AssemblyConfig
         ReferenceBams = Lists.newArrayList();
         ReferenceIds = Lists.newArrayList();
 
-        List<String> prepTumorBams = formPrepBamFilenames(PrepDir, TumorIds);
-
-        if(prepTumorBams.size() == TumorIds.size())
-            TumorBams.addAll(prepTumorBams);
-        else if(!asSubRoutine)
-            TumorBams.addAll(parseSampleBamLists(configBuilder, TUMOR_BAM));
-
         if(configBuilder.hasValue(REFERENCE))
-        {
             ReferenceIds.addAll(parseSampleBamLists(configBuilder, REFERENCE));
 
-            List<String> prepRefBams = formPrepBamFilenames(PrepDir, ReferenceIds);
+        if(!PrepInMemory)
+        {
+            List<String> prepTumorBams = formPrepBamFilenames(PrepDir, TumorIds);
 
-            if(prepRefBams.size() == ReferenceIds.size())
-                ReferenceBams.addAll(prepRefBams);
+            if(prepTumorBams.size() == TumorIds.size())
+                TumorBams.addAll(prepTumorBams);
             else if(!asSubRoutine)
-                ReferenceBams.addAll(parseSampleBamLists(configBuilder, REFERENCE_BAM));
+                TumorBams.addAll(parseSampleBamLists(configBuilder, TUMOR_BAM));
+
+            if(!ReferenceIds.isEmpty())
+            {
+                List<String> prepRefBams = formPrepBamFilenames(PrepDir, ReferenceIds);
+
+                if(prepRefBams.size() == ReferenceIds.size())
+                    ReferenceBams.addAll(prepRefBams);
+                else if(!asSubRoutine)
+                    ReferenceBams.addAll(parseSampleBamLists(configBuilder, REFERENCE_BAM));
+            }
         }
 
         if(TumorIds.isEmpty() && ReferenceIds.isEmpty())
@@ -228,13 +240,13 @@ public class AssemblyConfig
             System.exit(1);
         }
 
-        if(TumorIds.size() != TumorBams.size() || ReferenceIds.size() != ReferenceBams.size())
+        if(!PrepInMemory && (TumorIds.size() != TumorBams.size() || ReferenceIds.size() != ReferenceBams.size()))
         {
             SV_LOGGER.error("tumor and reference IDs must match BAM files");
             System.exit(1);
         }
 
-        if(asSubRoutine)
+        if(asSubRoutine && !PrepInMemory)
         {
             if(!TumorBams.isEmpty())
                 SV_LOGGER.debug("processing tumor prep bam(s): {}", TumorBams);
@@ -351,7 +363,8 @@ public class AssemblyConfig
 
         ApplyRemotePhasingReadCheckThreshold = configBuilder.hasFlag(REMOTE_PHASING_READ_CHECK_THRESHOLD);
 
-        READ_ID_TRIMMER = new ReadIdTrimmer(!hasFilters && TumorBams.size() == 1);
+        int tumorSampleCount = PrepInMemory ? TumorIds.size() : TumorBams.size();
+        READ_ID_TRIMMER = new ReadIdTrimmer(!hasFilters && tumorSampleCount == 1);
     }
 
     public List<String> combinedSampleIds()
@@ -456,6 +469,7 @@ public class AssemblyConfig
 
         JunctionFile = null;
         PrepDir = null;
+        PrepInMemory = false;
 
         RefGenVersion = V38;
         RefGenomeCoords = null;
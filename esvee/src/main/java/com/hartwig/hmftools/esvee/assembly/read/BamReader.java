@@ -15,7 +15,12 @@ import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.bam.BamSlicer;
 import com.hartwig.hmftools.esvee.assembly.AssemblyConfig;
+import com.hartwig.hmftools.esvee.prep.CandidateReadStore;
+import com.hartwig.hmftools.esvee.prep.PrepHandoff;
 
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
@@ -29,13 +34,43 @@ public class BamReader implements AutoCloseable
     private final BamSlicer mBamSlicer;
     private boolean mCurrentIsReferenceSample;
 
+    // candidate reads handed over from prep, with each sample's header tagged with its index as for the BAMs
+    private final List<CandidateReadStore> mCandidateReadStores;
+    private final List<SAMFileHeader> mCandidateReadHeaders;
+
     public BamReader(final AssemblyConfig config)
+    {
+        this(config, null);
+    }
+
+    public BamReader(final AssemblyConfig config, @Nullable final PrepHandoff prepHandoff)
     {
         mConfig = config;
 
         mSamReaders = Lists.newArrayList();
+        mCandidateReadStores = Lists.newArrayList();
+        mCandidateReadHeaders = Lists.newArrayList();
         mCurrentIsReferenceSample = false;
 
+        if(prepHandoff != null)
+        {
+            List<String> combinedSampleIds = mConfig.combinedSampleIds();
+
+            for(int i = 0; i < combinedSampleIds.size(); ++i)
+            {
+                CandidateReadStore readStore = prepHandoff.candidateReads(combinedSampleIds.get(i));
+
+                SAMFileHeader header = readStore.header() != null ? readStore.header().clone() : new SAMFileHeader();
+                header.setAttribute(BAM_HEADER_SAMPLE_INDEX_TAG, i);
+
+                mCandidateReadStores.add(readStore);
+                mCandidateReadHeaders.add(header);
+            }
+
+            mBamSlicer = null;
+            return;
+        }
+
         List<String> combinedBamFiles = mConfig.combinedBamFiles();
         List<String> combinedSampleId = mConfig.combinedSampleIds();
 
@@ -63,6 +98,12 @@ public class BamReader implements AutoCloseable
         if(bamPosStart > bamPosEnd)
             return;
 
+        for(int i = 0; i < mCandidateReadStores.size(); ++i)
+        {
+            mCurrentIsReferenceSample = i >= mConfig.TumorIds.size();
+            mCandidateReadStores.get(i).sliceReads(chromosome, positionStart, positionEnd, mCandidateReadHeaders.get(i), consumer);
+        }
+
         for(int i = 0; i < mSamReaders.size(); ++i)
         {
             SamReader reader = mSamReaders.get(i);
@@ -32,6 +32,7 @@ import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.genome.region.Orientation;
 import com.hartwig.hmftools.common.region.SpecificRegions;
 import com.hartwig.hmftools.esvee.common.IndelCoords;
+import com.hartwig.hmftools.esvee.prep.types.PrepJunction;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -164,7 +165,7 @@ public class Junction implements Comparable<Junction>
         {
             BufferedReader fileReader = new BufferedReader(new FileReader(filename));
 
-            Map<String,List<Junction>> chrJunctionsMap = Maps.newHashMap();
+            List<PrepJunction> prepJunctions = Lists.newArrayList();
 
             String line = fileReader.readLine();
             final Map<String,Integer> fieldsIndexMap = createFieldsIndexMap(line, TSV_DELIM);
@@ -185,96 +186,117 @@ public class Junction implements Comparable<Junction>
             Integer remoteFragsIndex = fieldsIndexMap.get(FLD_REMOTE_FRAGS);
             Integer sagaMatchIndex = fieldsIndexMap.get(FLD_SAGA_MATCH);
 
-            List<Junction> junctionDataList = null;
-            String currentChromosome = "";
-
-            int junctionCount = 0;
-            int rawJunctionCount = 0;
-            int discordantCount = 0;
-            int indelCount = 0;
-            int hotspotCount = 0;
-
             while((line = fileReader.readLine()) != null)
             {
                 final String[] values = line.split(TSV_DELIM, -1);
 
-                String chromosome = values[chrIndex];
-                int position = Integer.parseInt(values[posIndex]);
-                Orientation orientation = fromByteStr(values[orientIndex]);
+                int junctionFrags = juncFragsIndex != null ? Integer.parseInt(values[juncFragsIndex]) : 0;
+                int otherJunctionFrags = otherSupportFragsIndex != null ? Integer.parseInt(values[otherJuncFragsIndex]) : 0;
+                int otherSupportFrags = otherSupportFragsIndex != null ? Integer.parseInt(values[otherSupportFragsIndex]) : 0;
 
-                if(!specificRegions.includeChromosome(chromosome))
-                    continue;
+                int maxRemoteFrags = otherSupportFrags;
 
-                if(!specificRegions.includePosition(chromosome, position))
-                    continue;
+                if(remoteFragsIndex != null)
+                    maxRemoteFrags = Integer.parseInt(values[remoteFragsIndex]);
+                else if(extraInfoIndex != null)
+                    maxRemoteFrags = Integer.parseInt(values[extraInfoIndex]); // for v2.0 backwards compatibility
 
-                ++rawJunctionCount;
+                prepJunctions.add(new PrepJunction(
+                        values[chrIndex], Integer.parseInt(values[posIndex]), fromByteStr(values[orientIndex]),
+                        junctionFrags, otherJunctionFrags, otherSupportFrags, maxRemoteFrags,
+                        indelIndex != null && Boolean.parseBoolean(values[indelIndex]),
+                        hotspotIndex != null && Boolean.parseBoolean(values[hotspotIndex]),
+                        sagaMatchIndex != null ? values[sagaMatchIndex] : null));
+            }
 
-                int junctionFrags = juncFragsIndex != null ? Integer.parseInt(values[juncFragsIndex]) : 0;
-                int otherJunctionFrags = otherSupportFragsIndex != null ? Integer.parseInt(values[otherJuncFragsIndex]) : 0;
-                int otherSupportFrags = otherSupportFragsIndex != null ? Integer.parseInt(values[otherSupportFragsIndex]) : 0;
+            return filterJunctions(prepJunctions, specificRegions, minJunctionFrags, minHotspotFrags, minDiscordantFrags, filename);
+        }
+        catch(IOException exception)
+        {
+            SV_LOGGER.error("failed to read junctions file({})", filename, exception.toString());
+            return null;
+        }
+    }
 
-                boolean discordantOnly = junctionFrags == 0 && otherSupportFrags > 0;
-                boolean indel = indelIndex != null && Boolean.parseBoolean(values[indelIndex]);
-                boolean hotspot = hotspotIndex != null && Boolean.parseBoolean(values[hotspotIndex]);
+    public static Map<String,List<Junction>> filterJunctions(
+            final List<PrepJunction> prepJunctions, final SpecificRegions specificRegions, int minJunctionFrags, int minHotspotFrags,
+            int minDiscordantFrags, final String source)
+    {
+        Map<String,List<Junction>> chrJunctionsMap = Maps.newHashMap();
 
-                // the first part is the variant ID, the second part is the breakends which isn't needed
-                String sagaMatchVariant = sagaMatchIndex != null ? values[sagaMatchIndex].split(" ")[0] : null;
+        List<Junction> junctionDataList = null;
+        String currentChromosome = "";
 
-                if(hotspot)
-                {
-                    if(junctionFrags < minHotspotFrags)
-                        continue;
+        int junctionCount = 0;
+        int rawJunctionCount = 0;
+        int discordantCount = 0;
+        int indelCount = 0;
+        int hotspotCount = 0;
 
-                    ++hotspotCount;
-                }
-                else if(discordantOnly)
-                {
-                    int maxRemoteFrags = otherSupportFrags;
+        for(PrepJunction prepJunction : prepJunctions)
+        {
+            String chromosome = prepJunction.Chromosome;
+            int position = prepJunction.Position;
 
-                    if(remoteFragsIndex != null)
-                        maxRemoteFrags = Integer.parseInt(values[remoteFragsIndex]);
-                    else if(extraInfoIndex != null)
-                        maxRemoteFrags = Integer.parseInt(values[extraInfoIndex]); // for v2.0 backwards compatibility
+            if(!specificRegions.includeChromosome(chromosome))
+                continue;
 
-                    if(maxRemoteFrags < minDiscordantFrags)
-                        continue;
+            if(!specificRegions.includePosition(chromosome, position))
+                continue;
 
-                    ++discordantCount;
-                }
-                else
-                {
-                    if(junctionFrags + otherJunctionFrags < minJunctionFrags)
-                        continue;
+            ++rawJunctionCount;
 
-                    if(indel)
-                        ++indelCount;
-                }
+            int junctionFrags = prepJunction.JunctionFrags;
+            int otherJunctionFrags = prepJunction.ExactSupportFrags;
+            int otherSupportFrags = prepJunction.OtherSupportFrags;
 
-                if(!currentChromosome.equals(chromosome))
-                {
-                    currentChromosome = chromosome;
-                    junctionDataList = Lists.newArrayList();
-                    chrJunctionsMap.put(chromosome, junctionDataList);
-                }
+            boolean discordantOnly = junctionFrags == 0 && otherSupportFrags > 0;
+            boolean indel = prepJunction.Indel;
+            boolean hotspot = prepJunction.Hotspot;
+
+            // the first part is the variant ID, the second part is the breakends which isn't needed
+            String sagaMatchVariant = prepJunction.SagaMatch != null ? prepJunction.SagaMatch.split(" ")[0] : null;
+
+            if(hotspot)
+            {
+                if(junctionFrags < minHotspotFrags)
+                    continue;
+
+                ++hotspotCount;
+            }
+            else if(discordantOnly)
+            {
+                if(prepJunction.RemoteFrags < minDiscordantFrags)
+                    continue;
 
-                junctionDataList.add(new Junction(chromosome, position, orientation, discordantOnly, indel, hotspot, sagaMatchVariant));
-                ++junctionCount;
+                ++discordantCount;
             }
+            else
+            {
+                if(junctionFrags + otherJunctionFrags < minJunctionFrags)
+                    continue;
 
-            int splitCount = junctionCount - discordantCount - indelCount;
-            SV_LOGGER.info("loaded junctions({} raw={}) types(split={} indel={} discordant={} hotspot={}) from file: {}",
-                    junctionCount, rawJunctionCount, splitCount, indelCount, discordantCount, hotspotCount, filename);
+                if(indel)
+                    ++indelCount;
+            }
 
-            chrJunctionsMap.values().forEach(x -> Collections.sort(x));
+            if(!currentChromosome.equals(chromosome))
+            {
+                currentChromosome = chromosome;
+                junctionDataList = chrJunctionsMap.computeIfAbsent(chromosome, k -> Lists.newArrayList());
+            }
 
-            return chrJunctionsMap;
-        }
-        catch(IOException exception)
-        {
-            SV_LOGGER.error("failed to read junctions file({})", filename, exception.toString());
-            return null;
+            junctionDataList.add(new Junction(chromosome, position, prepJunction.Orient, discordantOnly, indel, hotspot, sagaMatchVariant));
+            ++junctionCount;
         }
+
+        int splitCount = junctionCount - discordantCount - indelCount;
+        SV_LOGGER.info("loaded junctions({} raw={}) types(split={} indel={} discordant={} hotspot={}) from {}",
+                junctionCount, rawJunctionCount, splitCount, indelCount, discordantCount, hotspotCount, source);
+
+        chrJunctionsMap.values().forEach(x -> Collections.sort(x));
+
+        return chrJunctionsMap;
     }
 
     public static Junction fromConfigStr(final String configStr)
@@ -27,6 +27,7 @@ import java.util.stream.Collectors;
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.bamops.BamOperations;
 import com.hartwig.hmftools.common.bam.BamSlicer;
+import com.hartwig.hmftools.common.bam.BamSlicerFilter;
 import com.hartwig.hmftools.common.bamops.BamToolName;
 import com.hartwig.hmftools.common.sequencing.SequencingType;
 import com.hartwig.hmftools.common.sv.EsveeCommon;
@@ -173,10 +174,15 @@ public final class FileCommon
 
     public static BamSlicer createBamSlicer()
     {
-        BamSlicer bamSlicer = new BamSlicer(0, false, true, false);
-        bamSlicer.setKeepUnmapped();
-        bamSlicer.setKeepHardClippedSecondaries();
-        return bamSlicer;
+        return new BamSlicer(createBamSlicerFilter());
+    }
+
+    public static BamSlicerFilter createBamSlicerFilter()
+    {
+        BamSlicerFilter filter = new BamSlicerFilter(0, false, true, false);
+        filter.setKeepUnmapped();
+        filter.setKeepHardClippedSecondaries();
+        return filter;
     }
 
     public static void deleteInterimFile(final String filename)
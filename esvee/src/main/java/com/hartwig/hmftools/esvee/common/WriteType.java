@@ -54,6 +54,8 @@ public enum WriteType
     private static final String ASSEMBLY_STANDARD_CFG = "ASSEMBLY_STANDARD";
 
     private static final Set<WriteType> PREP_STANDARD = Set.of(PREP_JUNCTION, PREP_BAM, FRAGMENT_LENGTH_DIST, DISCORDANT_STATS);
+    // junctions and candidate reads are passed directly to assembly, which still loads these statistics from file
+    private static final Set<WriteType> PREP_IN_MEMORY_STANDARD = Set.of(FRAGMENT_LENGTH_DIST, DISCORDANT_STATS);
     private static final Set<WriteType> ASSEMBLY_STANDARD = Set.of(VCF, BREAKEND, JUNC_ASSEMBLY);
 
     public static Set<WriteType> parsePrepTypes(final String configStr)
@@ -71,6 +73,14 @@ public enum WriteType
         return writeTypes.stream().filter(x -> x.isPrepType()).collect(Collectors.toSet());
     }
 
+    public static Set<WriteType> parsePrepTypes(final String configStr, boolean inMemoryHandoff)
+    {
+        if(inMemoryHandoff && (configStr == null || configStr.isEmpty()))
+            return PREP_IN_MEMORY_STANDARD;
+
+        return parsePrepTypes(configStr);
+    }
+
     public static Set<WriteType> parseAssemblyTypes(final String configStr)
     {
         Set<WriteType> writeTypes = Sets.newHashSet();
@@ -1,5 +1,7 @@
 package com.hartwig.hmftools.esvee.depth;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 
 import static com.hartwig.hmftools.common.perf.PerformanceCounter.runTimeMinsStr;
@@ -17,10 +19,11 @@ import static com.hartwig.hmftools.esvee.common.FileCommon.formOutputFile;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
@@ -28,6 +31,7 @@ import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.perf.PerformanceCounter;
 import com.hartwig.hmftools.common.perf.TaskExecutor;
+import com.hartwig.hmftools.common.perf.TaskQueue;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.region.ExcludedRegions;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
@@ -131,14 +135,19 @@ public class DepthAnnotator
         {
             SV_LOGGER.warn("all variants filtered from vcf({})", vcfCount, mConfig.InputVcf);
 
-            writeVcf(vcfHeader, Collections.emptyList());
+            writeVcf(vcfHeader);
             return;
         }
 
         if(mConfig.PerfLogTime > 0)
             analyseVariantDistribution();
 
-        List<DepthTask> depthTasks = Lists.newArrayList();
+        // split chromosomes into partitions of similar variant counts so large or heavily rearranged chromosomes are spread
+        // across threads, with variants annotated in place so results are written back in their original order
+        int totalVariants = mChrVariantMap.values().stream().mapToInt(x -> x.size()).sum();
+        int targetPartitionSize = DepthPartition.targetPartitionSize(totalVariants, mConfig.Threads);
+
+        Queue<DepthPartition> partitionQueue = new ConcurrentLinkedQueue<>();
 
         for(HumanChromosome chromosome : HumanChromosome.values())
         {
@@ -149,23 +158,34 @@ public class DepthAnnotator
             if(variantsList == null)
                 continue;
 
-            DepthTask depthTask = new DepthTask(chrStr, mConfig, mSampleVcfGenotypeIds);
-            depthTask.addVariants(variantsList);
-            depthTasks.add(depthTask);
+            partitionQueue.addAll(DepthPartition.formPartitions(chrStr, variantsList, mConfig.ProximityDistance, targetPartitionSize));
+        }
+
+        TaskQueue<DepthPartition> partitions = new TaskQueue<>(partitionQueue, "depth partitions", 100);
+
+        int taskCount = max(min(partitions.initialCount(), mConfig.Threads), 1);
+
+        SV_LOGGER.info("annotating {} variants in {} partitions with {} threads", totalVariants, partitions.initialCount(), taskCount);
+
+        List<DepthTask> depthTasks = Lists.newArrayList();
+
+        for(int i = 0; i < taskCount; ++i)
+        {
+            depthTasks.add(new DepthTask(mConfig, mSampleVcfGenotypeIds, partitions));
         }
 
         final List<Callable<Void>> callableList = depthTasks.stream().collect(Collectors.toList());
-        if(!TaskExecutor.executeTasks(callableList, mConfig.Threads))
+        if(!TaskExecutor.executeTasks(callableList, taskCount))
             System.exit(1);
 
         if(mConfig.UnmapRegionsFile != null)
         {
             UnmappedRegionDepth unmappedRegionDepth = new UnmappedRegionDepth(mConfig.UnmapRegionsFile);
-            unmappedRegionDepth.setUnmappedRegionsDepth(mConfig.SampleIds.size(), depthTasks);
+            unmappedRegionDepth.setUnmappedRegionsDepth(mConfig.SampleIds.size(), mChrVariantMap.values());
         }
 
         // write output VCF
-        writeVcf(vcfHeader, depthTasks);
+        writeVcf(vcfHeader);
 
         SV_LOGGER.info("Esvee depth annotation complete, mins({})", runTimeMinsStr(startTimeMs));
 
@@ -181,7 +201,7 @@ public class DepthAnnotator
         }
     }
 
-    private void writeVcf(final VCFHeader header, final List<DepthTask> depthTasks)
+    private void writeVcf(final VCFHeader header)
     {
         String outputVcf = formOutputFile(mConfig.OutputDir, mConfig.sampleId(), ESVEE_FILE_ID, DEPTH_VCF_SUFFIX, mConfig.OutputId);
 
@@ -231,12 +251,12 @@ public class DepthAnnotator
         for(HumanChromosome chromosome : HumanChromosome.values())
         {
             String chrStr = mConfig.RefGenVersion.versionedChromosome(chromosome.toString());
-            DepthTask depthTask = depthTasks.stream().filter(x -> x.chromosome().equals(chrStr)).findFirst().orElse(null);
+            List<VariantContext> variantsList = mChrVariantMap.get(chrStr);
 
-            if(depthTask == null)
+            if(variantsList == null)
                 continue;
 
-            depthTask.variants().forEach(x -> writer.add(x));
+            variantsList.forEach(x -> writer.add(x));
         }
 
         writer.close();
@@ -0,0 +1,70 @@
+package com.hartwig.hmftools.esvee.depth;
+
+import static java.lang.Math.max;
+import static java.lang.String.format;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import htsjdk.variant.variantcontext.VariantContext;
+
+// a run of a chromosome's variants annotated as one unit of work, only split between groups of proximate variants so that
+// each group is still retrieved with a single slice
+public class DepthPartition
+{
+    public final String Chromosome;
+    public final List<VariantContext> Variants;
+
+    // partitions are sized so each thread takes several, evening out the variation in slice depth across the genome
+    private static final int PARTITIONS_PER_THREAD = 4;
+    private static final int MIN_PARTITION_VARIANTS = 100;
+
+    public DepthPartition(final String chromosome, final List<VariantContext> variants)
+    {
+        Chromosome = chromosome;
+        Variants = variants;
+    }
+
+    public static int targetPartitionSize(int totalVariants, int threads)
+    {
+        int partitionCount = max(threads, 1) * PARTITIONS_PER_THREAD;
+        return max((totalVariants + partitionCount - 1) / partitionCount, MIN_PARTITION_VARIANTS);
+    }
+
+    public static List<DepthPartition> formPartitions(
+            final String chromosome, final List<VariantContext> variants, int proximityDistance, int targetPartitionSize)
+    {
+        List<DepthPartition> partitions = Lists.newArrayList();
+
+        int partitionStartIndex = 0;
+        int index = 0;
+
+        while(index < variants.size())
+        {
+            // move past the group of variants close enough to share a slice
+            int posEnd = variants.get(index).getStart();
+            ++index;
+
+            while(index < variants.size() && variants.get(index).getStart() - posEnd <= proximityDistance)
+            {
+                posEnd = variants.get(index).getStart();
+                ++index;
+            }
+
+            if(index - partitionStartIndex >= targetPartitionSize || index == variants.size())
+            {
+                partitions.add(new DepthPartition(chromosome, variants.subList(partitionStartIndex, index)));
+                partitionStartIndex = index;
+            }
+        }
+
+        return partitions;
+    }
+
+    public String toString()
+    {
+        return format("%s:%d-%d variants(%d)",
+                Chromosome, Variants.get(0).getStart(), Variants.get(Variants.size() - 1).getStart(), Variants.size());
+    }
+}
@@ -23,6 +23,7 @@ import static com.hartwig.hmftools.esvee.common.SvConstants.DEFAULT_MAX_FRAGMENT
 import java.io.File;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.StringJoiner;
 import java.util.concurrent.Callable;
 
@@ -33,8 +34,11 @@ import com.hartwig.hmftools.common.bam.BamSlicer;
 import com.hartwig.hmftools.common.bam.SupplementaryReadData;
 import com.hartwig.hmftools.common.genome.region.Orientation;
 import com.hartwig.hmftools.common.perf.PerformanceCounter;
+import com.hartwig.hmftools.common.perf.TaskQueue;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 
+import org.jetbrains.annotations.Nullable;
+
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
@@ -47,7 +51,10 @@ public class DepthTask implements Callable<Void>
     private final Map<String, Integer> mSampleVcfGenotypeIds;
     private final List<VariantContext> mVariantsList;
     private final List<VariantInfo> mVariantInfoList;
-    private final String mChromosome;
+    private String mChromosome;
+
+    @Nullable
+    private final TaskQueue<DepthPartition> mPartitions;
 
     private final List<SamReader> mSamReaders;
     private final BamSlicer mBamSlicer;
@@ -61,11 +68,25 @@ public class DepthTask implements Callable<Void>
     private int mCacheRecordCounter;
     private final PerformanceCounter mPerfCounter;
 
+    public DepthTask(final DepthConfig config, final Map<String, Integer> sampleVcfGenotypeIds, final TaskQueue<DepthPartition> partitions)
+    {
+        this(null, config, sampleVcfGenotypeIds, partitions);
+    }
+
+    @VisibleForTesting
     public DepthTask(final String chromosome, final DepthConfig config, final Map<String, Integer> sampleVcfGenotypeIds)
+    {
+        this(chromosome, config, sampleVcfGenotypeIds, null);
+    }
+
+    private DepthTask(
+            final String chromosome, final DepthConfig config, final Map<String, Integer> sampleVcfGenotypeIds,
+            @Nullable final TaskQueue<DepthPartition> partitions)
     {
         mConfig = config;
         mChromosome = chromosome;
         mSampleVcfGenotypeIds = sampleVcfGenotypeIds;
+        mPartitions = partitions;
 
         mVariantsList = Lists.newArrayList();
         mVariantInfoList = Lists.newArrayList();
@@ -92,8 +113,6 @@ public class DepthTask implements Callable<Void>
         mPerfCounter = new PerformanceCounter("Slice");
     }
 
-    public String chromosome() { return mChromosome; }
-
     public void addVariants(final List<VariantContext> variants)
     {
         List<Integer> genotypeIds = Lists.newArrayList();
@@ -112,7 +131,40 @@ public class DepthTask implements Callable<Void>
     @Override
     public Void call()
     {
-        SV_LOGGER.info("chr({}) processing {} variants", mChromosome, mVariantsList.size());
+        if(mPartitions == null)
+        {
+            processVariants();
+            return null;
+        }
+
+        // each thread takes partitions until none remain, reusing its BAM readers across them
+        while(true)
+        {
+            try
+            {
+                DepthPartition partition = mPartitions.removeItem();
+
+                mChromosome = partition.Chromosome;
+                mVariantsList.clear();
+                mVariantInfoList.clear();
+                addVariants(partition.Variants);
+
+                processVariants();
+            }
+            catch(NoSuchElementException e)
+            {
+                break;
+            }
+        }
+
+        SV_LOGGER.debug("depth task complete, total reads({})", mTotalReadCount);
+
+        return null;
+    }
+
+    private void processVariants()
+    {
+        SV_LOGGER.debug("chr({}) processing {} variants", mChromosome, mVariantsList.size());
 
         // process the set of variants by grouping them into those with close positions where they may be able to share
         // the same reads from a wider slice
@@ -203,10 +255,8 @@ public class DepthTask implements Callable<Void>
             setRefDepthValue(variant, skipRefPairSupport ? 0 : totalCounts.RefPairSupport, refPairVcfTag);
         }
 
-        SV_LOGGER.info("chr({}) complete for {} variants, total reads({})", mChromosome, processed, mTotalReadCount);
+        SV_LOGGER.debug("chr({}) complete for {} variants", mChromosome, processed);
         mReadGroups.clear();
-
-        return null;
     }
 
     private static final int READ_CACHE_CLEAR_COUNT = 100000;
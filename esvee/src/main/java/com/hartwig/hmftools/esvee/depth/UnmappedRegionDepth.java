@@ -10,6 +10,7 @@ import static com.hartwig.hmftools.esvee.depth.DepthConfig.UNMAPPED_VAF_THRESHOL
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -33,7 +34,7 @@ public class UnmappedRegionDepth
             mChrLocationsMap = Collections.emptyMap();
     }
 
-    public void setUnmappedRegionsDepth(final int sampleCount, final List<DepthTask> depthTasks)
+    public void setUnmappedRegionsDepth(final int sampleCount, final Collection<List<VariantContext>> chrVariants)
     {
         // work out median ref depth for each sample
         List<List<Integer>> sampleVariantDepths = Lists.newArrayList();
@@ -45,9 +46,9 @@ public class UnmappedRegionDepth
 
         List<VariantContext> unmappedLowRefDepthVarints = Lists.newArrayList();
 
-        for(DepthTask depthTask : depthTasks)
+        for(List<VariantContext> variants : chrVariants)
         {
-            for(VariantContext variantContext : depthTask.variants())
+            for(VariantContext variantContext : variants)
             {
                 for(int sampleIndex = 0; sampleIndex < variantContext.getNSamples(); ++sampleIndex)
                 {
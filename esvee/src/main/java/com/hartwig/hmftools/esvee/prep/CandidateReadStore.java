@@ -0,0 +1,128 @@
+package com.hartwig.hmftools.esvee.prep;
+
+import static java.lang.Math.max;
+
+import static com.hartwig.hmftools.esvee.common.FileCommon.createBamSlicerFilter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.bam.BamSlicerFilter;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+
+// a sample's candidate reads held in memory in place of its prep BAM, sorted by position once prep completes so that assembly can
+// slice them in the same way as an indexed BAM
+public class CandidateReadStore
+{
+    private final Map<String,List<SAMRecord>> mChrReads;
+    private final Map<String,Integer> mChrMaxReadSpan; // bounds how far before a slice a read overlapping it can start
+    private final BamSlicerFilter mFilter;
+
+    private SAMFileHeader mHeader;
+    private long mReadCount;
+
+    public CandidateReadStore()
+    {
+        mChrReads = Maps.newHashMap();
+        mChrMaxReadSpan = Maps.newHashMap();
+        mFilter = createBamSlicerFilter();
+        mHeader = null;
+        mReadCount = 0;
+    }
+
+    public synchronized void addRead(final SAMRecord record)
+    {
+        // reads without a position are never returned by a BAM slice
+        if(record.getReferenceName().equals(SAMRecord.NO_ALIGNMENT_REFERENCE_NAME))
+            return;
+
+        if(mHeader == null)
+            mHeader = record.getHeader();
+
+        mChrReads.computeIfAbsent(record.getReferenceName(), k -> new ArrayList<>()).add(record);
+        ++mReadCount;
+    }
+
+    public long readCount() { return mReadCount; }
+
+    public SAMFileHeader header() { return mHeader; }
+
+    public void sortReads()
+    {
+        // reads are already split by chromosome so only need ordering by position
+        Comparator<SAMRecord> comparator = Comparator.comparingInt(SAMRecord::getAlignmentStart);
+
+        for(Map.Entry<String,List<SAMRecord>> entry : mChrReads.entrySet())
+        {
+            List<SAMRecord> reads = entry.getValue();
+            reads.sort(comparator);
+
+            int maxReadSpan = 1;
+
+            for(SAMRecord read : reads)
+            {
+                maxReadSpan = max(maxReadSpan, readEnd(read) - read.getAlignmentStart() + 1);
+            }
+
+            mChrMaxReadSpan.put(entry.getKey(), maxReadSpan);
+        }
+    }
+
+    // passes a copy of each read overlapping the region to the consumer, since assembly can modify the records it is given
+    public void sliceReads(
+            final String chromosome, int positionStart, int positionEnd, final SAMFileHeader header, final Consumer<SAMRecord> consumer)
+    {
+        List<SAMRecord> reads = mChrReads.get(chromosome);
+
+        if(reads == null)
+            return;
+
+        int index = firstReadIndex(reads, positionStart - mChrMaxReadSpan.get(chromosome) + 1);
+
+        for(; index < reads.size(); ++index)
+        {
+            SAMRecord read = reads.get(index);
+
+            if(read.getAlignmentStart() > positionEnd)
+                break;
+
+            if(readEnd(read) < positionStart || !mFilter.passesFilters(read))
+                continue;
+
+            SAMRecord readCopy = read.deepCopy();
+            readCopy.setHeader(header);
+            consumer.accept(readCopy);
+        }
+    }
+
+    private static int firstReadIndex(final List<SAMRecord> reads, int position)
+    {
+        // binary search for the first read starting at or after the position
+        int lowerIndex = 0;
+        int upperIndex = reads.size();
+
+        while(lowerIndex < upperIndex)
+        {
+            int midIndex = (lowerIndex + upperIndex) >>> 1;
+
+            if(reads.get(midIndex).getAlignmentStart() < position)
+                lowerIndex = midIndex + 1;
+            else
+                upperIndex = midIndex;
+        }
+
+        return lowerIndex;
+    }
+
+    private static int readEnd(final SAMRecord read)
+    {
+        // unmapped reads are placed at their mate's position
+        return read.getReadUnmappedFlag() ? read.getAlignmentStart() : read.getAlignmentEnd();
+    }
+}
@@ -23,11 +23,19 @@ public class PrepApplication
     private final SpanningReadCache mSpanningReadCache;
     @Nullable
     private final SagaMatcherFactory mSagaMatcherFactory;
+    @Nullable
+    private final PrepHandoff mPrepHandoff;
 
     public PrepApplication(final ConfigBuilder configBuilder)
     {
-        mConfig = new PrepConfig(configBuilder);
-        mWriter = new ResultsWriter(mConfig);
+        this(configBuilder, null);
+    }
+
+    public PrepApplication(final ConfigBuilder configBuilder, @Nullable final PrepHandoff prepHandoff)
+    {
+        mConfig = new PrepConfig(configBuilder, prepHandoff != null);
+        mPrepHandoff = prepHandoff;
+        mWriter = new ResultsWriter(mConfig, prepHandoff);
         mSpanningReadCache = new SpanningReadCache(mConfig);
         mSagaMatcherFactory = mConfig.SagaFastaFile == null ? null : new SagaMatcherFactory(mConfig.SagaFastaFile);
     }
@@ -86,6 +94,9 @@ public class PrepApplication
 
         mWriter.close();
 
+        if(mPrepHandoff != null)
+            mPrepHandoff.sortCandidateReads();
+
         long timeTakenMs = System.currentTimeMillis() - startTimeMs;
 
         if(mConfig.PerfDebug && (combinedStats.ReadStats.TotalReads > 10000 || timeTakenMs > 10000))
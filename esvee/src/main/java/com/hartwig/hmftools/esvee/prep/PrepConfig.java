@@ -89,6 +89,7 @@ public class PrepConfig
     public final int Threads;
     public final boolean UseCacheBam;
     public final boolean TrimReadId;
+    public final boolean InMemoryHandoff; // candidate reads and junctions are passed to assembly rather than written
 
     // debug
     public final SpecificRegions SpecificChrRegions;
@@ -115,8 +116,14 @@ public class PrepConfig
     private static final String MAX_FRAG_LENGTH_OVERRIDE = "max_frag_length_override";
 
     public PrepConfig(final ConfigBuilder configBuilder)
+    {
+        this(configBuilder, false);
+    }
+
+    public PrepConfig(final ConfigBuilder configBuilder, boolean inMemoryHandoff)
     {
         mIsValid = true;
+        InMemoryHandoff = inMemoryHandoff;
 
         SampleIds = parseSampleIds(configBuilder);
         BamFiles = parseBamFiles(configBuilder);
@@ -161,7 +168,7 @@ public class PrepConfig
         ReadFiltering = new ReadFilters(ReadFilterConfig.from(configBuilder));
         setSequencingType(configBuilder);
 
-        WriteTypes = WriteType.parsePrepTypes(configBuilder.getValue(WRITE_TYPES));
+        WriteTypes = WriteType.parsePrepTypes(configBuilder.getValue(WRITE_TYPES), InMemoryHandoff);
 
         BamStringency = BamUtils.validationStringency(configBuilder);
         BamToolPath = configBuilder.getValue(BAMTOOL_PATH);
@@ -206,7 +213,7 @@ public class PrepConfig
         return formOutputFile(OutputDir, sampleId, PREP_FILE_ID, fileExtension, OutputId);
     }
 
-    public boolean writeReads() { return WriteTypes.contains(PREP_BAM) || WriteTypes.contains(PREP_READ); }
+    public boolean writeReads() { return WriteTypes.contains(PREP_BAM) || WriteTypes.contains(PREP_READ) || InMemoryHandoff; }
 
     public static void registerConfig(final ConfigBuilder configBuilder)
     {
@@ -272,6 +279,7 @@ public class PrepConfig
         UseCacheBam = false;
         PerfDebug = false;
         TrimReadId = false;
+        InMemoryHandoff = false;
         NoCleanUp = false;
         MaxFragmentLengthOverride = -1;
     }
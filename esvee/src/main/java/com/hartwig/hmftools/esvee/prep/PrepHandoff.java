@@ -0,0 +1,55 @@
+package com.hartwig.hmftools.esvee.prep;
+
+import static com.hartwig.hmftools.esvee.assembly.AssemblyConfig.SV_LOGGER;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.esvee.prep.types.PrepJunction;
+
+import htsjdk.samtools.SAMRecord;
+
+// prep results passed directly to assembly when both stages run in one process, in place of the junctions file and prep BAMs
+public class PrepHandoff
+{
+    private final List<PrepJunction> mJunctions;
+    private final Map<String,CandidateReadStore> mSampleCandidateReads;
+
+    public PrepHandoff()
+    {
+        mJunctions = Lists.newArrayList();
+        mSampleCandidateReads = new ConcurrentHashMap<>();
+    }
+
+    public synchronized void addJunctions(final List<PrepJunction> junctions) { mJunctions.addAll(junctions); }
+
+    public List<PrepJunction> junctions() { return mJunctions; }
+
+    public void addCandidateRead(final String sampleId, final SAMRecord record)
+    {
+        mSampleCandidateReads.computeIfAbsent(sampleId, k -> new CandidateReadStore()).addRead(record);
+    }
+
+    public CandidateReadStore candidateReads(final String sampleId)
+    {
+        return mSampleCandidateReads.computeIfAbsent(sampleId, k -> new CandidateReadStore());
+    }
+
+    public void sortCandidateReads()
+    {
+        for(Map.Entry<String,CandidateReadStore> entry : mSampleCandidateReads.entrySet())
+        {
+            entry.getValue().sortReads();
+
+            SV_LOGGER.info("sample({}) holding {} candidate reads in memory", entry.getKey(), entry.getValue().readCount());
+        }
+    }
+
+    public synchronized void clear()
+    {
+        mJunctions.clear();
+        mSampleCandidateReads.clear();
+    }
+}
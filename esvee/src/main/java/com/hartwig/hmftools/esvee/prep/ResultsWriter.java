@@ -27,15 +27,21 @@ import java.io.IOException;
 import java.util.List;
 import java.util.StringJoiner;
 
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.bam.SupplementaryReadData;
 import com.hartwig.hmftools.esvee.common.saga.SagaLocationMatch;
 import com.hartwig.hmftools.esvee.prep.types.JunctionData;
+import com.hartwig.hmftools.esvee.prep.types.PrepJunction;
 import com.hartwig.hmftools.esvee.prep.types.PrepRead;
 import com.hartwig.hmftools.esvee.prep.types.ReadFilterType;
 import com.hartwig.hmftools.esvee.prep.types.ReadGroup;
 import com.hartwig.hmftools.esvee.prep.types.ReadGroupStatus;
 import com.hartwig.hmftools.esvee.prep.types.ReadType;
 
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMRecord;
+
 public class ResultsWriter
 {
     private final PrepConfig mConfig;
@@ -44,9 +50,15 @@ public class ResultsWriter
     private final BufferedWriter mJunctionWriter;
     private final BamWriter mBamWriter;
 
-    public ResultsWriter(final PrepConfig config)
+    @Nullable
+    private final PrepHandoff mPrepHandoff;
+    private long mHandoffReadCount;
+
+    public ResultsWriter(final PrepConfig config, @Nullable final PrepHandoff prepHandoff)
     {
         mConfig = config;
+        mPrepHandoff = prepHandoff;
+        mHandoffReadCount = 0;
 
         if(mConfig.OutputDir == null)
         {
@@ -65,10 +77,18 @@ public class ResultsWriter
     {
         closeBufferedWriter(mReadWriter);
         closeBufferedWriter(mJunctionWriter);
-        mBamWriter.close();
+
+        if(mBamWriter != null)
+            mBamWriter.close();
     }
 
-    public long writtenCount() { return mBamWriter != null ? mBamWriter.writtenCount() : 0; }
+    public long writtenCount()
+    {
+        if(mBamWriter != null && mBamWriter.writtenCount() > 0)
+            return mBamWriter.writtenCount();
+
+        return mHandoffReadCount;
+    }
 
     public synchronized void writeReadGroups(final List<ReadGroup> readGroups)
     {
@@ -153,9 +173,11 @@ public class ResultsWriter
 
     public synchronized void writeJunctionData(final String chromosome, final List<JunctionData> junctions)
     {
-        if(mJunctionWriter == null)
+        if(mJunctionWriter == null && mPrepHandoff == null)
             return;
 
+        List<PrepJunction> prepJunctions = mPrepHandoff != null ? Lists.newArrayListWithCapacity(junctions.size()) : null;
+
         try
         {
             for(JunctionData junctionData : junctions)
@@ -196,6 +218,24 @@ public class ResultsWriter
                     discRemoteFrags = !junctionData.remoteJunctions().isEmpty() ? junctionData.remoteJunctions().get(0).Fragments : 0;
                 }
 
+                String sagaMatchStr = null;
+
+                if(mConfig.SagaFastaFile != null)
+                {
+                    SagaLocationMatch sagaMatch = junctionData.sagaMatch();
+                    sagaMatchStr = sagaMatch == null ? "" : sagaMatch.variant().toString();
+                }
+
+                if(prepJunctions != null)
+                {
+                    prepJunctions.add(new PrepJunction(
+                            chromosome, junctionData.Position, junctionData.Orient, junctionFrags, exactSupportFrags, otherSupportFrags,
+                            discRemoteFrags, junctionData.internalIndel(), junctionData.hotspot(), sagaMatchStr));
+                }
+
+                if(mJunctionWriter == null)
+                    continue;
+
                 StringJoiner sj = new StringJoiner(TSV_DELIM);
                 sj.add(chromosome);
                 sj.add(String.valueOf(junctionData.Position));
@@ -213,11 +253,8 @@ public class ResultsWriter
                 sj.add(junctionData.topJunctionRead() != null ? junctionData.topJunctionRead().id() : "EXISTING");
                 sj.add(String.valueOf(junctionData.depth()));
 
-                if(mConfig.SagaFastaFile != null)
-                {
-                    SagaLocationMatch sagaMatch = junctionData.sagaMatch();
-                    sj.add(sagaMatch == null ? "" : sagaMatch.variant().toString());
-                }
+                if(sagaMatchStr != null)
+                    sj.add(sagaMatchStr);
 
                 mJunctionWriter.write(sj.toString());
                 mJunctionWriter.newLine();
@@ -227,11 +264,14 @@ public class ResultsWriter
         {
             SV_LOGGER.error(" failed to write junction data: {}", e.toString());
         }
+
+        if(prepJunctions != null)
+            mPrepHandoff.addJunctions(prepJunctions);
     }
 
     private void writeBamRecords(final ReadGroup readGroup)
     {
-        if(mBamWriter == null)
+        if(mBamWriter == null && mPrepHandoff == null)
             return;
 
         // note additional filters for a read to be written to the BAM
@@ -246,7 +286,18 @@ public class ResultsWriter
             if(read.written())
                 continue;
 
-            mBamWriter.writeRecord(read.record());
+            SAMRecord record = read.record();
+
+            if(mPrepHandoff != null)
+            {
+                // take the sample ID before the BAM writer removes it from the record
+                String sampleId = record.getStringAttribute(BAM_RECORD_SAMPLE_ID_TAG);
+                mPrepHandoff.addCandidateRead(sampleId != null ? sampleId : mConfig.sampleId(), record);
+                ++mHandoffReadCount;
+            }
+
+            if(mBamWriter != null)
+                mBamWriter.writeRecord(record);
         }
     }
 
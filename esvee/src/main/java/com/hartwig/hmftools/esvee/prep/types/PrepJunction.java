@@ -0,0 +1,40 @@
+package com.hartwig.hmftools.esvee.prep.types;
+
+import com.hartwig.hmftools.common.genome.region.Orientation;
+
+import org.jetbrains.annotations.Nullable;
+
+// the junction summary written by prep, either as a row of the junctions file or passed directly to assembly
+public class PrepJunction
+{
+    public final String Chromosome;
+    public final int Position;
+    public final Orientation Orient;
+
+    public final int JunctionFrags;
+    public final int ExactSupportFrags;
+    public final int OtherSupportFrags;
+    public final int RemoteFrags;
+
+    public final boolean Indel;
+    public final boolean Hotspot;
+
+    @Nullable
+    public final String SagaMatch; // the variant and breakends, or null if SAGA matching was not run
+
+    public PrepJunction(
+            final String chromosome, final int position, final Orientation orient, int junctionFrags, int exactSupportFrags,
+            int otherSupportFrags, int remoteFrags, boolean indel, boolean hotspot, @Nullable final String sagaMatch)
+    {
+        Chromosome = chromosome;
+        Position = position;
+        Orient = orient;
+        JunctionFrags = junctionFrags;
+        ExactSupportFrags = exactSupportFrags;
+        OtherSupportFrags = otherSupportFrags;
+        RemoteFrags = remoteFrags;
+        Indel = indel;
+        Hotspot = hotspot;
+        SagaMatch = sagaMatch;
+    }
+}
@@ -209,6 +209,37 @@ public class DepthAnnotationTest
         Assert.assertEquals(variants.size() - 1, mDepthTask.sliceRegionState().UncappedVariants.size());
     }
 
+    @Test
+    public void testDepthPartitions()
+    {
+        int proximityDistance = 1000;
+
+        // groups of 3 close variants, each group well separated from the next
+        List<VariantContext> variants = Lists.newArrayList();
+
+        for(int i = 0; i < 10; ++i)
+        {
+            for(int j = 0; j < 3; ++j)
+            {
+                variants.add(createVariantContext(nextVariantId(), 10000 + i * 5000 + j * 500));
+            }
+        }
+
+        List<DepthPartition> partitions = DepthPartition.formPartitions(CHR_1, variants, proximityDistance, 5);
+
+        // partitions only split between groups, so each takes 2 groups
+        Assert.assertEquals(5, partitions.size());
+        assertTrue(partitions.stream().allMatch(x -> x.Variants.size() == 6));
+
+        // a single large group cannot be split
+        partitions = DepthPartition.formPartitions(CHR_1, variants, 10000, 5);
+        Assert.assertEquals(1, partitions.size());
+        Assert.assertEquals(variants.size(), partitions.get(0).Variants.size());
+
+        Assert.assertEquals(100, DepthPartition.targetPartitionSize(30, 8));
+        Assert.assertEquals(250, DepthPartition.targetPartitionSize(8000, 8));
+    }
+
     private void checkRefSupport(int varPosition, int refSupport, int refPairSupport)
     {
         VariantInfo variant = mDepthTask.variantInfos().stream().filter(x -> x.Position == varPosition).findFirst().orElse(null);
@@ -0,0 +1,70 @@
+package com.hartwig.hmftools.esvee.prep;
+
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_2;
+import static com.hartwig.hmftools.esvee.TestUtils.REF_BASES_200;
+import static com.hartwig.hmftools.esvee.TestUtils.createSamRecord;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+
+public class CandidateReadStoreTest
+{
+    @Test
+    public void testSliceReads()
+    {
+        CandidateReadStore readStore = new CandidateReadStore();
+
+        String readBases = REF_BASES_200.substring(0, 100);
+
+        // added out of order, as prep writes them
+        SAMRecord read1 = createSamRecord("READ_01", CHR_1, 500, readBases, "100M");
+        SAMRecord read2 = createSamRecord("READ_02", CHR_1, 100, readBases, "100M");
+        SAMRecord read3 = createSamRecord("READ_03", CHR_1, 300, readBases, "50M1000N50M"); // long span
+        SAMRecord read4 = createSamRecord("READ_04", CHR_1, 1500, readBases, "100M");
+        SAMRecord read5 = createSamRecord("READ_05", CHR_2, 1000, readBases, "100M");
+
+        List.of(read1, read2, read3, read4, read5).forEach(x -> readStore.addRead(x));
+        readStore.sortReads();
+
+        assertEquals(5, readStore.readCount());
+
+        SAMFileHeader header = new SAMFileHeader();
+
+        List<SAMRecord> reads = Lists.newArrayList();
+        readStore.sliceReads(CHR_1, 150, 600, header, reads::add);
+
+        assertEquals(3, reads.size());
+        assertEquals("READ_02", reads.get(0).getReadName());
+        assertEquals("READ_03", reads.get(1).getReadName());
+        assertEquals("READ_01", reads.get(2).getReadName());
+
+        // reads are copied and given the supplied header
+        assertNotSame(read2, reads.get(0));
+        assertTrue(reads.stream().allMatch(x -> x.getHeader() == header));
+
+        // a read starting well before the slice is found through its span
+        reads.clear();
+        readStore.sliceReads(CHR_1, 1200, 1400, header, reads::add);
+
+        assertEquals(1, reads.size());
+        assertEquals("READ_03", reads.get(0).getReadName());
+
+        reads.clear();
+        readStore.sliceReads(CHR_2, 1, 500, header, reads::add);
+        assertTrue(reads.isEmpty());
+
+        readStore.sliceReads("3", 1, 5000, header, reads::add);
+        assertTrue(reads.isEmpty());
+    }
+}
@@ -0,0 +1,333 @@
+package com.hartwig.hmftools.common.amber;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Amber sites packed into primitive arrays per chromosome, which are held in place of individual site objects while Amber runs,
+// and can be written to and loaded from a memory-mapped binary file far faster than parsing the equivalent TSV
+public class AmberSiteArrays
+{
+    private final Map<String,ChromosomeSites> mChromosomeSites;
+
+    public static final String BINARY_FILE_EXTENSION = ".bin";
+
+    private static final int BINARY_MAGIC = 0x414D5346; // "AMSF"
+    private static final int BINARY_VERSION = 2;
+
+    // each site takes a frequency, a position and a byte each for ref, alt and the SnpCheck flag
+    private static final int SITE_BYTES = Double.BYTES + Integer.BYTES + 3;
+
+    private static final int HEADER_FIXED_BYTES = 3 * Integer.BYTES;
+
+    private static final Logger LOGGER = LogManager.getLogger(AmberSiteArrays.class);
+
+    public static class ChromosomeSites
+    {
+        public final String Chromosome;
+        public final int[] Positions;
+        public final double[] Frequencies;
+        public final byte[] RefBases;
+        public final byte[] AltBases;
+        public final byte[] SnpCheck;
+
+        public ChromosomeSites(
+                final String chromosome, final int[] positions, final double[] frequencies, final byte[] refBases, final byte[] altBases,
+                final byte[] snpCheck)
+        {
+            Chromosome = chromosome;
+            Positions = positions;
+            Frequencies = frequencies;
+            RefBases = refBases;
+            AltBases = altBases;
+            SnpCheck = snpCheck;
+        }
+
+        public static ChromosomeSites fromSites(final String chromosome, final List<AmberSite> sites)
+        {
+            AmberSite[] sortedSites = sites.toArray(new AmberSite[0]);
+            Arrays.sort(sortedSites, Comparator.comparingInt(AmberSite::position));
+
+            ChromosomeSites chromosomeSites = create(chromosome, sortedSites.length);
+
+            for(int i = 0; i < sortedSites.length; ++i)
+            {
+                AmberSite site = sortedSites[i];
+                chromosomeSites.Positions[i] = site.Position;
+                chromosomeSites.Frequencies[i] = site.GnomadFrequency;
+                chromosomeSites.RefBases[i] = (byte)site.Ref.charAt(0);
+                chromosomeSites.AltBases[i] = (byte)site.Alt.charAt(0);
+                chromosomeSites.SnpCheck[i] = (byte)(site.snpCheck() ? 1 : 0);
+            }
+
+            return chromosomeSites;
+        }
+
+        private static ChromosomeSites create(final String chromosome, int siteCount)
+        {
+            return new ChromosomeSites(
+                    chromosome, new int[siteCount], new double[siteCount], new byte[siteCount], new byte[siteCount], new byte[siteCount]);
+        }
+
+        public int size() { return Positions.length; }
+
+        public int position(int index) { return Positions[index]; }
+        public double frequency(int index) { return Frequencies[index]; }
+        public String ref(int index) { return baseString(RefBases[index]); }
+        public String alt(int index) { return baseString(AltBases[index]); }
+        public boolean snpCheck(int index) { return SnpCheck[index] != 0; }
+
+        // the sites whose indices pass the filter, keeping their order
+        public ChromosomeSites filter(final IntPredicate indexFilter)
+        {
+            int[] indices = IntStream.range(0, size()).filter(indexFilter).toArray();
+
+            if(indices.length == size())
+                return this;
+
+            ChromosomeSites filtered = create(Chromosome, indices.length);
+
+            for(int i = 0; i < indices.length; ++i)
+            {
+                int index = indices[i];
+                filtered.Positions[i] = Positions[index];
+                filtered.Frequencies[i] = Frequencies[index];
+                filtered.RefBases[i] = RefBases[index];
+                filtered.AltBases[i] = AltBases[index];
+                filtered.SnpCheck[i] = SnpCheck[index];
+            }
+
+            return filtered;
+        }
+
+        public int indexOf(int position)
+        {
+            int index = Arrays.binarySearch(Positions, position);
+            return index >= 0 ? index : -1;
+        }
+
+        public AmberSite site(int index)
+        {
+            return new AmberSite(Chromosome, Positions[index], ref(index), alt(index), snpCheck(index), Frequencies[index]);
+        }
+    }
+
+    public AmberSiteArrays(final Map<String,ChromosomeSites> chromosomeSites)
+    {
+        mChromosomeSites = chromosomeSites;
+    }
+
+    public static AmberSiteArrays fromSites(final ListMultimap<Chromosome,AmberSite> sites)
+    {
+        Map<String,ChromosomeSites> chromosomeSites = Maps.newLinkedHashMap();
+
+        for(Chromosome chromosome : sites.keySet())
+        {
+            List<AmberSite> chrSites = sites.get(chromosome);
+
+            if(chrSites.isEmpty())
+                continue;
+
+            String chrStr = chrSites.get(0).Chromosome;
+            chromosomeSites.put(chrStr, ChromosomeSites.fromSites(chrStr, chrSites));
+        }
+
+        return new AmberSiteArrays(chromosomeSites);
+    }
+
+    public Map<String,ChromosomeSites> chromosomeSites() { return mChromosomeSites; }
+
+    public int siteCount() { return mChromosomeSites.values().stream().mapToInt(ChromosomeSites::size).sum(); }
+
+    public ListMultimap<Chromosome,AmberSite> toSites()
+    {
+        ListMultimap<Chromosome,AmberSite> result = ArrayListMultimap.create();
+
+        for(ChromosomeSites chromosomeSites : mChromosomeSites.values())
+        {
+            if(!HumanChromosome.contains(chromosomeSites.Chromosome))
+                continue;
+
+            HumanChromosome chromosome = HumanChromosome.fromString(chromosomeSites.Chromosome);
+
+            for(int i = 0; i < chromosomeSites.size(); ++i)
+            {
+                result.put(chromosome, chromosomeSites.site(i));
+            }
+        }
+
+        return result;
+    }
+
+    // share a single string per base across all sites rather than one per site
+    private static final String[] BASE_STRINGS = new String[128];
+
+    static
+    {
+        for(AmberBase base : AmberBase.values())
+        {
+            BASE_STRINGS[base.name().charAt(0)] = base.name();
+        }
+    }
+
+    public static String baseString(byte base)
+    {
+        String baseStr = base >= 0 ? BASE_STRINGS[base] : null;
+        return baseStr != null ? baseStr : String.valueOf((char)base);
+    }
+
+    public static String baseString(final String base)
+    {
+        return base.length() == 1 ? baseString((byte)base.charAt(0)) : base;
+    }
+
+    public static void writeBinaryFile(final ListMultimap<Chromosome,AmberSite> sites, final String binaryFilePath)
+    {
+        AmberSiteArrays siteArrays = fromSites(sites);
+        List<ChromosomeSites> chromosomes = List.copyOf(siteArrays.mChromosomeSites.values());
+
+        LOGGER.debug("writing binary Amber sites file: {}", binaryFilePath);
+
+        int headerLength = HEADER_FIXED_BYTES;
+        for(ChromosomeSites chromosomeSites : chromosomes)
+        {
+            headerLength += Short.BYTES + chromosomeSites.Chromosome.getBytes(StandardCharsets.UTF_8).length + Integer.BYTES + Long.BYTES;
+        }
+
+        try(FileChannel channel = FileChannel.open(Paths.get(binaryFilePath),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            ByteBuffer header = ByteBuffer.allocate(headerLength).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(BINARY_MAGIC).putInt(BINARY_VERSION).putInt(chromosomes.size());
+
+            // align each chromosome's data so its frequencies and positions can be viewed directly as doubles and ints
+            long dataOffset = alignOffset(headerLength);
+            for(ChromosomeSites chromosomeSites : chromosomes)
+            {
+                byte[] name = chromosomeSites.Chromosome.getBytes(StandardCharsets.UTF_8);
+                header.putShort((short)name.length).put(name).putInt(chromosomeSites.size()).putLong(dataOffset);
+                dataOffset = alignOffset(dataOffset + (long)chromosomeSites.size() * SITE_BYTES);
+            }
+
+            header.flip();
+            channel.write(header, 0);
+
+            long position = alignOffset(headerLength);
+            for(ChromosomeSites chromosomeSites : chromosomes)
+            {
+                int siteCount = chromosomeSites.size();
+                ByteBuffer data = ByteBuffer.allocate(siteCount * SITE_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                data.asDoubleBuffer().put(chromosomeSites.Frequencies);
+                data.position(siteCount * Double.BYTES);
+                data.asIntBuffer().put(chromosomeSites.Positions);
+                data.position(siteCount * (Double.BYTES + Integer.BYTES));
+                data.put(chromosomeSites.RefBases).put(chromosomeSites.AltBases).put(chromosomeSites.SnpCheck);
+                data.flip();
+
+                long writePosition = position;
+                while(data.hasRemaining())
+                {
+                    writePosition += channel.write(data, writePosition);
+                }
+
+                position = alignOffset(position + (long)siteCount * SITE_BYTES);
+            }
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to write binary Amber sites file: {}", binaryFilePath);
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static AmberSiteArrays loadBinaryFile(final String filePath)
+    {
+        Map<String,ChromosomeSites> chromosomeSites = Maps.newLinkedHashMap();
+
+        // the header is read directly, while each chromosome's data is mapped and copied out in bulk into the primitive arrays
+        try(FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ))
+        {
+            ByteBuffer header = readBytes(channel, 0, HEADER_FIXED_BYTES, filePath);
+
+            if(header.getInt() != BINARY_MAGIC || header.getInt() != BINARY_VERSION)
+            {
+                throw new RuntimeException(format("invalid binary Amber sites file: %s", filePath));
+            }
+
+            int chromosomeCount = header.getInt();
+            long headerPosition = HEADER_FIXED_BYTES;
+
+            for(int i = 0; i < chromosomeCount; ++i)
+            {
+                byte[] name = new byte[readBytes(channel, headerPosition, Short.BYTES, filePath).getShort()];
+                headerPosition += Short.BYTES;
+                readBytes(channel, headerPosition, name.length, filePath).get(name);
+                headerPosition += name.length;
+                ByteBuffer entry = readBytes(channel, headerPosition, Integer.BYTES + Long.BYTES, filePath);
+                headerPosition += entry.capacity();
+                int siteCount = entry.getInt();
+                long dataOffset = entry.getLong();
+
+                ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, (long)siteCount * SITE_BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+
+                ChromosomeSites sites = ChromosomeSites.create(new String(name, StandardCharsets.UTF_8), siteCount);
+
+                data.asDoubleBuffer().get(sites.Frequencies);
+                data.position(siteCount * Double.BYTES);
+                data.asIntBuffer().get(sites.Positions);
+                data.position(siteCount * (Double.BYTES + Integer.BYTES));
+                data.get(sites.RefBases).get(sites.AltBases).get(sites.SnpCheck);
+
+                chromosomeSites.put(sites.Chromosome, sites);
+            }
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to load binary Amber sites file: {}", filePath);
+            throw new RuntimeException(e);
+        }
+
+        return new AmberSiteArrays(chromosomeSites);
+    }
+
+    private static ByteBuffer readBytes(final FileChannel channel, long position, int length, final String filePath) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while(buffer.hasRemaining())
+        {
+            if(channel.read(buffer, position + buffer.position()) < 0)
+                throw new RuntimeException(format("truncated binary Amber sites file: %s", filePath));
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long alignOffset(long offset)
+    {
+        return (offset + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+    }
+}
@@ -1,5 +1,7 @@
 package com.hartwig.hmftools.common.amber;
 
+import static com.hartwig.hmftools.common.amber.AmberSiteArrays.BINARY_FILE_EXTENSION;
+import static com.hartwig.hmftools.common.amber.AmberSiteArrays.baseString;
 import static com.hartwig.hmftools.common.utils.file.CommonFields.FLD_ALT;
 import static com.hartwig.hmftools.common.utils.file.CommonFields.FLD_CHROMOSOME;
 import static com.hartwig.hmftools.common.utils.file.CommonFields.FLD_POSITION;
@@ -33,8 +35,28 @@ public final class AmberSitesFile
     private static final Logger LOGGER = LogManager.getLogger(AmberSitesFile.class);
     private static final String SNPCHECK = "SNPCHECK";
 
+    // loads sites into the compact per-chromosome arrays, reading a binary sites file directly
+    public static AmberSiteArrays siteArrays(final String filename) throws IOException
+    {
+        if(filename.endsWith(BINARY_FILE_EXTENSION))
+        {
+            AmberSiteArrays siteArrays = AmberSiteArrays.loadBinaryFile(filename);
+            LOGGER.info("loaded {} Amber germline sites from {}", siteArrays.siteCount(), filename);
+            return siteArrays;
+        }
+
+        return AmberSiteArrays.fromSites(sites(filename));
+    }
+
     public static ListMultimap<Chromosome, AmberSite> sites(final String filename) throws IOException
     {
+        if(filename.endsWith(BINARY_FILE_EXTENSION))
+        {
+            AmberSiteArrays siteArrays = AmberSiteArrays.loadBinaryFile(filename);
+            LOGGER.info("loaded {} Amber germline sites from {}", siteArrays.siteCount(), filename);
+            return siteArrays.toSites();
+        }
+
         BufferedReader reader = createBufferedReader(filename);
 
         String header = reader.readLine();
@@ -75,8 +97,8 @@ public final class AmberSitesFile
             HumanChromosome chromosome = HumanChromosome.fromString(variant.getContig());
 
             result.put(chromosome, new AmberSite(
-                    variant.getContig(), variant.getStart(), variant.getReference().getBaseString(),
-                    variant.getAlternateAllele(0).getBaseString(), variant.hasAttribute(SNPCHECK)));
+                    variant.getContig(), variant.getStart(), baseString(variant.getReference().getBaseString()),
+                    baseString(variant.getAlternateAllele(0).getBaseString()), variant.hasAttribute(SNPCHECK)));
         }
         return result;
     }
@@ -126,8 +148,8 @@ public final class AmberSitesFile
 
             int position = Integer.parseInt(values[posIndex]);
             boolean snpCheck = Boolean.parseBoolean(values[infoIndex]);
-            String ref = values[refIndex];
-            String alt = values[altIndex];
+            String ref = baseString(values[refIndex]);
+            String alt = baseString(values[altIndex]);
 
             double gnomadFrequency = freqIndex != null ? Double.parseDouble(values[freqIndex]) : 0;
             result.put(chromosome, new AmberSite(chrStr, position, ref, alt, snpCheck, gnomadFrequency));
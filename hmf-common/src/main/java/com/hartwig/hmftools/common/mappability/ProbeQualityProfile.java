@@ -16,6 +16,13 @@ import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBuffe
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -35,16 +42,18 @@ import org.apache.logging.log4j.Logger;
 
 // Reads the data written by ProbeQualityProfiler and provides utilities for calculating probe quality scores based on the data.
 // See the ProbeQualityProfiler class for more context.
+// The profile is either a TSV file which is loaded into memory, or a binary file which is memory-mapped. The binary file holds one quality
+// score per window slot for each chromosome, so it loads almost instantly and the page cache can be shared between processes.
 public class ProbeQualityProfile
 {
     private final int mBaseWindowLength;
     private final int mMatchScoreThreshold;
     private final int mMatchScoreOffset;
     // Keyed by chromosome.
-    protected final Map<String, WindowArray> mWindows;
+    protected final Map<String, QualityWindows> mWindows;
 
     public static final String CFG_PROBE_QUALITY_FILE = "probe_quality_profile";
-    private static final String DESC_PROBE_QUALITY_FILE = "Genome regions to probe quality";
+    private static final String DESC_PROBE_QUALITY_FILE = "Genome regions to probe quality, as TSV or binary (.bin) file";
 
     // Must match the config used for generating the file.
     private static final int RESOURCE_BASE_WINDOW_LENGTH = 40;
@@ -54,10 +63,19 @@ public class ProbeQualityProfile
 
     private static final String FLD_QUALITY_SCORE = "QualityScore";
 
+    public static final String BINARY_FILE_EXTENSION = ".bin";
+
+    // Binary file layout, little-endian:
+    // header: magic, version, base window length, base window spacing, chromosome count
+    // per chromosome: name length (short), name (UTF-8), slot count (int), data offset (long)
+    // data: per chromosome, a quality score (float) for each window slot, with NaN where there is no window
+    private static final int BINARY_MAGIC = 0x50515046; // "PQPF"
+    private static final int BINARY_VERSION = 1;
+
     private static final Logger LOGGER = LogManager.getLogger(ProbeQualityProfile.class);
 
     private ProbeQualityProfile(
-            final Map<String, WindowArray> windows, int baseWindowLength, int baseWindowSpacing, int matchScoreThreshold,
+            final Map<String, QualityWindows> windows, int baseWindowLength, int baseWindowSpacing, int matchScoreThreshold,
             int matchScoreOffset)
     {
         if(baseWindowLength < 1)
@@ -81,8 +99,12 @@ public class ProbeQualityProfile
 
     public static ProbeQualityProfile loadFromResourceFile(final String filePath)
     {
+        Map<String, QualityWindows> windows = filePath.endsWith(BINARY_FILE_EXTENSION)
+                ? mapBinaryWindows(filePath, RESOURCE_BASE_WINDOW_LENGTH, RESOURCE_BASE_WINDOW_SPACING)
+                : new HashMap<>(loadProbeQualityWindows(filePath, RESOURCE_BASE_WINDOW_LENGTH, RESOURCE_BASE_WINDOW_SPACING));
+
         return new ProbeQualityProfile(
-                loadProbeQualityWindows(filePath, RESOURCE_BASE_WINDOW_LENGTH, RESOURCE_BASE_WINDOW_SPACING),
+                windows,
                 RESOURCE_BASE_WINDOW_LENGTH, RESOURCE_BASE_WINDOW_SPACING,
                 RESOURCE_MATCH_SCORE_THRESHOLD, RESOURCE_MATCH_SCORE_OFFSET);
     }
@@ -103,57 +125,57 @@ public class ProbeQualityProfile
         // If the profile doesn't completely cover the probe then we say we can't assess its quality
         // (since the uncovered region could affect the quality significantly).
 
-        WindowArray windows = mWindows.get(probe.chromosome());
+        QualityWindows windows = mWindows.get(probe.chromosome());
         if(windows == null)
         {
             // Probe chromosome not covered at all.
             return OptionalDouble.empty();
         }
-        OptionalInt windowsStart = findFirstWindowContaining(windows, probe.start());
+        OptionalInt windowsStart = windows.findFirstWindowContaining(probe.start());
         if(windowsStart.isEmpty())
         {
             // Probe start position not covered.
             return OptionalDouble.empty();
         }
-        int windowsEnd = scanWhileOverlap(windows, windowsStart.getAsInt(), probe.baseRegion());   // Inclusive
-        if(!windows.getRegion(windowsEnd).containsPosition(probe.end()))
+        int[] overlapping = findOverlappingWindows(windows, windowsStart.getAsInt(), probe.baseRegion());
+        if(!windows.getRegion(overlapping[overlapping.length - 1]).containsPosition(probe.end()))
         {
             // Probe middle or end not covered.
             return OptionalDouble.empty();
         }
-        double qualityScore = aggregateQualityScore(windows, windowsStart.getAsInt(), windowsEnd + 1, probe.baseRegion());
+        double qualityScore = aggregateQualityScore(windows, overlapping, probe.baseRegion());
         return OptionalDouble.of(qualityScore);
     }
 
     public List<RegionQuality> findRegionQualities(final ChrBaseRegion region)
     {
         // form a collection of distinct quality scores across the requested region
-        WindowArray windowArray = mWindows.get(region.Chromosome);
+        QualityWindows windowArray = mWindows.get(region.Chromosome);
         if(windowArray == null)
             return Collections.emptyList();
 
-        OptionalInt windowsStart = findFirstWindowContaining(windowArray, region.start());
+        OptionalInt windowsStart = windowArray.findFirstWindowContaining(region.start());
 
         if(windowsStart.isEmpty())
             return Collections.emptyList();
 
         List<RegionQuality> regionQualities = Lists.newArrayList();
 
-        int windowIndex = windowsStart.getAsInt() + 1;
+        int windowIndex = windowArray.nextWindow(windowsStart.getAsInt(), Integer.MAX_VALUE);
+
+        if(windowIndex < 0)
+            return regionQualities;
+
         BaseRegion qualRegion = windowArray.getRegion(windowIndex);
         double qual = windowArray.getQualityScore(windowIndex);
 
         RegionQuality currentReqionQuality = new RegionQuality(qualRegion, qual);
         regionQualities.add(currentReqionQuality);
-        ++windowIndex;
 
-        while(windowIndex < windowArray.size())
+        while((windowIndex = windowArray.nextWindow(windowIndex, region.end())) >= 0)
         {
             qualRegion = windowArray.getRegion(windowIndex);
 
-            if(qualRegion.start() > region.end())
-                break;
-
             qual = windowArray.getQualityScore(windowsStart.getAsInt());
 
             if(qual == currentReqionQuality.Quality)
@@ -166,14 +188,29 @@ public class ProbeQualityProfile
                 currentReqionQuality = new RegionQuality(new BaseRegion(nextRegionStart, qualRegion.end()), qual);
                 regionQualities.add(currentReqionQuality);
             }
-
-            ++windowIndex;
         }
 
         return regionQualities;
     }
 
-    protected static class WindowArray
+    // Read-only view of a chromosome's windows, ordered by position.
+    protected interface QualityWindows
+    {
+        int size();
+
+        BaseRegion getRegion(int index);
+
+        float getQualityScore(int index);
+
+        // Finds the index of the first window that contains a position.
+        OptionalInt findFirstWindowContaining(int position);
+
+        // Gets the index of the window after `index` if it starts at or before `maxStart`, otherwise -1.
+        int nextWindow(int index, int maxStart);
+    }
+
+    // Windows loaded from a TSV file into heap arrays. Windows are added then sorted before the array is used for lookups.
+    protected static class WindowArray implements QualityWindows
     {
         // To save memory, only store the end position and the length, since every window is the same size.
         // Store the end rather than the start because the search is on the end.
@@ -200,11 +237,13 @@ public class ProbeQualityProfile
             mQualityScores = new float[mCapacity];
         }
 
+        @Override
         public int size()
         {
             return mSize;
         }
 
+        @Override
         public BaseRegion getRegion(int index)
         {
             int endPosition = mEndPositions[index];
@@ -212,11 +251,39 @@ public class ProbeQualityProfile
             return new BaseRegion(startPosition, endPosition);
         }
 
+        @Override
         public float getQualityScore(int index)
         {
             return mQualityScores[index];
         }
 
+        @Override
+        public OptionalInt findFirstWindowContaining(int position)
+        {
+            // We are able to find the first window that overlaps using Collections.binarySearch() because, since the windows are of equal
+            // size, sorting by start (done previously) implies sorting by end.
+            int index = Arrays.binarySearch(mEndPositions, 0, mSize, position);
+            if(index < 0)
+            {
+                index = -index - 1;
+            }
+            if(index < size() && getRegion(index).containsPosition(position))
+            {
+                return OptionalInt.of(index);
+            }
+            else
+            {
+                return OptionalInt.empty();
+            }
+        }
+
+        @Override
+        public int nextWindow(int index, int maxStart)
+        {
+            int next = index + 1;
+            return next < size() && getRegion(next).start() <= maxStart ? next : -1;
+        }
+
         public void add(int startPosition, float qualityScore)
         {
             int endPosition = startPosition + mBaseWindowLength - 1;
@@ -263,6 +330,205 @@ public class ProbeQualityProfile
         }
     }
 
+    // Windows held in a memory-mapped binary file, with one slot per possible window position. Slot i is the window starting at
+    // i * spacing + 1, and slots without a window hold NaN.
+    protected static class MappedWindowArray implements QualityWindows
+    {
+        private final int mBaseWindowLength;
+        private final int mBaseWindowSpacing;
+        private final FloatBuffer mSlotQualityScores;
+
+        public MappedWindowArray(int baseWindowLength, int baseWindowSpacing, final FloatBuffer slotQualityScores)
+        {
+            mBaseWindowLength = baseWindowLength;
+            mBaseWindowSpacing = baseWindowSpacing;
+            mSlotQualityScores = slotQualityScores;
+        }
+
+        @Override
+        public int size()
+        {
+            return mSlotQualityScores.limit();
+        }
+
+        @Override
+        public BaseRegion getRegion(int index)
+        {
+            int startPosition = index * mBaseWindowSpacing + 1;
+            return new BaseRegion(startPosition, startPosition + mBaseWindowLength - 1);
+        }
+
+        @Override
+        public float getQualityScore(int index)
+        {
+            return mSlotQualityScores.get(index);
+        }
+
+        private boolean hasWindow(int index)
+        {
+            return !Float.isNaN(mSlotQualityScores.get(index));
+        }
+
+        @Override
+        public OptionalInt findFirstWindowContaining(int position)
+        {
+            // Only slots starting in [position - length + 1, position] can contain the position.
+            int index = max(Math.floorDiv(position - mBaseWindowLength + mBaseWindowSpacing - 1, mBaseWindowSpacing), 0);
+            for(; index < size() && index * mBaseWindowSpacing + 1 <= position; ++index)
+            {
+                if(hasWindow(index))
+                {
+                    return OptionalInt.of(index);
+                }
+            }
+            return OptionalInt.empty();
+        }
+
+        @Override
+        public int nextWindow(int index, int maxStart)
+        {
+            for(int next = index + 1; next < size() && next * (long) mBaseWindowSpacing + 1 <= maxStart; ++next)
+            {
+                if(hasWindow(next))
+                {
+                    return next;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // Converts a TSV profile into the binary form which can be memory-mapped.
+    public static void writeBinaryFile(final String tsvFilePath, final String binaryFilePath, int baseWindowLength, int baseWindowSpacing)
+    {
+        Map<String, WindowArray> windows = loadProbeQualityWindows(tsvFilePath, baseWindowLength, baseWindowSpacing);
+        List<String> chromosomes = windows.keySet().stream().sorted().toList();
+
+        LOGGER.debug("writing binary probe quality profile file: {}", binaryFilePath);
+
+        int headerLength = 5 * Integer.BYTES;
+        for(String chromosome : chromosomes)
+        {
+            headerLength += Short.BYTES + chromosome.getBytes(StandardCharsets.UTF_8).length + Integer.BYTES + Long.BYTES;
+        }
+
+        try(FileChannel channel = FileChannel.open(Paths.get(binaryFilePath),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            ByteBuffer header = ByteBuffer.allocate(headerLength).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(BINARY_MAGIC).putInt(BINARY_VERSION).putInt(baseWindowLength).putInt(baseWindowSpacing).putInt(chromosomes.size());
+
+            // Align the score data so each chromosome can be viewed directly as floats.
+            long dataOffset = (headerLength + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+            for(String chromosome : chromosomes)
+            {
+                byte[] name = chromosome.getBytes(StandardCharsets.UTF_8);
+                int slotCount = slotCount(windows.get(chromosome), baseWindowLength, baseWindowSpacing);
+                header.putShort((short) name.length).put(name).putInt(slotCount).putLong(dataOffset);
+                dataOffset += (long) slotCount * Float.BYTES;
+            }
+
+            header.flip();
+            channel.write(header, 0);
+
+            long position = (headerLength + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+            for(String chromosome : chromosomes)
+            {
+                WindowArray windowArray = windows.get(chromosome);
+                float[] slotScores = new float[slotCount(windowArray, baseWindowLength, baseWindowSpacing)];
+                Arrays.fill(slotScores, Float.NaN);
+                for(int i = 0; i < windowArray.size(); ++i)
+                {
+                    slotScores[(windowArray.getRegion(i).start() - 1) / baseWindowSpacing] = windowArray.getQualityScore(i);
+                }
+
+                ByteBuffer data = ByteBuffer.allocate(slotScores.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                data.asFloatBuffer().put(slotScores);
+                while(data.hasRemaining())
+                {
+                    position += channel.write(data, position);
+                }
+            }
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("Failed to write binary probe quality profile file: {}", binaryFilePath);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static int slotCount(final WindowArray windows, int baseWindowLength, int baseWindowSpacing)
+    {
+        return windows.size() == 0 ? 0 : (windows.getRegion(windows.size() - 1).start() - 1) / baseWindowSpacing + 1;
+    }
+
+    private static Map<String, QualityWindows> mapBinaryWindows(final String filePath, int baseWindowLength, int baseWindowSpacing)
+    {
+        LOGGER.debug("mapping binary probe quality profile file: {}", filePath);
+
+        HashMap<String, QualityWindows> result = new HashMap<>();
+
+        // Mappings remain valid after the channel is closed.
+        try(FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ))
+        {
+            ByteBuffer header = readBytes(channel, 0, 5 * Integer.BYTES, filePath);
+
+            if(header.getInt() != BINARY_MAGIC || header.getInt() != BINARY_VERSION)
+            {
+                throw new RuntimeException(format("Invalid binary probe quality profile file: %s", filePath));
+            }
+
+            int fileBaseWindowLength = header.getInt();
+            int fileBaseWindowSpacing = header.getInt();
+            if(fileBaseWindowLength != baseWindowLength || fileBaseWindowSpacing != baseWindowSpacing)
+            {
+                throw new RuntimeException(format("Binary probe quality profile file %s has window length %d and spacing %d, expected %d and %d",
+                        filePath, fileBaseWindowLength, fileBaseWindowSpacing, baseWindowLength, baseWindowSpacing));
+            }
+
+            int chromosomeCount = header.getInt();
+            long position = header.capacity();
+            for(int i = 0; i < chromosomeCount; ++i)
+            {
+                // Only the header is read, the score data is mapped per chromosome.
+                byte[] name = new byte[readBytes(channel, position, Short.BYTES, filePath).getShort()];
+                position += Short.BYTES;
+                readBytes(channel, position, name.length, filePath).get(name);
+                position += name.length;
+                ByteBuffer entry = readBytes(channel, position, Integer.BYTES + Long.BYTES, filePath);
+                position += entry.capacity();
+                int slotCount = entry.getInt();
+                long dataOffset = entry.getLong();
+
+                FloatBuffer slotScores = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, (long) slotCount * Float.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asFloatBuffer();
+                result.put(new String(name, StandardCharsets.UTF_8), new MappedWindowArray(baseWindowLength, baseWindowSpacing, slotScores));
+            }
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("Failed to map binary probe quality profile file: {}", filePath);
+            throw new RuntimeException(e);
+        }
+
+        return result;
+    }
+
+    private static ByteBuffer readBytes(final FileChannel channel, long position, int length, final String filePath) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while(buffer.hasRemaining())
+        {
+            if(channel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new RuntimeException(format("Truncated binary probe quality profile file: %s", filePath));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
     private static Map<String, WindowArray> loadProbeQualityWindows(final String filePath, int baseWindowLength, int baseWindowSpacing)
     {
         LOGGER.debug("loading probe quality profile file: {}", filePath);
@@ -333,36 +599,16 @@ public class ProbeQualityProfile
         return result;
     }
 
-    // Efficiently finds the index of the first window that contains a position.
-    private static OptionalInt findFirstWindowContaining(final WindowArray windows, int position)
-    {
-        // We are able to find the first window that overlaps using Collections.binarySearch() because, since the windows are of equal size,
-        // sorting by start (done previously) implies sorting by end.
-        int index = Arrays.binarySearch(windows.mEndPositions, position);
-        if(index < 0)
-        {
-            index = -index - 1;
-        }
-        if(index < windows.size() && windows.getRegion(index).containsPosition(position))
-        {
-            return OptionalInt.of(index);
-        }
-        else
-        {
-            return OptionalInt.empty();
-        }
-    }
-
     // Compute the final quality score from windows which overlap the probe.
-    private double aggregateQualityScore(final WindowArray windows, int overlapStart, int overlapEnd, final BaseRegion probe)
+    private double aggregateQualityScore(final QualityWindows windows, final int[] overlapping, final BaseRegion probe)
     {
         // Pick the minimum quality score, however need to take into account partial overlap of the windows on the edge of the probe.
         // Windows fully overlapping the probe are used as-is.
         // Windows partially overlapping the probe have their quality score interpolated towards windows which overlap more.
 
-        int overlapCount = overlapEnd - overlapStart;
+        int overlapCount = overlapping.length;
 
-        double centreQuality = windows.getQualityScore(overlapCount / 2 + overlapStart);
+        double centreQuality = windows.getQualityScore(overlapping[overlapCount / 2]);
 
         double minQuality = centreQuality;
 
@@ -371,7 +617,7 @@ public class ProbeQualityProfile
         for(int i = overlapCount / 2 - 1; i >= 0; --i)
         {
             double quality = adjustedWindowQualityScore(
-                    windows.getRegion(i + overlapStart), windows.getQualityScore(i + overlapStart),
+                    windows.getRegion(overlapping[i]), windows.getQualityScore(overlapping[i]),
                     higherOverlapQuality, probe);
             minQuality = min(minQuality, quality);
             higherOverlapQuality = quality;
@@ -382,7 +628,7 @@ public class ProbeQualityProfile
         for(int i = overlapCount / 2 + 1; i < overlapCount; ++i)
         {
             double quality = adjustedWindowQualityScore(
-                    windows.getRegion(i + overlapStart), windows.getQualityScore(i + overlapStart),
+                    windows.getRegion(overlapping[i]), windows.getQualityScore(overlapping[i]),
                     higherOverlapQuality, probe);
             minQuality = min(minQuality, quality);
             higherOverlapQuality = quality;
@@ -418,13 +664,21 @@ public class ProbeQualityProfile
         }
     }
 
-    // Gets the last index >= `index` in `windows` which overlaps `region`.
-    private static int scanWhileOverlap(final WindowArray windows, int index, final BaseRegion region)
+    // Gets the indices of the windows from `index` onwards which overlap `region`.
+    private static int[] findOverlappingWindows(final QualityWindows windows, int index, final BaseRegion region)
     {
-        while(index + 1 < windows.size() && windows.getRegion(index + 1).overlaps(region))
+        // Later windows end after this one, so they overlap the region if they start before its end.
+        int[] overlapping = new int[8];
+        int count = 0;
+        while(index >= 0)
         {
-            ++index;
+            if(count == overlapping.length)
+            {
+                overlapping = Arrays.copyOf(overlapping, count * 2);
+            }
+            overlapping[count++] = index;
+            index = windows.nextWindow(index, region.end());
         }
-        return index;
+        return Arrays.copyOf(overlapping, count);
     }
 }
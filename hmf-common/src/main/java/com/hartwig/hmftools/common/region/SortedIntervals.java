@@ -0,0 +1,107 @@
+package com.hartwig.hmftools.common.region;
+
+import static java.lang.Math.max;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+// a chromosome's intervals ordered by start and held as primitive positions, so the intervals overlapping a range can be found by
+// binary search rather than scanning from the start of the chromosome for each range
+public class SortedIntervals
+{
+    private final int[] mStarts;
+    private final int[] mEnds;
+    private final int[] mMaxEnds; // the maximum end of this and all prior intervals
+
+    public SortedIntervals(final int[] starts, final int[] ends)
+    {
+        mStarts = starts;
+        mEnds = ends;
+        mMaxEnds = new int[starts.length];
+
+        int maxEnd = Integer.MIN_VALUE;
+
+        for(int i = 0; i < starts.length; ++i)
+        {
+            if(i > 0 && starts[i] < starts[i - 1])
+                throw new IllegalArgumentException("intervals not ordered by start");
+
+            maxEnd = max(maxEnd, ends[i]);
+            mMaxEnds[i] = maxEnd;
+        }
+    }
+
+    public static <T> SortedIntervals from(final List<T> intervals, final ToIntFunction<T> startFunc, final ToIntFunction<T> endFunc)
+    {
+        int[] starts = new int[intervals.size()];
+        int[] ends = new int[intervals.size()];
+
+        for(int i = 0; i < intervals.size(); ++i)
+        {
+            T interval = intervals.get(i);
+            starts[i] = startFunc.applyAsInt(interval);
+            ends[i] = endFunc.applyAsInt(interval);
+        }
+
+        return new SortedIntervals(starts, ends);
+    }
+
+    public int size() { return mStarts.length; }
+    public int start(int index) { return mStarts[index]; }
+    public int end(int index) { return mEnds[index]; }
+
+    // index of the last interval starting at or before the position, or -1 if none do
+    public int lastStartingAtOrBefore(int position)
+    {
+        int lowerIndex = 0;
+        int upperIndex = mStarts.length;
+
+        while(lowerIndex < upperIndex)
+        {
+            int midIndex = (lowerIndex + upperIndex) >>> 1;
+
+            if(mStarts[midIndex] <= position)
+                lowerIndex = midIndex + 1;
+            else
+                upperIndex = midIndex;
+        }
+
+        return lowerIndex - 1;
+    }
+
+    // index of the first interval ending at or after the position, or the size if none do
+    public int firstEndingAtOrAfter(int position)
+    {
+        int lowerIndex = 0;
+        int upperIndex = mMaxEnds.length;
+
+        while(lowerIndex < upperIndex)
+        {
+            int midIndex = (lowerIndex + upperIndex) >>> 1;
+
+            if(mMaxEnds[midIndex] < position)
+                lowerIndex = midIndex + 1;
+            else
+                upperIndex = midIndex;
+        }
+
+        return lowerIndex;
+    }
+
+    // index of the first interval overlapping the range, or -1 if none do
+    public int firstOverlapping(int posStart, int posEnd)
+    {
+        int index = firstEndingAtOrAfter(posStart);
+
+        // any later interval starts no earlier than this one, so if this one starts after the range then none overlap it
+        if(index >= mStarts.length || mStarts[index] > posEnd)
+            return -1;
+
+        return index;
+    }
+
+    public boolean overlapsAny(int posStart, int posEnd)
+    {
+        return firstOverlapping(posStart, posEnd) >= 0;
+    }
+}
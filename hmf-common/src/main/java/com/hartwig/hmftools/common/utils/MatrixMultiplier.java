@@ -0,0 +1,204 @@
+package com.hartwig.hmftools.common.utils;
+
+import static java.lang.Math.min;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// cache-blocked matrix multiplication into pre-allocated destination matrices, optionally splitting rows across threads
+// for each destination cell the products are summed in the same order as a simple triple loop, so results do not depend
+// on the blocking or thread count
+public class MatrixMultiplier
+{
+    private final int mThreads;
+    private final ExecutorService mExecutorService;
+
+    private static final Logger LOGGER = LogManager.getLogger(MatrixMultiplier.class);
+
+    private static final int BLOCK_SIZE = 64;
+
+    // below this many multiply-adds the cost of handing work to other threads outweighs the gain
+    private static final long MIN_PARALLEL_OPERATIONS = 1_000_000;
+
+    public MatrixMultiplier(int threads)
+    {
+        mThreads = Math.max(threads, 1);
+
+        if(mThreads > 1)
+        {
+            mExecutorService = Executors.newFixedThreadPool(
+                    mThreads, new ThreadFactoryBuilder().setNameFormat("matrix-%d").setDaemon(true).build());
+        }
+        else
+        {
+            mExecutorService = null;
+        }
+    }
+
+    public int threads() { return mThreads; }
+
+    public void close()
+    {
+        if(mExecutorService != null)
+            mExecutorService.shutdown();
+    }
+
+    // dest = first x second
+    public void multiply(final Matrix first, final Matrix second, final Matrix dest)
+    {
+        if(!checkDimensions(first.Rows, first.Cols, second.Rows, second.Cols, dest))
+            return;
+
+        run(first, false, second, false, dest);
+    }
+
+    // dest = transpose(first) x second, without forming the transpose
+    public void multiplyTransposeFirst(final Matrix first, final Matrix second, final Matrix dest)
+    {
+        if(!checkDimensions(first.Cols, first.Rows, second.Rows, second.Cols, dest))
+            return;
+
+        run(first, true, second, false, dest);
+    }
+
+    // dest = first x transpose(second), without forming the transpose
+    public void multiplyTransposeSecond(final Matrix first, final Matrix second, final Matrix dest)
+    {
+        if(!checkDimensions(first.Rows, first.Cols, second.Cols, second.Rows, dest))
+            return;
+
+        run(first, false, second, true, dest);
+    }
+
+    private static boolean checkDimensions(int firstRows, int firstCols, int secondRows, int secondCols, final Matrix dest)
+    {
+        if(firstCols != secondRows || dest.Rows != firstRows || dest.Cols != secondCols)
+        {
+            LOGGER.error("incorrect row or column: first({}x{}) second({}x{}) dest({}x{})",
+                    firstRows, firstCols, secondRows, secondCols, dest.Rows, dest.Cols);
+            return false;
+        }
+
+        return true;
+    }
+
+    private void run(final Matrix first, boolean transFirst, final Matrix second, boolean transSecond, final Matrix dest)
+    {
+        dest.initialise(0);
+
+        int rows = dest.Rows;
+        int commonCount = transFirst ? first.Rows : first.Cols;
+        long operations = (long)rows * dest.Cols * commonCount;
+
+        if(mExecutorService == null || rows < 2 || operations < MIN_PARALLEL_OPERATIONS)
+        {
+            multiplyRows(first.getData(), transFirst, second.getData(), transSecond, dest.getData(), commonCount, dest.Cols, 0, rows);
+            return;
+        }
+
+        int taskCount = min(mThreads, rows);
+        int rowsPerTask = (rows + taskCount - 1) / taskCount;
+
+        List<Future<?>> futures = Lists.newArrayListWithCapacity(taskCount);
+
+        for(int rowStart = 0; rowStart < rows; rowStart += rowsPerTask)
+        {
+            int taskRowStart = rowStart;
+            int taskRowEnd = min(rowStart + rowsPerTask, rows);
+
+            futures.add(mExecutorService.submit(() -> multiplyRows(
+                    first.getData(), transFirst, second.getData(), transSecond, dest.getData(), commonCount, dest.Cols,
+                    taskRowStart, taskRowEnd)));
+        }
+
+        try
+        {
+            for(Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch(Exception e)
+        {
+            LOGGER.error("matrix multiply error: {}", e.toString());
+            throw new RuntimeException(e);
+        }
+    }
+
+    // accumulates first x second into rows [rowStart, rowEnd) of dest, with either input optionally read as its transpose
+    static void multiplyRows(
+            final double[][] first, boolean transFirst, final double[][] second, boolean transSecond, final double[][] dest,
+            int commonCount, int destCols, int rowStart, int rowEnd)
+    {
+        if(transSecond && !transFirst)
+        {
+            // both rows are contiguous, so each cell is a dot product
+            for(int i = rowStart; i < rowEnd; ++i)
+            {
+                final double[] firstRow = first[i];
+                final double[] destRow = dest[i];
+
+                for(int j = 0; j < destCols; ++j)
+                {
+                    final double[] secondRow = second[j];
+                    double total = destRow[j];
+
+                    for(int c = 0; c < commonCount; ++c)
+                    {
+                        total += firstRow[c] * secondRow[c];
+                    }
+
+                    destRow[j] = total;
+                }
+            }
+
+            return;
+        }
+
+        // block the common and destination-column dimensions so a tile of the second matrix stays in cache across rows
+        for(int colBlock = 0; colBlock < destCols; colBlock += BLOCK_SIZE)
+        {
+            int colBlockEnd = min(colBlock + BLOCK_SIZE, destCols);
+
+            for(int commonBlock = 0; commonBlock < commonCount; commonBlock += BLOCK_SIZE)
+            {
+                int commonBlockEnd = min(commonBlock + BLOCK_SIZE, commonCount);
+
+                for(int i = rowStart; i < rowEnd; ++i)
+                {
+                    final double[] destRow = dest[i];
+
+                    for(int c = commonBlock; c < commonBlockEnd; ++c)
+                    {
+                        double firstValue = transFirst ? first[c][i] : first[i][c];
+
+                        if(transSecond)
+                        {
+                            for(int j = colBlock; j < colBlockEnd; ++j)
+                            {
+                                destRow[j] += firstValue * second[j][c];
+                            }
+                        }
+                        else
+                        {
+                            final double[] secondRow = second[c];
+
+                            for(int j = colBlock; j < colBlockEnd; ++j)
+                            {
+                                destRow[j] += firstValue * secondRow[j];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
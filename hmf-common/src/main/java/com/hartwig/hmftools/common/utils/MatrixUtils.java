@@ -221,21 +221,7 @@ public class MatrixUtils
         if(initialiseDest)
             dest.initialise(0);
 
-        final double[][] data = matrix.getData();
-        double[][] destData = dest.getData();
-
-        for(int i = 0; i < matrix.Rows; i++)
-        {
-            for(int j = 0; j < other.Cols; j++)
-            {
-                int commonColCount = matrix.Cols; // also = other.rowCount()
-
-                for(int c = 0; c < commonColCount; c++)
-                {
-                    destData[i][j] += data[i][c] * otherData[c][j];
-                }
-            }
-        }
+        MatrixMultiplier.multiplyRows(matrix.getData(), false, otherData, false, dest.getData(), matrix.Cols, other.Cols, 0, matrix.Rows);
     }
 
     public static void scalarMultiply(final Matrix matrix, final Matrix other)
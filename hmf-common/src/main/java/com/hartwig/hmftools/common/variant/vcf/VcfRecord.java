@@ -0,0 +1,329 @@
+package com.hartwig.hmftools.common.variant.vcf;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import static com.hartwig.hmftools.common.variant.CommonVcfTags.PASS_FILTER;
+
+import org.jetbrains.annotations.Nullable;
+
+// a VCF data line held as raw bytes with column offsets - fields are only decoded when accessed
+public class VcfRecord
+{
+    private final byte[] mLine;
+    private final int[] mColumnStarts; // start of each column, plus a final entry one past the end of the line
+    private final int mColumnCount;
+
+    // lazily decoded common fields
+    private String mChromosome;
+    private int mPosition;
+
+    public static final int COL_CHROM = 0;
+    public static final int COL_POS = 1;
+    public static final int COL_ID = 2;
+    public static final int COL_REF = 3;
+    public static final int COL_ALT = 4;
+    public static final int COL_QUAL = 5;
+    public static final int COL_FILTER = 6;
+    public static final int COL_INFO = 7;
+    public static final int COL_FORMAT = 8;
+    public static final int COL_FIRST_SAMPLE = 9;
+
+    private static final byte TAB = '\t';
+    private static final byte INFO_DELIM = ';';
+    private static final byte INFO_KEY_DELIM = '=';
+    private static final byte FORMAT_DELIM = ':';
+    private static final String MISSING_VALUE = ".";
+
+    private static final int MIN_COLUMNS = COL_INFO + 1;
+    private static final int UNSET_POSITION = -1;
+
+    public VcfRecord(final byte[] line, int length)
+    {
+        mLine = line;
+
+        int tabCount = 0;
+
+        for(int i = 0; i < length; ++i)
+        {
+            if(line[i] == TAB)
+                ++tabCount;
+        }
+
+        mColumnStarts = new int[tabCount + 2];
+        mColumnStarts[0] = 0;
+
+        int column = 1;
+
+        for(int i = 0; i < length; ++i)
+        {
+            if(line[i] == TAB)
+                mColumnStarts[column++] = i + 1;
+        }
+
+        mColumnStarts[column] = length + 1;
+        mColumnCount = tabCount + 1;
+
+        if(mColumnCount < MIN_COLUMNS)
+        {
+            throw new IllegalArgumentException("invalid VCF record: " + new String(line, 0, length, US_ASCII));
+        }
+
+        mChromosome = null;
+        mPosition = UNSET_POSITION;
+    }
+
+    public static VcfRecord fromString(final String line)
+    {
+        byte[] bytes = line.getBytes(US_ASCII);
+        return new VcfRecord(bytes, bytes.length);
+    }
+
+    public int columnCount() { return mColumnCount; }
+    public int sampleCount() { return Math.max(mColumnCount - COL_FIRST_SAMPLE, 0); }
+
+    public String column(int column)
+    {
+        return new String(mLine, columnStart(column), columnLength(column), US_ASCII);
+    }
+
+    public String chromosome()
+    {
+        if(mChromosome == null)
+            mChromosome = column(COL_CHROM);
+
+        return mChromosome;
+    }
+
+    public int position()
+    {
+        if(mPosition == UNSET_POSITION)
+            mPosition = parseInt(columnStart(COL_POS), columnEnd(COL_POS));
+
+        return mPosition;
+    }
+
+    public String id() { return column(COL_ID); }
+    public String ref() { return column(COL_REF); }
+
+    // the full ALT column, comma-separated if multi-allelic
+    public String alt() { return column(COL_ALT); }
+
+    public String firstAlt()
+    {
+        int start = columnStart(COL_ALT);
+        int end = indexOf((byte)',', start, columnEnd(COL_ALT));
+        return new String(mLine, start, end - start, US_ASCII);
+    }
+
+    public double qual()
+    {
+        return isMissing(COL_QUAL) ? 0 : Double.parseDouble(column(COL_QUAL));
+    }
+
+    public String filter() { return column(COL_FILTER); }
+
+    // matches htsjdk semantics - both PASS and unapplied filters ('.') are treated as unfiltered
+    public boolean isFiltered()
+    {
+        return !isMissing(COL_FILTER) && !columnEquals(COL_FILTER, PASS_FILTER);
+    }
+
+    public boolean filtersApplied() { return !isMissing(COL_FILTER); }
+
+    public boolean hasInfo(final String key) { return findInfoKey(key) >= 0; }
+
+    // returns null if the key is absent, and an empty string for flags
+    @Nullable
+    public String infoValue(final String key)
+    {
+        int keyStart = findInfoKey(key);
+
+        if(keyStart < 0)
+            return null;
+
+        int valueStart = keyStart + key.length();
+        int infoEnd = columnEnd(COL_INFO);
+
+        if(valueStart >= infoEnd || mLine[valueStart] != INFO_KEY_DELIM)
+            return "";
+
+        ++valueStart;
+        int valueEnd = indexOf(INFO_DELIM, valueStart, infoEnd);
+        return new String(mLine, valueStart, valueEnd - valueStart, US_ASCII);
+    }
+
+    public String infoString(final String key, final String defaultValue)
+    {
+        String value = infoValue(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public int infoInt(final String key, int defaultValue)
+    {
+        String value = infoValue(key);
+        return value == null || value.isEmpty() || value.equals(MISSING_VALUE) ? defaultValue : Integer.parseInt(value);
+    }
+
+    public double infoDouble(final String key, double defaultValue)
+    {
+        String value = infoValue(key);
+        return value == null || value.isEmpty() || value.equals(MISSING_VALUE) ? defaultValue : Double.parseDouble(value);
+    }
+
+    public String[] infoValues(final String key)
+    {
+        String value = infoValue(key);
+        return value == null || value.isEmpty() ? new String[0] : value.split(",", -1);
+    }
+
+    // returns the index of the key in the FORMAT column, or -1 if absent
+    public int formatIndex(final String key)
+    {
+        if(mColumnCount <= COL_FORMAT)
+            return -1;
+
+        int start = columnStart(COL_FORMAT);
+        int end = columnEnd(COL_FORMAT);
+        int index = 0;
+
+        while(start < end)
+        {
+            int fieldEnd = indexOf(FORMAT_DELIM, start, end);
+
+            if(rangeEquals(start, fieldEnd, key))
+                return index;
+
+            start = fieldEnd + 1;
+            ++index;
+        }
+
+        return -1;
+    }
+
+    @Nullable
+    public String formatValue(int sampleIndex, final String key)
+    {
+        int formatIndex = formatIndex(key);
+        return formatIndex >= 0 ? formatValue(sampleIndex, formatIndex) : null;
+    }
+
+    // retrieves a sample's value by a FORMAT index, so callers can resolve the index once per record for several samples
+    @Nullable
+    public String formatValue(int sampleIndex, int formatIndex)
+    {
+        int column = COL_FIRST_SAMPLE + sampleIndex;
+
+        if(formatIndex < 0 || column >= mColumnCount)
+            return null;
+
+        int start = columnStart(column);
+        int end = columnEnd(column);
+
+        for(int i = 0; i < formatIndex; ++i)
+        {
+            start = indexOf(FORMAT_DELIM, start, end) + 1;
+
+            if(start > end) // trailing fields may be dropped
+                return null;
+        }
+
+        int fieldEnd = indexOf(FORMAT_DELIM, start, end);
+        return new String(mLine, start, fieldEnd - start, US_ASCII);
+    }
+
+    public int formatInt(int sampleIndex, final String key, int defaultValue)
+    {
+        String value = formatValue(sampleIndex, key);
+        return value == null || value.isEmpty() || value.equals(MISSING_VALUE) ? defaultValue : Integer.parseInt(value);
+    }
+
+    public int[] formatInts(int sampleIndex, final String key)
+    {
+        String value = formatValue(sampleIndex, key);
+
+        if(value == null || value.isEmpty() || value.equals(MISSING_VALUE))
+            return new int[0];
+
+        String[] items = value.split(",", -1);
+        int[] values = new int[items.length];
+
+        for(int i = 0; i < items.length; ++i)
+        {
+            values[i] = items[i].equals(MISSING_VALUE) ? 0 : Integer.parseInt(items[i]);
+        }
+
+        return values;
+    }
+
+    public String toString()
+    {
+        return String.format("%s:%d %s>%s", chromosome(), position(), ref(), alt());
+    }
+
+    private int findInfoKey(final String key)
+    {
+        int start = columnStart(COL_INFO);
+        int end = columnEnd(COL_INFO);
+
+        while(start < end)
+        {
+            int entryEnd = indexOf(INFO_DELIM, start, end);
+            int keyEnd = indexOf(INFO_KEY_DELIM, start, entryEnd);
+
+            if(rangeEquals(start, keyEnd, key))
+                return start;
+
+            start = entryEnd + 1;
+        }
+
+        return -1;
+    }
+
+    private int columnStart(int column) { return mColumnStarts[column]; }
+    private int columnEnd(int column) { return mColumnStarts[column + 1] - 1; }
+    private int columnLength(int column) { return columnEnd(column) - columnStart(column); }
+
+    private boolean isMissing(int column) { return columnEquals(column, MISSING_VALUE); }
+
+    private boolean columnEquals(int column, final String value)
+    {
+        return rangeEquals(columnStart(column), columnEnd(column), value);
+    }
+
+    private boolean rangeEquals(int start, int end, final String value)
+    {
+        if(end - start != value.length())
+            return false;
+
+        for(int i = 0; i < value.length(); ++i)
+        {
+            if(mLine[start + i] != value.charAt(i))
+                return false;
+        }
+
+        return true;
+    }
+
+    private int indexOf(byte value, int start, int end)
+    {
+        for(int i = start; i < end; ++i)
+        {
+            if(mLine[i] == value)
+                return i;
+        }
+
+        return end;
+    }
+
+    private int parseInt(int start, int end)
+    {
+        int value = 0;
+
+        for(int i = start; i < end; ++i)
+        {
+            value = value * 10 + (mLine[i] - '0');
+        }
+
+        return value;
+    }
+}
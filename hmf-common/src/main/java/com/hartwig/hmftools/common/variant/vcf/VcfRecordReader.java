@@ -0,0 +1,258 @@
+package com.hartwig.hmftools.common.variant.vcf;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.collect.Lists;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.tribble.readers.LineIteratorImpl;
+import htsjdk.tribble.readers.SynchronousLineReader;
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFHeader;
+
+// a lightweight alternative to VcfFileReader for callers which only need a few fields from each record - lines are tokenised
+// into column offsets and INFO and FORMAT fields are only decoded on access
+public class VcfRecordReader implements AutoCloseable, Iterable<VcfRecord>
+{
+    private final String mFilename;
+    private final InputStream mInputStream;
+    private final List<String> mHeaderLines;
+    private final List<String> mSampleNames;
+
+    private byte[] mBuffer;
+    private int mBufferPosition;
+    private int mBufferLength;
+    private byte[] mLine;
+
+    private VcfRecord mNextRecord;
+    private VCFHeader mVcfHeader;
+
+    private static final Logger LOGGER = LogManager.getLogger(VcfRecordReader.class);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String HEADER_PREFIX = "#";
+    private static final String COLUMN_HEADER_PREFIX = "#CHROM";
+
+    public VcfRecordReader(final String filename) throws IOException
+    {
+        mFilename = filename;
+
+        InputStream inputStream = new FileInputStream(filename);
+
+        // BGZF files are valid multi-member gzip files
+        mInputStream = filename.endsWith(".gz") ? new GZIPInputStream(inputStream, BUFFER_SIZE) : inputStream;
+
+        mHeaderLines = Lists.newArrayList();
+        mSampleNames = Lists.newArrayList();
+        mBuffer = new byte[BUFFER_SIZE];
+        mBufferPosition = 0;
+        mBufferLength = 0;
+        mLine = new byte[1024];
+        mVcfHeader = null;
+
+        readHeader();
+    }
+
+    @Nullable
+    public static VcfRecordReader open(final String filename)
+    {
+        if(!Files.exists(Paths.get(filename)))
+            return null;
+
+        try
+        {
+            return new VcfRecordReader(filename);
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to open VCF({}): {}", filename, e.toString());
+            return null;
+        }
+    }
+
+    public List<String> headerLines() { return mHeaderLines; }
+    public List<String> sampleNames() { return mSampleNames; }
+
+    public int sampleIndex(final String sampleName) { return mSampleNames.indexOf(sampleName); }
+
+    // parsed on demand for callers needing header metadata, or for writing out through htsjdk
+    public VCFHeader vcfHeader()
+    {
+        if(mVcfHeader == null)
+        {
+            VCFCodec codec = new VCFCodec();
+            mVcfHeader = (VCFHeader)codec.readActualHeader(new LineIteratorImpl(new SynchronousLineReader(
+                    new StringReader(String.join("\n", mHeaderLines) + "\n"))));
+        }
+
+        return mVcfHeader;
+    }
+
+    @Nullable
+    public VcfRecord nextRecord()
+    {
+        try
+        {
+            while(true)
+            {
+                int length = readLine();
+
+                if(length < 0)
+                    return null;
+
+                if(length == 0)
+                    continue;
+
+                return new VcfRecord(Arrays.copyOf(mLine, length), length);
+            }
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to read VCF({}): {}", mFilename, e.toString());
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Iterator<VcfRecord> iterator()
+    {
+        return new Iterator<>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                if(mNextRecord == null)
+                    mNextRecord = nextRecord();
+
+                return mNextRecord != null;
+            }
+
+            @Override
+            public VcfRecord next()
+            {
+                if(!hasNext())
+                    throw new NoSuchElementException();
+
+                VcfRecord record = mNextRecord;
+                mNextRecord = null;
+                return record;
+            }
+        };
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            mInputStream.close();
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to close VCF({}): {}", mFilename, e.toString());
+        }
+    }
+
+    private void readHeader() throws IOException
+    {
+        while(true)
+        {
+            int length = peekHeaderLine();
+
+            if(length < 0)
+                return;
+
+            String line = new String(mLine, 0, length, US_ASCII);
+            mHeaderLines.add(line);
+
+            if(line.startsWith(COLUMN_HEADER_PREFIX))
+            {
+                String[] columns = line.split("\t", -1);
+
+                for(int i = VcfRecord.COL_FIRST_SAMPLE; i < columns.length; ++i)
+                {
+                    mSampleNames.add(columns[i]);
+                }
+
+                return;
+            }
+        }
+    }
+
+    private int peekHeaderLine() throws IOException
+    {
+        // only consume the line if it is a header line, otherwise it becomes the first record
+        if(!fillBuffer())
+            return -1;
+
+        if(mBuffer[mBufferPosition] != HEADER_PREFIX.charAt(0))
+            return -1;
+
+        return readLine();
+    }
+
+    // reads the next line into the line buffer, excluding the line terminator, returning its length or -1 at end of input
+    private int readLine() throws IOException
+    {
+        int length = 0;
+
+        while(true)
+        {
+            if(!fillBuffer())
+                return length > 0 ? length : -1;
+
+            int start = mBufferPosition;
+            int end = start;
+
+            while(end < mBufferLength && mBuffer[end] != '\n')
+            {
+                ++end;
+            }
+
+            int segmentLength = end - start;
+
+            if(length + segmentLength > mLine.length)
+                mLine = Arrays.copyOf(mLine, Math.max(mLine.length * 2, length + segmentLength));
+
+            System.arraycopy(mBuffer, start, mLine, length, segmentLength);
+            length += segmentLength;
+
+            if(end < mBufferLength)
+            {
+                mBufferPosition = end + 1;
+
+                if(length > 0 && mLine[length - 1] == '\r')
+                    --length;
+
+                return length;
+            }
+
+            mBufferPosition = mBufferLength;
+        }
+    }
+
+    private boolean fillBuffer() throws IOException
+    {
+        if(mBufferPosition < mBufferLength)
+            return true;
+
+        mBufferLength = mInputStream.readNBytes(mBuffer, 0, mBuffer.length);
+        mBufferPosition = 0;
+        return mBufferLength > 0;
+    }
+}
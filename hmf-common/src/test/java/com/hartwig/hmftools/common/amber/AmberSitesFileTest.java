@@ -70,6 +70,49 @@ public class AmberSitesFileTest
         Assert.assertEquals(originalData.get(_1).get(2).snpCheck(), readData1.get(2).snpCheck());
     }
 
+    @Test
+    public void writeReadBinaryTest() throws Exception
+    {
+        mGenomeVersion = RefGenomeVersion.V38;
+        originalData = ArrayListMultimap.create();
+        putData(_1, 4564, T, G, false, 0.86453211);
+        putData(_1, 1000, A, C, true, 0.11);
+        putData(_1, 1234, A, G, false, 0.56);
+        putData(_2, 232, T, A, false, 0.342);
+        putData(_X, 23782, T, G, true, 0.53211);
+
+        File tempDir = Files.createTempDirectory("amber").toFile();
+        File outputFile = new File(tempDir, "ambersites" + AmberSiteArrays.BINARY_FILE_EXTENSION);
+        AmberSiteArrays.writeBinaryFile(originalData, outputFile.getAbsolutePath());
+
+        ListMultimap<Chromosome, AmberSite> readData = AmberSitesFile.sites(outputFile.getAbsolutePath());
+        Assert.assertEquals(originalData.size(), readData.size());
+
+        // sites are sorted by position within each chromosome
+        List<AmberSite> readData1 = readData.get(_1);
+        Assert.assertEquals(originalData.get(_1).get(1), readData1.get(0));
+        Assert.assertEquals(originalData.get(_1).get(2), readData1.get(1));
+        Assert.assertEquals(originalData.get(_1).get(0), readData1.get(2));
+        Assert.assertTrue(readData1.get(0).snpCheck());
+        Assert.assertFalse(readData1.get(1).snpCheck());
+        Assert.assertEquals(0.86453211, readData1.get(2).GnomadFrequency, 0);
+        Assert.assertEquals("chr1", readData1.get(0).Chromosome);
+
+        Assert.assertEquals(originalData.get(_2), readData.get(_2));
+        Assert.assertEquals(originalData.get(_X), readData.get(_X));
+        Assert.assertTrue(readData.get(_X).get(0).snpCheck());
+
+        AmberSiteArrays.ChromosomeSites chr1Sites = AmberSitesFile.siteArrays(outputFile.getAbsolutePath()).chromosomeSites().get("chr1");
+        Assert.assertEquals(1, chr1Sites.indexOf(1234));
+        Assert.assertEquals(-1, chr1Sites.indexOf(1235));
+
+        AmberSiteArrays.ChromosomeSites snpCheckSites = chr1Sites.filter(chr1Sites::snpCheck);
+        Assert.assertEquals(1, snpCheckSites.size());
+        Assert.assertEquals(1000, snpCheckSites.position(0));
+        Assert.assertEquals("C", snpCheckSites.alt(0));
+        Assert.assertEquals(0.11, snpCheckSites.frequency(0), 0);
+    }
+
     private void putData(HumanChromosome chromosome, int position, AmberBase ref, AmberBase alt, boolean snpCheck, double frequency)
     {
         originalData.put(chromosome, as(chromosome, position, ref, alt, snpCheck, frequency));
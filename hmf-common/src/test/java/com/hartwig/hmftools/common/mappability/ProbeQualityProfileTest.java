@@ -4,6 +4,9 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 import java.util.OptionalDouble;
 
 import com.google.common.io.Resources;
@@ -17,17 +20,20 @@ public class ProbeQualityProfileTest
     private static final int BASE_WINDOW_LENGTH = 40;
     private static final float EPSILON = 1e-9f;
 
+    private final String mTestFile;
     private final ProbeQualityProfile mProfile;
 
     public ProbeQualityProfileTest()
     {
-        String testFile = Resources.getResource("mappability/test_probe_quality.tsv").getPath();
-        mProfile = ProbeQualityProfile.loadFromResourceFile(testFile);
+        mTestFile = Resources.getResource("mappability/test_probe_quality.tsv").getPath();
+        mProfile = ProbeQualityProfile.loadFromResourceFile(mTestFile);
     }
 
-    private static void assertWindowArrayEqual(final ProbeQualityProfile.WindowArray actual, final int[] expectedEndPositions,
+    private static void assertWindowArrayEqual(final ProbeQualityProfile.QualityWindows windows, final int[] expectedEndPositions,
             final float[] expectedQualityScores)
     {
+        // TSV profiles are loaded into heap window arrays.
+        ProbeQualityProfile.WindowArray actual = (ProbeQualityProfile.WindowArray) windows;
         assertEquals(BASE_WINDOW_LENGTH, actual.mBaseWindowLength);
         assertEquals(expectedEndPositions.length, expectedQualityScores.length);
         assertEquals(expectedEndPositions.length, actual.size());
@@ -143,4 +149,27 @@ public class ProbeQualityProfileTest
         assertEquals(OptionalDouble.empty(), mProfile.computeQualityScore(new ChrBaseRegion("1", 145, 1000)));
         assertEquals(OptionalDouble.empty(), mProfile.computeQualityScore(new ChrBaseRegion("1", 50, 1000)));
     }
+
+    @Test
+    public void testBinaryProfileMatchesTsv() throws IOException
+    {
+        File binaryFile = File.createTempFile("test_probe_quality", ProbeQualityProfile.BINARY_FILE_EXTENSION);
+        binaryFile.deleteOnExit();
+        ProbeQualityProfile.writeBinaryFile(mTestFile, binaryFile.getPath(), BASE_WINDOW_LENGTH, 20);
+        ProbeQualityProfile binaryProfile = ProbeQualityProfile.loadFromResourceFile(binaryFile.getPath());
+
+        assertEquals(mProfile.mWindows.keySet(), binaryProfile.mWindows.keySet());
+
+        for(String chromosome : List.of("1", "2", "10", "11", "50", "LowQuality", "MixedQuality", "QualityStep"))
+        {
+            for(int start = 1; start <= 1100; start += 3)
+            {
+                for(int length : new int[] { 40, 57, 120 })
+                {
+                    ChrBaseRegion probe = new ChrBaseRegion(chromosome, start, start + length - 1);
+                    assertEquals(probe.toString(), mProfile.computeQualityScore(probe), binaryProfile.computeQualityScore(probe));
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package com.hartwig.hmftools.common.region;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class SortedIntervalsTest
+{
+    @Test
+    public void testIntervalSearch()
+    {
+        List<BaseRegion> regions = List.of(
+                new BaseRegion(100, 199),
+                new BaseRegion(150, 500), // spans the next interval
+                new BaseRegion(200, 299),
+                new BaseRegion(1000, 1099));
+
+        SortedIntervals intervals = SortedIntervals.from(regions, BaseRegion::start, BaseRegion::end);
+
+        assertEquals(4, intervals.size());
+
+        assertEquals(-1, intervals.lastStartingAtOrBefore(99));
+        assertEquals(0, intervals.lastStartingAtOrBefore(100));
+        assertEquals(2, intervals.lastStartingAtOrBefore(999));
+        assertEquals(3, intervals.lastStartingAtOrBefore(5000));
+
+        assertEquals(0, intervals.firstEndingAtOrAfter(50));
+        assertEquals(1, intervals.firstEndingAtOrAfter(200));
+        assertEquals(3, intervals.firstEndingAtOrAfter(501));
+        assertEquals(4, intervals.firstEndingAtOrAfter(1100));
+
+        assertEquals(0, intervals.firstOverlapping(50, 100));
+        assertEquals(1, intervals.firstOverlapping(450, 460));
+        assertEquals(-1, intervals.firstOverlapping(501, 999));
+        assertEquals(3, intervals.firstOverlapping(501, 1000));
+        assertEquals(-1, intervals.firstOverlapping(1100, 2000));
+
+        assertTrue(intervals.overlapsAny(299, 299));
+        assertFalse(intervals.overlapsAny(10, 99));
+    }
+
+    @Test
+    public void testMatchesScan()
+    {
+        int[] starts = { 10, 20, 20, 45, 60, 61, 90 };
+        int[] ends = { 30, 25, 70, 50, 65, 61, 95 };
+
+        SortedIntervals intervals = new SortedIntervals(starts, ends);
+
+        for(int posStart = 0; posStart <= 100; ++posStart)
+        {
+            for(int posEnd = posStart; posEnd <= 100; ++posEnd)
+            {
+                int expectedIndex = -1;
+
+                for(int i = 0; i < starts.length; ++i)
+                {
+                    if(BaseRegion.positionsOverlap(starts[i], ends[i], posStart, posEnd))
+                    {
+                        expectedIndex = i;
+                        break;
+                    }
+                }
+
+                assertEquals(expectedIndex, intervals.firstOverlapping(posStart, posEnd));
+            }
+        }
+    }
+}
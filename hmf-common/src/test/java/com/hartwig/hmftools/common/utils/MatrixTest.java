@@ -1,5 +1,9 @@
 package com.hartwig.hmftools.common.utils;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
 import org.junit.Test;
 
 public class MatrixTest
@@ -26,4 +30,87 @@ public class MatrixTest
 
         // assertTrue(NmfRun.signaturesEqual(matrix1, matrix2));
     }
+
+    @Test
+    public void testMatrixMultiply()
+    {
+        Random random = new Random(1);
+        Matrix first = randomMatrix(random, 150, 120);
+        Matrix second = randomMatrix(random, 120, 100);
+
+        Matrix expected = simpleMultiply(first, second);
+
+        Matrix result = MatrixUtils.multiply(first, second);
+        assertMatrixEquals(expected, result);
+
+        // threaded and transposed forms must give identical results
+        MatrixMultiplier multiplier = new MatrixMultiplier(3);
+
+        result = new Matrix(150, 100);
+        multiplier.multiply(first, second, result);
+        assertMatrixEquals(expected, result);
+
+        multiplier.multiplyTransposeFirst(first.transpose(), second, result);
+        assertMatrixEquals(expected, result);
+
+        multiplier.multiplyTransposeSecond(first, second.transpose(), result);
+        assertMatrixEquals(expected, result);
+
+        multiplier.close();
+
+        // single-threaded
+        multiplier = new MatrixMultiplier(1);
+        Matrix small = randomMatrix(random, 5, 3);
+        Matrix smallResult = new Matrix(3, 3);
+        multiplier.multiplyTransposeFirst(small, small, smallResult);
+        assertMatrixEquals(simpleMultiply(small.transpose(), small), smallResult);
+    }
+
+    private static Matrix randomMatrix(final Random random, int rows, int cols)
+    {
+        Matrix matrix = new Matrix(rows, cols);
+
+        for(int i = 0; i < rows; ++i)
+        {
+            for(int j = 0; j < cols; ++j)
+            {
+                matrix.set(i, j, random.nextDouble() * 100);
+            }
+        }
+
+        return matrix;
+    }
+
+    private static Matrix simpleMultiply(final Matrix first, final Matrix second)
+    {
+        Matrix result = new Matrix(first.Rows, second.Cols);
+
+        for(int i = 0; i < first.Rows; ++i)
+        {
+            for(int j = 0; j < second.Cols; ++j)
+            {
+                double total = 0;
+
+                for(int c = 0; c < first.Cols; ++c)
+                {
+                    total += first.get(i, c) * second.get(c, j);
+                }
+
+                result.set(i, j, total);
+            }
+        }
+
+        return result;
+    }
+
+    private static void assertMatrixEquals(final Matrix expected, final Matrix actual)
+    {
+        for(int i = 0; i < expected.Rows; ++i)
+        {
+            for(int j = 0; j < expected.Cols; ++j)
+            {
+                assertEquals(expected.get(i, j), actual.get(i, j), 0);
+            }
+        }
+    }
 }
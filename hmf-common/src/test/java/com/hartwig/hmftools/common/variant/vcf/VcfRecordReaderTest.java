@@ -0,0 +1,146 @@
+package com.hartwig.hmftools.common.variant.vcf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.variant.vcf.VCFHeader;
+
+public class VcfRecordReaderTest
+{
+    private static final List<String> HEADER_LINES = List.of(
+            "##fileformat=VCFv4.2",
+            "##INFO=<ID=TNC,Number=1,Type=String,Description=\"Trinucleotide context\">",
+            "##FORMAT=<ID=AD,Number=R,Type=Integer,Description=\"Allelic depths\">",
+            "##contig=<ID=1,length=249250621>",
+            "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tREF_SAMPLE\tTUMOR_SAMPLE");
+
+    private static final List<String> RECORD_LINES = List.of(
+            "1\t100\t.\tA\tG\t.\tPASS\tTNC=AAG\tAD\t10,0\t10,5",
+            "1\t200\t.\tAT\tA\t.\tPON\tTNC=CAT\tAD\t20,0\t12,8",
+            "1\t300\t.\tC\tT,G\t.\tPASS\t.\tAD\t5,0,0\t7,3,2");
+
+    private static final int BULK_RECORDS = 5000;
+
+    @Test
+    public void testPlainVcf() throws IOException
+    {
+        File vcfFile = File.createTempFile("test_vcf_reader", ".vcf");
+        vcfFile.deleteOnExit();
+
+        try(OutputStream outputStream = new FileOutputStream(vcfFile))
+        {
+            writeVcf(outputStream, "\n");
+        }
+
+        checkVcf(vcfFile.getPath());
+    }
+
+    @Test
+    public void testBlockCompressedVcf() throws IOException
+    {
+        File vcfFile = File.createTempFile("test_vcf_reader", ".vcf.gz");
+        vcfFile.deleteOnExit();
+
+        // with Windows line endings to check they are trimmed
+        try(OutputStream outputStream = new BlockCompressedOutputStream(vcfFile))
+        {
+            writeVcf(outputStream, "\r\n");
+        }
+
+        checkVcf(vcfFile.getPath());
+    }
+
+    @Test
+    public void testMissingFile()
+    {
+        assertNull(VcfRecordReader.open("missing_file.vcf"));
+    }
+
+    private static void writeVcf(final OutputStream outputStream, final String lineEnding) throws IOException
+    {
+        for(String line : HEADER_LINES)
+        {
+            outputStream.write((line + lineEnding).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        for(String line : RECORD_LINES)
+        {
+            outputStream.write((line + lineEnding).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        // enough further records for lines to span the reader's buffer and, when compressed, BGZF block boundaries
+        for(int i = 0; i < BULK_RECORDS; ++i)
+        {
+            outputStream.write((bulkRecordLine(i) + lineEnding).getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private static String bulkRecordLine(int index)
+    {
+        return String.format("1\t%d\t.\tG\tC\t.\tPASS\tTNC=GGC\tAD\t30,0\t%d,%d", 1000 + index, 20 + index % 7, index % 11);
+    }
+
+    private static String recordLine(final VcfRecord record)
+    {
+        return IntStream.range(0, record.columnCount()).mapToObj(record::column).collect(Collectors.joining("\t"));
+    }
+
+    private static void checkVcf(final String filename) throws IOException
+    {
+        VcfRecordReader reader = VcfRecordReader.open(filename);
+        assertNotNull(reader);
+
+        assertEquals(HEADER_LINES, reader.headerLines());
+        assertEquals(List.of("REF_SAMPLE", "TUMOR_SAMPLE"), reader.sampleNames());
+        assertEquals(1, reader.sampleIndex("TUMOR_SAMPLE"));
+
+        VCFHeader vcfHeader = reader.vcfHeader();
+        assertTrue(vcfHeader.hasInfoLine("TNC"));
+        assertTrue(vcfHeader.hasFormatLine("AD"));
+        assertEquals(List.of("REF_SAMPLE", "TUMOR_SAMPLE"), vcfHeader.getGenotypeSamples());
+
+        List<VcfRecord> records = Lists.newArrayList();
+        reader.forEach(records::add);
+        reader.close();
+
+        assertEquals(RECORD_LINES.size() + BULK_RECORDS, records.size());
+
+        for(int i = 0; i < RECORD_LINES.size(); ++i)
+        {
+            assertEquals(RECORD_LINES.get(i), recordLine(records.get(i)));
+        }
+
+        for(int i = 0; i < BULK_RECORDS; ++i)
+        {
+            assertEquals(bulkRecordLine(i), recordLine(records.get(RECORD_LINES.size() + i)));
+        }
+
+        VcfRecord record = records.get(1);
+        assertEquals(200, record.position());
+        assertEquals("AT", record.ref());
+        assertEquals("CAT", record.infoValue("TNC"));
+        assertTrue(record.isFiltered());
+        assertEquals(8, record.formatInts(1, "AD")[1]);
+
+        record = records.get(2);
+        assertEquals("T,G", record.alt());
+        assertFalse(record.hasInfo("TNC"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.hartwig.hmftools.common.variant.vcf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class VcfRecordTest
+{
+    private static final String LINE = "1\t12345\tvar1\tA\tG,T\t55.5\tPASS\tTNC=AAG;RC=3;HOTSPOT;IMPACT=GENE,TRANS\tGT:AD:DP\t0/1:10,5:15\t0/0:20,0:20";
+
+    @Test
+    public void testFieldAccess()
+    {
+        VcfRecord record = VcfRecord.fromString(LINE);
+
+        assertEquals(11, record.columnCount());
+        assertEquals(2, record.sampleCount());
+        assertEquals("1", record.chromosome());
+        assertEquals(12345, record.position());
+        assertEquals("var1", record.id());
+        assertEquals("A", record.ref());
+        assertEquals("G,T", record.alt());
+        assertEquals("G", record.firstAlt());
+        assertEquals(55.5, record.qual(), 1e-6);
+        assertFalse(record.isFiltered());
+        assertTrue(record.filtersApplied());
+
+        assertEquals("AAG", record.infoValue("TNC"));
+        assertEquals(3, record.infoInt("RC", 0));
+        assertEquals(0, record.infoInt("MISSING", 0));
+        assertEquals("", record.infoValue("HOTSPOT"));
+        assertTrue(record.hasInfo("HOTSPOT"));
+        assertFalse(record.hasInfo("HOT"));
+        assertNull(record.infoValue("TN"));
+        assertArrayEquals(new String[] { "GENE", "TRANS" }, record.infoValues("IMPACT"));
+
+        assertEquals(1, record.formatIndex("AD"));
+        assertEquals("0/1", record.formatValue(0, "GT"));
+        assertArrayEquals(new int[] { 20, 0 }, record.formatInts(1, "AD"));
+        assertEquals(15, record.formatInt(0, "DP", 0));
+        assertNull(record.formatValue(0, "AF"));
+        assertNull(record.formatValue(2, "GT"));
+    }
+
+    @Test
+    public void testFilters()
+    {
+        VcfRecord record = VcfRecord.fromString("1\t100\t.\tA\tG\t.\t.\t.");
+        assertFalse(record.isFiltered());
+        assertFalse(record.filtersApplied());
+        assertEquals(0, record.sampleCount());
+
+        record = VcfRecord.fromString("1\t100\t.\tA\tG\t.\tPON;LOW_QUAL\t.");
+        assertTrue(record.isFiltered());
+    }
+}
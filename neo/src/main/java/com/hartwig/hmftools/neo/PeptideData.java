@@ -2,12 +2,15 @@ package com.hartwig.hmftools.neo;
 
 import static java.lang.String.format;
 
+import static com.hartwig.hmftools.neo.bind.BindConstants.encodePeptide;
+
 public class PeptideData
 {
     public final String Peptide;
     public final String UpFlank;
     public final String DownFlank;
     public final double TPM;
+    public final byte[] EncodedPeptide; // amino acid ordinals for scoring, null if any are unscored
 
     public PeptideData(final String peptide, final String upFlank, final String downFlank)
     {
@@ -20,6 +23,7 @@ public class PeptideData
         UpFlank = upFlank;
         DownFlank = downFlank;
         TPM = tpm;
+        EncodedPeptide = encodePeptide(peptide);
     }
 
     public String toString() { return format("%s flanks(%s-%s) tpm(%4.3e)", Peptide, UpFlank, DownFlank, TPM); }
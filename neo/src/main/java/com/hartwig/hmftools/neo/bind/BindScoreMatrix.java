@@ -32,7 +32,8 @@ public class BindScoreMatrix
     public final String Allele;
     public final int PeptideLength;
 
-    private final double[][] mPosWeights; // by amino acid and position
+    // weights by position then amino acid ordinal, so a peptide is scored from a single contiguous array
+    private final double[] mPosWeights;
 
     private static final double INVALID_SCORE = -1000;
 
@@ -41,12 +42,12 @@ public class BindScoreMatrix
         Allele = allele;
         PeptideLength = peptideLength;
 
-        int aminoAcidCount = AMINO_ACIDS.size();
-
-        mPosWeights = new double[aminoAcidCount][PeptideLength];
+        mPosWeights = new double[PeptideLength * AMINO_ACID_COUNT];
     }
 
-    public final double[][] getBindScores() { return mPosWeights; }
+    public double getWeight(int aaIndex, int position) { return mPosWeights[position * AMINO_ACID_COUNT + aaIndex]; }
+
+    public void setWeight(int aaIndex, int position, double weight) { mPosWeights[position * AMINO_ACID_COUNT + aaIndex] = weight; }
 
     public double calcScore(final String peptide)
     {
@@ -54,19 +55,32 @@ public class BindScoreMatrix
             return INVALID_SCORE; // for now
 
         double score = 0;
+        int offset = 0;
 
-        for(int i = 0; i < peptide.length(); ++i)
+        for(int i = 0; i < PeptideLength; ++i, offset += AMINO_ACID_COUNT)
         {
-            char aminoAcid = peptide.charAt(i);
-
-            int aaIndex = aminoAcidIndex(aminoAcid);
+            int aaIndex = aminoAcidIndex(peptide.charAt(i));
 
             if(aaIndex == INVALID_AMINO_ACID)
                 return INVALID_SCORE;
 
-            double aaPosScore = mPosWeights[aaIndex][i];
+            score += mPosWeights[offset + aaIndex];
+        }
+
+        return score;
+    }
 
-            score += aaPosScore;
+    public double calcScore(final byte[] encodedPeptide)
+    {
+        if(encodedPeptide == null || encodedPeptide.length != PeptideLength)
+            return INVALID_SCORE;
+
+        double score = 0;
+        int offset = 0;
+
+        for(int i = 0; i < PeptideLength; ++i, offset += AMINO_ACID_COUNT)
+        {
+            score += mPosWeights[offset + encodedPeptide[i]];
         }
 
         return score;
@@ -98,8 +112,6 @@ public class BindScoreMatrix
 
     public static void writeMatrixData(final BufferedWriter writer, final BindScoreMatrix matrix, int maxPeptideLength)
     {
-        final double[][] data = matrix.getBindScores();
-
         try
         {
             for(int aa = 0; aa < AMINO_ACID_COUNT; ++aa)
@@ -112,7 +124,7 @@ public class BindScoreMatrix
                 {
                     if(pos < matrix.PeptideLength)
                     {
-                        writer.write(String.format(",%.6f", data[aa][pos]));
+                        writer.write(String.format(",%.6f", matrix.getWeight(aa, pos)));
                     }
                     else
                     {
@@ -175,11 +187,14 @@ public class BindScoreMatrix
                 char aminoAcid = items[aaIndex].charAt(0);
                 int aminoAcidIndex = aminoAcidIndex(aminoAcid);
 
+                if(aminoAcidIndex == INVALID_AMINO_ACID)
+                    continue;
+
                 int peptidePos = 0;
                 for(int i = peptideStartIndex; i < items.length; ++i, ++peptidePos)
                 {
                     double value = Double.parseDouble(items[i]);
-                    currentMatrix.getBindScores()[aminoAcidIndex][peptidePos] = value;
+                    currentMatrix.setWeight(aminoAcidIndex, peptidePos, value);
 
                     if(peptidePos == currentMatrix.PeptideLength - 1)
                         break;
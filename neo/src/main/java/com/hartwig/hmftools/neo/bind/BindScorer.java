@@ -3,6 +3,7 @@ package com.hartwig.hmftools.neo.bind;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.neo.NeoCommon.APP_NAME;
 import static com.hartwig.hmftools.neo.NeoCommon.NE_LOGGER;
+import static com.hartwig.hmftools.neo.bind.BindConstants.encodePeptide;
 import static com.hartwig.hmftools.neo.bind.BindData.loadBindData;
 
 import java.io.BufferedWriter;
@@ -29,6 +30,7 @@ public class BindScorer
 
     private final Map<String,Map<Integer,List<BindData>>> mAllelePeptideData;
     private final Map<String,Map<Integer,BindScoreMatrix>> mAlleleBindMatrices;
+    private final Map<String,BindScoreMatrix[]> mAlleleLengthMatrices; // indexed by peptide length for scoring
     private final FlankScores mFlankScores;
 
     private final RandomPeptideDistribution mRandomDistribution;
@@ -46,6 +48,7 @@ public class BindScorer
         mBindDataOtherColumns = Maps.newLinkedHashMap();
 
         mAlleleBindMatrices = Maps.newHashMap();
+        mAlleleLengthMatrices = Maps.newHashMap();
 
         mRandomDistribution = new RandomPeptideDistribution(config.RandomPeptides);
         mBindingLikelihood = new BindingLikelihood();
@@ -67,6 +70,8 @@ public class BindScorer
         mBindDataOtherColumns = Maps.newLinkedHashMap();
 
         mAlleleBindMatrices = alleleBindMatrices;
+        mAlleleLengthMatrices = Maps.newHashMap();
+        buildMatrixLookup();
         mRandomDistribution = randomDistribution;
         mBindingLikelihood = null;
         mFlankScores = flankScores;
@@ -76,6 +81,30 @@ public class BindScorer
 
     public Set<String> getScoringAlleles() { return mAlleleBindMatrices.keySet(); }
 
+    private void buildMatrixLookup()
+    {
+        mAlleleLengthMatrices.clear();
+
+        for(Map.Entry<String,Map<Integer,BindScoreMatrix>> alleleEntry : mAlleleBindMatrices.entrySet())
+        {
+            int maxPeptideLength = alleleEntry.getValue().keySet().stream().mapToInt(x -> x).max().orElse(0);
+            BindScoreMatrix[] lengthMatrices = new BindScoreMatrix[maxPeptideLength + 1];
+
+            alleleEntry.getValue().values().forEach(x -> lengthMatrices[x.PeptideLength] = x);
+            mAlleleLengthMatrices.put(alleleEntry.getKey(), lengthMatrices);
+        }
+    }
+
+    private BindScoreMatrix getMatrix(final String allele, int peptideLength)
+    {
+        BindScoreMatrix[] lengthMatrices = mAlleleLengthMatrices.get(allele);
+
+        if(lengthMatrices == null || peptideLength >= lengthMatrices.length)
+            return null;
+
+        return lengthMatrices[peptideLength];
+    }
+
     public void run()
     {
         NE_LOGGER.info("running BindScorer");
@@ -117,9 +146,7 @@ public class BindScorer
             final String allele = alleleEntry.getKey();
             final Map<Integer,List<BindData>> pepLenBindDataMap = alleleEntry.getValue();
 
-            Map<Integer,BindScoreMatrix> pepLenMatrixMap = mAlleleBindMatrices.get(allele);
-
-            if(pepLenMatrixMap == null)
+            if(!mAlleleLengthMatrices.containsKey(allele))
             {
                 NE_LOGGER.warn("allele({}) has no matrix scoring data", allele);
                 continue;
@@ -131,13 +158,13 @@ public class BindScorer
 
                 for(BindData bindData : bindDataList)
                 {
-                    BindScoreMatrix matrix = pepLenMatrixMap.get(bindData.peptideLength());
+                    BindScoreMatrix matrix = getMatrix(allele, bindData.peptideLength());
 
                     if(matrix == null)
                         continue;
 
                     calcScoreData(
-                            bindData, matrix, mFlankScores, mRandomDistribution, mBindingLikelihood,
+                            bindData, matrix.calcScore(bindData.Peptide), mFlankScores, mRandomDistribution, mBindingLikelihood,
                             mExpressionLikelihood, mRecognitionSimilarity);
                 }
             }
@@ -158,27 +185,74 @@ public class BindScorer
         return score;
     }
 
-    public void calcScoreData(final BindData bindData)
+    public static double calcScore(
+            final BindScoreMatrix matrix, final FlankScores flankScores, final byte[] encodedPeptide, final String upFlank,
+            final String downFlank)
     {
-        if(!mAlleleBindMatrices.containsKey(bindData.Allele))
-            return;
+        double score = matrix.calcScore(encodedPeptide);
+
+        if(flankScores.hasData())
+        {
+            double flankScore = flankScores.calcScore(upFlank, downFlank);
+            score += flankScore;
+        }
+
+        return score;
+    }
 
-        BindScoreMatrix matrix = mAlleleBindMatrices.get(bindData.Allele).get(bindData.peptideLength());
+    public void calcScoreData(final BindData bindData)
+    {
+        BindScoreMatrix matrix = getMatrix(bindData.Allele, bindData.peptideLength());
 
         if(matrix == null)
             return;
 
         calcScoreData(
-                bindData, matrix, mFlankScores, mRandomDistribution,
+                bindData, matrix.calcScore(bindData.Peptide), mFlankScores, mRandomDistribution,
                 mBindingLikelihood, mExpressionLikelihood, mRecognitionSimilarity);
     }
 
+    public void calcScoreData(final List<BindData> alleleBindData)
+    {
+        // score a set of allele-peptide pairs, typically one peptide across all alleles, encoding each peptide only once
+        String lastPeptide = null;
+        byte[] encodedPeptide = null;
+
+        for(BindData bindData : alleleBindData)
+        {
+            BindScoreMatrix matrix = getMatrix(bindData.Allele, bindData.peptideLength());
+
+            if(matrix == null)
+                continue;
+
+            if(!bindData.Peptide.equals(lastPeptide))
+            {
+                lastPeptide = bindData.Peptide;
+                encodedPeptide = encodePeptide(lastPeptide);
+            }
+
+            calcScoreData(
+                    bindData, matrix.calcScore(encodedPeptide), mFlankScores, mRandomDistribution,
+                    mBindingLikelihood, mExpressionLikelihood, mRecognitionSimilarity);
+        }
+    }
+
     public static void calcScoreData(
             final BindData bindData, final BindScoreMatrix matrix, final FlankScores flankScores,
             final RandomPeptideDistribution randomDistribution, final BindingLikelihood bindingLikelihood,
             final ExpressionLikelihood expressionLikelihood, final RecognitionSimilarity recognitionSimilarity)
     {
-        double score = matrix.calcScore(bindData.Peptide);
+        calcScoreData(
+                bindData, matrix.calcScore(bindData.Peptide), flankScores, randomDistribution, bindingLikelihood,
+                expressionLikelihood, recognitionSimilarity);
+    }
+
+    private static void calcScoreData(
+            final BindData bindData, double matrixScore, final FlankScores flankScores,
+            final RandomPeptideDistribution randomDistribution, final BindingLikelihood bindingLikelihood,
+            final ExpressionLikelihood expressionLikelihood, final RecognitionSimilarity recognitionSimilarity)
+    {
+        double score = matrixScore;
 
         double flankScore = 0;
         if(flankScores.hasData() && bindData.hasFlanks())
@@ -387,6 +461,8 @@ public class BindScorer
             pepLenMap.put(matrix.PeptideLength, matrix);
         }
 
+        buildMatrixLookup();
+
         if(!mRandomDistribution.loadData())
             return false;
 
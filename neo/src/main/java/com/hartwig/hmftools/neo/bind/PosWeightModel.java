@@ -327,7 +327,6 @@ public class PosWeightModel
         final double[][] finalWeightedCounts = bindCounts.getFinalWeightedCounts();
 
         BindScoreMatrix matrix = new BindScoreMatrix(bindCounts.Allele, bindCounts.PeptideLength);
-        final double[][] data = matrix.getBindScores();
 
         for(int pos = 0; pos < bindCounts.PeptideLength; ++pos)
         {
@@ -355,7 +354,7 @@ public class PosWeightModel
                 adjustedCount = max(adjustedCount / posTotalCount, MIN_OBSERVED_AA_POS_FREQ);
 
                 double posWeight = log(2, adjustedCount / aaFrequency);
-                data[aa][pos] = posWeight;
+                matrix.setWeight(aa, pos, posWeight);
             }
         }
 
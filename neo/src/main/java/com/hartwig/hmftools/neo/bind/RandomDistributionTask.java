@@ -23,7 +23,7 @@ public class RandomDistributionTask implements Callable<Void>
     private final String mAllele;
 
     private final Map<Integer, List<PeptideData>> mRandomPeptideMap; // by length and with flanking data
-    private final Map<String, Map<Integer, List<ScoreDistributionData>>> mAlleleScoreDistributions;
+    private final Map<String, Map<Integer, ScoreRankTable>> mAlleleScoreRanks;
     private final FlankScores mFlankScores;
     private final Map<Integer, BindScoreMatrix> mPeptideLengthMatrixMap;
 
@@ -56,17 +56,17 @@ public class RandomDistributionTask implements Callable<Void>
     public RandomDistributionTask(
             final String allele, final Map<Integer, BindScoreMatrix> peptideLengthMatrixMap,
             final Map<Integer, List<PeptideData>> randomPeptideMap, final FlankScores flankScores,
-            final Map<String, Map<Integer, List<ScoreDistributionData>>> alleleScoreDistributions,
+            final Map<String, Map<Integer, ScoreRankTable>> alleleScoreRanks,
             final BindingLikelihood bindingLikelihood, final ExpressionLikelihood expressionLikelihood)
     {
         this(TASK_TYPE_LIKELIHOOD_RANK, allele, peptideLengthMatrixMap, randomPeptideMap, flankScores,
-                alleleScoreDistributions, bindingLikelihood, expressionLikelihood);
+                alleleScoreRanks, bindingLikelihood, expressionLikelihood);
     }
 
     private RandomDistributionTask(
             final int taskType, final String allele, final Map<Integer, BindScoreMatrix> peptideLengthMatrixMap,
             final Map<Integer, List<PeptideData>> randomPeptideMap, final FlankScores flankScores,
-            final Map<String, Map<Integer, List<ScoreDistributionData>>> alleleScoreDistributions,
+            final Map<String, Map<Integer, ScoreRankTable>> alleleScoreRanks,
             final BindingLikelihood bindingLikelihood, final ExpressionLikelihood expressionLikelihood)
     {
         mTaskType = taskType;
@@ -74,7 +74,7 @@ public class RandomDistributionTask implements Callable<Void>
         mPeptideLengthMatrixMap = peptideLengthMatrixMap;
         mRandomPeptideMap = randomPeptideMap;
         mFlankScores = flankScores;
-        mAlleleScoreDistributions = alleleScoreDistributions;
+        mAlleleScoreRanks = alleleScoreRanks;
         mBindingLikelihood = bindingLikelihood;
         mExpressionLikelihood = expressionLikelihood;
 
@@ -134,7 +134,7 @@ public class RandomDistributionTask implements Callable<Void>
 
             for(PeptideData peptideData : randomPeptides)
             {
-                double score = BindScorer.calcScore(matrix, mFlankScores, peptideData.Peptide, peptideData.UpFlank, peptideData.DownFlank);
+                double score = BindScorer.calcScore(matrix, mFlankScores, peptideData.EncodedPeptide, peptideData.UpFlank, peptideData.DownFlank);
 
                 VectorUtils.optimisedAdd(peptideScores, score, false);
 
@@ -175,8 +175,8 @@ public class RandomDistributionTask implements Callable<Void>
 
             for(PeptideData peptideData : randomPeptides)
             {
-                double score = BindScorer.calcScore(matrix, mFlankScores, peptideData.Peptide, peptideData.UpFlank, peptideData.DownFlank);
-                double rank = getScoreRank(mAlleleScoreDistributions, mAllele, matrix.PeptideLength, score);
+                double score = BindScorer.calcScore(matrix, mFlankScores, peptideData.EncodedPeptide, peptideData.UpFlank, peptideData.DownFlank);
+                double rank = getScoreRank(mAlleleScoreRanks, mAllele, matrix.PeptideLength, score);
                 double likelihood = mBindingLikelihood.getBindingLikelihood(mAllele, peptideData.Peptide, rank);
 
                 if(likelihood > 0 && mExpressionLikelihood != null && mExpressionLikelihood.hasData())
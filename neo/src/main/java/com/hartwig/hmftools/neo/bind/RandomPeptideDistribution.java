@@ -28,7 +28,6 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.perf.TaskExecutor;
-import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.neo.PeptideData;
 
 public class RandomPeptideDistribution
@@ -47,6 +46,11 @@ public class RandomPeptideDistribution
     // allele to distribution of expression likelihoods
     private final Map<String, List<ScoreDistributionData>> mAlleleExpressionLikelihoodDistributions;
 
+    // the distributions above in primitive form for rank lookups
+    private final Map<String, Map<Integer, ScoreRankTable>> mAlleleScoreRanks;
+    private final Map<String, ScoreRankTable> mAlleleLikelihoodRanks;
+    private final Map<String, ScoreRankTable> mAlleleExpressionLikelihoodRanks;
+
     public RandomPeptideDistribution(final RandomPeptideConfig config)
     {
         mConfig = config;
@@ -55,6 +59,9 @@ public class RandomPeptideDistribution
         mAlleleLikelihoodDistributions = Maps.newHashMap();
         mAlleleExpressionLikelihoodDistributions = Maps.newHashMap();
         mRandomPeptideMap = Maps.newHashMap();
+        mAlleleScoreRanks = Maps.newHashMap();
+        mAlleleLikelihoodRanks = Maps.newHashMap();
+        mAlleleExpressionLikelihoodRanks = Maps.newHashMap();
         mDataLoaded = false;
     }
 
@@ -63,6 +70,11 @@ public class RandomPeptideDistribution
         mDataLoaded = loadDistribution()
                 && loadLikelihoodDistribution(mConfig.LikelihoodDistributionFile, mAlleleLikelihoodDistributions, true)
                 && loadLikelihoodDistribution(mConfig.ExpressionLikelihoodDistributionFile, mAlleleExpressionLikelihoodDistributions, false);
+
+        buildScoreRanks();
+        buildRankTables(mAlleleLikelihoodDistributions, mAlleleLikelihoodRanks);
+        buildRankTables(mAlleleExpressionLikelihoodDistributions, mAlleleExpressionLikelihoodRanks);
+
         return mDataLoaded;
     }
 
@@ -70,93 +82,58 @@ public class RandomPeptideDistribution
 
     public Map<String, Map<Integer, List<ScoreDistributionData>>> getAlleleScoresMap() { return mAlleleScoreDistributions; }
 
+    public Map<String, Map<Integer, ScoreRankTable>> getAlleleScoreRanks() { return mAlleleScoreRanks; }
+
     public double getScoreRank(final String allele, final int peptideLength, double score)
     {
-        return getScoreRank(mAlleleScoreDistributions, allele, peptideLength, score);
+        return getScoreRank(mAlleleScoreRanks, allele, peptideLength, score);
     }
 
     public static double getScoreRank(
-            final Map<String,Map<Integer,List<ScoreDistributionData>>> scoresMap, final String allele, final int peptideLength, double score)
+            final Map<String,Map<Integer,ScoreRankTable>> scoreRanks, final String allele, final int peptideLength, double score)
     {
-        Map<Integer, List<ScoreDistributionData>> peptideLengthMap = scoresMap.get(allele);
+        Map<Integer,ScoreRankTable> peptideLengthMap = scoreRanks.get(allele);
 
         if(peptideLengthMap == null)
             return INVALID_SCORE;
 
-        List<ScoreDistributionData> scores = peptideLengthMap.get(peptideLength);
+        ScoreRankTable rankTable = peptideLengthMap.get(peptideLength);
 
-        if(scores == null || scores.size() < 2)
-            return INVALID_SCORE;
-
-        return getRank(scores, score);
+        return rankTable != null ? rankTable.getRank(score) : INVALID_SCORE;
     }
 
     public double getLikelihoodRank(final String allele, double likelihood)
     {
-        List<ScoreDistributionData> likelihoodDist = mAlleleLikelihoodDistributions.get(allele);
-
-        if(likelihoodDist == null || likelihoodDist.size() < 2)
-            return INVALID_SCORE;
-
-        return getRank(likelihoodDist, likelihood);
+        ScoreRankTable rankTable = mAlleleLikelihoodRanks.get(allele);
+        return rankTable != null ? rankTable.getRank(likelihood) : INVALID_SCORE;
     }
 
     public double getExpressionLikelihoodRank(final String allele, double likelihood)
     {
-        List<ScoreDistributionData> likelihoodDist = mAlleleExpressionLikelihoodDistributions.get(allele);
-
-        if(likelihoodDist == null || likelihoodDist.size() < 2)
-            return INVALID_SCORE;
-
-        return getRank(likelihoodDist, likelihood);
+        ScoreRankTable rankTable = mAlleleExpressionLikelihoodRanks.get(allele);
+        return rankTable != null ? rankTable.getRank(likelihood) : INVALID_SCORE;
     }
 
-    private static double getRank(final List<ScoreDistributionData> distribution, double score)
+    private void buildScoreRanks()
     {
-        boolean isAscending = distribution.get(0).Score < distribution.get(1).Score;
+        mAlleleScoreRanks.clear();
 
-        if((isAscending && score < distribution.get(0).Score) || (!isAscending && score > distribution.get(0).Score))
-            return 0; // zero-th percentile if the score is better than any in the random distribution
-
-        int distSize = distribution.size();
-        if((isAscending && score > distribution.get(distSize - 1).Score) || (!isAscending && score < distribution.get(distSize - 1).Score))
-            return 1; // return the 100th percentile if outside the distribution
-
-        for(int i = 0; i < distribution.size(); ++i)
+        for(Map.Entry<String, Map<Integer, List<ScoreDistributionData>>> alleleEntry : mAlleleScoreDistributions.entrySet())
         {
-            ScoreDistributionData scoreData = distribution.get(i);
-
-            if(Doubles.equal(score, scoreData.Score))
-                return scoreData.ScoreBucket;
-
-            ScoreDistributionData nextScoreData = i < distribution.size() - 1 ? distribution.get(i + 1) : null;
-
-            if(nextScoreData != null && Doubles.equal(score, nextScoreData.Score))
-                return nextScoreData.ScoreBucket;
+            Map<Integer,ScoreRankTable> peptideLengthRanks = Maps.newHashMap();
+            buildRankTables(alleleEntry.getValue(), peptideLengthRanks);
+            mAlleleScoreRanks.put(alleleEntry.getKey(), peptideLengthRanks);
+        }
+    }
 
-            if((isAscending && score > scoreData.Score) || (!isAscending && score < scoreData.Score))
-            {
-                if(nextScoreData == null)
-                    break;
+    private static <K> void buildRankTables(final Map<K, List<ScoreDistributionData>> distributions, final Map<K, ScoreRankTable> rankTables)
+    {
+        rankTables.clear();
 
-                if((isAscending && score < nextScoreData.Score) || (!isAscending && score > nextScoreData.Score))
-                {
-                    // interpolate between the distribution to set the rank
-                    if(isAscending)
-                    {
-                        double upperPerc = (score - scoreData.Score) / (nextScoreData.Score - scoreData.Score);
-                        return upperPerc * nextScoreData.ScoreBucket + (1 - upperPerc) * scoreData.ScoreBucket;
-                    }
-                    else
-                    {
-                        double upperPerc = (score - nextScoreData.Score) / (scoreData.Score - nextScoreData.Score);
-                        return upperPerc * scoreData.ScoreBucket + (1 - upperPerc) * nextScoreData.ScoreBucket;
-                    }
-                }
-            }
+        for(Map.Entry<K, List<ScoreDistributionData>> entry : distributions.entrySet())
+        {
+            rankTables.put(entry.getKey(), new ScoreRankTable(entry.getValue()));
         }
-
-        return 1;
     }
 
     public void buildDistribution(final Map<String, Map<Integer, BindScoreMatrix>> alleleBindMatrixMap, final FlankScores flankScores)
@@ -203,6 +180,7 @@ public class RandomPeptideDistribution
         }
 
         alleleTasks.forEach(x -> mAlleleScoreDistributions.put(x.allele(), x.getPeptideLengthScoreDistributions()));
+        buildScoreRanks();
 
         if(mConfig.WriteRandomDistribution)
             writeDistribution();
@@ -229,7 +207,7 @@ public class RandomPeptideDistribution
             final Map<Integer, BindScoreMatrix> peptideLengthMatrixMap = alleleEntry.getValue();
 
             alleleTasks.add(new RandomDistributionTask(
-                    allele, peptideLengthMatrixMap, mRandomPeptideMap, flankScores, mAlleleScoreDistributions,
+                    allele, peptideLengthMatrixMap, mRandomPeptideMap, flankScores, mAlleleScoreRanks,
                     bindingLikelihood, expressionLikelihood));
         }
 
@@ -246,6 +224,7 @@ public class RandomPeptideDistribution
         }
 
         alleleTasks.forEach(x -> mAlleleLikelihoodDistributions.put(x.allele(), x.getLikelihoodDistributions()));
+        buildRankTables(mAlleleLikelihoodDistributions, mAlleleLikelihoodRanks);
 
         if(mConfig.WriteRandomDistribution)
             writeLikelihoodDistribution();
@@ -0,0 +1,92 @@
+package com.hartwig.hmftools.neo.bind;
+
+import static com.hartwig.hmftools.neo.bind.BindConstants.INVALID_SCORE;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.utils.Doubles;
+
+// a score distribution held as primitive arrays, with ranks found by binary search and interpolation between adjacent buckets
+public class ScoreRankTable
+{
+    private final double[] mScores;
+    private final double[] mBuckets;
+    private final boolean mAscending;
+
+    public ScoreRankTable(final List<ScoreDistributionData> distribution)
+    {
+        int size = distribution.size();
+        mScores = new double[size];
+        mBuckets = new double[size];
+
+        for(int i = 0; i < size; ++i)
+        {
+            mScores[i] = distribution.get(i).Score;
+            mBuckets[i] = distribution.get(i).ScoreBucket;
+        }
+
+        mAscending = size >= 2 && mScores[0] < mScores[1];
+    }
+
+    public int size() { return mScores.length; }
+
+    public double getRank(double score)
+    {
+        int size = mScores.length;
+
+        if(size < 2)
+            return INVALID_SCORE;
+
+        if((mAscending && score < mScores[0]) || (!mAscending && score > mScores[0]))
+            return 0; // zero-th percentile if the score is better than any in the random distribution
+
+        if((mAscending && score > mScores[size - 1]) || (!mAscending && score < mScores[size - 1]))
+            return 1; // return the 100th percentile if outside the distribution
+
+        int index = findFirstNotBefore(score);
+
+        if(index >= size)
+            return 1;
+
+        if(Doubles.equal(score, mScores[index]))
+            return mBuckets[index];
+
+        if(index == 0)
+            return mBuckets[0];
+
+        // interpolate between the distribution to set the rank
+        int prevIndex = index - 1;
+
+        if(mAscending)
+        {
+            double upperPerc = (score - mScores[prevIndex]) / (mScores[index] - mScores[prevIndex]);
+            return upperPerc * mBuckets[index] + (1 - upperPerc) * mBuckets[prevIndex];
+        }
+        else
+        {
+            double upperPerc = (score - mScores[index]) / (mScores[prevIndex] - mScores[index]);
+            return upperPerc * mBuckets[prevIndex] + (1 - upperPerc) * mBuckets[index];
+        }
+    }
+
+    private int findFirstNotBefore(double score)
+    {
+        // the first entry which is equal to the score or beyond it in the distribution's direction
+        int low = 0;
+        int high = mScores.length;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            boolean isBefore = mAscending ? Doubles.lessThan(mScores[mid], score) : Doubles.greaterThan(mScores[mid], score);
+
+            if(isBefore)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low;
+    }
+}
@@ -20,7 +20,6 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.neo.RnaNeoEpitope;
 import com.hartwig.hmftools.common.purple.PurityContext;
-import com.hartwig.hmftools.neo.bind.BindData;
 
 public class NeoScorerTask implements Callable<Void>
 {
@@ -191,11 +190,8 @@ public class NeoScorerTask implements Callable<Void>
                 {
                     uniqueAlleles.forEach(x -> peptideScoreData.addAllele(x));
 
-                    for(BindData bindData : peptideScoreData.alleleScoreData())
-                    {
-                        mReferenceData.PeptideScorer.calcScoreData(bindData);
-                        ++scoreCount;
-                    }
+                    mReferenceData.PeptideScorer.calcScoreData(peptideScoreData.alleleScoreData());
+                    scoreCount += peptideScoreData.alleleScoreData().size();
                 }
 
                 ++i;
@@ -1,8 +1,12 @@
 package com.hartwig.hmftools.neo.bind;
 
+import static com.hartwig.hmftools.neo.bind.BindConstants.INVALID_SCORE;
+import static com.hartwig.hmftools.neo.bind.BindConstants.aminoAcidIndex;
+import static com.hartwig.hmftools.neo.bind.BindConstants.encodePeptide;
 import static com.hartwig.hmftools.neo.bind.RandomDistributionTask.generateDistribution;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
 
 import java.util.List;
 
@@ -45,4 +49,63 @@ public class BindUtilsTest
         assertEquals(peptideScores.get(peptideScores.size() - 1), data.Score);
         assertEquals(peptideScores.size(), data.CumulativeCount);
     }
+
+    @Test
+    public void testScoreRanks()
+    {
+        String allele = "B4001";
+        int peptideLength = 9;
+
+        // descending scores, as for binding scores
+        List<ScoreDistributionData> distribution = Lists.newArrayList(
+                new ScoreDistributionData(allele, peptideLength, 0, 10, 1, 1),
+                new ScoreDistributionData(allele, peptideLength, 0.1, 8, 1, 2),
+                new ScoreDistributionData(allele, peptideLength, 0.2, 8, 1, 3),
+                new ScoreDistributionData(allele, peptideLength, 0.5, 4, 1, 4),
+                new ScoreDistributionData(allele, peptideLength, 1, 0, 1, 5));
+
+        ScoreRankTable rankTable = new ScoreRankTable(distribution);
+
+        assertEquals(0.0, rankTable.getRank(11));
+        assertEquals(1.0, rankTable.getRank(-1));
+        assertEquals(0.0, rankTable.getRank(10));
+        assertEquals(0.05, rankTable.getRank(9), 1e-6);
+        assertEquals(0.1, rankTable.getRank(8)); // first of equal scores
+        assertEquals(0.35, rankTable.getRank(6), 1e-6);
+        assertEquals(1.0, rankTable.getRank(0));
+
+        // ascending scores, as for likelihoods
+        distribution = Lists.newArrayList(
+                new ScoreDistributionData(allele, peptideLength, 0, 0.001, 1, 1),
+                new ScoreDistributionData(allele, peptideLength, 0.25, 0.01, 1, 2),
+                new ScoreDistributionData(allele, peptideLength, 1, 0.1, 1, 3));
+
+        rankTable = new ScoreRankTable(distribution);
+
+        assertEquals(0.0, rankTable.getRank(0.0001));
+        assertEquals(1.0, rankTable.getRank(0.2));
+        assertEquals(0.25, rankTable.getRank(0.01));
+        assertEquals(0.625, rankTable.getRank(0.055), 1e-6);
+
+        rankTable = new ScoreRankTable(distribution.subList(0, 1));
+        assertEquals(INVALID_SCORE, rankTable.getRank(0.01));
+    }
+
+    @Test
+    public void testMatrixScoring()
+    {
+        BindScoreMatrix matrix = new BindScoreMatrix("A0101", 3);
+        matrix.setWeight(aminoAcidIndex('A'), 0, 1.5);
+        matrix.setWeight(aminoAcidIndex('C'), 1, -0.5);
+        matrix.setWeight(aminoAcidIndex('Y'), 2, 2.0);
+        matrix.setWeight(aminoAcidIndex('A'), 2, 0.25);
+
+        assertEquals(3.0, matrix.calcScore("ACY"), 1e-6);
+        assertEquals(3.0, matrix.calcScore(encodePeptide("ACY")), 1e-6);
+        assertEquals(1.75, matrix.calcScore(encodePeptide("AAA")), 1e-6);
+
+        assertNull(encodePeptide("ACX"));
+        assertEquals(matrix.calcScore("ACX"), matrix.calcScore(encodePeptide("ACX")));
+        assertEquals(matrix.calcScore("ACYY"), matrix.calcScore(encodePeptide("ACYY")));
+    }
 }
@@ -3,6 +3,8 @@ package com.hartwig.hmftools.orange;
 import static java.lang.String.format;
 
 import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeSource.addRefGenomeVersion;
+import static com.hartwig.hmftools.common.perf.TaskExecutor.addThreadOptions;
+import static com.hartwig.hmftools.common.perf.TaskExecutor.parseThreads;
 import static com.hartwig.hmftools.common.pipeline.PipelineToolDirectories.PIPELINE_FORMAT_CFG;
 import static com.hartwig.hmftools.common.pipeline.PipelineToolDirectories.PIPELINE_FORMAT_FILE_CFG;
 import static com.hartwig.hmftools.common.utils.config.CommonConfig.CHORD_DIR_CFG;
@@ -115,6 +117,7 @@ public class OrangeConfig
     public final String IsofoxDir;
 
     public final boolean AddDisclaimer;
+    public final int Threads;
 
     private static final String DOID_SEPARATOR = ";";
 
@@ -124,7 +127,7 @@ public class OrangeConfig
     private static final String PRIMARY_TUMOR_LOCATION = "primary_tumor_location";
     private static final String SAMPLING_DATE = "sampling_date";
     private static final String DISPLAY_SAMPLE_ID = "display_sample";
-    private static final String PANEL_NAME = "panel_name";
+    static final String PANEL_NAME = "panel_name";
 
     // Input files used by the algorithm
     private static final String DOID_JSON = "doid_json";
@@ -135,7 +138,7 @@ public class OrangeConfig
     private static String RNA_SAMPLE_ID = "rna_sample_id";
 
     // Some additional optional params and flags
-    private static final String ADD_DISCLAIMER = "add_disclaimer";
+    static final String ADD_DISCLAIMER = "add_disclaimer";
 
     public OrangeConfig(final ConfigBuilder configBuilder)
     {
@@ -274,6 +277,8 @@ public class OrangeConfig
 
         RunType = determineExperimentType(configBuilder.getValue(EXPERIMENT_TYPE));
         LOGGER.info("experiment type has been resolved to '{}'", RunType);
+
+        Threads = parseThreads(configBuilder);
     }
 
     public boolean hasReference()
@@ -337,6 +342,7 @@ public class OrangeConfig
         configBuilder.addPath(ISOFOX_DIR_CFG, false, ISOFOX_DIR_DESC);
 
         configBuilder.addFlag(ADD_DISCLAIMER, "Prints a disclaimer on each page");
+        addThreadOptions(configBuilder);
         addLoggingOptions(configBuilder);
     }
 
@@ -430,6 +436,7 @@ public class OrangeConfig
         VirusDir = virusDir;
         IsofoxDir = isofoxDir;
         AddDisclaimer = addDisclaimer;
+        Threads = 1;
         DisplaySampleId = tumorId;
         PanelName = "";
     }
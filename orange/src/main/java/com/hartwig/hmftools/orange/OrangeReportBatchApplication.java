@@ -0,0 +1,237 @@
+package com.hartwig.hmftools.orange;
+
+import static com.hartwig.hmftools.common.perf.TaskExecutor.addThreadOptions;
+import static com.hartwig.hmftools.common.perf.TaskExecutor.parseThreads;
+import static com.hartwig.hmftools.common.utils.config.ConfigUtils.IGNORE_SAMPLE_ID;
+import static com.hartwig.hmftools.common.utils.config.ConfigUtils.SAMPLE_ID_FILE;
+import static com.hartwig.hmftools.common.utils.config.ConfigUtils.addLoggingOptions;
+import static com.hartwig.hmftools.common.utils.config.ConfigUtils.convertWildcardSamplePath;
+import static com.hartwig.hmftools.common.utils.config.ConfigUtils.loadSampleIdsFile;
+import static com.hartwig.hmftools.common.utils.file.CommonFields.FLD_SAMPLE_ID;
+import static com.hartwig.hmftools.common.utils.file.FileDelimiters.CSV_DELIM;
+import static com.hartwig.hmftools.common.utils.file.FileReaderUtils.createFieldsIndexMap;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.OUTPUT_ID;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.addOutputOptions;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.checkAddDirSeparator;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.checkCreateOutputDir;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.parseOutputDir;
+import static com.hartwig.hmftools.orange.OrangeApplication.LOGGER;
+import static com.hartwig.hmftools.orange.OrangeConfig.ADD_DISCLAIMER;
+import static com.hartwig.hmftools.orange.OrangeConfig.PANEL_NAME;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.perf.TaskExecutor;
+import com.hartwig.hmftools.common.sequencing.SequencingType;
+import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.datamodel.OrangeJson;
+import com.hartwig.hmftools.datamodel.orange.OrangeRecord;
+import com.hartwig.hmftools.orange.report.ReportConfig;
+import com.hartwig.hmftools.orange.report.ReportWriter;
+import com.hartwig.hmftools.orange.report.ReportWriterFactory;
+
+// re-renders the PDF and JSON reports for a cohort from existing ORANGE records in a single process, for instance after a
+// knowledgebase update, rendering one sample per thread so only as many records as threads are held in memory at once
+public class OrangeReportBatchApplication
+{
+    private final List<String> mSampleIds;
+    private final String mOrangeDir;
+    private final String mOutputDir;
+    private final String mOutputId;
+    private final int mThreads;
+
+    // display settings which are not held in the ORANGE record, set for the cohort and optionally overridden per sample
+    private final SequencingType mSequencingType;
+    private final String mPanelName;
+    private final boolean mAddDisclaimer;
+    private final Map<String,Map<String,String>> mSampleReportValues;
+
+    private static final String ORANGE_DIR = "orange_dir";
+    private static final String ORANGE_DIR_DESC = "Directory with each sample's ORANGE JSON and plots, wildcard '*' is replaced by sample ID";
+
+    // optional columns in the sample ID file
+    static final String FLD_DISPLAY_SAMPLE_ID = "DisplaySampleId";
+    static final String FLD_PRIMARY_TUMOR_LOCATION = "PrimaryTumorLocation";
+    static final String FLD_PANEL_NAME = "PanelName";
+    static final String FLD_SEQUENCING_TYPE = "SequencingType";
+
+    private static final List<String> SAMPLE_REPORT_FIELDS = List.of(
+            FLD_DISPLAY_SAMPLE_ID, FLD_PRIMARY_TUMOR_LOCATION, FLD_PANEL_NAME, FLD_SEQUENCING_TYPE);
+
+    private static final String ORANGE_JSON_EXTENSION = ".orange.json";
+
+    public OrangeReportBatchApplication(final ConfigBuilder configBuilder)
+    {
+        mSampleIds = loadSampleIdsFile(configBuilder);
+        mOrangeDir = configBuilder.getValue(ORANGE_DIR);
+        mOutputDir = parseOutputDir(configBuilder);
+        mOutputId = configBuilder.getValue(OUTPUT_ID);
+        mThreads = parseThreads(configBuilder);
+
+        mSequencingType = SequencingType.parseConfig(configBuilder);
+        mPanelName = configBuilder.getValue(PANEL_NAME);
+        mAddDisclaimer = configBuilder.hasFlag(ADD_DISCLAIMER);
+        mSampleReportValues = loadSampleReportValues(configBuilder.getValue(SAMPLE_ID_FILE));
+    }
+
+    public static void registerConfig(final ConfigBuilder configBuilder)
+    {
+        configBuilder.addPath(SAMPLE_ID_FILE, true, "Sample ID CSV file with 'SampleId' column, and optional "
+                + String.join(", ", SAMPLE_REPORT_FIELDS) + " columns for each sample's report");
+        configBuilder.addConfigItem(ORANGE_DIR, true, ORANGE_DIR_DESC);
+        SequencingType.registerConfig(configBuilder);
+        configBuilder.addConfigItem(PANEL_NAME, false, "Panel name for targeted samples, unless set for a sample");
+        configBuilder.addFlag(ADD_DISCLAIMER, "Prints a disclaimer on each page");
+        addOutputOptions(configBuilder);
+        addThreadOptions(configBuilder);
+        addLoggingOptions(configBuilder);
+    }
+
+    // returns the process exit code, which is non-zero if any sample's report failed
+    public int run()
+    {
+        if(mSampleIds.isEmpty() || mOutputDir == null)
+        {
+            LOGGER.error("missing sample IDs or output directory");
+            return 1;
+        }
+
+        checkCreateOutputDir(mOutputDir);
+
+        LOGGER.info("rendering reports for {} samples with {} threads", mSampleIds.size(), mThreads);
+
+        int failedCount = renderReports();
+
+        if(failedCount > 0)
+        {
+            LOGGER.error("{} of {} sample reports failed", failedCount, mSampleIds.size());
+            return 1;
+        }
+
+        LOGGER.info("Orange batch reporting complete");
+        return 0;
+    }
+
+    // returns the number of samples whose report failed
+    @VisibleForTesting
+    int renderReports()
+    {
+        AtomicInteger failedCount = new AtomicInteger();
+
+        // each task reads its record when it starts, and a failed sample is logged without stopping the rest of the cohort
+        List<Callable<Void>> sampleTasks = mSampleIds.stream().map(sampleId -> (Callable<Void>) () ->
+        {
+            try
+            {
+                renderSample(sampleId);
+            }
+            catch(Exception e)
+            {
+                LOGGER.error("sample({}) failed to render report: {}", sampleId, e.toString());
+                failedCount.incrementAndGet();
+            }
+            return null;
+        }).toList();
+
+        TaskExecutor.executeTasks(sampleTasks, mThreads);
+
+        return failedCount.get();
+    }
+
+    private void renderSample(final String sampleId) throws Exception
+    {
+        String sampleOrangeDir = checkAddDirSeparator(convertWildcardSamplePath(mOrangeDir, sampleId));
+        String orangeJsonFile = sampleOrangeDir + sampleId + ORANGE_JSON_EXTENSION;
+
+        LOGGER.debug("sample({}) loading ORANGE record from {}", sampleId, orangeJsonFile);
+
+        OrangeRecord orangeRecord = OrangeJson.getInstance().read(orangeJsonFile);
+
+        ReportWriter writer = ReportWriterFactory.createBatchWriter(
+                sampleReportConfig(sampleId, orangeRecord), mOutputDir, mOutputId, sampleOrangeDir);
+
+        writer.write(orangeRecord);
+    }
+
+    @VisibleForTesting
+    ReportConfig sampleReportConfig(final String sampleId, final OrangeRecord orangeRecord)
+    {
+        Map<String,String> sampleValues = mSampleReportValues.getOrDefault(sampleId, Collections.emptyMap());
+
+        SequencingType sequencingType = sampleValues.containsKey(FLD_SEQUENCING_TYPE) ?
+                SequencingType.valueOf(sampleValues.get(FLD_SEQUENCING_TYPE)) : mSequencingType;
+
+        // the Isofox record is only loaded when the original run was given an RNA sample
+        return new ReportConfig(
+                sampleValues.getOrDefault(FLD_DISPLAY_SAMPLE_ID, sampleId), sampleValues.getOrDefault(FLD_PANEL_NAME, mPanelName),
+                sampleValues.get(FLD_PRIMARY_TUMOR_LOCATION), sequencingType, orangeRecord.hasRna(), mAddDisclaimer);
+    }
+
+    // reads any per-sample report columns from the sample ID file, keeping only non-empty values
+    private static Map<String,Map<String,String>> loadSampleReportValues(final String sampleIdFile)
+    {
+        Map<String,Map<String,String>> sampleReportValues = Maps.newHashMap();
+
+        List<String> lines;
+
+        try
+        {
+            lines = Files.readAllLines(new File(sampleIdFile).toPath());
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to read sample ID file({}): {}", sampleIdFile, e.toString());
+            return sampleReportValues;
+        }
+
+        if(lines.isEmpty())
+            return sampleReportValues;
+
+        Map<String,Integer> fieldsIndexMap = createFieldsIndexMap(lines.get(0), CSV_DELIM);
+        Integer sampleIdIndex = fieldsIndexMap.get(FLD_SAMPLE_ID);
+
+        if(sampleIdIndex == null)
+            return sampleReportValues;
+
+        for(String line : lines.subList(1, lines.size()))
+        {
+            if(line.isEmpty() || line.startsWith(IGNORE_SAMPLE_ID))
+                continue;
+
+            String[] values = line.split(CSV_DELIM, -1);
+            Map<String,String> sampleValues = Maps.newHashMap();
+
+            for(String field : SAMPLE_REPORT_FIELDS)
+            {
+                Integer index = fieldsIndexMap.get(field);
+
+                if(index != null && index < values.length && !values[index].isEmpty())
+                    sampleValues.put(field, values[index]);
+            }
+
+            sampleReportValues.put(values[sampleIdIndex], sampleValues);
+        }
+
+        return sampleReportValues;
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        ConfigBuilder configBuilder = new ConfigBuilder("OrangeReportBatch");
+
+        registerConfig(configBuilder);
+
+        configBuilder.checkAndParseCommandLine(args);
+
+        System.exit(new OrangeReportBatchApplication(configBuilder).run());
+    }
+}
@@ -0,0 +1,80 @@
+package com.hartwig.hmftools.orange.algo;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.jetbrains.annotations.Nullable;
+
+// runs data loading and interpretation steps as a graph of tasks, each starting as soon as the tasks it depends on have completed
+// with a single thread all tasks run on the calling thread in the order they are added
+public class DataTaskGraph implements AutoCloseable
+{
+    @Nullable
+    private final ExecutorService mExecutorService;
+    private final Executor mExecutor;
+
+    @FunctionalInterface
+    public interface DataTask<T>
+    {
+        T call() throws Exception;
+    }
+
+    public DataTaskGraph(int threads)
+    {
+        if(threads > 1)
+        {
+            mExecutorService = Executors.newFixedThreadPool(
+                    threads, new ThreadFactoryBuilder().setNameFormat("orange-data-%d").setDaemon(true).build());
+            mExecutor = mExecutorService;
+        }
+        else
+        {
+            mExecutorService = null;
+            mExecutor = Runnable::run;
+        }
+    }
+
+    // dependencies are complete when the task runs, so it can take their results with join()
+    public <T> CompletableFuture<T> add(final DataTask<T> task, final CompletableFuture<?>... dependencies)
+    {
+        return CompletableFuture.allOf(dependencies).thenApplyAsync(x ->
+        {
+            try
+            {
+                return task.call();
+            }
+            catch(Exception e)
+            {
+                throw new CompletionException(e);
+            }
+        }, mExecutor);
+    }
+
+    // waits for a task and rethrows the exception of the first failed task it depends on
+    public static <T> T get(final CompletableFuture<T> future) throws Exception
+    {
+        try
+        {
+            return future.join();
+        }
+        catch(CompletionException e)
+        {
+            if(e.getCause() instanceof Exception cause)
+                throw cause;
+
+            throw e;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if(mExecutorService != null)
+            mExecutorService.shutdownNow();
+    }
+}
@@ -3,6 +3,7 @@ package com.hartwig.hmftools.orange.algo;
 import static com.hartwig.hmftools.common.pipeline.MiscToolFiles.generateQseeVisPlot;
 import static com.hartwig.hmftools.common.pipeline.PipelineToolDirectories.DEFAULT_PIPELINE_OUTPUT;
 import static com.hartwig.hmftools.orange.OrangeApplication.LOGGER;
+import static com.hartwig.hmftools.orange.algo.DataTaskGraph.get;
 import static com.hartwig.hmftools.orange.algo.purple.PurpleDataLoader.addPurplePlots;
 
 import java.io.File;
@@ -12,7 +13,9 @@ import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.chord.ChordData;
@@ -87,66 +90,73 @@ public class OrangeAlgo
     }
 
     public OrangeRecord run(final OrangeConfig config) throws Exception
+    {
+        return run(config, config.Threads);
+    }
+
+    @VisibleForTesting
+    OrangeRecord run(final OrangeConfig config, int threads) throws Exception
     {
         LOGGER.info("building report data");
 
         Set<OrangeDoidNode> primaryTumorDoids = formConfiguredPrimaryTumorDoid(config);
 
-        String pipelineVersion = determinePipelineVersion(config);
-
-        PurpleData purpleData = loadPurpleData(config);
-        LinxData linxData = loadLinxData(config);
-        ChordData chord = loadChordAnalysis(config);
-        LilacRecord lilac = loadLilacData(config);
-        VirusInterpreterData virusInterpreter = loadVirusInterpreterData(config);
-        CuppaData cuppa = loadCuppaData(config);
-        List<PeachGenotype> peach = loadPeachData(config);
-        List<SignatureAllocation> sigAllocations = loadSigAllocations(config);
-        IsofoxData isofoxData = loadIsofoxData(config);
-
-        CytoBands cytoBands = new CytoBands(config.RefGenVersion);
-
-        LinxInterpreter linxInterpreter = new LinxInterpreter(cytoBands);
-
-        LinxRecord linx = linxInterpreter.interpret(linxData, isofoxData);
-
-        PurpleInterpreter purpleInterpreter = new PurpleInterpreter();
-
-        PurpleRecord purple = purpleInterpreter.interpret(purpleData, linxData, isofoxData);
-
-        ImmuneEscapeRecord immuneEscape = ImmuneEscapeInterpreter.interpret(purple, linx);
-
-        IsofoxRecord isofox = null;
-        if(isofoxData != null)
+        // each tool's output is loaded independently, and each interpretation step starts once the data it uses is available
+        try(DataTaskGraph taskGraph = new DataTaskGraph(threads))
         {
-            IsofoxInterpreter isofoxInterpreter = new IsofoxInterpreter(linx);
-            isofox = isofoxInterpreter.interpret(isofoxData);
+            CompletableFuture<String> pipelineVersion = taskGraph.add(() -> determinePipelineVersion(config));
+            CompletableFuture<CytoBands> cytoBands = taskGraph.add(() -> new CytoBands(config.RefGenVersion));
+
+            CompletableFuture<PurpleData> purpleData = taskGraph.add(() -> loadPurpleData(config));
+            CompletableFuture<LinxData> linxData = taskGraph.add(() -> loadLinxData(config));
+            CompletableFuture<IsofoxData> isofoxData = taskGraph.add(() -> loadIsofoxData(config));
+            CompletableFuture<ChordData> chord = taskGraph.add(() -> loadChordAnalysis(config));
+            CompletableFuture<LilacRecord> lilac = taskGraph.add(() -> loadLilacData(config));
+            CompletableFuture<VirusInterpreterData> virusInterpreter = taskGraph.add(() -> loadVirusInterpreterData(config));
+            CompletableFuture<CuppaData> cuppa = taskGraph.add(() -> loadCuppaData(config));
+            CompletableFuture<List<PeachGenotype>> peach = taskGraph.add(() -> loadPeachData(config));
+            CompletableFuture<List<SignatureAllocation>> sigAllocations = taskGraph.add(() -> loadSigAllocations(config));
+
+            CompletableFuture<LinxRecord> linx = taskGraph.add(
+                    () -> new LinxInterpreter(cytoBands.join()).interpret(linxData.join(), isofoxData.join()),
+                    cytoBands, linxData, isofoxData);
+
+            CompletableFuture<PurpleRecord> purple = taskGraph.add(
+                    () -> new PurpleInterpreter().interpret(purpleData.join(), linxData.join(), isofoxData.join()),
+                    purpleData, linxData, isofoxData);
+
+            CompletableFuture<ImmuneEscapeRecord> immuneEscape = taskGraph.add(
+                    () -> ImmuneEscapeInterpreter.interpret(purple.join(), linx.join()), purple, linx);
+
+            CompletableFuture<IsofoxRecord> isofox = taskGraph.add(
+                    () -> isofoxData.join() != null ? new IsofoxInterpreter(linx.join()).interpret(isofoxData.join()) : null,
+                    isofoxData, linx);
+
+            CompletableFuture<OrangePlots> plots = taskGraph.add(() -> buildPlots(config, purple.join(), linxData.join()), purple, linxData);
+
+            OrangeRecord orangeRecord = ImmutableOrangeRecord.builder()
+                    .sampleId(config.TumorId)
+                    .referenceId(config.ReferenceId)
+                    .samplingDate(config.SamplingDate)
+                    .experimentType(config.RunType)
+                    .configuredPrimaryTumor(primaryTumorDoids)
+                    .refGenomeVersion(config.orangeRefGenomeVersion())
+                    .pipelineVersion(get(pipelineVersion))
+                    .purple(get(purple))
+                    .linx(get(linx))
+                    .isofox(get(isofox))
+                    .lilac(get(lilac))
+                    .immuneEscape(get(immuneEscape))
+                    .virusInterpreter(get(virusInterpreter) != null ? VirusInterpreter.interpret(get(virusInterpreter)) : null)
+                    .chord(get(chord) != null ? OrangeConversion.convert(get(chord)) : null)
+                    .cuppa(get(cuppa))
+                    .peach(ConversionUtil.mapToIterable(get(peach), OrangeConversion::convert))
+                    .sigAllocations(SigsInterpreter.interpret(get(sigAllocations), mEtiologyPerSignature))
+                    .plots(get(plots))
+                    .build();
+
+            return orangeRecord;
         }
-
-        OrangePlots plots = buildPlots(config, purple, linxData);
-
-        OrangeRecord orangeRecord = ImmutableOrangeRecord.builder()
-                .sampleId(config.TumorId)
-                .referenceId(config.ReferenceId)
-                .samplingDate(config.SamplingDate)
-                .experimentType(config.RunType)
-                .configuredPrimaryTumor(primaryTumorDoids)
-                .refGenomeVersion(config.orangeRefGenomeVersion())
-                .pipelineVersion(pipelineVersion)
-                .purple(purple)
-                .linx(linx)
-                .isofox(isofox)
-                .lilac(lilac)
-                .immuneEscape(immuneEscape)
-                .virusInterpreter(virusInterpreter != null ? VirusInterpreter.interpret(virusInterpreter) : null)
-                .chord(chord != null ? OrangeConversion.convert(chord) : null)
-                .cuppa(cuppa)
-                .peach(ConversionUtil.mapToIterable(peach, OrangeConversion::convert))
-                .sigAllocations(SigsInterpreter.interpret(sigAllocations, mEtiologyPerSignature))
-                .plots(plots)
-                .build();
-
-        return orangeRecord;
     }
 
     private Set<OrangeDoidNode> formConfiguredPrimaryTumorDoid(final OrangeConfig config)
@@ -423,12 +433,15 @@ public class OrangeAlgo
 
         plotBuilder.linxDriverPlots(linxDriverPlots);
 
-        String qSeeSourcePlot = generateQseeVisPlot(config.QSeeDirectory, config.TumorId);
+        // the quality control chapter is only included when its plot is present, so skip the lookup without a QSee directory
         String qSeePlot = null;
 
-        if(Files.exists(Paths.get(qSeeSourcePlot)))
+        if(config.QSeeDirectory != null)
         {
-            qSeePlot = mPlotManager.processPlotFile(qSeeSourcePlot);
+            String qSeeSourcePlot = generateQseeVisPlot(config.QSeeDirectory, config.TumorId);
+
+            if(Files.exists(Paths.get(qSeeSourcePlot)))
+                qSeePlot = mPlotManager.processPlotFile(qSeeSourcePlot);
         }
 
         plotBuilder.qSeePlot(qSeePlot);
@@ -0,0 +1,39 @@
+package com.hartwig.hmftools.orange.report;
+
+import com.hartwig.hmftools.common.sequencing.SequencingType;
+import com.hartwig.hmftools.orange.OrangeConfig;
+
+import org.jetbrains.annotations.Nullable;
+
+// the per-sample settings which affect how a report is displayed but are not held in the ORANGE record, taken from the ORANGE
+// config for a full run and from the batch options when re-rendering existing records
+public class ReportConfig
+{
+    public final String DisplaySampleId;
+    @Nullable
+    public final String PanelName;
+    @Nullable
+    public final String PrimaryTumorLocation;
+    public final SequencingType SeqType;
+    public final boolean HasRnaSample;
+    public final boolean AddDisclaimer;
+
+    public ReportConfig(
+            final String displaySampleId, @Nullable final String panelName, @Nullable final String primaryTumorLocation,
+            final SequencingType seqType, boolean hasRnaSample, boolean addDisclaimer)
+    {
+        DisplaySampleId = displaySampleId;
+        PanelName = panelName;
+        PrimaryTumorLocation = primaryTumorLocation;
+        SeqType = seqType;
+        HasRnaSample = hasRnaSample;
+        AddDisclaimer = addDisclaimer;
+    }
+
+    public static ReportConfig from(final OrangeConfig config)
+    {
+        return new ReportConfig(
+                config.DisplaySampleId, config.PanelName, config.PrimaryTumorLocation, config.SeqType, config.RnaSampleId != null,
+                config.AddDisclaimer);
+    }
+}
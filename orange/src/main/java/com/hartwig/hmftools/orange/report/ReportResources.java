@@ -1,9 +1,13 @@
 package com.hartwig.hmftools.orange.report;
 
 import java.awt.Color;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.hartwig.hmftools.orange.OrangeApplication;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -51,8 +55,10 @@ public class ReportResources
     public static final Color PALETTE_ORANGE_5 = new Color(175, 125, 0);
     public static final Color PALETTE_ORANGE_6 = new Color(155, 115, 0);
 
-    private static final String FONT_REGULAR_PATH = "fonts/nimbus-sans/NimbusSansL-Regular.ttf";
-    private static final String FONT_BOLD_PATH = "fonts/nimbus-sans/NimbusSansL-Bold.ttf";
+    static final String FONT_REGULAR_PATH = "fonts/nimbus-sans/NimbusSansL-Regular.ttf";
+    static final String FONT_BOLD_PATH = "fonts/nimbus-sans/NimbusSansL-Bold.ttf";
+
+    private static final Map<String,byte[]> FONT_DATA = new ConcurrentHashMap<>();
 
     // Standard font sizes
     public static final float FONT_SIZE_CHAPTER_TITLE = 10;
@@ -115,6 +121,25 @@ public class ReportResources
     }
 
     private static PDFont loadFont(final PDDocument document, final String resourcePath)
+    {
+        try
+        {
+            return PDType0Font.load(document, new ByteArrayInputStream(fontData(resourcePath)));
+        }
+        catch(IOException exception)
+        {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    // fonts are embedded per document, but the font files are only read once when rendering many reports
+    @VisibleForTesting
+    static byte[] fontData(final String resourcePath)
+    {
+        return FONT_DATA.computeIfAbsent(resourcePath, ReportResources::readFontResource);
+    }
+
+    private static byte[] readFontResource(final String resourcePath)
     {
         try(InputStream is = ReportResources.class.getClassLoader().getResourceAsStream(resourcePath))
         {
@@ -122,7 +147,7 @@ public class ReportResources
             {
                 throw new IllegalStateException("Font resource not found: " + resourcePath);
             }
-            return PDType0Font.load(document, is);
+            return is.readAllBytes();
         }
         catch(IOException exception)
         {
@@ -9,7 +9,6 @@ import java.util.List;
 import com.hartwig.hmftools.datamodel.OrangeJson;
 import com.hartwig.hmftools.datamodel.isofox.IsofoxRecord;
 import com.hartwig.hmftools.datamodel.orange.OrangeRecord;
-import com.hartwig.hmftools.orange.OrangeConfig;
 import com.hartwig.hmftools.orange.report.chapters.CuppaChapter;
 import com.hartwig.hmftools.orange.report.chapters.FrontPageChapter;
 import com.hartwig.hmftools.orange.report.chapters.GermlineFindingsChapter;
@@ -30,18 +29,20 @@ public class ReportWriter
     private final boolean mWriteToDisk;
 
     @Nullable
-    private final OrangeConfig mConfig;
+    private final ReportConfig mConfig;
     private final String mOutputDir;
     private final String mOutputId;
 
     private final PlotPathResolver mPlotPathResolver;
 
-    public ReportWriter(boolean writeToDisk, @Nullable final OrangeConfig config, final PlotPathResolver plotPathResolver)
+    public ReportWriter(
+            boolean writeToDisk, @Nullable final ReportConfig config, @Nullable final String outputDir, @Nullable final String outputId,
+            final PlotPathResolver plotPathResolver)
     {
         mWriteToDisk = writeToDisk;
         mConfig = config;
-        mOutputDir = config != null ? config.OutputDir : null;
-        mOutputId = config != null ? config.OutputId : null;
+        mOutputDir = outputDir;
+        mOutputId = outputId;
         mPlotPathResolver = plotPathResolver;
     }
 
@@ -2,15 +2,25 @@ package com.hartwig.hmftools.orange.report;
 
 import com.hartwig.hmftools.orange.OrangeConfig;
 
+import org.jetbrains.annotations.Nullable;
+
 public final class ReportWriterFactory
 {
     public static ReportWriter createToDiskWriter(final OrangeConfig config)
     {
-        return new ReportWriter(true, config, new PlotPathResolver(config.OutputDir));
+        return new ReportWriter(
+                true, ReportConfig.from(config), config.OutputDir, config.OutputId, new PlotPathResolver(config.OutputDir));
+    }
+
+    // re-renders reports from existing ORANGE records, whose plot paths are relative to the directory the records were written to
+    public static ReportWriter createBatchWriter(
+            final ReportConfig reportConfig, final String outputDir, @Nullable final String outputId, final String orangeDir)
+    {
+        return new ReportWriter(true, reportConfig, outputDir, outputId, new PlotPathResolver(orangeDir));
     }
 
     public static ReportWriter createInMemoryWriter()
     {
-        return new ReportWriter(false, null, new PlotPathResolver(null));
+        return new ReportWriter(false, null, null, null, new PlotPathResolver(null));
     }
 }
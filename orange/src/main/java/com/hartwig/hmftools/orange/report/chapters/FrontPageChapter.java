@@ -8,10 +8,10 @@ import java.io.IOException;
 
 import com.hartwig.hmftools.datamodel.orange.OrangeRecord;
 import com.hartwig.hmftools.datamodel.purple.PurpleQC;
-import com.hartwig.hmftools.orange.OrangeConfig;
 import com.hartwig.hmftools.orange.algo.QcStatusInterpretation;
 import com.hartwig.hmftools.orange.report.DocumentContext;
 import com.hartwig.hmftools.orange.report.PlotPathResolver;
+import com.hartwig.hmftools.orange.report.ReportConfig;
 import com.hartwig.hmftools.orange.report.ReportResources;
 import com.hartwig.hmftools.orange.report.tables.FrontPageTables;
 
@@ -23,13 +23,13 @@ import be.quodlibet.boxable.BaseTable;
 
 public class FrontPageChapter implements ReportChapter
 {
-    private final OrangeConfig mConfig;
+    private final ReportConfig mConfig;
     private final OrangeRecord mReport;
     private final PlotPathResolver mPlotPathResolver;
     private final ReportResources mReportResources;
 
     public FrontPageChapter(
-            final OrangeConfig config, final OrangeRecord report, final PlotPathResolver plotPathResolver,
+            final ReportConfig config, final OrangeRecord report, final PlotPathResolver plotPathResolver,
             final ReportResources reportResources)
     {
         mConfig = config;
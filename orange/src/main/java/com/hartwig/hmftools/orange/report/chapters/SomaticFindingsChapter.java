@@ -9,12 +9,12 @@ import com.hartwig.hmftools.datamodel.linx.LinxBreakend;
 import com.hartwig.hmftools.datamodel.orange.OrangeRecord;
 import com.hartwig.hmftools.datamodel.purple.PurpleTranscriptImpact;
 import com.hartwig.hmftools.datamodel.purple.PurpleVariant;
-import com.hartwig.hmftools.orange.OrangeConfig;
 import com.hartwig.hmftools.orange.algo.QcStatusInterpretation;
 import com.hartwig.hmftools.datamodel.sigs.SignatureAllocation;
 import com.hartwig.hmftools.datamodel.virus.VirusInterpreterData;
 import com.hartwig.hmftools.orange.report.DocumentContext;
 import com.hartwig.hmftools.orange.report.PlotPathResolver;
+import com.hartwig.hmftools.orange.report.ReportConfig;
 import com.hartwig.hmftools.orange.report.ReportResources;
 import com.hartwig.hmftools.orange.report.tables.ChrArmCopyNumberTable;
 import com.hartwig.hmftools.orange.report.tables.DisruptionTable;
@@ -29,13 +29,13 @@ import org.jetbrains.annotations.NotNull;
 
 public class SomaticFindingsChapter implements ReportChapter
 {
-    private final OrangeConfig mConfig;
+    private final ReportConfig mConfig;
     private final OrangeRecord mReport;
     private final PlotPathResolver mPlotPathResolver;
     private final ReportResources mReportResources;
 
     public SomaticFindingsChapter(
-            final OrangeConfig config, final OrangeRecord report, final PlotPathResolver plotPathResolver,
+            final ReportConfig config, final OrangeRecord report, final PlotPathResolver plotPathResolver,
             final ReportResources reportResources)
     {
         mConfig = config;
@@ -116,7 +116,7 @@ public class SomaticFindingsChapter implements ReportChapter
 
         document.addTable(SomaticVariantTable.build(
                 document, titleDrivers, contentWidth(), mReport.purple().somaticVariants(), mReportResources,
-                mReport.tumorOnlyMode(), mConfig != null && mConfig.RnaSampleId != null));
+                mReport.tumorOnlyMode(), mConfig != null && mConfig.HasRnaSample));
     }
 
     private void addSomaticAmpDels(final DocumentContext document) throws IOException
@@ -44,8 +44,8 @@ import com.hartwig.hmftools.datamodel.purple.PurpleVariant;
 import com.hartwig.hmftools.datamodel.virus.VirusInterpretation;
 import com.hartwig.hmftools.datamodel.virus.VirusInterpreterData;
 import com.hartwig.hmftools.datamodel.virus.VirusInterpreterEntry;
-import com.hartwig.hmftools.orange.OrangeConfig;
 import com.hartwig.hmftools.orange.algo.QcStatusInterpretation;
+import com.hartwig.hmftools.orange.report.ReportConfig;
 import com.hartwig.hmftools.orange.report.ReportResources;
 import com.hartwig.hmftools.orange.report.util.Cells;
 import com.hartwig.hmftools.orange.report.util.Tables;
@@ -65,7 +65,7 @@ import org.apache.logging.log4j.util.Strings;
 public class FrontPageTables
 {
     public static BaseTable buildSampleSummary(final DocumentContext docCtx,
-            final OrangeRecord report, final OrangeConfig config, float width, final ReportResources reportResources) throws IOException
+            final OrangeRecord report, final ReportConfig config, float width, final ReportResources reportResources) throws IOException
     {
         Cells cells = new Cells(reportResources);
 
@@ -105,7 +105,7 @@ public class FrontPageTables
     }
 
     public static BaseTable buildTechnicalSummary(final DocumentContext docCtx,
-            final OrangeRecord report, final OrangeConfig config, float width, final ReportResources reportResources) throws IOException
+            final OrangeRecord report, final ReportConfig config, float width, final ReportResources reportResources) throws IOException
     {
         Cells cells = new Cells(reportResources);
 
@@ -137,12 +137,12 @@ public class FrontPageTables
         return table;
     }
 
-    private static String sequencingType(final OrangeConfig config)
+    private static String sequencingType(final ReportConfig config)
     {
         return config != null ? config.SeqType.toString() : SequencingType.ILLUMINA.toString();
     }
 
-    private static String pipelineModeDisplay(final OrangeRecord report, final OrangeConfig config)
+    private static String pipelineModeDisplay(final OrangeRecord report, final ReportConfig config)
     {
         if(report.experimentType() == ExperimentType.WHOLE_GENOME)
         {
@@ -0,0 +1,136 @@
+package com.hartwig.hmftools.orange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.hartwig.hmftools.common.sequencing.SequencingType;
+import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.datamodel.OrangeJson;
+import com.hartwig.hmftools.datamodel.orange.ExperimentType;
+import com.hartwig.hmftools.datamodel.orange.ImmutableOrangeRecord;
+import com.hartwig.hmftools.datamodel.orange.OrangeRecord;
+import com.hartwig.hmftools.orange.report.ReportConfig;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.Test;
+
+public class OrangeReportBatchApplicationTest
+{
+    @Test
+    public void testRendersEachSampleAndCountsFailures() throws IOException
+    {
+        File orangeDir = Files.createTempDirectory("orange_batch").toFile();
+        orangeDir.deleteOnExit();
+
+        writeOrangeRecord(orangeDir, "SAMPLE_1", ExperimentType.WHOLE_GENOME);
+        writeOrangeRecord(orangeDir, "SAMPLE_2", ExperimentType.WHOLE_GENOME);
+
+        // SAMPLE_3 has no ORANGE record, and the commented-out sample is skipped
+        File sampleIdFile = writeSampleIdFile(orangeDir, List.of("SampleId", "SAMPLE_1", "SAMPLE_2", "SAMPLE_3", "#SAMPLE_4"));
+        File outputDir = new File(orangeDir, "output");
+
+        OrangeReportBatchApplication application = createApplication(sampleIdFile, orangeDir, outputDir);
+
+        assertEquals(1, application.renderReports());
+        assertTrue(new File(outputDir, "SAMPLE_1.orange.pdf").exists());
+        assertTrue(new File(outputDir, "SAMPLE_1.orange.json").exists());
+        assertTrue(new File(outputDir, "SAMPLE_2.orange.pdf").exists());
+        assertFalse(new File(outputDir, "SAMPLE_3.orange.pdf").exists());
+
+        // any failed sample gives a non-zero exit code
+        assertEquals(1, application.run());
+
+        sampleIdFile = writeSampleIdFile(orangeDir, List.of("SampleId", "SAMPLE_1", "SAMPLE_2"));
+        assertEquals(0, createApplication(sampleIdFile, orangeDir, outputDir).run());
+    }
+
+    @Test
+    public void testKeepsSampleReportSettings() throws IOException
+    {
+        File orangeDir = Files.createTempDirectory("orange_batch").toFile();
+        orangeDir.deleteOnExit();
+
+        OrangeRecord panelRecord = writeOrangeRecord(orangeDir, "SAMPLE_1", ExperimentType.TARGETED);
+        writeOrangeRecord(orangeDir, "SAMPLE_2", ExperimentType.TARGETED);
+
+        // SAMPLE_1 overrides the cohort's settings and SAMPLE_2 leaves them unchanged
+        File sampleIdFile = writeSampleIdFile(orangeDir, List.of(
+                String.join(",", "SampleId", OrangeReportBatchApplication.FLD_DISPLAY_SAMPLE_ID,
+                        OrangeReportBatchApplication.FLD_PANEL_NAME, OrangeReportBatchApplication.FLD_SEQUENCING_TYPE),
+                "SAMPLE_1,DEMO_1,TSO500,SBX",
+                "SAMPLE_2,,,"));
+        File outputDir = new File(orangeDir, "output");
+
+        OrangeReportBatchApplication application = createApplication(
+                sampleIdFile, orangeDir, outputDir, "-add_disclaimer", "-panel_name", "COHORT_PANEL");
+
+        ReportConfig defaultConfig = application.sampleReportConfig("SAMPLE_2", panelRecord);
+        assertEquals("SAMPLE_2", defaultConfig.DisplaySampleId);
+        assertEquals("COHORT_PANEL", defaultConfig.PanelName);
+        assertEquals(SequencingType.ILLUMINA, defaultConfig.SeqType);
+        assertTrue(defaultConfig.AddDisclaimer);
+
+        assertEquals(0, application.renderReports());
+
+        try(PDDocument document = PDDocument.load(new File(outputDir, "SAMPLE_1.orange.pdf")))
+        {
+            PDFTextStripper textStripper = new PDFTextStripper();
+            textStripper.setEndPage(1);
+            String frontPage = textStripper.getText(document);
+
+            assertTrue(frontPage.contains("Research Use Only"));
+            assertTrue(frontPage.contains(SequencingType.SBX.toString()));
+            assertTrue(frontPage.contains("PANEL: TSO500"));
+            assertTrue(frontPage.contains("DEMO_1"));
+        }
+    }
+
+    private static OrangeReportBatchApplication createApplication(
+            final File sampleIdFile, final File orangeDir, final File outputDir, final String... extraArgs)
+    {
+        ConfigBuilder configBuilder = new ConfigBuilder("OrangeReportBatch");
+        OrangeReportBatchApplication.registerConfig(configBuilder);
+
+        // the sample's ORANGE directory is formed from the wildcard
+        String[] args = {
+                "-sample_id_file", sampleIdFile.getPath(),
+                "-orange_dir", orangeDir.getPath() + File.separator + "*",
+                "-output_dir", outputDir.getPath(),
+                "-threads", "2" };
+
+        assertTrue(configBuilder.parseCommandLine(Stream.concat(Stream.of(args), Stream.of(extraArgs)).toArray(String[]::new)));
+
+        return new OrangeReportBatchApplication(configBuilder);
+    }
+
+    private static OrangeRecord writeOrangeRecord(final File orangeDir, final String sampleId, final ExperimentType experimentType)
+            throws IOException
+    {
+        File sampleDir = new File(orangeDir, sampleId);
+        assertTrue(sampleDir.mkdirs());
+
+        OrangeRecord orangeRecord = ImmutableOrangeRecord.builder()
+                .from(TestOrangeReportFactory.createMinimalTestReport())
+                .sampleId(sampleId)
+                .experimentType(experimentType)
+                .build();
+
+        OrangeJson.getInstance().write(orangeRecord, new File(sampleDir, sampleId + ".orange.json").getPath());
+        return orangeRecord;
+    }
+
+    private static File writeSampleIdFile(final File orangeDir, final List<String> lines) throws IOException
+    {
+        File sampleIdFile = File.createTempFile("sample_ids", ".csv", orangeDir);
+        Files.write(sampleIdFile.toPath(), lines);
+        return sampleIdFile;
+    }
+}
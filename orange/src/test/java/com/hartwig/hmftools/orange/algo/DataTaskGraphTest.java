@@ -0,0 +1,140 @@
+package com.hartwig.hmftools.orange.algo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class DataTaskGraphTest
+{
+    @Test
+    public void testDependenciesCompleteFirst() throws Exception
+    {
+        List<String> completed = Collections.synchronizedList(Lists.newArrayList());
+
+        try(DataTaskGraph taskGraph = new DataTaskGraph(4))
+        {
+            // the slowest task is the one others depend on
+            CompletableFuture<Integer> first = taskGraph.add(() ->
+            {
+                Thread.sleep(100);
+                completed.add("first");
+                return 1;
+            });
+
+            CompletableFuture<Integer> second = taskGraph.add(() ->
+            {
+                completed.add("second");
+                return 2;
+            });
+
+            CompletableFuture<Integer> combined = taskGraph.add(() ->
+            {
+                completed.add("combined");
+                return first.join() + second.join();
+            }, first, second);
+
+            CompletableFuture<Integer> last = taskGraph.add(() ->
+            {
+                completed.add("last");
+                return combined.join() * 10;
+            }, combined);
+
+            assertEquals(30, (int) DataTaskGraph.get(last));
+        }
+
+        assertEquals(4, completed.size());
+        assertTrue(completed.indexOf("combined") > completed.indexOf("first"));
+        assertTrue(completed.indexOf("combined") > completed.indexOf("second"));
+        assertEquals("last", completed.get(3));
+    }
+
+    @Test
+    public void testSingleThreadRunsInOrder() throws Exception
+    {
+        List<String> completed = Lists.newArrayList();
+        Thread callingThread = Thread.currentThread();
+
+        try(DataTaskGraph taskGraph = new DataTaskGraph(1))
+        {
+            CompletableFuture<String> first = taskGraph.add(() ->
+            {
+                assertEquals(callingThread, Thread.currentThread());
+                completed.add("first");
+                return "first";
+            });
+
+            CompletableFuture<String> second = taskGraph.add(() ->
+            {
+                completed.add("second");
+                return first.join() + "-second";
+            }, first);
+
+            // tasks have already run by the time they are added
+            assertEquals(List.of("first", "second"), completed);
+            assertEquals("first-second", DataTaskGraph.get(second));
+        }
+    }
+
+    @Test
+    public void testFailureRethrownFromDependents()
+    {
+        try(DataTaskGraph taskGraph = new DataTaskGraph(2))
+        {
+            CompletableFuture<String> failed = taskGraph.add(() ->
+            {
+                throw new IOException("missing file");
+            });
+
+            CompletableFuture<String> dependent = taskGraph.add(() -> failed.join() + "-dependent", failed);
+
+            IOException exception = assertThrows(IOException.class, () -> DataTaskGraph.get(failed));
+            assertEquals("missing file", exception.getMessage());
+
+            // the dependent task never runs and reports the original exception
+            exception = assertThrows(IOException.class, () -> DataTaskGraph.get(dependent));
+            assertEquals("missing file", exception.getMessage());
+
+            CompletableFuture<String> unchecked = taskGraph.add(() ->
+            {
+                throw new IllegalStateException("invalid data");
+            });
+
+            assertThrows(IllegalStateException.class, () -> DataTaskGraph.get(unchecked));
+        }
+    }
+
+    @Test
+    public void testCloseShutsDownExecutor() throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> running;
+        DataTaskGraph taskGraph = new DataTaskGraph(2);
+
+        try(taskGraph)
+        {
+            running = taskGraph.add(() ->
+            {
+                started.countDown();
+                Thread.sleep(60_000);
+                return true;
+            });
+
+            started.await();
+        }
+
+        // the running task is interrupted and no further tasks are accepted
+        assertThrows(InterruptedException.class, () -> DataTaskGraph.get(running));
+        assertThrows(RejectedExecutionException.class, () -> DataTaskGraph.get(taskGraph.add(() -> true)));
+    }
+}
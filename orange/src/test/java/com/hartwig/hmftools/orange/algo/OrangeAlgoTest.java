@@ -1,9 +1,11 @@
 package com.hartwig.hmftools.orange.algo;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.IOException;
 
+import com.hartwig.hmftools.datamodel.orange.OrangeRecord;
 import com.hartwig.hmftools.orange.OrangeConfig;
 import com.hartwig.hmftools.orange.TestOrangeConfigFactory;
 
@@ -57,6 +59,17 @@ public class OrangeAlgoTest
         assertNotNull(algo.run(config));
     }
 
+    @Test
+    public void parallelLoadingMatchesSequential() throws Exception
+    {
+        OrangeConfig config = TestOrangeConfigFactory.createWGTSConfigTumorNormal();
+
+        OrangeRecord sequentialRecord = createOrangeAlgo(config).run(config, 1);
+        OrangeRecord parallelRecord = createOrangeAlgo(config).run(config, 4);
+
+        assertEquals(sequentialRecord, parallelRecord);
+    }
+
     private static OrangeAlgo createOrangeAlgo(final OrangeConfig config) throws IOException
     {
         OrangeAlgo algo = OrangeAlgo.fromConfig(config);
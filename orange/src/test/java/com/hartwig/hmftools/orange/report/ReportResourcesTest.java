@@ -0,0 +1,70 @@
+package com.hartwig.hmftools.orange.report;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import com.hartwig.hmftools.datamodel.orange.OrangeRecord;
+import com.hartwig.hmftools.orange.TestOrangeReportFactory;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+public class ReportResourcesTest
+{
+    private static final int WRITER_COUNT = 4;
+
+    @Test
+    public void testFontDataSharedAcrossConcurrentWriters() throws Exception
+    {
+        OrangeRecord report = TestOrangeReportFactory.createMinimalTestReport();
+        CountDownLatch startLatch = new CountDownLatch(1);
+
+        // each writer embeds the fonts in its own document, reading the font bytes from the shared cache
+        List<Callable<byte[]>> writers = IntStream.range(0, WRITER_COUNT).mapToObj(i -> (Callable<byte[]>) () ->
+        {
+            startLatch.await();
+            ReportWriterFactory.createInMemoryWriter().write(report);
+            return ReportResources.fontData(ReportResources.FONT_REGULAR_PATH);
+        }).toList();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(WRITER_COUNT);
+
+        try
+        {
+            List<Future<byte[]>> futures = writers.stream().map(executorService::submit).toList();
+            startLatch.countDown();
+
+            byte[] fontData = ReportResources.fontData(ReportResources.FONT_REGULAR_PATH);
+
+            for(Future<byte[]> future : futures)
+            {
+                assertSame(fontData, future.get());
+            }
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+
+        assertNotSame(
+                ReportResources.fontData(ReportResources.FONT_REGULAR_PATH), ReportResources.fontData(ReportResources.FONT_BOLD_PATH));
+
+        try(PDDocument document1 = new PDDocument(); PDDocument document2 = new PDDocument())
+        {
+            ReportResources resources1 = ReportResources.create(document1);
+            ReportResources resources2 = ReportResources.create(document2);
+
+            assertNotSame(resources1.fontRegular(), resources2.fontRegular());
+            assertEquals(resources1.fontRegular().getName(), resources2.fontRegular().getName());
+        }
+    }
+}
@@ -90,8 +90,15 @@ public class BaseWindowGenerator
     }
 
     public Stream<List<BaseWindow>> createBaseWindowBatches()
+    {
+        return createBaseWindowBatches(0);
+    }
+
+    // Skips the first `skipBatches` batches without retrieving their bases.
+    public Stream<List<BaseWindow>> createBaseWindowBatches(final long skipBatches)
     {
         return createBaseWindowRegionBatches()
+                .skip(skipBatches)
                 .map(regions ->
                         regions.stream().map(region ->
                                 new BaseWindow(region, mRefGenome.getBases(region.chromosome(), region.start(), region.end()))
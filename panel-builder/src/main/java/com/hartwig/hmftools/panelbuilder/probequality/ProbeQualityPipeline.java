@@ -0,0 +1,233 @@
+package com.hartwig.hmftools.panelbuilder.probequality;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Runs base window generation, alignment and output as concurrent stages connected by bounded queues, so the aligners are kept busy
+// while windows are generated and results are written.
+// Each aligner worker has its own scorer (e.g. a model with its own aligner), and chunks are passed to the writer in generation order.
+public class ProbeQualityPipeline
+{
+    // One per aligner worker. Each is only used by its worker thread.
+    private final List<Function<List<byte[]>, List<ProbeQualityModel.Result>>> mScorers;
+    // Maximum number of chunks waiting in each queue.
+    private final int mQueueCapacity;
+    // Maximum number of chunks generated but not yet written, which bounds those held back behind a slow worker.
+    private final int mMaxChunksInFlight;
+
+    private static final long POLL_INTERVAL_MS = 1000;
+
+    static final int MAX_CHUNKS_IN_FLIGHT_PER_SCORER = 4;
+
+    private static final Logger LOGGER = LogManager.getLogger(ProbeQualityPipeline.class);
+
+    public ProbeQualityPipeline(final List<Function<List<byte[]>, List<ProbeQualityModel.Result>>> scorers)
+    {
+        if(scorers.isEmpty())
+        {
+            throw new IllegalArgumentException("Must have at least one scorer");
+        }
+        mScorers = scorers;
+        mQueueCapacity = scorers.size();
+        mMaxChunksInFlight = scorers.size() * MAX_CHUNKS_IN_FLIGHT_PER_SCORER;
+    }
+
+    // A batch of base windows.
+    public record ScoredChunk(
+            // Index of the batch in the generated sequence of batches.
+            int index,
+            // Number of windows in the batch, including those skipped.
+            int totalWindows,
+            // Windows which were scored.
+            List<BaseWindowGenerator.BaseWindow> windows,
+            // Results corresponding to `windows`.
+            List<ProbeQualityModel.Result> results
+    )
+    {
+    }
+
+    // Marks the end of the input to an aligner worker, and the end of a worker's output.
+    private static final ScoredChunk END_CHUNK = new ScoredChunk(-1, 0, Collections.emptyList(), Collections.emptyList());
+
+    // Processes all batches, passing each scored chunk to `chunkWriter` on the calling thread, ordered by index.
+    // `firstChunkIndex` is the index of the first batch, which is nonzero when resuming.
+    public void run(final Stream<List<BaseWindowGenerator.BaseWindow>> batches, int firstChunkIndex,
+            final Consumer<ScoredChunk> chunkWriter)
+    {
+        BlockingQueue<ScoredChunk> windowQueue = new ArrayBlockingQueue<>(mQueueCapacity);
+        BlockingQueue<ScoredChunk> scoredQueue = new ArrayBlockingQueue<>(mQueueCapacity);
+        // Taken by the generator for each chunk and returned by the writer once the chunk is written.
+        Semaphore chunkPermits = new Semaphore(mMaxChunksInFlight);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(
+                1 + mScorers.size(), new ThreadFactoryBuilder().setNameFormat("probe-quality-%d").setDaemon(true).build());
+
+        List<Future<?>> stageFutures = new ArrayList<>();
+
+        try
+        {
+            stageFutures.add(executorService.submit(() ->
+            {
+                generateChunks(batches, firstChunkIndex, windowQueue, chunkPermits);
+                return null;
+            }));
+
+            for(Function<List<byte[]>, List<ProbeQualityModel.Result>> scorer : mScorers)
+            {
+                stageFutures.add(executorService.submit(() ->
+                {
+                    scoreChunks(scorer, windowQueue, scoredQueue);
+                    return null;
+                }));
+            }
+
+            writeChunks(firstChunkIndex, scoredQueue, chunkPermits, stageFutures, chunkWriter);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Probe quality pipeline interrupted");
+        }
+        finally
+        {
+            // Stops any stages still running if the pipeline failed.
+            executorService.shutdownNow();
+        }
+    }
+
+    private void generateChunks(final Stream<List<BaseWindowGenerator.BaseWindow>> batches, int firstChunkIndex,
+            final BlockingQueue<ScoredChunk> windowQueue, final Semaphore chunkPermits) throws InterruptedException
+    {
+        int chunkIndex = firstChunkIndex;
+        Iterator<List<BaseWindowGenerator.BaseWindow>> iterator = batches.iterator();
+        while(true)
+        {
+            // Waits for a permit before generating the batch, so a lagging worker holds back generation rather than the writer
+            // accumulating chunks. The chunk the writer needs next always already holds a permit, so this can't deadlock.
+            chunkPermits.acquire();
+            if(!iterator.hasNext())
+            {
+                break;
+            }
+
+            List<BaseWindowGenerator.BaseWindow> batch = iterator.next();
+            LOGGER.debug("Generated base window batch {} of size {}, first window: {}",
+                    chunkIndex, batch.size(), batch.get(0).region());
+
+            List<BaseWindowGenerator.BaseWindow> filteredWindows = batch.stream()
+                    .filter(window -> BaseWindowGenerator.isSequenceNormal(window.sequence()))
+                    .toList();
+
+            windowQueue.put(new ScoredChunk(chunkIndex, batch.size(), filteredWindows, Collections.emptyList()));
+            ++chunkIndex;
+        }
+
+        for(int i = 0; i < mScorers.size(); ++i)
+        {
+            windowQueue.put(END_CHUNK);
+        }
+    }
+
+    private static void scoreChunks(final Function<List<byte[]>, List<ProbeQualityModel.Result>> scorer,
+            final BlockingQueue<ScoredChunk> windowQueue, final BlockingQueue<ScoredChunk> scoredQueue) throws InterruptedException
+    {
+        while(true)
+        {
+            ScoredChunk chunk = windowQueue.take();
+            if(chunk == END_CHUNK)
+            {
+                scoredQueue.put(END_CHUNK);
+                return;
+            }
+
+            LOGGER.debug("Aligning base window batch {}", chunk.index());
+            List<byte[]> sequences = chunk.windows().stream().map(BaseWindowGenerator.BaseWindow::sequence).toList();
+            List<ProbeQualityModel.Result> results = sequences.isEmpty() ? Collections.emptyList() : scorer.apply(sequences);
+
+            scoredQueue.put(new ScoredChunk(chunk.index(), chunk.totalWindows(), chunk.windows(), results));
+        }
+    }
+
+    private void writeChunks(int firstChunkIndex, final BlockingQueue<ScoredChunk> scoredQueue, final Semaphore chunkPermits,
+            final List<Future<?>> stageFutures, final Consumer<ScoredChunk> chunkWriter) throws InterruptedException
+    {
+        // Workers can finish chunks out of order, so hold them until their predecessors are written. The chunk permits limit how
+        // many can be held.
+        Map<Integer, ScoredChunk> pendingChunks = new HashMap<>();
+        int nextChunkIndex = firstChunkIndex;
+        int finishedWorkers = 0;
+
+        while(finishedWorkers < mScorers.size())
+        {
+            ScoredChunk chunk = scoredQueue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            if(chunk == null)
+            {
+                checkStageFailures(stageFutures);
+                continue;
+            }
+
+            if(chunk == END_CHUNK)
+            {
+                ++finishedWorkers;
+                continue;
+            }
+
+            pendingChunks.put(chunk.index(), chunk);
+
+            ScoredChunk nextChunk;
+            while((nextChunk = pendingChunks.remove(nextChunkIndex)) != null)
+            {
+                chunkWriter.accept(nextChunk);
+                chunkPermits.release();
+                ++nextChunkIndex;
+            }
+        }
+
+        checkStageFailures(stageFutures);
+
+        if(!pendingChunks.isEmpty())
+        {
+            throw new IllegalStateException("Probe quality pipeline finished with unwritten chunks");
+        }
+    }
+
+    private static void checkStageFailures(final List<Future<?>> stageFutures) throws InterruptedException
+    {
+        for(Future<?> future : stageFutures)
+        {
+            if(!future.isDone())
+            {
+                continue;
+            }
+
+            try
+            {
+                future.get();
+            }
+            catch(ExecutionException e)
+            {
+                throw new RuntimeException(String.format("Probe quality pipeline stage failed: %s", e.getCause()), e.getCause());
+            }
+        }
+    }
+}
@@ -18,16 +18,23 @@ import static com.hartwig.hmftools.common.utils.file.FileDelimiters.TSV_DELIM;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.closeBufferedWriter;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.panelbuilder.probequality.Utils.createBwaMemAligner;
+import static com.hartwig.hmftools.panelbuilder.probequality.Utils.loadBwaMemIndex;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.StringJoiner;
-import java.util.function.Supplier;
-import java.util.stream.Stream;
+import java.util.function.Function;
 
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeSource;
+import com.hartwig.hmftools.common.mappability.ProbeQualityProfile;
 import com.hartwig.hmftools.common.perf.TaskExecutor;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.region.SpecificRegions;
@@ -35,7 +42,8 @@ import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.broadinstitute.hellbender.utils.bwa.BwaMemAligner;
+import org.broadinstitute.hellbender.utils.bwa.BwaMemIndex;
+import org.jetbrains.annotations.Nullable;
 
 // Tool for helping with panel probe design. It produces a file which annotates the genome with information informing how likely a probe is
 // to hybridise with off-target genome regions.
@@ -43,13 +51,26 @@ import org.broadinstitute.hellbender.utils.bwa.BwaMemAligner;
 // The model uses BWA-MEM alignments as a heuristic for the chance of off-target hybridisation, based on the assumption that hybridisation
 // occurs with a sufficiently long exact match. The model was developed and validated against data from a previous panel design.
 // Output is a TSV file containing scores for each window in the genome.
+// Window generation, alignment and output run as a pipeline, with several aligner workers sharing one BWA-MEM index.
+// A checkpoint is written after each batch, so an interrupted run can be resumed.
 public class ProbeQualityProfiler
 {
     private final BaseWindowGenerator mBaseWindowGenerator;
 
-    private final ProbeQualityModel mProbeQualityModel;
-
-    private final BufferedWriter mOutputWriter;
+    // One model per aligner worker.
+    private final List<ProbeQualityModel> mProbeQualityModels;
+
+    private final String mOutputFile;
+    @Nullable
+    private final String mBinaryOutputFile;
+    private final int mBaseWindowLength;
+    private final int mBaseWindowSpacing;
+    private BufferedWriter mOutputWriter;
+    // Null if checkpointing isn't possible, i.e. compressed output.
+    @Nullable
+    private final ProfileCheckpoint mCheckpoint;
+    private final boolean mResume;
+    private ProcessingStats mStats;
     // If true, output more information than usual. Useful for debugging.
     private final boolean mVerboseOutput;
     // Number of decimals included in the quality score.
@@ -79,9 +100,20 @@ public class ProbeQualityProfiler
     private static final String BATCH_SIZE_DESC = "Number of windows to align simultaneously";
     private static final int BATCH_SIZE_DEFAULT = 25000;
 
+    private static final String ALIGNER_WORKERS_CONFIG = "aligner_workers";
+    private static final String ALIGNER_WORKERS_DESC = "Number of batches aligned concurrently, with the threads split between them";
+    private static final int ALIGNER_WORKERS_DEFAULT = 2;
+
+    private static final String RESUME_CONFIG = "resume";
+    private static final String RESUME_DESC = "Resume an interrupted run from its checkpoint";
+
     private static final String OUTPUT_FILE_CONFIG = "output_file";
     private static final String OUTPUT_FILE_DESC = "Output filename";
 
+    private static final String BINARY_OUTPUT_FILE_CONFIG = "binary_output_file";
+    private static final String BINARY_OUTPUT_FILE_DESC = "Also write the profile in the memory-mapped binary form, extension "
+            + ProbeQualityProfile.BINARY_FILE_EXTENSION;
+
     private static final String VERBOSE_OUTPUT_CONFIG = "verbose_output";
     private static final String VERBOSE_OUTPUT_DESC = "Output more risk info (useful for debugging)";
 
@@ -148,29 +180,76 @@ public class ProbeQualityProfiler
         }
         LOGGER.debug("Threads: {}", threads);
 
+        int alignerWorkers = configBuilder.getInteger(ALIGNER_WORKERS_CONFIG);
+        if(alignerWorkers < 1)
+        {
+            throw new RuntimeException(format("%s must be >= 1", ALIGNER_WORKERS_CONFIG));
+        }
+        int workerThreads = Math.max(threads / alignerWorkers, 1);
+        LOGGER.debug("Aligner workers: {}, threads per worker: {}", alignerWorkers, workerThreads);
+
         loadAlignerLibrary(configBuilder.getValue(BWA_LIB_PATH));
         LOGGER.debug("BWA-MEM library path: {}", System.getProperty(LIBBWA_PATH));
 
         String bwaIndexImageFile = configBuilder.getValue(BWA_INDEX_IMAGE_FILE_CONFIG, refGenomePath + ".img");
         LOGGER.debug("BWA-MEM index image: {}", bwaIndexImageFile);
-        Supplier<BwaMemAligner> alignerFactory = () -> createBwaMemAligner(bwaIndexImageFile, threads);
+        // The index image is large so is only loaded once and shared by all the aligners.
+        BwaMemIndex bwaIndex = loadBwaMemIndex(bwaIndexImageFile);
 
         mVerboseOutput = configBuilder.hasFlag(VERBOSE_OUTPUT_CONFIG);
         LOGGER.debug("Verbose output: {}", mVerboseOutput);
 
-        String outputFile = configBuilder.getValue(OUTPUT_FILE_CONFIG);
-        LOGGER.debug("Output file: {}", outputFile);
+        mOutputFile = configBuilder.getValue(OUTPUT_FILE_CONFIG);
+        LOGGER.debug("Output file: {}", mOutputFile);
+
+        mBinaryOutputFile = configBuilder.getValue(BINARY_OUTPUT_FILE_CONFIG);
+        if(mBinaryOutputFile != null && !mBinaryOutputFile.endsWith(ProbeQualityProfile.BINARY_FILE_EXTENSION))
+        {
+            throw new RuntimeException(format("%s must end with %s", BINARY_OUTPUT_FILE_CONFIG, ProbeQualityProfile.BINARY_FILE_EXTENSION));
+        }
+        LOGGER.debug("Binary output file: {}", mBinaryOutputFile);
+        mBaseWindowLength = baseWindowLength;
+        mBaseWindowSpacing = baseWindowSpacing;
+
+        mResume = configBuilder.hasFlag(RESUME_CONFIG);
+        if(mOutputFile.endsWith(".gz"))
+        {
+            // Compressed output can't be truncated back to a checkpoint.
+            if(mResume)
+            {
+                throw new RuntimeException(format("%s is not supported with compressed output", RESUME_CONFIG));
+            }
+            mCheckpoint = null;
+        }
+        else
+        {
+            String checkpointSignature = String.join(",",
+                    refGenomePath, String.valueOf(specificRegions.Chromosomes), String.valueOf(specificRegions.Regions),
+                    String.valueOf(baseWindowLength), String.valueOf(baseWindowSpacing), String.valueOf(batchSize),
+                    String.valueOf(matchScoreThreshold), String.valueOf(matchScoreOffset), String.valueOf(mVerboseOutput));
+            mCheckpoint = new ProfileCheckpoint(mOutputFile, checkpointSignature);
+        }
 
         mBaseWindowGenerator = new BaseWindowGenerator(refGenome, specificRegions, baseWindowLength, baseWindowSpacing, batchSize);
-        mProbeQualityModel = new ProbeQualityModel(alignerFactory, baseWindowLength, matchScoreThreshold, matchScoreOffset);
-        mOutputWriter = initialiseOutputWriter(outputFile, mVerboseOutput);
+        mProbeQualityModels = new ArrayList<>();
+        for(int i = 0; i < alignerWorkers; ++i)
+        {
+            mProbeQualityModels.add(new ProbeQualityModel(
+                    () -> createBwaMemAligner(bwaIndex, workerThreads), baseWindowLength, matchScoreThreshold, matchScoreOffset));
+        }
+        mOutputWriter = null;
+        mStats = new ProcessingStats();
     }
 
-    private static BufferedWriter initialiseOutputWriter(String path, boolean verboseOutput)
+    private static BufferedWriter initialiseOutputWriter(String path, boolean verboseOutput, boolean append)
     {
         try
         {
-            BufferedWriter writer = createBufferedWriter(path, false);
+            BufferedWriter writer = createBufferedWriter(path, append);
+            if(append)
+            {
+                return writer;
+            }
 
             StringJoiner sj = new StringJoiner(TSV_DELIM);
             sj.add(FLD_CHROMOSOME).add(FLD_POSITION_START).add(QUALITY_SCORE_FIELD);
@@ -199,15 +278,66 @@ public class ProbeQualityProfiler
 
         long startTimeMs = System.currentTimeMillis();
 
-        ProcessingStats stats = processBaseWindowBatches(mBaseWindowGenerator.createBaseWindowBatches());
+        ProfileCheckpoint.State resumeState = mResume ? mCheckpoint.load() : null;
+        int firstChunkIndex = 0;
+        if(resumeState != null)
+        {
+            LOGGER.info("Resuming after {} completed batches", resumeState.chunksCompleted());
+            truncateOutput(resumeState.outputBytes());
+            firstChunkIndex = resumeState.chunksCompleted();
+        }
+        else if(mResume)
+        {
+            LOGGER.info("No checkpoint found, starting from the beginning");
+        }
+
+        mOutputWriter = initialiseOutputWriter(mOutputFile, mVerboseOutput, resumeState != null);
+
+        List<Function<List<byte[]>, List<ProbeQualityModel.Result>>> scorers = mProbeQualityModels.stream()
+                .map(model -> (Function<List<byte[]>, List<ProbeQualityModel.Result>>) model::computeFromSeqBytes)
+                .toList();
+
+        LOGGER.info("Processing base windows");
+        ProbeQualityPipeline pipeline = new ProbeQualityPipeline(scorers);
+        pipeline.run(mBaseWindowGenerator.createBaseWindowBatches(firstChunkIndex), firstChunkIndex, this::writeChunk);
 
         closeBufferedWriter(mOutputWriter);
 
+        // The output is complete so the checkpoint is no longer needed.
+        if(mCheckpoint != null)
+        {
+            mCheckpoint.delete();
+        }
+
+        if(mBinaryOutputFile != null)
+        {
+            LOGGER.info("Writing binary profile");
+            ProbeQualityProfile.writeBinaryFile(mOutputFile, mBinaryOutputFile, mBaseWindowLength, mBaseWindowSpacing);
+        }
+
         LOGGER.info("Analysis complete, mins({})", runTimeMinsStr(startTimeMs));
         LOGGER.info("Window stats:");
-        LOGGER.info("  Total: {}", stats.totalWindows);
-        LOGGER.info("  Analysed: {}", stats.totalWindows);
-        LOGGER.info("  Denormal: {}", stats.denormalWindows);
+        LOGGER.info("  Total: {}", mStats.totalWindows);
+        LOGGER.info("  Analysed: {}", mStats.analysedWindows);
+        LOGGER.info("  Denormal: {}", mStats.denormalWindows);
+    }
+
+    private void truncateOutput(long outputBytes)
+    {
+        // Discard any output written after the last checkpoint.
+        Path outputPath = Paths.get(mOutputFile);
+        try(FileChannel channel = FileChannel.open(outputPath, StandardOpenOption.WRITE))
+        {
+            if(channel.size() < outputBytes)
+            {
+                throw new RuntimeException(format("Output file %s is shorter than its checkpoint", mOutputFile));
+            }
+            channel.truncate(outputBytes);
+        }
+        catch(IOException e)
+        {
+            throw new RuntimeException(format("Failed to truncate output file: %s", e));
+        }
     }
 
     private record ProcessingStats(
@@ -234,46 +364,31 @@ public class ProbeQualityProfiler
         }
     }
 
-    private ProcessingStats processBaseWindowBatches(Stream<List<BaseWindowGenerator.BaseWindow>> baseWindows)
+    private void writeChunk(ProbeQualityPipeline.ScoredChunk chunk)
     {
-        LOGGER.info("Processing base windows");
-        return baseWindows
-                .map(this::processBaseWindowBatch)
-                .reduce(new ProcessingStats(), ProcessingStats::add);
-    }
-
-    private ProcessingStats processBaseWindowBatch(List<BaseWindowGenerator.BaseWindow> batch)
-    {
-        LOGGER.debug("Processing base window batch of size {}", batch.size());
-        LOGGER.debug("First base window: {}", batch.get(0).region().toString());
-
-        LOGGER.debug("Retrieving base window sequences");
-        // Somewhat awkward stream processing here because we need the base sequence to filter on
-        // and also need to keep the region info for later.
-        List<BaseWindowGenerator.BaseWindow> filteredWindows = batch.stream()
-                .filter(window -> BaseWindowGenerator.isSequenceNormal(window.sequence()))
-                .toList();
-        int denormalWindows = batch.size() - filteredWindows.size();
+        LOGGER.debug("Writing results of batch {}", chunk.index());
+        int denormalWindows = chunk.totalWindows() - chunk.windows().size();
         LOGGER.debug("Skipped {} windows with denormal bases", denormalWindows);
 
-        List<byte[]> sequences = filteredWindows.stream().map(BaseWindowGenerator.BaseWindow::sequence).toList();
-        List<ProbeQualityModel.Result> modelResults = mProbeQualityModel.computeFromSeqBytes(sequences);
-
-        LOGGER.debug("Writing results");
         try
         {
-            for(int i = 0; i < filteredWindows.size(); ++i)
+            for(int i = 0; i < chunk.windows().size(); ++i)
             {
-                writeBaseWindowResult(filteredWindows.get(i).region(), modelResults.get(i));
+                writeBaseWindowResult(chunk.windows().get(i).region(), chunk.results().get(i));
             }
             mOutputWriter.flush();
+
+            if(mCheckpoint != null)
+            {
+                mCheckpoint.save(new ProfileCheckpoint.State(chunk.index() + 1, Files.size(Paths.get(mOutputFile))));
+            }
         }
         catch(IOException e)
         {
             throw new RuntimeException(format("Writing to output file failed: %s", e));
         }
 
-        return new ProcessingStats(batch.size(), filteredWindows.size(), denormalWindows);
+        mStats = mStats.add(new ProcessingStats(chunk.totalWindows(), chunk.windows().size(), denormalWindows));
     }
 
     private void writeBaseWindowResult(ChrBaseRegion region, ProbeQualityModel.Result result) throws IOException
@@ -316,10 +431,13 @@ public class ProbeQualityProfiler
         configBuilder.addInteger(MATCH_SCORE_OFFSET_CONFIG, MATCH_SCORE_OFFSET_DESC, MATCH_SCORE_OFFSET_DEFAULT);
 
         configBuilder.addInteger(BATCH_SIZE_CONFIG, BATCH_SIZE_DESC, BATCH_SIZE_DEFAULT);
+        configBuilder.addInteger(ALIGNER_WORKERS_CONFIG, ALIGNER_WORKERS_DESC, ALIGNER_WORKERS_DEFAULT);
         TaskExecutor.addThreadOptions(configBuilder);
 
         configBuilder.addConfigItem(OUTPUT_FILE_CONFIG, true, OUTPUT_FILE_DESC);
+        configBuilder.addConfigItem(BINARY_OUTPUT_FILE_CONFIG, false, BINARY_OUTPUT_FILE_DESC);
         configBuilder.addFlag(VERBOSE_OUTPUT_CONFIG, VERBOSE_OUTPUT_DESC);
+        configBuilder.addFlag(RESUME_CONFIG, RESUME_DESC);
 
         addLoggingOptions(configBuilder);
 
@@ -0,0 +1,108 @@
+package com.hartwig.hmftools.panelbuilder.probequality;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+// Records how far through the output a profiling run has got, so an interrupted run can resume from the last completed chunk.
+// The checkpoint is only valid for the same configuration, which is recorded as a signature string.
+public class ProfileCheckpoint
+{
+    private final Path mCheckpointFile;
+    private final String mSignature;
+
+    private static final String FILE_EXTENSION = ".checkpoint";
+    private static final String SIGNATURE_KEY = "Signature";
+    private static final String CHUNKS_COMPLETED_KEY = "ChunksCompleted";
+    private static final String OUTPUT_BYTES_KEY = "OutputBytes";
+    private static final String KEY_VALUE_DELIM = "=";
+
+    public ProfileCheckpoint(final String outputFile, final String signature)
+    {
+        mCheckpointFile = Paths.get(outputFile + FILE_EXTENSION);
+        mSignature = signature;
+    }
+
+    public record State(
+            // Number of chunks fully written to the output.
+            int chunksCompleted,
+            // Length of the output file after the last completed chunk.
+            long outputBytes
+    )
+    {
+    }
+
+    // Returns null if there is no checkpoint.
+    @Nullable
+    public State load()
+    {
+        if(!Files.exists(mCheckpointFile))
+        {
+            return null;
+        }
+
+        try
+        {
+            Map<String, String> values = new HashMap<>();
+            for(String line : Files.readAllLines(mCheckpointFile, StandardCharsets.UTF_8))
+            {
+                String[] keyValue = line.split(KEY_VALUE_DELIM, 2);
+                if(keyValue.length == 2)
+                {
+                    values.put(keyValue[0], keyValue[1]);
+                }
+            }
+
+            if(!mSignature.equals(values.get(SIGNATURE_KEY)))
+            {
+                throw new RuntimeException(format("Checkpoint %s was created with different config", mCheckpointFile));
+            }
+
+            return new State(Integer.parseInt(values.get(CHUNKS_COMPLETED_KEY)), Long.parseLong(values.get(OUTPUT_BYTES_KEY)));
+        }
+        catch(IOException | NullPointerException | NumberFormatException e)
+        {
+            throw new RuntimeException(format("Failed to read checkpoint %s: %s", mCheckpointFile, e));
+        }
+    }
+
+    public void save(final State state)
+    {
+        // Replace the previous checkpoint in one step, so an interruption never leaves a partial file.
+        Path tempFile = Paths.get(mCheckpointFile + ".tmp");
+        try
+        {
+            Files.write(tempFile, List.of(
+                    SIGNATURE_KEY + KEY_VALUE_DELIM + mSignature,
+                    CHUNKS_COMPLETED_KEY + KEY_VALUE_DELIM + state.chunksCompleted(),
+                    OUTPUT_BYTES_KEY + KEY_VALUE_DELIM + state.outputBytes()), StandardCharsets.UTF_8);
+            Files.move(tempFile, mCheckpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch(IOException e)
+        {
+            throw new RuntimeException(format("Failed to write checkpoint %s: %s", mCheckpointFile, e));
+        }
+    }
+
+    public void delete()
+    {
+        try
+        {
+            Files.deleteIfExists(mCheckpointFile);
+        }
+        catch(IOException e)
+        {
+            throw new RuntimeException(format("Failed to delete checkpoint %s: %s", mCheckpointFile, e));
+        }
+    }
+}
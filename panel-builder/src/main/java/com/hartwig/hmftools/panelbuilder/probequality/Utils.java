@@ -33,13 +33,23 @@ public class Utils
     }
 
     public static BwaMemAligner createBwaMemAligner(String bwaIndexImageFile, int threads)
+    {
+        return createBwaMemAligner(loadBwaMemIndex(bwaIndexImageFile), threads);
+    }
+
+    public static BwaMemIndex loadBwaMemIndex(String bwaIndexImageFile)
     {
         if(!Files.exists(Paths.get(bwaIndexImageFile)) || bwaIndexImageFile.isEmpty())
         {
             throw new RuntimeException("Reference genome file is missing or empty");
         }
 
-        BwaMemIndex index = new BwaMemIndex(bwaIndexImageFile);
+        return new BwaMemIndex(bwaIndexImageFile);
+    }
+
+    // Multiple aligners may share one index.
+    public static BwaMemAligner createBwaMemAligner(BwaMemIndex index, int threads)
+    {
         BwaMemAligner aligner = new BwaMemAligner(index);
 
         aligner.setNThreadsOption(threads);
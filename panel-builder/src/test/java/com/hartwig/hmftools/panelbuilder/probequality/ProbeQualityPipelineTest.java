@@ -0,0 +1,111 @@
+package com.hartwig.hmftools.panelbuilder.probequality;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import org.junit.Test;
+
+public class ProbeQualityPipelineTest
+{
+    @Test
+    public void testChunksWrittenInOrder()
+    {
+        // Workers take different amounts of time so chunks complete out of order.
+        List<Function<List<byte[]>, List<ProbeQualityModel.Result>>> scorers = List.of(
+                sequences -> score(sequences, 5),
+                sequences -> score(sequences, 0),
+                sequences -> score(sequences, 2));
+
+        List<ProbeQualityPipeline.ScoredChunk> written = new ArrayList<>();
+        new ProbeQualityPipeline(scorers).run(createBatches(20), 3, written::add);
+
+        assertEquals(20, written.size());
+        for(int i = 0; i < written.size(); ++i)
+        {
+            ProbeQualityPipeline.ScoredChunk chunk = written.get(i);
+            assertEquals(i + 3, chunk.index());
+            assertEquals(3, chunk.totalWindows());
+            // The window with denormal bases is skipped.
+            assertEquals(2, chunk.windows().size());
+            assertEquals(2, chunk.results().size());
+            assertEquals(i * 100 + 1, chunk.windows().get(0).region().start());
+            for(int j = 0; j < chunk.windows().size(); ++j)
+            {
+                assertEquals(chunk.windows().get(j).sequence().length, chunk.results().get(j).riskScore());
+            }
+        }
+    }
+
+    @Test
+    public void testChunksInFlightBounded()
+    {
+        // The first chunk is delayed, so without a bound the other workers would score all later chunks while it is held up.
+        AtomicBoolean firstCall = new AtomicBoolean(true);
+        List<Function<List<byte[]>, List<ProbeQualityModel.Result>>> scorers = List.of(
+                sequences -> score(sequences, firstCall.getAndSet(false) ? 500 : 0),
+                sequences -> score(sequences, 0),
+                sequences -> score(sequences, 0));
+
+        AtomicInteger generated = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        Stream<List<BaseWindowGenerator.BaseWindow>> batches = createBatches(50).peek(batch ->
+                maxInFlight.accumulateAndGet(generated.incrementAndGet() - written.get(), Math::max));
+
+        new ProbeQualityPipeline(scorers).run(batches, 0, chunk -> written.incrementAndGet());
+
+        assertEquals(50, written.get());
+        assertTrue(maxInFlight.get() <= scorers.size() * ProbeQualityPipeline.MAX_CHUNKS_IN_FLIGHT_PER_SCORER);
+    }
+
+    @Test
+    public void testStageFailure()
+    {
+        List<Function<List<byte[]>, List<ProbeQualityModel.Result>>> scorers = List.of(sequences ->
+        {
+            throw new IllegalStateException("alignment failed");
+        });
+
+        assertThrows(RuntimeException.class, () -> new ProbeQualityPipeline(scorers).run(createBatches(5), 0, chunk -> {}));
+    }
+
+    private static Stream<List<BaseWindowGenerator.BaseWindow>> createBatches(int count)
+    {
+        return IntStream.range(0, count).mapToObj(i -> List.of(
+                createWindow(i * 100 + 1, "ACGT".repeat(i + 1)),
+                createWindow(i * 100 + 11, "ACNT"),
+                createWindow(i * 100 + 21, "TTGAC".repeat(i + 1))));
+    }
+
+    private static BaseWindowGenerator.BaseWindow createWindow(int start, String sequence)
+    {
+        return new BaseWindowGenerator.BaseWindow(new ChrBaseRegion("1", start, start + sequence.length() - 1), sequence.getBytes());
+    }
+
+    private static List<ProbeQualityModel.Result> score(List<byte[]> sequences, long delayMs)
+    {
+        try
+        {
+            Thread.sleep(delayMs);
+        }
+        catch(InterruptedException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return sequences.stream()
+                .map(sequence -> new ProbeQualityModel.Result(1, sequence.length, 0, 0))
+                .toList();
+    }
+}
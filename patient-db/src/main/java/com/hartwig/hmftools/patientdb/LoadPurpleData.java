@@ -62,6 +62,7 @@ public class LoadPurpleData
 
     private static final String SOMATIC_ONLY = "somatic_only";
     private static final String GERMLINE_ONLY = "germline_only";
+    private static final String BULK_LOAD = "bulk_load";
 
     public static void main(@NotNull String[] args)
     {
@@ -101,6 +102,9 @@ public class LoadPurpleData
                 System.exit(1);
             }
 
+            if(configBuilder.hasFlag(BULK_LOAD))
+                dbAccess.setBulkLoad(true);
+
             boolean loadGermline = !configBuilder.hasFlag(SOMATIC_ONLY);
             boolean loadSomatic = !configBuilder.hasFlag(GERMLINE_ONLY);
 
@@ -279,6 +283,7 @@ public class LoadPurpleData
         configBuilder.addConfigItem(PURPLE_DIR_CFG, true, PURPLE_DIR_DESC);
         configBuilder.addFlag(SOMATIC_ONLY, "Only load somatic data");
         configBuilder.addFlag(GERMLINE_ONLY, "Only load germline data");
+        configBuilder.addFlag(BULK_LOAD, "Load somatic variants, copy numbers and SVs via LOAD DATA, requires allowLoadLocalInfile=true in DB URL");
         addDatabaseCmdLineArgs(configBuilder, true);
         ConfigUtils.addLoggingOptions(configBuilder);
     }
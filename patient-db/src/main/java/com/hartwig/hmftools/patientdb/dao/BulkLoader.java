@@ -0,0 +1,214 @@
+package com.hartwig.hmftools.patientdb.dao;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static com.hartwig.hmftools.patientdb.dao.DatabaseUtil.DB_BATCH_INSERT_SIZE;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStepN;
+import org.jooq.Record;
+import org.jooq.Table;
+
+// streams rows into a table with 'LOAD DATA LOCAL INFILE', which is considerably faster than multi-row inserts for large tables
+// requires 'allowLoadLocalInfile=true' on the connection URL and 'local_infile' enabled on the server - if either is not set,
+// rows are written with multi-row inserts instead, and the loader stays on inserts for the rest of its use
+public class BulkLoader<R extends Record>
+{
+    private final DSLContext mContext;
+    private final Table<R> mTable;
+    private final List<Field<?>> mFields;
+    private final List<Object[]> mRows;
+
+    private boolean mLoadDataAvailable;
+
+    private static final Logger LOGGER = LogManager.getLogger(BulkLoader.class);
+
+    public static final int BULK_LOAD_BATCH_SIZE = 100000;
+
+    private static final String NULL_VALUE = "\\N";
+
+    public BulkLoader(final DSLContext context, final Table<R> table, final List<Field<?>> fields)
+    {
+        mContext = context;
+        mTable = table;
+        mFields = fields;
+        mRows = Lists.newArrayList();
+        mLoadDataAvailable = true;
+    }
+
+    public void values(final Object... values)
+    {
+        if(values.length != mFields.size())
+        {
+            throw new IllegalArgumentException(String.format("table(%s) expected %d values, received %d",
+                    mTable.getName(), mFields.size(), values.length));
+        }
+
+        mRows.add(values);
+    }
+
+    public int rowCount() { return mRows.size(); }
+
+    public void execute()
+    {
+        if(mRows.isEmpty())
+            return;
+
+        if(!mLoadDataAvailable || !loadData())
+            insertRows();
+
+        mRows.clear();
+    }
+
+    private boolean loadData()
+    {
+        byte[] rowData = formRowData();
+
+        try
+        {
+            mContext.connection(connection ->
+            {
+                try(Statement statement = connection.createStatement())
+                {
+                    // the driver reads from the stream rather than the named file
+                    statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(new ByteArrayInputStream(rowData));
+                    statement.execute(loadDataSql());
+                }
+            });
+
+            return true;
+        }
+        catch(Exception e)
+        {
+            if(!isLocalInfileUnavailable(e))
+                throw e;
+
+            LOGGER.warn("LOAD DATA LOCAL INFILE unavailable, using batch inserts: {}", e.getMessage());
+            mLoadDataAvailable = false;
+            return false;
+        }
+    }
+
+    private static boolean isLocalInfileUnavailable(final Exception e)
+    {
+        for(Throwable cause = e; cause != null; cause = cause.getCause())
+        {
+            if(cause instanceof SQLException && cause.getMessage() != null)
+            {
+                String message = cause.getMessage().toLowerCase();
+
+                if(message.contains("local infile") || message.contains("local data") || message.contains("loading local data"))
+                    return true;
+            }
+
+            if(cause instanceof ClassCastException || cause instanceof UnsupportedOperationException)
+                return true;
+        }
+
+        return false;
+    }
+
+    private void insertRows()
+    {
+        // batched as for other multi-row inserts to keep each statement within the server's packet limit
+        for(List<Object[]> batch : Iterables.partition(mRows, DB_BATCH_INSERT_SIZE))
+        {
+            InsertValuesStepN<R> inserter = mContext.insertInto(mTable, mFields);
+
+            for(Object[] row : batch)
+            {
+                Object[] values = new Object[row.length];
+
+                for(int i = 0; i < row.length; ++i)
+                {
+                    values[i] = row[i] instanceof Optional ? ((Optional<?>)row[i]).orElse(null) : row[i];
+                }
+
+                inserter.values(values);
+            }
+
+            inserter.execute();
+        }
+    }
+
+    private String loadDataSql()
+    {
+        StringJoiner columns = new StringJoiner(",", "(", ")");
+        mFields.forEach(x -> columns.add(mContext.render(x.getUnqualifiedName())));
+
+        return String.format("LOAD DATA LOCAL INFILE 'rows.tsv' INTO TABLE %s CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' %s",
+                mContext.render(mTable), columns);
+    }
+
+    private byte[] formRowData()
+    {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(mRows.size() * mFields.size() * 8);
+        StringBuilder sb = new StringBuilder();
+
+        for(Object[] row : mRows)
+        {
+            sb.setLength(0);
+
+            for(int i = 0; i < row.length; ++i)
+            {
+                if(i > 0)
+                    sb.append('\t');
+
+                appendValue(sb, row[i]);
+            }
+
+            sb.append('\n');
+            outputStream.writeBytes(sb.toString().getBytes(UTF_8));
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    private static void appendValue(final StringBuilder sb, final Object value)
+    {
+        Object rawValue = value instanceof Optional ? ((Optional<?>)value).orElse(null) : value;
+
+        if(rawValue == null)
+        {
+            sb.append(NULL_VALUE);
+        }
+        else if(rawValue instanceof Boolean)
+        {
+            sb.append((Boolean)rawValue ? '1' : '0');
+        }
+        else
+        {
+            String str = rawValue.toString();
+
+            for(int i = 0; i < str.length(); ++i)
+            {
+                char c = str.charAt(i);
+
+                switch(c)
+                {
+                    case '\\': sb.append("\\\\"); break;
+                    case '\t': sb.append("\\t"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    default: sb.append(c);
+                }
+            }
+        }
+    }
+}
@@ -14,20 +14,51 @@ import com.hartwig.hmftools.common.purple.CopyNumberMethod;
 import com.hartwig.hmftools.common.purple.ImmutablePurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.SegmentSupport;
+import com.hartwig.hmftools.patientdb.database.hmfpatients.tables.records.CopynumberRecord;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
-import org.jooq.InsertValuesStep18;
+import org.jooq.Field;
+import org.jooq.InsertValuesStepN;
 import org.jooq.Record;
 import org.jooq.Result;
 
 class CopyNumberDAO
 {
     private final DSLContext context;
+    @Nullable
+    private BulkLoader<CopynumberRecord> mBulkLoader;
+
+    private static final List<Field<?>> COPY_NUMBER_FIELDS = List.of(
+            COPYNUMBER.SAMPLEID,
+            COPYNUMBER.CHROMOSOME,
+            COPYNUMBER.START,
+            COPYNUMBER.END,
+            COPYNUMBER.COPYNUMBERMETHOD,
+            COPYNUMBER.SEGMENTSTARTSUPPORT,
+            COPYNUMBER.SEGMENTENDSUPPORT,
+            COPYNUMBER.BAFCOUNT,
+            COPYNUMBER.OBSERVEDBAF,
+            COPYNUMBER.BAF,
+            COPYNUMBER.COPYNUMBER_,
+            COPYNUMBER.MINORALLELECOPYNUMBER,
+            COPYNUMBER.MAJORALLELECOPYNUMBER,
+            COPYNUMBER.DEPTHWINDOWCOUNT,
+            COPYNUMBER.GCCONTENT,
+            COPYNUMBER.MINSTART,
+            COPYNUMBER.MAXSTART,
+            COPYNUMBER.MODIFIED);
 
     CopyNumberDAO(final DSLContext context)
     {
         this.context = context;
+        mBulkLoader = null;
+    }
+
+    void setBulkLoad(boolean bulkLoad)
+    {
+        mBulkLoader = bulkLoad ? new BulkLoader<>(context, COPYNUMBER, COPY_NUMBER_FIELDS) : null;
     }
 
     public List<PurpleCopyNumber> read(final String sample)
@@ -65,36 +96,24 @@ class CopyNumberDAO
         Timestamp timestamp = new Timestamp(new Date().getTime());
         context.delete(COPYNUMBER).where(COPYNUMBER.SAMPLEID.eq(sample)).execute();
 
+        if(mBulkLoader != null)
+        {
+            copyNumbers.forEach(x -> mBulkLoader.values(copyNumberValues(timestamp, sample, x)));
+            mBulkLoader.execute();
+            return;
+        }
+
         for(List<PurpleCopyNumber> splitCopyNumbers : Iterables.partition(copyNumbers, DB_BATCH_INSERT_SIZE))
         {
-            InsertValuesStep18 inserter = context.insertInto(COPYNUMBER,
-                    COPYNUMBER.SAMPLEID,
-                    COPYNUMBER.CHROMOSOME,
-                    COPYNUMBER.START,
-                    COPYNUMBER.END,
-                    COPYNUMBER.COPYNUMBERMETHOD,
-                    COPYNUMBER.SEGMENTSTARTSUPPORT,
-                    COPYNUMBER.SEGMENTENDSUPPORT,
-                    COPYNUMBER.BAFCOUNT,
-                    COPYNUMBER.OBSERVEDBAF,
-                    COPYNUMBER.BAF,
-                    COPYNUMBER.COPYNUMBER_,
-                    COPYNUMBER.MINORALLELECOPYNUMBER,
-                    COPYNUMBER.MAJORALLELECOPYNUMBER,
-                    COPYNUMBER.DEPTHWINDOWCOUNT,
-                    COPYNUMBER.GCCONTENT,
-                    COPYNUMBER.MINSTART,
-                    COPYNUMBER.MAXSTART,
-                    COPYNUMBER.MODIFIED);
-            splitCopyNumbers.forEach(x -> addCopynumberRecord(timestamp, inserter, sample, x));
+            InsertValuesStepN<CopynumberRecord> inserter = context.insertInto(COPYNUMBER, COPY_NUMBER_FIELDS);
+            splitCopyNumbers.forEach(x -> inserter.values(copyNumberValues(timestamp, sample, x)));
             inserter.execute();
         }
     }
 
-    private static void addCopynumberRecord(
-            final Timestamp timestamp, final InsertValuesStep18 inserter, final String sample, final PurpleCopyNumber region)
+    private static Object[] copyNumberValues(final Timestamp timestamp, final String sample, final PurpleCopyNumber region)
     {
-        inserter.values(sample,
+        return new Object[] { sample,
                 region.chromosome(),
                 region.start(),
                 region.end(),
@@ -111,7 +130,7 @@ class CopyNumberDAO
                 DatabaseUtil.decimal(region.gcContent()),
                 region.minStart(),
                 region.maxStart(),
-                timestamp);
+                timestamp };
     }
 
     void deleteCopyNumberForSample(final String sample)
@@ -164,6 +164,14 @@ public class DatabaseAccess implements AutoCloseable
         this.tealDAO = new TealDAO(context);
     }
 
+    // stream large tables via 'LOAD DATA LOCAL INFILE' where the connection and server allow it
+    public void setBulkLoad(boolean bulkLoad)
+    {
+        somaticVariantDAO.setBulkLoad(bulkLoad);
+        copyNumberDAO.setBulkLoad(bulkLoad);
+        structuralVariantDAO.setBulkLoad(bulkLoad);
+    }
+
     public static void addDatabaseCmdLineArgs(final ConfigBuilder configBuilder, boolean isRequired)
     {
         configBuilder.addConfigItem(DB_USER, isRequired, DB_USER_DESC);
@@ -4,6 +4,7 @@ import static java.lang.String.format;
 
 import static com.hartwig.hmftools.common.genotype.GenotypeStatus.UNKNOWN;
 import static com.hartwig.hmftools.common.variant.SageVcfTags.localPhaseSetsStringToList;
+import static com.hartwig.hmftools.patientdb.dao.BulkLoader.BULK_LOAD_BATCH_SIZE;
 import static com.hartwig.hmftools.patientdb.dao.DatabaseUtil.byteToBoolean;
 import static com.hartwig.hmftools.patientdb.dao.DatabaseUtil.checkStringLength;
 import static com.hartwig.hmftools.patientdb.dao.GermlineVariantDAO.checkTrimHgsvString;
@@ -27,7 +28,9 @@ import com.hartwig.hmftools.patientdb.database.hmfpatients.tables.records.Somati
 
 import org.apache.logging.log4j.util.Strings;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.InsertValuesStepN;
 import org.jooq.Record;
 import org.jooq.Record1;
@@ -36,12 +39,66 @@ import org.jooq.Result;
 public class SomaticVariantDAO
 {
     private final DSLContext context;
+    @Nullable
+    private BulkLoader<SomaticvariantRecord> mBulkLoader;
 
     private static final int DB_BATCH_INSERT_SIZE = 10000;
 
+    private static final List<Field<?>> SOMATIC_VARIANT_FIELDS = List.of(
+            SOMATICVARIANT.SAMPLEID,
+            SOMATICVARIANT.CHROMOSOME,
+            SOMATICVARIANT.POSITION,
+            SOMATICVARIANT.FILTER,
+            SOMATICVARIANT.TYPE,
+            SOMATICVARIANT.REF,
+            SOMATICVARIANT.ALT,
+            SOMATICVARIANT.GENE,
+            SOMATICVARIANT.GENESAFFECTED,
+            SOMATICVARIANT.REPORTED,
+            SOMATICVARIANT.WORSTCODINGEFFECT,
+            SOMATICVARIANT.CANONICALEFFECT,
+            SOMATICVARIANT.CANONICALCODINGEFFECT,
+            SOMATICVARIANT.CANONICALHGVSCODINGIMPACT,
+            SOMATICVARIANT.CANONICALHGVSPROTEINIMPACT,
+            SOMATICVARIANT.SPLICEREGION,
+            SOMATICVARIANT.OTHERTRANSCRIPTEFFECTS,
+            SOMATICVARIANT.ALLELEREADCOUNT,
+            SOMATICVARIANT.TOTALREADCOUNT,
+            SOMATICVARIANT.COPYNUMBER,
+            SOMATICVARIANT.ADJUSTEDVAF,
+            SOMATICVARIANT.VARIANTCOPYNUMBER,
+            SOMATICVARIANT.TRINUCLEOTIDECONTEXT,
+            SOMATICVARIANT.MICROHOMOLOGY,
+            SOMATICVARIANT.REPEATSEQUENCE,
+            SOMATICVARIANT.REPEATCOUNT,
+            SOMATICVARIANT.SUBCLONALLIKELIHOOD,
+            SOMATICVARIANT.BIALLELIC,
+            SOMATICVARIANT.HOTSPOT,
+            SOMATICVARIANT.MAPPABILITY,
+            SOMATICVARIANT.GERMLINESTATUS,
+            SOMATICVARIANT.MINORALLELECOPYNUMBER,
+            SOMATICVARIANT.KATAEGIS,
+            SOMATICVARIANT.TIER,
+            SOMATICVARIANT.REFERENCEALLELEREADCOUNT,
+            SOMATICVARIANT.REFERENCETOTALREADCOUNT,
+            SOMATICVARIANT.RNAALLELEREADCOUNT,
+            SOMATICVARIANT.RNATOTALREADCOUNT,
+            SOMATICVARIANT.QUAL,
+            SOMATICVARIANT.LOCALPHASESET,
+            SOMATICVARIANT.CLINVARINFO,
+            SOMATICVARIANT.GNOMADFREQUENCY,
+            SOMATICVARIANT.SOMATICLIKELIHOOD,
+            SOMATICVARIANT.MODIFIED);
+
     SomaticVariantDAO(final DSLContext context)
     {
         this.context = context;
+        mBulkLoader = null;
+    }
+
+    void setBulkLoad(boolean bulkLoad)
+    {
+        mBulkLoader = bulkLoad ? new BulkLoader<>(context, SOMATICVARIANT, SOMATIC_VARIANT_FIELDS) : null;
     }
 
     public BufferedWriter<SmallVariant> writer(final String tumorSample)
@@ -61,7 +118,7 @@ public class SomaticVariantDAO
             }
         };
 
-        return new BufferedWriter<>(consumer, DB_BATCH_INSERT_SIZE);
+        return new BufferedWriter<>(consumer, mBulkLoader != null ? BULK_LOAD_BATCH_SIZE : DB_BATCH_INSERT_SIZE);
     }
 
     public List<SmallVariant> read(final String sample, final VariantType type)
@@ -154,57 +211,19 @@ public class SomaticVariantDAO
 
     private void writeAll(final Timestamp timestamp, final String sample, final List<SmallVariant> variants)
     {
-        final InsertValuesStepN<SomaticvariantRecord> inserter = context.insertInto(SOMATICVARIANT,
-                SOMATICVARIANT.SAMPLEID,
-                SOMATICVARIANT.CHROMOSOME,
-                SOMATICVARIANT.POSITION,
-                SOMATICVARIANT.FILTER,
-                SOMATICVARIANT.TYPE,
-                SOMATICVARIANT.REF,
-                SOMATICVARIANT.ALT,
-                SOMATICVARIANT.GENE,
-                SOMATICVARIANT.GENESAFFECTED,
-                SOMATICVARIANT.REPORTED,
-                SOMATICVARIANT.WORSTCODINGEFFECT,
-                SOMATICVARIANT.CANONICALEFFECT,
-                SOMATICVARIANT.CANONICALCODINGEFFECT,
-                SOMATICVARIANT.CANONICALHGVSCODINGIMPACT,
-                SOMATICVARIANT.CANONICALHGVSPROTEINIMPACT,
-                SOMATICVARIANT.SPLICEREGION,
-                SOMATICVARIANT.OTHERTRANSCRIPTEFFECTS,
-                SOMATICVARIANT.ALLELEREADCOUNT,
-                SOMATICVARIANT.TOTALREADCOUNT,
-                SOMATICVARIANT.COPYNUMBER,
-                SOMATICVARIANT.ADJUSTEDVAF,
-                SOMATICVARIANT.VARIANTCOPYNUMBER,
-                SOMATICVARIANT.TRINUCLEOTIDECONTEXT,
-                SOMATICVARIANT.MICROHOMOLOGY,
-                SOMATICVARIANT.REPEATSEQUENCE,
-                SOMATICVARIANT.REPEATCOUNT,
-                SOMATICVARIANT.SUBCLONALLIKELIHOOD,
-                SOMATICVARIANT.BIALLELIC,
-                SOMATICVARIANT.HOTSPOT,
-                SOMATICVARIANT.MAPPABILITY,
-                SOMATICVARIANT.GERMLINESTATUS,
-                SOMATICVARIANT.MINORALLELECOPYNUMBER,
-                SOMATICVARIANT.KATAEGIS,
-                SOMATICVARIANT.TIER,
-                SOMATICVARIANT.REFERENCEALLELEREADCOUNT,
-                SOMATICVARIANT.REFERENCETOTALREADCOUNT,
-                SOMATICVARIANT.RNAALLELEREADCOUNT,
-                SOMATICVARIANT.RNATOTALREADCOUNT,
-                SOMATICVARIANT.QUAL,
-                SOMATICVARIANT.LOCALPHASESET,
-                SOMATICVARIANT.CLINVARINFO,
-                SOMATICVARIANT.GNOMADFREQUENCY,
-                SOMATICVARIANT.SOMATICLIKELIHOOD,
-                SOMATICVARIANT.MODIFIED);
-        variants.forEach(variant -> addRecord(timestamp, inserter, sample, variant));
+        if(mBulkLoader != null)
+        {
+            variants.forEach(variant -> mBulkLoader.values(recordValues(timestamp, sample, variant)));
+            mBulkLoader.execute();
+            return;
+        }
+
+        final InsertValuesStepN<SomaticvariantRecord> inserter = context.insertInto(SOMATICVARIANT, SOMATIC_VARIANT_FIELDS);
+        variants.forEach(variant -> inserter.values(recordValues(timestamp, sample, variant)));
         inserter.execute();
     }
 
-    private static void addRecord(
-            final Timestamp timestamp, final InsertValuesStepN<SomaticvariantRecord> inserter, final String sample, final SmallVariant variant)
+    private static Object[] recordValues(final Timestamp timestamp, final String sample, final SmallVariant variant)
     {
         // append reportable status for each transcript where non-canonical may be reportable
         String otherReportedEffects = variant.otherReportedEffects();
@@ -225,7 +244,7 @@ public class SomaticVariantDAO
                 otherReportedEffects = otherReportedEffects + ";CANONICAL_NOT_REPORTED";
         }
 
-        inserter.values(sample,
+        return new Object[] { sample,
                 variant.chromosome(),
                 variant.position(),
                 variant.filter(),
@@ -268,7 +287,7 @@ public class SomaticVariantDAO
                 variant.clinvarInfo(),
                 variant.gnomadFrequency(),
                 variant.somaticLikelihood() == SomaticLikelihood.UNKNOWN ? Strings.EMPTY : variant.somaticLikelihood().toString(),
-                timestamp);
+                timestamp };
     }
 
     void deleteSomaticVariantForSample(String sample)
@@ -17,8 +17,11 @@ import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.sv.ImmutableStructuralVariantData;
 import com.hartwig.hmftools.common.sv.StructuralVariantData;
 import com.hartwig.hmftools.common.sv.StructuralVariantType;
+import com.hartwig.hmftools.patientdb.database.hmfpatients.tables.records.StructuralvariantRecord;
 
+import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.InsertValuesStepN;
 import org.jooq.Record;
 import org.jooq.Result;
@@ -28,10 +31,69 @@ class StructuralVariantDAO
     private static final int MAX_LINKED_BY = 1024;
 
     private final DSLContext context;
+    @Nullable
+    private BulkLoader<StructuralvariantRecord> mBulkLoader;
+
+    private static final List<Field<?>> STRUCTURAL_VARIANT_FIELDS = List.of(
+            STRUCTURALVARIANT.SAMPLEID,
+            STRUCTURALVARIANT.SVID,
+            STRUCTURALVARIANT.STARTCHROMOSOME,
+            STRUCTURALVARIANT.ENDCHROMOSOME,
+            STRUCTURALVARIANT.STARTPOSITION,
+            STRUCTURALVARIANT.ENDPOSITION,
+            STRUCTURALVARIANT.STARTORIENTATION,
+            STRUCTURALVARIANT.ENDORIENTATION,
+            STRUCTURALVARIANT.STARTHOMOLOGYSEQUENCE,
+            STRUCTURALVARIANT.ENDHOMOLOGYSEQUENCE,
+            STRUCTURALVARIANT.INSERTSEQUENCE,
+            STRUCTURALVARIANT.TYPE,
+            STRUCTURALVARIANT.STARTAF,
+            STRUCTURALVARIANT.ADJUSTEDAFSTART,
+            STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERSTART,
+            STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERCHANGESTART,
+            STRUCTURALVARIANT.ENDAF,
+            STRUCTURALVARIANT.ADJUSTEDAFEND,
+            STRUCTURALVARIANT.ADJUSTEDCOPYNUMBEREND,
+            STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERCHANGEEND,
+            STRUCTURALVARIANT.JUNCTIONCOPYNUMBER,
+            STRUCTURALVARIANT.FILTER,
+            STRUCTURALVARIANT.QUALSCORE,
+            STRUCTURALVARIANT.EVENT,
+            STRUCTURALVARIANT.STARTTUMORVARIANTFRAGMENTCOUNT,
+            STRUCTURALVARIANT.STARTTUMORREFERENCEFRAGMENTCOUNT,
+            STRUCTURALVARIANT.STARTNORMALVARIANTFRAGMENTCOUNT,
+            STRUCTURALVARIANT.STARTNORMALREFERENCEFRAGMENTCOUNT,
+            STRUCTURALVARIANT.ENDTUMORVARIANTFRAGMENTCOUNT,
+            STRUCTURALVARIANT.ENDTUMORREFERENCEFRAGMENTCOUNT,
+            STRUCTURALVARIANT.ENDNORMALVARIANTFRAGMENTCOUNT,
+            STRUCTURALVARIANT.ENDNORMALREFERENCEFRAGMENTCOUNT,
+            STRUCTURALVARIANT.STARTINTERVALOFFSETSTART,
+            STRUCTURALVARIANT.STARTINTERVALOFFSETEND,
+            STRUCTURALVARIANT.ENDINTERVALOFFSETSTART,
+            STRUCTURALVARIANT.ENDINTERVALOFFSETEND,
+            STRUCTURALVARIANT.INEXACTHOMOLOGYOFFSETSTART,
+            STRUCTURALVARIANT.INEXACTHOMOLOGYOFFSETEND,
+            STRUCTURALVARIANT.VCFID,
+            STRUCTURALVARIANT.STARTLINKEDBY,
+            STRUCTURALVARIANT.ENDLINKEDBY,
+            STRUCTURALVARIANT.INSERTSEQUENCEALIGNMENTS,
+            STRUCTURALVARIANT.INSERTSEQUENCEREPEATCLASS,
+            STRUCTURALVARIANT.INSERTSEQUENCEREPEATTYPE,
+            STRUCTURALVARIANT.INSERTSEQUENCEREPEATORIENTATION,
+            STRUCTURALVARIANT.INSERTSEQUENCEREPEATCOVERAGE,
+            STRUCTURALVARIANT.STARTANCHORINGSUPPORTDISTANCE,
+            STRUCTURALVARIANT.ENDANCHORINGSUPPORTDISTANCE,
+            STRUCTURALVARIANT.MODIFIED);
 
     StructuralVariantDAO(final DSLContext context)
     {
         this.context = context;
+        mBulkLoader = null;
+    }
+
+    void setBulkLoad(boolean bulkLoad)
+    {
+        mBulkLoader = bulkLoad ? new BulkLoader<>(context, STRUCTURALVARIANT, STRUCTURAL_VARIANT_FIELDS) : null;
     }
 
     public List<StructuralVariantData> read(final String sample)
@@ -125,69 +187,26 @@ class StructuralVariantDAO
 
         deleteStructuralVariantsForSample(sample);
 
+        if(mBulkLoader != null)
+        {
+            variants.forEach(entry -> mBulkLoader.values(recordValues(timestamp, sample, entry)));
+            mBulkLoader.execute();
+            return;
+        }
+
         for(List<StructuralVariantData> batch : Iterables.partition(variants, DB_BATCH_INSERT_SIZE))
         {
-            InsertValuesStepN inserter = context.insertInto(STRUCTURALVARIANT,
-                    STRUCTURALVARIANT.SAMPLEID,
-                    STRUCTURALVARIANT.SVID,
-                    STRUCTURALVARIANT.STARTCHROMOSOME,
-                    STRUCTURALVARIANT.ENDCHROMOSOME,
-                    STRUCTURALVARIANT.STARTPOSITION,
-                    STRUCTURALVARIANT.ENDPOSITION,
-                    STRUCTURALVARIANT.STARTORIENTATION,
-                    STRUCTURALVARIANT.ENDORIENTATION,
-                    STRUCTURALVARIANT.STARTHOMOLOGYSEQUENCE,
-                    STRUCTURALVARIANT.ENDHOMOLOGYSEQUENCE,
-                    STRUCTURALVARIANT.INSERTSEQUENCE,
-                    STRUCTURALVARIANT.TYPE,
-                    STRUCTURALVARIANT.STARTAF,
-                    STRUCTURALVARIANT.ADJUSTEDAFSTART,
-                    STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERSTART,
-                    STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERCHANGESTART,
-                    STRUCTURALVARIANT.ENDAF,
-                    STRUCTURALVARIANT.ADJUSTEDAFEND,
-                    STRUCTURALVARIANT.ADJUSTEDCOPYNUMBEREND,
-                    STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERCHANGEEND,
-                    STRUCTURALVARIANT.JUNCTIONCOPYNUMBER,
-                    STRUCTURALVARIANT.FILTER,
-                    STRUCTURALVARIANT.QUALSCORE,
-                    STRUCTURALVARIANT.EVENT,
-                    STRUCTURALVARIANT.STARTTUMORVARIANTFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.STARTTUMORREFERENCEFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.STARTNORMALVARIANTFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.STARTNORMALREFERENCEFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.ENDTUMORVARIANTFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.ENDTUMORREFERENCEFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.ENDNORMALVARIANTFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.ENDNORMALREFERENCEFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.STARTINTERVALOFFSETSTART,
-                    STRUCTURALVARIANT.STARTINTERVALOFFSETEND,
-                    STRUCTURALVARIANT.ENDINTERVALOFFSETSTART,
-                    STRUCTURALVARIANT.ENDINTERVALOFFSETEND,
-                    STRUCTURALVARIANT.INEXACTHOMOLOGYOFFSETSTART,
-                    STRUCTURALVARIANT.INEXACTHOMOLOGYOFFSETEND,
-                    STRUCTURALVARIANT.VCFID,
-                    STRUCTURALVARIANT.STARTLINKEDBY,
-                    STRUCTURALVARIANT.ENDLINKEDBY,
-                    STRUCTURALVARIANT.INSERTSEQUENCEALIGNMENTS,
-                    STRUCTURALVARIANT.INSERTSEQUENCEREPEATCLASS,
-                    STRUCTURALVARIANT.INSERTSEQUENCEREPEATTYPE,
-                    STRUCTURALVARIANT.INSERTSEQUENCEREPEATORIENTATION,
-                    STRUCTURALVARIANT.INSERTSEQUENCEREPEATCOVERAGE,
-                    STRUCTURALVARIANT.STARTANCHORINGSUPPORTDISTANCE,
-                    STRUCTURALVARIANT.ENDANCHORINGSUPPORTDISTANCE,
-                    STRUCTURALVARIANT.MODIFIED);
-            batch.forEach(entry -> addRecord(timestamp, inserter, sample, entry));
+            InsertValuesStepN<StructuralvariantRecord> inserter = context.insertInto(STRUCTURALVARIANT, STRUCTURAL_VARIANT_FIELDS);
+            batch.forEach(entry -> inserter.values(recordValues(timestamp, sample, entry)));
             inserter.execute();
         }
     }
 
-    private static void addRecord(final Timestamp timestamp, final InsertValuesStepN inserter, final String sample,
-            final StructuralVariantData variant)
+    private static Object[] recordValues(final Timestamp timestamp, final String sample, final StructuralVariantData variant)
     {
         boolean isSingle = variant.type() == SGL;
 
-        inserter.values(sample,
+        return new Object[] { sample,
                 variant.id(),
                 variant.startChromosome(),
                 isSingle ? null : variant.endChromosome(),
@@ -236,7 +255,7 @@ class StructuralVariantDAO
                 variant.insertSequenceRepeatCoverage(),
                 variant.startAnchoringSupportDistance(),
                 isSingle ? 0 : variant.endAnchoringSupportDistance(),
-                timestamp);
+                timestamp };
     }
 
     void deleteStructuralVariantsForSample(final String sample)
@@ -0,0 +1,82 @@
+package com.hartwig.hmftools.patientdb;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.CopyNumberMethod;
+import com.hartwig.hmftools.common.purple.ImmutablePurpleCopyNumber;
+import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
+import com.hartwig.hmftools.common.purple.SegmentSupport;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+// compares batch inserts against LOAD DATA bulk loading, logging throughput for each - requires Docker
+@Ignore
+public class BulkLoadBenchmarkTest extends DatabaseTestBase
+{
+    private static final String INSERT_SAMPLE_ID = "insert_sample";
+    private static final String BULK_SAMPLE_ID = "bulk_sample";
+    private static final int RECORD_COUNT = 200000;
+
+    @Test
+    public void testCopyNumberLoadThroughput()
+    {
+        List<PurpleCopyNumber> copyNumbers = createCopyNumbers(RECORD_COUNT);
+
+        databaseAccess.setBulkLoad(false);
+        long startTime = System.currentTimeMillis();
+        databaseAccess.writeCopynumbers(INSERT_SAMPLE_ID, copyNumbers);
+        long insertTime = System.currentTimeMillis() - startTime;
+
+        databaseAccess.setBulkLoad(true);
+        startTime = System.currentTimeMillis();
+        databaseAccess.writeCopynumbers(BULK_SAMPLE_ID, copyNumbers);
+        long bulkTime = System.currentTimeMillis() - startTime;
+
+        CommonUtils.LOGGER.info("copy numbers({}) insert({}ms rows/s={}) bulk load({}ms rows/s={})",
+                RECORD_COUNT, insertTime, rowsPerSecond(insertTime), bulkTime, rowsPerSecond(bulkTime));
+
+        List<PurpleCopyNumber> insertedCopyNumbers = databaseAccess.readCopynumbers(INSERT_SAMPLE_ID);
+        List<PurpleCopyNumber> bulkCopyNumbers = databaseAccess.readCopynumbers(BULK_SAMPLE_ID);
+
+        assertEquals(RECORD_COUNT, insertedCopyNumbers.size());
+        assertEquals(insertedCopyNumbers, bulkCopyNumbers);
+    }
+
+    private static long rowsPerSecond(long timeMs)
+    {
+        return timeMs > 0 ? RECORD_COUNT * 1000L / timeMs : RECORD_COUNT;
+    }
+
+    private static List<PurpleCopyNumber> createCopyNumbers(int count)
+    {
+        List<PurpleCopyNumber> copyNumbers = Lists.newArrayListWithCapacity(count);
+
+        for(int i = 0; i < count; ++i)
+        {
+            int start = i * 1000 + 1;
+
+            copyNumbers.add(ImmutablePurpleCopyNumber.builder()
+                    .chromosome("chr1")
+                    .start(start)
+                    .end(start + 999)
+                    .bafCount(i % 50)
+                    .averageActualBAF(0.5)
+                    .averageObservedBAF(0.55)
+                    .averageTumorCopyNumber(2 + (i % 7) * 0.1)
+                    .depthWindowCount(i % 100)
+                    .segmentStartSupport(SegmentSupport.NONE)
+                    .segmentEndSupport(SegmentSupport.BND)
+                    .method(CopyNumberMethod.BAF_WEIGHTED)
+                    .gcContent(0.41)
+                    .minStart(start)
+                    .maxStart(start)
+                    .build());
+        }
+
+        return copyNumbers;
+    }
+}
@@ -20,15 +20,20 @@ public abstract class DatabaseTestBase
     @BeforeClass
     public static void createDatabase() throws Exception
     {
+        // local infile is enabled on both the server and the connection so that bulk loading can be tested
         container = new MySQLContainer("mysql:8")
-                .withInitScript("generate_database.sql");
+                .withInitScript("generate_database.sql")
+                .withCommand("--local-infile=1");
 
         container.start();
 
+        String jdbcUrl = container.getJdbcUrl();
+        jdbcUrl += (jdbcUrl.contains("?") ? "&" : "?") + "allowLoadLocalInfile=true";
+
         databaseAccess = new DatabaseAccess(
                 container.getUsername(),
                 container.getPassword(),
-                container.getJdbcUrl()
+                jdbcUrl
         );
     }
 
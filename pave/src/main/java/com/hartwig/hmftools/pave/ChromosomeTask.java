@@ -10,8 +10,10 @@ import static com.hartwig.hmftools.pave.FilterType.PASS;
 import static com.hartwig.hmftools.pave.PaveConfig.PV_LOGGER;
 import static com.hartwig.hmftools.pave.PaveConfig.isSbx;
 import static com.hartwig.hmftools.pave.PaveConfig.isUltima;
+import static com.hartwig.hmftools.pave.PaveConstants.CODING_BASES_CACHE_TRANSCRIPTS;
 import static com.hartwig.hmftools.pave.PaveConstants.GNMOAD_FILTER_HOTSPOT_PATHOGENIC_THRESHOLD;
 import static com.hartwig.hmftools.pave.PaveConstants.GNMOAD_FILTER_THRESHOLD;
+import static com.hartwig.hmftools.pave.PaveConstants.MAX_PENDING_CHUNKS_PER_THREAD;
 import static com.hartwig.hmftools.pave.PaveConstants.PON_INDEL_ARTEFACT_REPEAT_COUNT;
 import static com.hartwig.hmftools.pave.PaveConstants.PON_INDEL_ARTEFACT_SBX_FACTOR;
 import static com.hartwig.hmftools.pave.PaveConstants.PON_INDEL_ARTEFACT_SBX_MIN_THRESHOLD;
@@ -22,16 +24,22 @@ import static com.hartwig.hmftools.pave.PaveConstants.PON_MEAN_READ_THRESHOLD;
 import static com.hartwig.hmftools.pave.PaveConstants.PON_REPEAT_COUNT_THRESHOLD;
 import static com.hartwig.hmftools.pave.PaveConstants.PON_SAMPLE_COUNT_THRESHOLD;
 import static com.hartwig.hmftools.pave.PaveConstants.PON_VAF_THRESHOLD;
+import static com.hartwig.hmftools.pave.PaveConstants.VARIANT_CHUNK_SIZE;
 import static com.hartwig.hmftools.pave.VariantData.NO_LOCAL_PHASE_SET;
 import static com.hartwig.hmftools.pave.annotation.PonAnnotation.PON_ARTEFACT_FILTER;
 import static com.hartwig.hmftools.pave.impact.PaveUtils.createRightAlignedVariant;
 import static com.hartwig.hmftools.pave.impact.PaveUtils.findVariantImpacts;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeCoordinates;
 import com.hartwig.hmftools.common.pathogenic.PathogenicSummaryFactory;
@@ -50,9 +58,12 @@ import com.hartwig.hmftools.pave.annotation.MappabilityChrCache;
 import com.hartwig.hmftools.pave.annotation.PonAnnotation;
 import com.hartwig.hmftools.pave.annotation.ReferenceData;
 import com.hartwig.hmftools.pave.impact.ImpactClassifier;
+import com.hartwig.hmftools.pave.impact.TranscriptCodingBasesCache;
 import com.hartwig.hmftools.pave.impact.VariantImpactBuilder;
 import com.hartwig.hmftools.pave.impact.VariantTransImpact;
 
+import org.jetbrains.annotations.Nullable;
+
 import htsjdk.tribble.CloseableTribbleIterator;
 import htsjdk.variant.variantcontext.VariantContext;
 
@@ -65,8 +76,14 @@ public class ChromosomeTask implements Callable<Void>
     private final TranscriptWriter mTranscriptWriter;
 
     private final ReferenceData mReferenceData;
-    private final ImpactClassifier mImpactClassifier;
     private final VariantImpactBuilder mImpactBuilder;
+    private final TranscriptCodingBasesCache mCodingBasesCache; // shared by this chromosome's chunks
+
+    // variants are classified in position-ordered chunks on a shared pool, and then annotated and written in order by this task
+    @Nullable
+    private final ExecutorService mChunkExecutor;
+    private final int mMaxPendingChunks;
+    private final Deque<Future<List<ClassifiedVariant>>> mPendingChunks;
 
     // local chromosome annotation caches
     private GnomadChrCache mGnomadCache;
@@ -74,11 +91,12 @@ public class ChromosomeTask implements Callable<Void>
     private MappabilityChrCache mMappability;
     private PonChrCache mStandardPon;
     private PonChrCache mArtefactsPon;
-    private final GeneCacheIndexing mGeneCacheIndexing;
+
+    private record ClassifiedVariant(VariantData Variant, VariantImpact Impact) {}
 
     public ChromosomeTask(
             final HumanChromosome chromosome, final PaveConfig config, final ReferenceData referenceData,
-            final VcfWriter vcfWriter, final TranscriptWriter transcriptWriter)
+            final VcfWriter vcfWriter, final TranscriptWriter transcriptWriter, @Nullable final ExecutorService chunkExecutor)
     {
         mChromosome = chromosome;
         mChromosomeStr = config.RefGenVersion.versionedChromosome(chromosome.toString());
@@ -88,14 +106,17 @@ public class ChromosomeTask implements Callable<Void>
         mReferenceData = referenceData;
 
         mImpactBuilder = new VariantImpactBuilder(mReferenceData.GeneDataCache);
-        mImpactClassifier = new ImpactClassifier(mReferenceData.RefGenome);
+        mCodingBasesCache = new TranscriptCodingBasesCache(mReferenceData.RefGenome, CODING_BASES_CACHE_TRANSCRIPTS);
+
+        mChunkExecutor = chunkExecutor;
+        mMaxPendingChunks = max(config.Threads, 1) * MAX_PENDING_CHUNKS_PER_THREAD;
+        mPendingChunks = new ArrayDeque<>();
 
         mGnomadCache = null;
         mClinvarCache = null;
         mMappability = null;
         mStandardPon = null;
         mArtefactsPon = null;
-        mGeneCacheIndexing = mReferenceData.GeneDataCache.createIndexing(mChromosomeStr);
     }
 
     @Override
@@ -134,6 +155,8 @@ public class ChromosomeTask implements Callable<Void>
         CloseableTribbleIterator<VariantContext> varIterator = mConfig.requireIndex() ?
                 vcfFileReader.regionIterator(chrRegion) : vcfFileReader.iterator();
 
+        List<VariantData> chunkVariants = Lists.newArrayList();
+
         for(VariantContext variantContext : varIterator)
         {
             if(mConfig.SpecificChrRegions.hasFilters())
@@ -146,16 +169,35 @@ public class ChromosomeTask implements Callable<Void>
                 }
             }
 
-            processVariant(variantContext);
             ++variantCount;
 
             if(variantCount > 0 && (variantCount % 100000) == 0)
             {
                 PV_LOGGER.debug("chr({}) processed {} variants", mChromosome, variantCount);
             }
+
+            VariantData variant = createVariant(variantContext);
+
+            if(variant == null)
+                continue;
+
+            // phased variants are reclassified together, so a chunk can only end where no local phase set continues past it
+            if(chunkVariants.size() >= VARIANT_CHUNK_SIZE && !sharesLocalPhaseSet(chunkVariants.get(chunkVariants.size() - 1), variant))
+            {
+                submitChunk(chunkVariants);
+                chunkVariants = Lists.newArrayList();
+            }
+
+            chunkVariants.add(variant);
         }
 
-        processPhasedVariants(NO_LOCAL_PHASE_SET);
+        if(!chunkVariants.isEmpty())
+            submitChunk(chunkVariants);
+
+        while(!mPendingChunks.isEmpty())
+        {
+            writeChunk(mPendingChunks.poll());
+        }
 
         PV_LOGGER.info("chr({}) complete for {} variants", mChromosome, variantCount);
 
@@ -166,19 +208,18 @@ public class ChromosomeTask implements Callable<Void>
         return null;
     }
 
-    private void processVariant(final VariantContext variantContext)
+    @Nullable
+    private VariantData createVariant(final VariantContext variantContext)
     {
         if(!HumanChromosome.contains(variantContext.getContig()))
-            return;
-
-        VariantData variant = VariantData.fromContext(variantContext);
+            return null;
 
         boolean isPass = variantContext.getFilters().isEmpty() || variantContext.getFilters().contains(PASS);
 
         if(mConfig.Filter == FilterType.PASS)
         {
             if(!isPass)
-                return;
+                return null;
         }
         else if(mConfig.Filter == PANEL)
         {
@@ -186,41 +227,103 @@ public class ChromosomeTask implements Callable<Void>
 
             // anything in the panel or passing variants
             if(tier != VariantTier.HOTSPOT && tier != VariantTier.PANEL && !isPass)
-                return;
+                return null;
         }
 
-        try
+        return VariantData.fromContext(variantContext);
+    }
+
+    private static boolean sharesLocalPhaseSet(final VariantData variant, final VariantData nextVariant)
+    {
+        return nextVariant.hasLocalPhaseSet() && nextVariant.localPhaseSet() == variant.localPhaseSet();
+    }
+
+    private void submitChunk(final List<VariantData> variants)
+    {
+        if(mChunkExecutor == null)
         {
-            variant.setRealignedVariant(createRightAlignedVariant(variant, mImpactClassifier.refGenome()));
+            writeVariants(classifyVariants(variants));
+            return;
+        }
 
-            findVariantImpacts(variant, mImpactClassifier, mReferenceData.GeneDataCache, mGeneCacheIndexing);
+        mPendingChunks.add(mChunkExecutor.submit(() -> classifyVariants(variants)));
 
-            processPhasedVariants(variant.localPhaseSet());
+        // write out completed chunks in order, which also bounds how many variants are held in memory
+        while(mPendingChunks.size() > mMaxPendingChunks)
+        {
+            writeChunk(mPendingChunks.poll());
+        }
+    }
 
-            if(!variant.hasLocalPhaseSet())
-                processVariant(variant);
+    private void writeChunk(final Future<List<ClassifiedVariant>> chunkFuture)
+    {
+        try
+        {
+            writeVariants(chunkFuture.get());
         }
         catch(Exception e)
         {
-            PV_LOGGER.error("error processing var({})", variant);
+            PV_LOGGER.error("chr({}) error classifying variants: {}", mChromosomeStr, e.toString());
             e.printStackTrace();
             System.exit(1);
         }
     }
 
-    private void processPhasedVariants(int currentLocalPhaseSet)
+    private List<ClassifiedVariant> classifyVariants(final List<VariantData> variants)
     {
-        List<VariantData> variants = mImpactClassifier.processPhasedVariants(currentLocalPhaseSet);
+        // each chunk has its own phasing state and gene search, the latter starting from the chunk's first variant
+        ImpactClassifier impactClassifier = new ImpactClassifier(mReferenceData.RefGenome, mCodingBasesCache);
+
+        GeneCacheIndexing geneCacheIndexing = mReferenceData.GeneDataCache.createIndexing(mChromosomeStr, variants.get(0).Position);
+
+        List<VariantData> classifiedVariants = Lists.newArrayListWithCapacity(variants.size());
+
+        for(VariantData variant : variants)
+        {
+            try
+            {
+                variant.setRealignedVariant(createRightAlignedVariant(variant, impactClassifier.refGenome()));
+
+                findVariantImpacts(variant, impactClassifier, mReferenceData.GeneDataCache, geneCacheIndexing);
+
+                addPhasedVariants(impactClassifier, variant.localPhaseSet(), classifiedVariants);
+
+                if(!variant.hasLocalPhaseSet())
+                    classifiedVariants.add(variant);
+            }
+            catch(Exception e)
+            {
+                PV_LOGGER.error("error processing var({})", variant);
+                e.printStackTrace();
+                System.exit(1);
+            }
+        }
+
+        addPhasedVariants(impactClassifier, NO_LOCAL_PHASE_SET, classifiedVariants);
+
+        // can be null if no impacts exist for any transcript
+        return classifiedVariants.stream().map(x -> new ClassifiedVariant(x, mImpactBuilder.createVariantImpact(x))).toList();
+    }
+
+    private static void addPhasedVariants(
+            final ImpactClassifier impactClassifier, int currentLocalPhaseSet, final List<VariantData> classifiedVariants)
+    {
+        List<VariantData> variants = impactClassifier.processPhasedVariants(currentLocalPhaseSet);
 
         if(variants != null)
-            variants.forEach(x -> processVariant(x));
+            classifiedVariants.addAll(variants);
     }
 
-    private void processVariant(final VariantData variant)
+    private void writeVariants(final List<ClassifiedVariant> classifiedVariants)
     {
-        // can be null if no impacts exist for any transcript
-        VariantImpact variantImpact = mImpactBuilder.createVariantImpact(variant);
+        for(ClassifiedVariant classifiedVariant : classifiedVariants)
+        {
+            writeVariant(classifiedVariant.Variant(), classifiedVariant.Impact());
+        }
+    }
 
+    private void writeVariant(final VariantData variant, @Nullable final VariantImpact variantImpact)
+    {
         annotateAndFilter(variant);
 
         if(mConfig.SetReportable)
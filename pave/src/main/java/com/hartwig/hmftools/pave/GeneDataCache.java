@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
@@ -34,6 +35,9 @@ public class GeneDataCache
     private final Set<String> mDriverGeneNames;
     private final Map<String,List<String>> mOtherReportableTranscripts;
 
+    // per chromosome, the furthest gene range end of each gene and all those before it, shared read-only across tasks
+    private final Map<String,int[]> mChrGeneRangeMaxEnds;
+
     public GeneDataCache(final String ensemblDir, final RefGenomeVersion refGenVersion, final String driverGeneFile)
     {
         mEnsemblDataCache = new EnsemblDataCache(ensemblDir, refGenVersion);
@@ -42,6 +46,7 @@ public class GeneDataCache
         mDriverGenes = Lists.newArrayList();
         mDriverGeneNames = Sets.newHashSet();
         mOtherReportableTranscripts = Maps.newHashMap();
+        mChrGeneRangeMaxEnds = new ConcurrentHashMap<>();
     }
 
     public EnsemblDataCache getEnsemblCache() { return mEnsemblDataCache; }
@@ -141,6 +146,51 @@ public class GeneDataCache
         return new GeneCacheIndexing(mEnsemblDataCache.getChrGeneDataMap().get(chromosome));
     }
 
+    public GeneCacheIndexing createIndexing(final String chromosome, int startPosition)
+    {
+        // start the forward search from the first gene whose range, or that of an earlier gene, could reach the position, since every
+        // gene before it would be passed over
+        GeneCacheIndexing cacheIndexing = createIndexing(chromosome);
+
+        if(cacheIndexing.ChromosomeGenes == null)
+            return cacheIndexing;
+
+        int[] rangeMaxEnds = mChrGeneRangeMaxEnds.computeIfAbsent(chromosome, k -> buildGeneRangeMaxEnds(cacheIndexing.ChromosomeGenes));
+
+        int lowerIndex = 0;
+        int upperIndex = rangeMaxEnds.length;
+
+        while(lowerIndex < upperIndex)
+        {
+            int midIndex = (lowerIndex + upperIndex) >>> 1;
+
+            if(rangeMaxEnds[midIndex] < startPosition)
+                lowerIndex = midIndex + 1;
+            else
+                upperIndex = midIndex;
+        }
+
+        cacheIndexing.CurrentPosStrandGeneIndex = lowerIndex;
+        cacheIndexing.CurrentNegStrandGeneIndex = lowerIndex;
+        return cacheIndexing;
+    }
+
+    private static int[] buildGeneRangeMaxEnds(final List<GeneData> genes)
+    {
+        int[] rangeMaxEnds = new int[genes.size()];
+        int maxEnd = 0;
+
+        for(int i = 0; i < genes.size(); ++i)
+        {
+            GeneData geneData = genes.get(i);
+            int geneRangeEnd = geneData.Strand == POS_STRAND ? geneData.GeneEnd : geneData.GeneEnd + GENE_UPSTREAM_DISTANCE;
+            maxEnd = Math.max(maxEnd, geneRangeEnd);
+            rangeMaxEnds[i] = maxEnd;
+        }
+
+        return rangeMaxEnds;
+    }
+
     public List<GeneData> findGenes(
             final String chromosome, int startPosition, int endPosition, @Nullable final GeneCacheIndexing cacheIndexing)
     {
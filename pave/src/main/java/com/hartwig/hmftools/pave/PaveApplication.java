@@ -10,6 +10,8 @@ import static com.hartwig.hmftools.pave.PaveConstants.APP_NAME;
 import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
@@ -66,6 +68,9 @@ public class PaveApplication
 
         long startTimeMs = System.currentTimeMillis();
 
+        // variant classification is spread across a shared pool so that a large chromosome is not limited to a single thread
+        ExecutorService chunkExecutor = mConfig.Threads > 1 ? Executors.newFixedThreadPool(mConfig.Threads) : null;
+
         List<ChromosomeTask> chromosomeTasks = Lists.newArrayList();
         List<String> initialRefChromosomes = Lists.newArrayList();
 
@@ -82,7 +87,8 @@ public class PaveApplication
                 }
             }
 
-            ChromosomeTask chromosomeTask = new ChromosomeTask(chromosome, mConfig, mReferenceData, mVcfWriter, mTranscriptWriter);
+            ChromosomeTask chromosomeTask = new ChromosomeTask(
+                    chromosome, mConfig, mReferenceData, mVcfWriter, mTranscriptWriter, chunkExecutor);
 
             chromosomeTasks.add(chromosomeTask);
 
@@ -103,6 +109,9 @@ public class PaveApplication
             System.exit(1);
         }
 
+        if(chunkExecutor != null)
+            chunkExecutor.shutdown();
+
         mTranscriptWriter.close();
         mVcfWriter.close();
 
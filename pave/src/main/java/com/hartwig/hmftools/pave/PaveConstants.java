@@ -35,4 +35,11 @@ public class PaveConstants
 
     public static final double GNMOAD_FILTER_HOTSPOT_PATHOGENIC_THRESHOLD = 0.01;
     public static final double GNMOAD_FILTER_THRESHOLD = 0.00015;
+
+    // variants classified as a unit of work, and the number a chromosome may have in flight
+    public static final int VARIANT_CHUNK_SIZE = 5000;
+    public static final int MAX_PENDING_CHUNKS_PER_THREAD = 2;
+
+    // transcripts whose coding bases are held per chromosome
+    public static final int CODING_BASES_CACHE_TRANSCRIPTS = 1000;
 }
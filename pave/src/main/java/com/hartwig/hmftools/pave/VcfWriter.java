@@ -12,15 +12,23 @@ import static com.hartwig.hmftools.pave.PaveConfig.PV_LOGGER;
 import static com.hartwig.hmftools.pave.PaveConstants.APP_NAME;
 import static com.hartwig.hmftools.pave.impact.PaveUtils.codonForBase;
 
+import static htsjdk.samtools.util.BlockCompressedStreamConstants.EMPTY_GZIP_BLOCK;
+
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.utils.config.VersionInfo;
 import com.hartwig.hmftools.common.variant.impact.VariantImpact;
@@ -36,8 +44,15 @@ import com.hartwig.hmftools.pave.annotation.Reportability;
 import com.hartwig.hmftools.pave.impact.ProteinContext;
 import com.hartwig.hmftools.pave.impact.VariantTransImpact;
 
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.tribble.SimpleFeature;
+import htsjdk.tribble.index.Index;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.variantcontext.writer.Options;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
 import htsjdk.variant.vcf.VCFFileReader;
@@ -49,11 +64,12 @@ import htsjdk.variant.vcf.VCFInfoHeaderLine;
 public class VcfWriter
 {
     private final VCFFileReader mHeader;
-    private final VariantContextWriter mWriter;
+    private final String mOutputVcf;
+    private final SAMSequenceDictionary mSequenceDictionary;
+    private VCFHeader mOutputHeader;
 
-    private final Map<HumanChromosome,List<VariantContext>> mChrPendingVariants;
-    private final Set<HumanChromosome> mCompleteChromosomes;
-    private HumanChromosome mCurrentChromosome;
+    // each chromosome task writes its own BGZF shard, which are then concatenated in chromosome order on close
+    private final Map<HumanChromosome,ShardWriter> mChromosomeWriters;
 
     public boolean mWriteDetailed;
 
@@ -63,23 +79,13 @@ public class VcfWriter
     public VcfWriter(final String outputVCF, final String templateVCF)
     {
         mHeader = new VCFFileReader(new File(templateVCF), false);
-
-        mWriter = new VariantContextWriterBuilder()
-                .setReferenceDictionary(mHeader.getFileHeader().getSequenceDictionary())
-                .setOutputFile(outputVCF)
-                .setOutputFileType(VariantContextWriterBuilder.OutputType.BLOCK_COMPRESSED_VCF)
-                .build();
+        mOutputVcf = outputVCF;
+        mSequenceDictionary = mHeader.getFileHeader().getSequenceDictionary();
+        mOutputHeader = null;
 
         mWriteDetailed = false;
 
-        mChrPendingVariants = Maps.newHashMap();
-        mCompleteChromosomes = Sets.newHashSet();
-        mCurrentChromosome = HumanChromosome._1;
-
-        for(HumanChromosome chromosome : HumanChromosome.values())
-        {
-            mChrPendingVariants.put(chromosome, Lists.newArrayList());
-        }
+        mChromosomeWriters = new ConcurrentHashMap<>();
     }
 
     public void writeHeader(final ReferenceData referenceData, boolean setReportability, boolean writeDetailed)
@@ -131,7 +137,7 @@ public class VcfWriter
         if(setReportability)
             Reportability.addHeader(newHeader);
 
-        mWriter.writeHeader(newHeader);
+        mOutputHeader = newHeader;
     }
 
     public VariantContext buildVariant(final VariantContext context, final VariantData variant, final VariantImpact variantImpact)
@@ -215,67 +221,240 @@ public class VcfWriter
         variantContext.getCommonInfo().putAttribute(PROTEIN_CONTEXT, sj.toString());
     }
 
-    public synchronized void onChromosomeComplete(final HumanChromosome chromosome)
+    public void onChromosomeComplete(final HumanChromosome chromosome)
+    {
+        ShardWriter writer = mChromosomeWriters.get(chromosome);
+
+        if(writer != null)
+            writer.close();
+    }
+
+    public void writeVariant(final HumanChromosome chromosome, final VariantContext variantContext)
     {
-        mCompleteChromosomes.add(chromosome);
-        writePendingVariants();
+        // each chromosome is only written to by its own task, so no synchronisation is required beyond registering the writer
+        ShardWriter writer = mChromosomeWriters.computeIfAbsent(chromosome, x -> new ShardWriter(chromosomeShardFile(x)));
+        writer.add(variantContext);
     }
 
-    public synchronized void writeVariant(final HumanChromosome chromosome, final VariantContext variantContext)
+    private String chromosomeShardFile(final HumanChromosome chromosome)
     {
-        if(mCurrentChromosome == chromosome)
+        return mOutputVcf + ".chr_" + chromosome + ".tmp";
+    }
+
+    // a chromosome's BGZF shard, recording the virtual file pointer of each variant within it so that the final VCF's tabix index
+    // can be built from the shards' offsets after concatenation rather than by decoding the output again
+    private class ShardWriter
+    {
+        public final String ShardFile;
+
+        private final BlockCompressedOutputStream mOutputStream;
+        private final VariantContextWriter mWriter;
+        private boolean mClosed;
+
+        private String mContig;
+        private int[] mStarts;
+        private int[] mEnds;
+        private long[] mFilePointers;
+        private int mCount;
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        public ShardWriter(final String shardFile)
         {
-            mWriter.add(variantContext);
-            return;
+            ShardFile = shardFile;
+
+            mOutputStream = new BlockCompressedOutputStream(new File(shardFile));
+
+            // unbuffered so each variant is written through to the BGZF stream as it is added, keeping its file pointer exact
+            mWriter = new VariantContextWriterBuilder()
+                    .setOutputVCFStream(mOutputStream)
+                    .unsetBuffering()
+                    .unsetOption(Options.INDEX_ON_THE_FLY)
+                    .build();
+
+            // data lines are encoded against the full header, which is only written once to the final VCF
+            mWriter.setHeader(mOutputHeader);
+            mClosed = false;
+
+            mContig = null;
+            mStarts = new int[INITIAL_CAPACITY];
+            mEnds = new int[INITIAL_CAPACITY];
+            mFilePointers = new long[INITIAL_CAPACITY];
+            mCount = 0;
         }
 
-        List<VariantContext> pendingVariants = mChrPendingVariants.get(chromosome);
+        public void add(final VariantContext variantContext)
+        {
+            if(mCount == mStarts.length)
+            {
+                int capacity = mCount * 2;
+                mStarts = Arrays.copyOf(mStarts, capacity);
+                mEnds = Arrays.copyOf(mEnds, capacity);
+                mFilePointers = Arrays.copyOf(mFilePointers, capacity);
+            }
+
+            if(mContig == null)
+                mContig = variantContext.getContig();
+
+            mStarts[mCount] = variantContext.getStart();
+            mEnds[mCount] = variantContext.getEnd();
+            mFilePointers[mCount] = mOutputStream.getFilePointer();
+            ++mCount;
+
+            mWriter.add(variantContext);
+        }
 
-        if(pendingVariants == null)
+        public void close()
         {
-            pendingVariants = Lists.newArrayList();
-            mChrPendingVariants.put(chromosome, pendingVariants);
+            if(mClosed)
+                return;
+
+            mWriter.close();
+            mClosed = true;
         }
 
-        pendingVariants.add(variantContext);
+        public void addToIndex(final TabixIndexCreator indexCreator, long shardOffset)
+        {
+            // a BGZF virtual pointer holds the compressed block's file offset in its upper 48 bits
+            long pointerOffset = shardOffset << 16;
+
+            for(int i = 0; i < mCount; ++i)
+            {
+                indexCreator.addFeature(new SimpleFeature(mContig, mStarts[i], mEnds[i]), pointerOffset + mFilePointers[i]);
+            }
+        }
     }
 
-    private void writePendingVariants()
+    public void close()
     {
-        boolean exitOnNext = false;
+        String headerFile = mOutputVcf + ".header.tmp";
+
+        List<String> shardFiles = Lists.newArrayList(headerFile);
+        List<ShardWriter> shardWriters = Lists.newArrayList();
 
         for(HumanChromosome chromosome : HumanChromosome.values())
         {
-            if(!mCompleteChromosomes.contains(chromosome))
+            ShardWriter shardWriter = mChromosomeWriters.get(chromosome);
+
+            if(shardWriter != null)
+            {
+                shardWriter.close();
+                shardWriters.add(shardWriter);
+                shardFiles.add(shardWriter.ShardFile);
+            }
+        }
+
+        boolean writeFailed = false;
+
+        try
+        {
+            VariantContextWriter headerWriter = new VariantContextWriterBuilder()
+                    .setOutputFile(headerFile)
+                    .setOutputFileType(VariantContextWriterBuilder.OutputType.BLOCK_COMPRESSED_VCF)
+                    .unsetOption(Options.INDEX_ON_THE_FLY)
+                    .build();
+
+            headerWriter.writeHeader(mOutputHeader);
+            headerWriter.close();
+
+            PV_LOGGER.debug("concatenating {} chromosome VCF shards", shardWriters.size());
+
+            long[] shardOffsets = concatenateBlockCompressedFiles(shardFiles, mOutputVcf);
+
+            TabixIndexCreator indexCreator = mSequenceDictionary != null ?
+                    new TabixIndexCreator(mSequenceDictionary, TabixFormat.VCF) : new TabixIndexCreator(TabixFormat.VCF);
+
+            for(int i = 0; i < shardWriters.size(); ++i)
             {
-                // move to the next chromosome to allow writing of current or pending variants
-                mCurrentChromosome = chromosome;
-                exitOnNext = true;
+                shardWriters.get(i).addToIndex(indexCreator, shardOffsets[i + 1]); // offset past the header
             }
 
-            List<VariantContext> pendingVariants = mChrPendingVariants.get(chromosome);
+            // the index ends where the EOF marker block begins
+            long dataEnd = shardOffsets[shardOffsets.length - 1];
+            Index index = indexCreator.finalizeIndex(dataEnd << 16);
+            index.writeBasedOnFeatureFile(new File(mOutputVcf));
+        }
+        catch(IOException e)
+        {
+            PV_LOGGER.error("failed to write VCF({}): {}", mOutputVcf, e.toString());
+            writeFailed = true;
+        }
+        finally
+        {
+            for(String shardFile : shardFiles)
+            {
+                try
+                {
+                    Files.deleteIfExists(new File(shardFile).toPath());
+                }
+                catch(IOException e)
+                {
+                    PV_LOGGER.warn("failed to delete VCF shard({}): {}", shardFile, e.toString());
+                }
+            }
+        }
 
-            if(pendingVariants != null)
+        if(writeFailed)
+            System.exit(1);
+    }
+
+    private static long[] concatenateBlockCompressedFiles(final List<String> inputFiles, final String outputFile) throws IOException
+    {
+        // BGZF files can be concatenated at the byte level, provided the EOF marker block of each input is dropped
+        // returns the output offset at which each input starts, followed by the offset of the final EOF marker
+        byte[] buffer = new byte[1 << 16];
+        long[] fileOffsets = new long[inputFiles.size() + 1];
+        long outputOffset = 0;
+
+        try(OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputFile), buffer.length))
+        {
+            for(int fileIndex = 0; fileIndex < inputFiles.size(); ++fileIndex)
             {
-                if(!pendingVariants.isEmpty())
+                String inputFile = inputFiles.get(fileIndex);
+                fileOffsets[fileIndex] = outputOffset;
+
+                long contentLength = new File(inputFile).length();
+
+                if(contentLength >= EMPTY_GZIP_BLOCK.length && endsWithEofBlock(inputFile, contentLength))
+                    contentLength -= EMPTY_GZIP_BLOCK.length;
+
+                try(InputStream inputStream = new FileInputStream(inputFile))
                 {
-                    PV_LOGGER.debug("chr({}) writing {} pending variants", chromosome, pendingVariants.size());
+                    long remaining = contentLength;
 
-                    pendingVariants.forEach(x -> mWriter.add(x));
-                    pendingVariants.clear();
-                }
+                    while(remaining > 0)
+                    {
+                        int bytesRead = inputStream.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+
+                        if(bytesRead < 0)
+                            break;
 
-                mChrPendingVariants.remove(chromosome);
+                        outputStream.write(buffer, 0, bytesRead);
+                        remaining -= bytesRead;
+                        outputOffset += bytesRead;
+                    }
+                }
             }
 
-            if(exitOnNext)
-                break;
+            fileOffsets[inputFiles.size()] = outputOffset;
+            outputStream.write(EMPTY_GZIP_BLOCK);
         }
+
+        return fileOffsets;
     }
 
-    public void close()
+    private static boolean endsWithEofBlock(final String inputFile, long fileLength) throws IOException
     {
-        writePendingVariants();
-        mWriter.close();
+        byte[] tail = new byte[EMPTY_GZIP_BLOCK.length];
+
+        try(InputStream inputStream = new FileInputStream(inputFile))
+        {
+            inputStream.skipNBytes(fileLength - tail.length);
+
+            if(inputStream.readNBytes(tail, 0, tail.length) != tail.length)
+                return false;
+        }
+
+        return Arrays.equals(tail, EMPTY_GZIP_BLOCK);
     }
 }
@@ -33,15 +33,24 @@ import com.hartwig.hmftools.common.genome.refgenome.RefGenomeInterface;
 import com.hartwig.hmftools.common.variant.impact.VariantEffect;
 import com.hartwig.hmftools.pave.VariantData;
 
+import org.jetbrains.annotations.Nullable;
+
 public class ImpactClassifier
 {
     private final RefGenomeInterface mRefGenome;
     private final PhasedVariantClassifier mPhasedVariants;
+    private final TranscriptCodingBasesCache mCodingBasesCache;
 
     public ImpactClassifier(final RefGenomeInterface refGenome)
+    {
+        this(refGenome, null);
+    }
+
+    public ImpactClassifier(final RefGenomeInterface refGenome, @Nullable final TranscriptCodingBasesCache codingBasesCache)
     {
         mRefGenome = refGenome;
         mPhasedVariants = new PhasedVariantClassifier();
+        mCodingBasesCache = codingBasesCache;
     }
 
     public PhasedVariantClassifier phasedVariants() { return mPhasedVariants; }
@@ -61,7 +70,10 @@ public class ImpactClassifier
 
         if(transImpact.codingContext().isCoding())
         {
-            ProteinContext proteinContext = ProteinUtils.determineContext(variant, transImpact.codingContext(), transData, mRefGenome);
+            RefGenomeInterface codingRefGenome = mCodingBasesCache != null ?
+                    mCodingBasesCache.transcriptRefGenome(variant.Chromosome, transData) : mRefGenome;
+
+            ProteinContext proteinContext = ProteinUtils.determineContext(variant, transImpact.codingContext(), transData, codingRefGenome);
             transImpact.setProteinContext(proteinContext);
         }
 
@@ -0,0 +1,207 @@
+package com.hartwig.hmftools.pave.impact;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.hartwig.hmftools.common.gene.ExonData;
+import com.hartwig.hmftools.common.gene.TranscriptData;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeInterface;
+
+// the spliced coding bases of recently classified transcripts, so that repeated variants in the same transcripts read their codons
+// from memory rather than the ref genome
+public class TranscriptCodingBasesCache
+{
+    private final RefGenomeInterface mRefGenome;
+    private final int mMaxTranscripts;
+    private final Map<Integer,TranscriptCodingBases> mTranscripts;
+
+    public TranscriptCodingBasesCache(final RefGenomeInterface refGenome, int maxTranscripts)
+    {
+        mRefGenome = refGenome;
+        mMaxTranscripts = maxTranscripts;
+
+        mTranscripts = new LinkedHashMap<>(maxTranscripts + 1, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer,TranscriptCodingBases> eldest)
+            {
+                return size() > mMaxTranscripts;
+            }
+        };
+    }
+
+    public RefGenomeInterface refGenome() { return mRefGenome; }
+
+    public RefGenomeInterface transcriptRefGenome(final String chromosome, final TranscriptData transData)
+    {
+        if(transData.nonCoding())
+            return mRefGenome;
+
+        synchronized(mTranscripts)
+        {
+            TranscriptCodingBases codingBases = mTranscripts.get(transData.TransId);
+
+            if(codingBases != null)
+                return codingBases;
+        }
+
+        // built outside the lock since it reads from the ref genome, and another thread building the same transcript is harmless
+        TranscriptCodingBases codingBases = new TranscriptCodingBases(mRefGenome, chromosome, transData);
+
+        synchronized(mTranscripts)
+        {
+            mTranscripts.put(transData.TransId, codingBases);
+        }
+
+        return codingBases;
+    }
+
+    public int size()
+    {
+        synchronized(mTranscripts)
+        {
+            return mTranscripts.size();
+        }
+    }
+
+    // serves requests falling within a single coding exon from the transcript's bases, and any others from the ref genome
+    public static class TranscriptCodingBases implements RefGenomeInterface
+    {
+        private final RefGenomeInterface mRefGenome;
+        private final String mChromosome;
+
+        private final int[] mExonStarts; // coding exon regions in ascending position
+        private final int[] mExonEnds;
+        private final int[] mExonOffsets; // index of each coding exon's first base
+        private final byte[] mBases;
+
+        public TranscriptCodingBases(final RefGenomeInterface refGenome, final String chromosome, final TranscriptData transData)
+        {
+            mRefGenome = refGenome;
+            mChromosome = chromosome;
+
+            List<ExonData> exons = transData.exons().stream().sorted(Comparator.comparingInt(x -> x.Start)).toList();
+            int transCodingStart = transData.CodingStart;
+            int transCodingEnd = transData.CodingEnd;
+
+            int exonCount = 0;
+            int codingBaseCount = 0;
+
+            for(ExonData exon : exons)
+            {
+                if(exon.End >= transCodingStart && exon.Start <= transCodingEnd)
+                {
+                    ++exonCount;
+                    codingBaseCount += min(exon.End, transCodingEnd) - max(exon.Start, transCodingStart) + 1;
+                }
+            }
+
+            mExonStarts = new int[exonCount];
+            mExonEnds = new int[exonCount];
+            mExonOffsets = new int[exonCount];
+            mBases = new byte[codingBaseCount];
+
+            int exonIndex = 0;
+            int offset = 0;
+
+            for(ExonData exon : exons)
+            {
+                if(exon.End < transCodingStart || exon.Start > transCodingEnd)
+                    continue;
+
+                int codingStart = max(exon.Start, transCodingStart);
+                int codingEnd = min(exon.End, transCodingEnd);
+
+                byte[] exonBases = refGenome.getBases(chromosome, codingStart, codingEnd);
+                System.arraycopy(exonBases, 0, mBases, offset, exonBases.length);
+
+                mExonStarts[exonIndex] = codingStart;
+                mExonEnds[exonIndex] = codingEnd;
+                mExonOffsets[exonIndex] = offset;
+
+                offset += exonBases.length;
+                ++exonIndex;
+            }
+        }
+
+        private int baseIndex(final String chromosome, int posStart, int posEnd)
+        {
+            if(posStart > posEnd || !chromosome.equals(mChromosome))
+                return -1;
+
+            // find the last coding exon starting at or before the position
+            int lowerIndex = 0;
+            int upperIndex = mExonStarts.length;
+
+            while(lowerIndex < upperIndex)
+            {
+                int midIndex = (lowerIndex + upperIndex) >>> 1;
+
+                if(mExonStarts[midIndex] <= posStart)
+                    lowerIndex = midIndex + 1;
+                else
+                    upperIndex = midIndex;
+            }
+
+            int exonIndex = lowerIndex - 1;
+
+            if(exonIndex < 0 || posEnd > mExonEnds[exonIndex])
+                return -1;
+
+            return mExonOffsets[exonIndex] + posStart - mExonStarts[exonIndex];
+        }
+
+        @Override
+        public String getBaseString(final String chromosome, int posStart, int posEnd)
+        {
+            int index = baseIndex(chromosome, posStart, posEnd);
+
+            if(index < 0)
+                return mRefGenome.getBaseString(chromosome, posStart, posEnd);
+
+            return new String(mBases, index, posEnd - posStart + 1);
+        }
+
+        @Override
+        public String getBaseString(final String chromosome, final List<int[]> baseRanges)
+        {
+            StringBuilder bases = new StringBuilder();
+
+            for(int[] range : baseRanges)
+            {
+                bases.append(getBaseString(chromosome, range[0], range[1]));
+            }
+
+            return bases.toString();
+        }
+
+        @Override
+        public byte[] getBases(final String chromosome, int posStart, int posEnd)
+        {
+            int index = baseIndex(chromosome, posStart, posEnd);
+
+            if(index < 0)
+                return mRefGenome.getBases(chromosome, posStart, posEnd);
+
+            byte[] bases = new byte[posEnd - posStart + 1];
+            System.arraycopy(mBases, index, bases, 0, bases.length);
+            return bases;
+        }
+
+        @Override
+        public int getChromosomeLength(final String chromosome) { return mRefGenome.getChromosomeLength(chromosome); }
+
+        @Override
+        public Map<String,Integer> chromosomeLengths() { return mRefGenome.chromosomeLengths(); }
+
+        @Override
+        public boolean oneBasedIndexing() { return mRefGenome.oneBasedIndexing(); }
+
+        public int codingBaseCount() { return mBases.length; }
+    }
+}
@@ -0,0 +1,59 @@
+package com.hartwig.hmftools.pave;
+
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.addGeneData;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.createEnsemblGeneData;
+
+import static junit.framework.TestCase.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.gene.GeneData;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
+
+import org.junit.Test;
+
+public class GeneCacheIndexingTest
+{
+    @Test
+    public void testSeededIndexing()
+    {
+        GeneDataCache geneDataCache = new GeneDataCache("", RefGenomeVersion.V37, null);
+
+        // a long gene spanning later ones, adjacent genes on each strand and a gap
+        List<GeneData> genes = Lists.newArrayList(
+                createEnsemblGeneData("GENE_01", "GENE_01", CHR_1, 1, 1000, 50000),
+                createEnsemblGeneData("GENE_02", "GENE_02", CHR_1, -1, 2000, 3000),
+                createEnsemblGeneData("GENE_03", "GENE_03", CHR_1, 1, 5000, 6000),
+                createEnsemblGeneData("GENE_04", "GENE_04", CHR_1, -1, 8000, 9000),
+                createEnsemblGeneData("GENE_05", "GENE_05", CHR_1, 1, 20000, 21000),
+                createEnsemblGeneData("GENE_06", "GENE_06", CHR_1, -1, 60000, 70000),
+                createEnsemblGeneData("GENE_07", "GENE_07", CHR_1, 1, 100000, 110000));
+
+        addGeneData(geneDataCache.getEnsemblCache(), CHR_1, genes);
+
+        List<Integer> positions = Lists.newArrayList(500, 2500, 4000, 5500, 8500, 11000, 20500, 40000, 55000, 65000, 72000, 90000, 105000);
+
+        // starting the sweep from any variant must find the same genes as a full scan
+        for(int startIndex = 0; startIndex < positions.size(); ++startIndex)
+        {
+            GeneCacheIndexing cacheIndexing = geneDataCache.createIndexing(CHR_1, positions.get(startIndex));
+
+            for(int i = startIndex; i < positions.size(); ++i)
+            {
+                int position = positions.get(i);
+
+                Set<String> expectedGenes = Sets.newHashSet();
+                geneDataCache.findGenes(CHR_1, position, position, null).forEach(x -> expectedGenes.add(x.GeneId));
+
+                Set<String> indexedGenes = Sets.newHashSet();
+                geneDataCache.findGenes(CHR_1, position, position, cacheIndexing).forEach(x -> indexedGenes.add(x.GeneId));
+
+                assertEquals(expectedGenes, indexedGenes);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.hartwig.hmftools.pave;
+
+import static com.hartwig.hmftools.common.genome.region.Strand.NEG_STRAND;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.GENE_ID_2;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.TRANS_ID_2;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.createTransExons;
+import static com.hartwig.hmftools.pave.ImpactTestUtils.createMockGenome;
+import static com.hartwig.hmftools.pave.ImpactTestUtils.createNegTranscript;
+import static com.hartwig.hmftools.pave.ImpactTestUtils.createPosTranscript;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertSame;
+
+import com.hartwig.hmftools.common.gene.TranscriptData;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeInterface;
+import com.hartwig.hmftools.common.test.MockRefGenome;
+import com.hartwig.hmftools.pave.impact.TranscriptCodingBasesCache;
+import com.hartwig.hmftools.pave.impact.TranscriptCodingBasesCache.TranscriptCodingBases;
+
+import org.junit.Test;
+
+public class TranscriptCodingBasesTest
+{
+    @Test
+    public void testCodingBases()
+    {
+        MockRefGenome refGenome = createMockGenome(200);
+
+        for(TranscriptData transData : new TranscriptData[] { createPosTranscript(), createNegTranscript() })
+        {
+            TranscriptCodingBases codingBases = new TranscriptCodingBases(refGenome, CHR_1, transData);
+
+            // ranges within, across and outside the coding exons all match the ref genome
+            for(int posStart = 1; posStart < 150; ++posStart)
+            {
+                for(int length = 1; length <= 12; ++length)
+                {
+                    int posEnd = posStart + length - 1;
+
+                    assertEquals(
+                            refGenome.getBaseString(CHR_1, posStart, posEnd), codingBases.getBaseString(CHR_1, posStart, posEnd));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCacheEviction()
+    {
+        MockRefGenome refGenome = createMockGenome(200);
+        TranscriptCodingBasesCache cache = new TranscriptCodingBasesCache(refGenome, 1);
+
+        TranscriptData posTrans = createPosTranscript();
+        TranscriptData otherTrans = createTransExons(
+                GENE_ID_2, TRANS_ID_2, NEG_STRAND, new int[] { 100, 120 }, 10, 105, 125, false, "");
+
+        RefGenomeInterface posCodingBases = cache.transcriptRefGenome(CHR_1, posTrans);
+        assertSame(posCodingBases, cache.transcriptRefGenome(CHR_1, posTrans));
+
+        cache.transcriptRefGenome(CHR_1, otherTrans);
+        assertEquals(1, cache.size());
+
+        // the first transcript was evicted so is rebuilt
+        RefGenomeInterface newPosCodingBases = cache.transcriptRefGenome(CHR_1, posTrans);
+        assertEquals(posCodingBases.getBaseString(CHR_1, 15, 35), newPosCodingBases.getBaseString(CHR_1, 15, 35));
+        assertNotSame(posCodingBases, newPosCodingBases);
+    }
+}
@@ -311,15 +311,13 @@ public class PurpleApplication
 
             SomaticPurityEnrichment somaticPurityEnrichment = new SomaticPurityEnrichment(purityAdjuster, copyNumbers, fittedRegions);
 
-            sampleData.SomaticCache.purityEnrich(somaticPurityEnrichment);
-
             // at the moment the enriching of somatic variants is also contributing to the purity context, so it cannot be done afterwards
             // if the read and write process were split then so could the fitting and enriching steps
             PPL_LOGGER.info("enriching somatic variants");
 
             somaticStream = new SomaticStream(mConfig, mReferenceData, somaticCache, sampleData.MsiPrediction);
 
-            somaticStream.processAndWrite(purityAdjuster);
+            somaticStream.processAndWrite(purityAdjuster, somaticPurityEnrichment);
 
             FittedPurityRangeFile.write(mConfig.OutputDir, tumorId, bestFit.AllFits);
             PurpleCopyNumberFile.write(PurpleCopyNumberFile.generateFilenameForWriting(mConfig.OutputDir, tumorId), copyNumbers);
@@ -505,7 +503,7 @@ public class PurpleApplication
         if(mConfig.runTumor())
         {
             SomaticStream somaticStream = new SomaticStream(mConfig, mReferenceData, sampleData.SomaticCache, sampleData.MsiPrediction);
-            somaticStream.processAndWrite(null);
+            somaticStream.processAndWrite(null, null);
 
             sampleData.SvCache.write(null, Collections.emptyList(), mConfig.tumorOnlyMode(), gender);
 
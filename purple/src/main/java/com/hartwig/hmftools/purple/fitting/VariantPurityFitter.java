@@ -77,7 +77,7 @@ public class VariantPurityFitter
     public void setState(final List<ObservedRegion> observedRegions)
     {
         mFittingSomatics.addAll(SomaticPurityFitter.findFittingVariants(
-                mConfig.tumorOnlyMode(), mSampleData.SomaticCache.variants(), observedRegions));
+                mConfig.tumorOnlyMode(), mSampleData.SomaticCache.fittingCandidates(), observedRegions));
 
         if(!mFittingSomatics.isEmpty())
         {
@@ -101,38 +101,12 @@ public class SomaticPurityFitter
     {
         List<SomaticVariant> fittingVariants = Lists.newArrayList();
 
-        CompoundFilter filter = new CompoundFilter(true);
-        filter.add(new SGTFilter());
-        filter.add(new HumanChromosomeFilter());
-        filter.add(new NTFilter());
-
         GenomeRegionSelector<ObservedRegion> observedRegionSelector = GenomeRegionSelectorFactory.createImproved(
                 Multimaps.fromRegions(observedRegions));
 
         for(SomaticVariant variant : variants)
         {
-            if(!variant.isPass() || !filter.test(variant.context()))
-            {
-                logFilteredFittingCandidate(variant, "non-passing");
-                continue;
-            }
-
-            if(variant.type() == VariantType.MNP)
-            {
-                logFilteredFittingCandidate(variant, "excluded MNV");
-                continue;
-            }
-            else if(tumorOnlyMode && variant.type() == INDEL)
-            {
-                // only use in tumor-only mode and if not in a repeat context
-                if(variant.decorator().repeatCount() > 0)
-                {
-                    logFilteredFittingCandidate(variant, "invalid indel");
-                    continue;
-                }
-            }
-
-            if(!isFittingCandidate(variant))
+            if(!isFittingCandidate(tumorOnlyMode, variant))
                 continue;
 
             Optional<ObservedRegion> region = observedRegionSelector.select(variant);
@@ -153,6 +127,42 @@ public class SomaticPurityFitter
         return fittingVariants;
     }
 
+    private static final CompoundFilter FITTING_FILTER = new CompoundFilter(true);
+
+    static
+    {
+        FITTING_FILTER.add(new SGTFilter());
+        FITTING_FILTER.add(new HumanChromosomeFilter());
+        FITTING_FILTER.add(new NTFilter());
+    }
+
+    public static boolean isFittingCandidate(boolean tumorOnlyMode, final SomaticVariant variant)
+    {
+        // checks which only depend on the variant itself, so can be applied as variants are loaded
+        if(!variant.isPass() || !FITTING_FILTER.test(variant.context()))
+        {
+            logFilteredFittingCandidate(variant, "non-passing");
+            return false;
+        }
+
+        if(variant.type() == VariantType.MNP)
+        {
+            logFilteredFittingCandidate(variant, "excluded MNV");
+            return false;
+        }
+        else if(tumorOnlyMode && variant.type() == INDEL)
+        {
+            // only use in tumor-only mode and if not in a repeat context
+            if(variant.decorator().repeatCount() > 0)
+            {
+                logFilteredFittingCandidate(variant, "invalid indel");
+                return false;
+            }
+        }
+
+        return isFittingCandidate(variant);
+    }
+
     private static boolean isFittingCandidate(final SomaticVariant variant)
     {
         if(EXCLUDED_IMMUNE_REGIONS.stream().anyMatch(x -> x.containsPosition(variant.chromosome(), variant.position())))
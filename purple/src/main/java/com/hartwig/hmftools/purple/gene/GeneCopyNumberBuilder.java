@@ -1,11 +1,13 @@
 package com.hartwig.hmftools.purple.gene;
 
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 
 import static com.hartwig.hmftools.purple.copynumber.CombinedRegion.weightedAverage;
 
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
@@ -18,6 +20,7 @@ import com.hartwig.hmftools.common.purple.CopyNumberMethod;
 import com.hartwig.hmftools.common.purple.GeneCopyNumber;
 import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.SegmentSupport;
+import com.hartwig.hmftools.common.region.SortedIntervals;
 import com.hartwig.hmftools.common.utils.Doubles;
 
 public class GeneCopyNumberBuilder
@@ -52,14 +55,18 @@ public class GeneCopyNumberBuilder
     {
         final List<GeneCopyNumber> result = Lists.newArrayList();
 
+        Map<String,List<PurpleCopyNumber>> chrCopyNumbers = PurpleCopyNumber.buildChromosomeMap(copyNumbers);
+
         for(HumanChromosome chromosome : HumanChromosome.values())
         {
             String chrString = refGenomeVersion.versionedChromosome(chromosome.toString());
 
             List<GeneData> geneDataList = geneTransCache.getChrGeneDataMap().get(chrString);
 
-            List<PurpleCopyNumber> chromosomeCopyNumbers = copyNumbers.stream()
-                    .filter(x -> x.chromosome().equals(chrString)).collect(Collectors.toList());
+            List<PurpleCopyNumber> chromosomeCopyNumbers = chrCopyNumbers.getOrDefault(chrString, Collections.emptyList());
+
+            SortedIntervals copyNumberIntervals = SortedIntervals.from(
+                    chromosomeCopyNumbers, PurpleCopyNumber::start, PurpleCopyNumber::end);
 
             for(GeneData geneData : geneDataList)
             {
@@ -67,7 +74,8 @@ public class GeneCopyNumberBuilder
 
                 for(TranscriptData tranData : transDataList)
                 {
-                    GeneCopyNumberBuilder builder = new GeneCopyNumberBuilder(geneData, tranData, chromosomeCopyNumbers);
+                    GeneCopyNumberBuilder builder = new GeneCopyNumberBuilder(
+                            geneData, tranData, transcriptCopyNumbers(tranData, chromosomeCopyNumbers, copyNumberIntervals));
                     GeneCopyNumber geneCopyNumber = builder.create(ploidy);
 
                     if(geneCopyNumber.totalRegions() > 0)
@@ -79,6 +87,23 @@ public class GeneCopyNumberBuilder
         return result;
     }
 
+    private static List<PurpleCopyNumber> transcriptCopyNumbers(
+            final TranscriptData transData, final List<PurpleCopyNumber> copyNumbers, final SortedIntervals copyNumberIntervals)
+    {
+        if(transData.exons().isEmpty())
+            return Collections.emptyList();
+
+        // the merge of exons and copy numbers only registers overlaps from the copy number covering the first exon's start up to
+        // the last copy number starting within the exons, so only that run is passed rather than the whole chromosome
+        int exonsStart = transData.exons().get(0).Start;
+        int exonsEnd = transData.exons().stream().mapToInt(x -> x.End).max().orElse(exonsStart);
+
+        int startIndex = max(copyNumberIntervals.lastStartingAtOrBefore(exonsStart), 0);
+        int endIndex = copyNumberIntervals.lastStartingAtOrBefore(exonsEnd) + 1;
+
+        return startIndex < endIndex ? copyNumbers.subList(startIndex, endIndex) : Collections.emptyList();
+    }
+
     public GeneCopyNumberBuilder(final GeneData geneData, final TranscriptData transData, final List<PurpleCopyNumber> copyNumbers)
     {
         mCopyNumbers = copyNumbers;
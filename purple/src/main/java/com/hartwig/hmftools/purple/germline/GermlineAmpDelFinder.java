@@ -36,6 +36,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.driver.DriverCatalog;
 import com.hartwig.hmftools.common.driver.DriverType;
 import com.hartwig.hmftools.common.driver.ImmutableDriverCatalog;
@@ -50,6 +51,7 @@ import com.hartwig.hmftools.common.purple.GermlineDetectionMethod;
 import com.hartwig.hmftools.common.purple.GermlineStatus;
 import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.ReportedStatus;
+import com.hartwig.hmftools.common.region.SortedIntervals;
 import com.hartwig.hmftools.common.sv.StructuralVariant;
 import com.hartwig.hmftools.common.sv.StructuralVariantLeg;
 import com.hartwig.hmftools.common.sv.StructuralVariantType;
@@ -123,7 +125,7 @@ public class GermlineAmpDelFinder
     public void findEvents(
             final List<PurpleCopyNumber> copyNumbers, final List<ObservedRegion> fittedRegions, final List<StructuralVariant> germlineSVs)
     {
-        CopyNumberSearchState copyNumberSearchState = new CopyNumberSearchState();
+        Map<String,ChromosomeCopyNumbers> chrCopyNumbers = buildCopyNumberIndex(copyNumbers);
 
         for(int i = 0; i < fittedRegions.size(); ++i)
         {
@@ -136,7 +138,7 @@ public class GermlineAmpDelFinder
                 continue;
             }
 
-            PurpleCopyNumber matchedCopyNumber = findMatchingCopyNumber(region, copyNumbers, copyNumberSearchState);
+            PurpleCopyNumber matchedCopyNumber = findMatchingCopyNumber(region, chrCopyNumbers);
 
             ObservedRegion nextRegion = i < fittedRegions.size() - 1 ? fittedRegions.get(i + 1) : null;
             if(nextRegion != null && !nextRegion.chromosome().equals(region.chromosome()))
@@ -257,72 +259,42 @@ public class GermlineAmpDelFinder
         return newType == preferredType;
     }
 
-    private static class CopyNumberSearchState
+    private static class ChromosomeCopyNumbers
     {
-        public int ChrStartIndex = 0;
-        public int ChrEndIndex = 0;
-        public String CurrentChromosome = "";
+        public final List<PurpleCopyNumber> CopyNumbers;
+        public final SortedIntervals Intervals;
 
-        public CopyNumberSearchState() {}
-    }
-
-    private PurpleCopyNumber findMatchingCopyNumber(
-            final ObservedRegion region, final List<PurpleCopyNumber> copyNumbers, final CopyNumberSearchState searchState)
-    {
-        if(copyNumbers.isEmpty())
+        public ChromosomeCopyNumbers(final List<PurpleCopyNumber> copyNumbers)
         {
-            return null;
+            CopyNumbers = copyNumbers;
+            Intervals = SortedIntervals.from(copyNumbers, PurpleCopyNumber::start, PurpleCopyNumber::end);
         }
+    }
 
-        PurpleCopyNumber matchedCopyNumber = null;
-
-        String chromosome = region.chromosome();
-        int regionStart = region.start();
-        int regionEnd = region.end();
-
-        // find the overlapping / matching copy number region (skipped for germline-only)
-        // both copy numbers and fitted regions are ordered by chromosome and position
-        if(!searchState.CurrentChromosome.equals(chromosome))
-        {
-            for(int index = searchState.ChrStartIndex; index < copyNumbers.size(); ++index)
-            {
-                PurpleCopyNumber copyNumber = copyNumbers.get(index);
-
-                if(copyNumber.chromosome().equals(chromosome) && !searchState.CurrentChromosome.equals(chromosome))
-                {
-                    searchState.CurrentChromosome = chromosome;
-                    searchState.ChrStartIndex = index;
-                }
-                else if(searchState.CurrentChromosome.equals(chromosome) && !copyNumber.chromosome().equals(chromosome))
-                {
-                    searchState.ChrEndIndex = index - 1;
-                    break;
-                }
-            }
-        }
+    private static Map<String,ChromosomeCopyNumbers> buildCopyNumberIndex(final List<PurpleCopyNumber> copyNumbers)
+    {
+        Map<String,ChromosomeCopyNumbers> chrCopyNumbers = Maps.newHashMap();
 
-        if(searchState.ChrEndIndex < searchState.ChrStartIndex)
+        for(Map.Entry<String,List<PurpleCopyNumber>> entry : PurpleCopyNumber.buildChromosomeMap(copyNumbers).entrySet())
         {
-            searchState.ChrEndIndex = copyNumbers.size() - 1;
+            chrCopyNumbers.put(entry.getKey(), new ChromosomeCopyNumbers(entry.getValue()));
         }
 
-        for(int index = searchState.ChrStartIndex; index <= searchState.ChrEndIndex; ++index)
-        {
-            PurpleCopyNumber copyNumber = copyNumbers.get(index);
+        return chrCopyNumbers;
+    }
 
-            if(!copyNumber.chromosome().equals(chromosome))
-            {
-                break;
-            }
+    @Nullable
+    private static PurpleCopyNumber findMatchingCopyNumber(
+            final ObservedRegion region, final Map<String,ChromosomeCopyNumbers> chrCopyNumbers)
+    {
+        // find the first overlapping copy number region (skipped for germline-only since there are none)
+        ChromosomeCopyNumbers copyNumbers = chrCopyNumbers.get(region.chromosome());
 
-            if(positionsOverlap(copyNumber.start(), copyNumber.end(), regionStart, regionEnd))
-            {
-                matchedCopyNumber = copyNumber;
-                break;
-            }
-        }
+        if(copyNumbers == null)
+            return null;
 
-        return matchedCopyNumber;
+        int index = copyNumbers.Intervals.firstOverlapping(region.start(), region.end());
+        return index >= 0 ? copyNumbers.CopyNumbers.get(index) : null;
     }
 
     static final String FILTER_CN_INCONSISTENCY = "INCONSISTENT_CN";
@@ -5,43 +5,95 @@ import static com.hartwig.hmftools.purple.PurpleUtils.PPL_LOGGER;
 import static com.hartwig.hmftools.purple.PurpleConstants.CLONALITY_BIN_WIDTH;
 import static com.hartwig.hmftools.purple.PurpleConstants.CLONALITY_MAX_PLOIDY;
 
+import java.util.Arrays;
 import java.util.List;
 
-import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
 import com.hartwig.hmftools.common.variant.AllelicDepth;
 import com.hartwig.hmftools.purple.fittingsnv.PeakModelData;
 import com.hartwig.hmftools.purple.fittingsnv.PeakModelFactory;
 import com.hartwig.hmftools.purple.fittingsnv.WeightedPloidy;
 
+import org.jetbrains.annotations.Nullable;
+
 public class SomaticPeakStream
 {
-    public SomaticPeakStream() {}
+    // the position and tumor depth of each passing autosomal variant, held in columns as they are loaded so that the peak model
+    // can be built once purity is known without retaining the variants themselves
+    private final String[] mChromosomeNames; // as named in the VCF, indexed by chromosome
+    private byte[] mChromosomes;
+    private int[] mPositions;
+    private int[] mTotalReadCounts;
+    private int[] mAlleleReadCounts;
+    private int mCount;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public SomaticPeakStream()
+    {
+        mChromosomeNames = new String[HumanChromosome.values().length];
+        mChromosomes = new byte[INITIAL_CAPACITY];
+        mPositions = new int[INITIAL_CAPACITY];
+        mTotalReadCounts = new int[INITIAL_CAPACITY];
+        mAlleleReadCounts = new int[INITIAL_CAPACITY];
+        mCount = 0;
+    }
 
-    public List<PeakModelData> generateModelPeaks(final SomaticVariantCache somaticVariants)
+    public int variantCount() { return mCount; }
+
+    public void addVariant(final SomaticVariant variant)
     {
-        if(!somaticVariants.hasData())
-            return Lists.newArrayList();
+        if(!variant.isPass())
+            return;
+
+        if(!HumanChromosome.contains(variant.chromosome()))
+            return;
 
+        HumanChromosome chromosome = HumanChromosome.fromString(variant.chromosome());
+
+        if(!chromosome.isAutosome())
+            return;
+
+        AllelicDepth depth = variant.tumorAlleleDepth();
+
+        if(depth == null)
+            return;
+
+        if(mCount == mPositions.length)
+        {
+            int capacity = mCount * 2;
+            mChromosomes = Arrays.copyOf(mChromosomes, capacity);
+            mPositions = Arrays.copyOf(mPositions, capacity);
+            mTotalReadCounts = Arrays.copyOf(mTotalReadCounts, capacity);
+            mAlleleReadCounts = Arrays.copyOf(mAlleleReadCounts, capacity);
+        }
+
+        if(mChromosomeNames[chromosome.ordinal()] == null)
+            mChromosomeNames[chromosome.ordinal()] = variant.chromosome();
+
+        mChromosomes[mCount] = (byte)chromosome.ordinal();
+        mPositions[mCount] = variant.position();
+        mTotalReadCounts[mCount] = depth.TotalReadCount;
+        mAlleleReadCounts[mCount] = depth.AlleleReadCount;
+        ++mCount;
+    }
+
+    public List<PeakModelData> generateModelPeaks(@Nullable final SomaticPurityEnrichment purityEnrichment)
+    {
         final List<WeightedPloidy> weightedPloidies = newArrayList();
 
-        for(SomaticVariant variant : somaticVariants.variants())
+        for(int i = 0; i < mCount; ++i)
         {
-            if(!variant.isPass())
-                continue;
+            AllelicDepth depth = new AllelicDepth(mTotalReadCounts[i], mAlleleReadCounts[i]);
 
-            if(variant.copyNumber() >= CLONALITY_MAX_PLOIDY)
-                continue;
+            double variantCopyNumber = purityEnrichment != null ?
+                    purityEnrichment.variantCopyNumber(GenomePositions.create(mChromosomeNames[mChromosomes[i]], mPositions[i]), depth) : 0;
 
-            if(!HumanChromosome.contains(variant.chromosome()) || !HumanChromosome.fromString(variant.chromosome()).isAutosome())
+            if(variantCopyNumber >= CLONALITY_MAX_PLOIDY)
                 continue;
 
-            AllelicDepth depth = variant.tumorAlleleDepth();
-
-            if(depth != null)
-            {
-                weightedPloidies.add(new WeightedPloidy(depth.TotalReadCount, depth.AlleleReadCount, variant.copyNumber(), 1));
-            }
+            weightedPloidies.add(new WeightedPloidy(depth.TotalReadCount, depth.AlleleReadCount, variantCopyNumber, 1));
         }
 
         PPL_LOGGER.debug("somatic peak uses {} variants", weightedPloidies.size());
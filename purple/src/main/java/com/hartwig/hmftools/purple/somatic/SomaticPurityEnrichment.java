@@ -22,10 +22,12 @@ import java.util.List;
 import java.util.Optional;
 
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.genome.region.GenomeRegionSelector;
 import com.hartwig.hmftools.common.genome.region.GenomeRegionSelectorFactory;
 import com.hartwig.hmftools.common.purple.GermlineStatus;
 import com.hartwig.hmftools.common.utils.Multimaps;
+import com.hartwig.hmftools.common.variant.AllelicDepth;
 import com.hartwig.hmftools.purple.fitting.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
 import com.hartwig.hmftools.purple.region.ObservedRegion;
@@ -71,12 +73,36 @@ public class SomaticPurityEnrichment
         }
     }
 
+    public double variantCopyNumber(final GenomePosition position, final AllelicDepth tumorAlleleDepth)
+    {
+        // the variant copy number which processVariant would set, without requiring the variant's full context
+        if(!HumanChromosome.contains(position.chromosome()) || tumorAlleleDepth == null)
+            return 0;
+
+        Optional<PurpleCopyNumber> purpleCopyNumber = mCopyNumberSelector.select(position);
+
+        if(purpleCopyNumber.isEmpty())
+            return 0;
+
+        Optional<ObservedRegion> observedRegion = mObservedRegionSelector.select(position);
+        boolean isGermlineHetDeletion = observedRegion.isPresent() && observedRegion.get().germlineStatus() == GermlineStatus.HET_DELETION;
+
+        double copyNumber = purpleCopyNumber.get().averageTumorCopyNumber();
+        double vaf = purityAdjustedVaf(purpleCopyNumber.get(), tumorAlleleDepth.alleleFrequency(), isGermlineHetDeletion);
+        return max(0, vaf * copyNumber);
+    }
+
+    private double purityAdjustedVaf(final PurpleCopyNumber purpleCopyNumber, double alleleFrequency, boolean isGermlineHetDeletion)
+    {
+        return mPurityAdjuster.purityAdjustedVAF(
+                purpleCopyNumber.chromosome(), max(0.001, purpleCopyNumber.averageTumorCopyNumber()), alleleFrequency, isGermlineHetDeletion);
+    }
+
     private void applyPurityAdjustment(final SomaticVariant variant, final PurpleCopyNumber purpleCopyNumber, boolean isGermlineHetDeletion)
     {
         double copyNumber = purpleCopyNumber.averageTumorCopyNumber();
 
-        double vaf = mPurityAdjuster.purityAdjustedVAF(
-                purpleCopyNumber.chromosome(), max(0.001, copyNumber), variant.alleleFrequency(), isGermlineHetDeletion);
+        double vaf = purityAdjustedVaf(purpleCopyNumber, variant.alleleFrequency(), isGermlineHetDeletion);
 
         double variantCopyNumber = max(0, vaf * copyNumber);
         
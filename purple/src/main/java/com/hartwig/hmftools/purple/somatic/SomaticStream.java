@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.purple.somatic;
 
+import static java.lang.Math.max;
 import static java.lang.Math.round;
 
 import static com.hartwig.hmftools.common.variant.CodingEffect.hasProteinImpact;
@@ -35,6 +36,7 @@ import com.hartwig.hmftools.common.purple.PurpleCommon;
 import com.hartwig.hmftools.common.purple.TumorMutationalStatus;
 import com.hartwig.hmftools.common.variant.VariantContextDecorator;
 import com.hartwig.hmftools.common.variant.VariantType;
+import com.hartwig.hmftools.common.variant.VcfFileReader;
 import com.hartwig.hmftools.common.purple.MicrosatelliteStatus;
 import com.hartwig.hmftools.purple.DriverSourceData;
 import com.hartwig.hmftools.purple.PurpleConfig;
@@ -44,6 +46,9 @@ import com.hartwig.hmftools.purple.fitting.PurityAdjuster;
 import com.hartwig.hmftools.purple.fittingsnv.PeakModelData;
 import com.hartwig.hmftools.purple.plot.RChartData;
 
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
 import htsjdk.variant.vcf.VCFHeader;
@@ -159,15 +164,14 @@ public class SomaticStream
     public List<VariantContextDecorator> plottingVariants() { return mPlottingVariants; }
     public List<PeakModelData> peakModelData() { return mPeakModelData; }
 
-    public void processAndWrite(final PurityAdjuster purityAdjuster)
+    public void processAndWrite(@Nullable final PurityAdjuster purityAdjuster, @Nullable final SomaticPurityEnrichment purityEnrichment)
     {
         if(!mEnabled)
             return;
 
         PPL_LOGGER.debug("modelling somatic peaks");
-        SomaticPeakStream somaticPeakStream = new SomaticPeakStream();
 
-        mPeakModelData.addAll(somaticPeakStream.generateModelPeaks(mSomaticVariants));
+        mPeakModelData.addAll(mSomaticVariants.peakStream().generateModelPeaks(purityEnrichment));
 
         try
         {
@@ -184,47 +188,97 @@ public class SomaticStream
 
             mVcfWriter.writeHeader(vcfHeader);
 
-            boolean tumorOnly = mConfig.tumorOnlyMode();
+            // variants are read again and streamed through enrichment and writing a few chromosomes at a time, one per thread,
+            // rather than holding them all in memory
             AtomicInteger kataegisId = new AtomicInteger();
+            int maxChromosomes = max(mConfig.Threads, 1);
+
+            List<List<SomaticVariant>> chromosomeVariants = Lists.newArrayList();
+            List<SomaticVariant> currentVariants = null;
+            String currentChr = "";
 
-            if(mConfig.Threads > 1)
+            VcfFileReader vcfReader = new VcfFileReader(mSomaticVariants.vcfFile());
+
+            for(VariantContext variantContext : vcfReader.iterator())
             {
-                List<SomaticVariantEnrichment> enrichers = Lists.newArrayList();
+                SomaticVariant variant = mSomaticVariants.createVariant(variantContext);
 
-                for(int i = 0; i < mConfig.Threads; ++i)
-                {
-                    enrichers.add(new SomaticVariantEnrichment(i, mConfig, mReferenceData, mPeakModelData, kataegisId));
-                }
+                if(variant == null)
+                    continue;
 
-                int taskIndex = 0;
-                String currentChr = !mSomaticVariants.variants().isEmpty() ? mSomaticVariants.variants().get(0).chromosome() : "";
+                if(purityEnrichment != null)
+                    purityEnrichment.processVariant(variant);
 
-                for(SomaticVariant variant : mSomaticVariants.variants())
+                if(currentVariants == null || !currentChr.equals(variant.chromosome()))
                 {
-                    if(!currentChr.equals(variant.chromosome()))
+                    if(chromosomeVariants.size() >= maxChromosomes)
                     {
-                        currentChr = variant.chromosome();
-                        ++taskIndex;
-
-                        if(taskIndex >= enrichers.size())
-                            taskIndex = 0;
+                        processChromosomes(chromosomeVariants, purityAdjuster, kataegisId);
+                        chromosomeVariants.clear();
                     }
 
-                    enrichers.get(taskIndex).addVariant(variant);
+                    currentChr = variant.chromosome();
+                    currentVariants = Lists.newArrayList();
+                    chromosomeVariants.add(currentVariants);
                 }
 
-                final List<Callable<Void>> callableList = enrichers.stream().collect(Collectors.toList());
-                TaskExecutor.executeTasks(callableList, mConfig.Threads);
+                currentVariants.add(variant);
             }
-            else
+
+            vcfReader.close();
+
+            processChromosomes(chromosomeVariants, purityAdjuster, kataegisId);
+
+            mVcfWriter.close();
+            mRChartData.write();
+
+            calculateVariantLoadValues();
+
+            if(mSnpMod > 1 || mIndelMod < 1)
             {
-                SomaticVariantEnrichment enricher = new SomaticVariantEnrichment(0, mConfig, mReferenceData, mPeakModelData, kataegisId);
-                mSomaticVariants.variants().forEach(x -> enricher.addVariant(x));
-                enricher.call();
+                PPL_LOGGER.debug("charting variants: total(snvs={} indels={}) downsampled({}) mods(snv={} indel={})",
+                        mSnpCount, mIndelCount, mPlottingVariants.size(), mSnpMod, mIndelMod);
             }
+        }
+        catch(IOException e)
+        {
+            PPL_LOGGER.error("failed to enrich somatic variants: {}", e.toString());
+        }
+    }
+
+    private void processChromosomes(
+            final List<List<SomaticVariant>> chromosomeVariants, @Nullable final PurityAdjuster purityAdjuster,
+            final AtomicInteger kataegisId)
+    {
+        if(chromosomeVariants.isEmpty())
+            return;
 
+        List<SomaticVariantEnrichment> enrichers = Lists.newArrayList();
+
+        for(int i = 0; i < chromosomeVariants.size(); ++i)
+        {
+            SomaticVariantEnrichment enricher = new SomaticVariantEnrichment(i, mConfig, mReferenceData, mPeakModelData, kataegisId);
+            chromosomeVariants.get(i).forEach(x -> enricher.addVariant(x));
+            enrichers.add(enricher);
+        }
+
+        if(enrichers.size() > 1)
+        {
+            final List<Callable<Void>> callableList = enrichers.stream().collect(Collectors.toList());
+            TaskExecutor.executeTasks(callableList, mConfig.Threads);
+        }
+        else
+        {
+            enrichers.get(0).call();
+        }
+
+        boolean tumorOnly = mConfig.tumorOnlyMode();
+
+        // the remaining steps accumulate across the genome so run in order, before the chromosome's variants are written and released
+        for(List<SomaticVariant> variants : chromosomeVariants)
+        {
             // various processing for charting, TMB/L calcs, drivers
-            for(SomaticVariant variant : mSomaticVariants.variants())
+            for(SomaticVariant variant : variants)
             {
                 if(!HumanChromosome.contains(variant.chromosome()))
                     continue;
@@ -244,29 +298,14 @@ public class SomaticStream
             }
 
             // should not be required if coding effects have been set correctly for phased variants in Pave
-            checkPhasedReportableVariants();
+            checkPhasedReportableVariants(variants);
 
             // write enriched variants to VCF
-            for(SomaticVariant variant : mSomaticVariants.variants())
+            for(SomaticVariant variant : variants)
             {
                 if(!tumorOnly || variant.isPass() || mConfig.WriteAllSomatics)
                     mVcfWriter.add(variant.context());
             }
-
-            mVcfWriter.close();
-            mRChartData.write();
-
-            calculateVariantLoadValues();
-
-            if(mSnpMod > 1 || mIndelMod < 1)
-            {
-                PPL_LOGGER.debug("charting variants: total(snvs={} indels={}) downsampled({}) mods(snv={} indel={})",
-                        mSnpCount, mIndelCount, mPlottingVariants.size(), mSnpMod, mIndelMod);
-            }
-        }
-        catch(IOException e)
-        {
-            PPL_LOGGER.error("failed to enrich somatic variants: {}", e.toString());
         }
     }
 
@@ -310,12 +349,12 @@ public class SomaticStream
                 || variant.variantImpact().CanonicalEffect.contains(PHASED_MISSENSE.effect());
     }
 
-    private void checkPhasedReportableVariants()
+    private void checkPhasedReportableVariants(final List<SomaticVariant> variants)
     {
         // any non-reportable variant that forms a phased inframe INDEL with a reportable variant is marked as reportable too
-        for(int i = 0; i < mSomaticVariants.variants().size(); ++i)
+        for(int i = 0; i < variants.size(); ++i)
         {
-            SomaticVariant variant = mSomaticVariants.variants().get(i);
+            SomaticVariant variant = variants.get(i);
 
             // first find any reportable phased inframe INDEL
             if(!variant.context().hasAttribute(REPORTED_FLAG) || !hasPhasedEffect(variant))
@@ -339,10 +378,10 @@ public class SomaticStream
                     else
                         ++j;
 
-                    if(j < 0 || j >= mSomaticVariants.variants().size())
+                    if(j < 0 || j >= variants.size())
                         break;
 
-                    SomaticVariant nextVariant = mSomaticVariants.variants().get(j);
+                    SomaticVariant nextVariant = variants.get(j);
 
                     if(!nextVariant.isPass() || nextVariant.context().hasAttribute(REPORTED_FLAG) || !hasPhasedEffect(variant))
                         continue;
@@ -14,16 +14,23 @@ import com.hartwig.hmftools.common.variant.SimpleVariant;
 import com.hartwig.hmftools.common.variant.VariantType;
 import com.hartwig.hmftools.common.variant.VcfFileReader;
 import com.hartwig.hmftools.purple.PurpleConfig;
+import com.hartwig.hmftools.purple.fittingsnv.SomaticPurityFitter;
 
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.vcf.VCFHeader;
 
+// loads only what fitting needs from the somatic VCF - the fitting candidates without their genotypes, and a summary for the peak
+// model - since all variants are read again and streamed through enrichment once the fit is known
 public class SomaticVariantCache
 {
     private final PurpleConfig mConfig;
 
-    private final List<SomaticVariant> mVariants;
+    private final List<SomaticVariant> mFittingCandidates;
+    private final SomaticPeakStream mPeakStream;
 
+    private String mVcfFile;
+    private HotspotEnrichment mHotspotEnrichment;
     private VCFHeader mVcfHeader;
     private GenotypeIds mGenotypeIds;
     private double mTincLevel;
@@ -36,7 +43,10 @@ public class SomaticVariantCache
     {
         mConfig = config;
 
-        mVariants = Lists.newArrayList();
+        mFittingCandidates = Lists.newArrayList();
+        mPeakStream = new SomaticPeakStream();
+        mVcfFile = null;
+        mHotspotEnrichment = null;
         mIndelCount = 0;
         mSnpCount = 0;
         mVcfHeader = null;
@@ -45,7 +55,9 @@ public class SomaticVariantCache
     }
 
     public boolean hasData() { return mVcfHeader != null; }
-    public List<SomaticVariant> variants() { return mVariants; }
+    public List<SomaticVariant> fittingCandidates() { return mFittingCandidates; }
+    public SomaticPeakStream peakStream() { return mPeakStream; }
+    public String vcfFile() { return mVcfFile; }
     public GenotypeIds genotypeIds() { return mGenotypeIds; }
 
     public int snpCount() { return mSnpCount; }
@@ -57,7 +69,8 @@ public class SomaticVariantCache
         if(somaticVcf.isEmpty())
             return;
 
-        final HotspotEnrichment hotspotEnrichment = new HotspotEnrichment(somaticHotspots, true);
+        mVcfFile = somaticVcf;
+        mHotspotEnrichment = new HotspotEnrichment(somaticHotspots, true);
 
         VcfFileReader vcfReader = new VcfFileReader(somaticVcf);
         mVcfHeader = vcfReader.vcfHeader();
@@ -68,21 +81,16 @@ public class SomaticVariantCache
         mGenotypeIds = GenotypeIds.fromVcfHeader(mVcfHeader, mConfig.ReferenceId, mConfig.TumorId);
 
         boolean tumorOnly = mConfig.tumorOnlyMode();
+        int variantCount = 0;
 
         for(VariantContext variantContext : vcfReader.iterator())
         {
-            SomaticVariant variant = new SomaticVariant(variantContext, mConfig.TumorId, mConfig.ReferenceId);
+            SomaticVariant variant = createVariant(variantContext);
 
-            if(tumorOnly && HlaCommon.containsPosition(variant)) // ignore these completely
+            if(variant == null)
                 continue;
 
-            if(mConfig.excludeOnSpecificRegion(variant.chromosome(), variant.position()))
-                continue;
-
-            mVariants.add(variant);
-
-            // hotspot status is used in fitting as well as during and for enrichment
-            hotspotEnrichment.processVariant(variantContext);
+            ++variantCount;
 
             if(variant.isPass())
             {
@@ -91,15 +99,38 @@ public class SomaticVariantCache
                 else
                     mSnpCount++;
             }
+
+            mPeakStream.addVariant(variant);
+
+            if(SomaticPurityFitter.isFittingCandidate(tumorOnly, variant))
+            {
+                // tumor depths have been extracted so the genotypes are no longer required
+                variant.setContext(new VariantContextBuilder(variant.context()).noGenotypes().make());
+                mFittingCandidates.add(variant);
+            }
         }
 
-        PPL_LOGGER.info("loaded {} somatic variants from {}", mVariants.size(), somaticVcf);
-    }
+        vcfReader.close();
 
-    public VCFHeader getVcfHeader() { return mVcfHeader; }
+        PPL_LOGGER.info("loaded {} somatic variants from {}, fitting candidates({})",
+                variantCount, somaticVcf, mFittingCandidates.size());
+    }
 
-    public void purityEnrich(final SomaticPurityEnrichment purityEnrichment)
+    public SomaticVariant createVariant(final VariantContext variantContext)
     {
-        mVariants.forEach(x -> purityEnrichment.processVariant(x));
+        SomaticVariant variant = new SomaticVariant(variantContext, mConfig.TumorId, mConfig.ReferenceId);
+
+        if(mConfig.tumorOnlyMode() && HlaCommon.containsPosition(variant)) // ignore these completely
+            return null;
+
+        if(mConfig.excludeOnSpecificRegion(variant.chromosome(), variant.position()))
+            return null;
+
+        // hotspot status is used in fitting as well as during and for enrichment
+        mHotspotEnrichment.processVariant(variantContext);
+
+        return variant;
     }
+
+    public VCFHeader getVcfHeader() { return mVcfHeader; }
 }
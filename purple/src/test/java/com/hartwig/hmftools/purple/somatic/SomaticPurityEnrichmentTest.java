@@ -6,14 +6,18 @@ import static com.hartwig.hmftools.purple.MiscTestUtils.REF_SAMPLE_ID;
 import static com.hartwig.hmftools.purple.MiscTestUtils.SAMPLE_ID;
 
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.purple.CopyNumberMethod;
 import com.hartwig.hmftools.common.purple.ImmutablePurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.SegmentSupport;
+import com.hartwig.hmftools.purple.fitting.PurityAdjuster;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.Genotype;
@@ -118,6 +122,26 @@ public class SomaticPurityEnrichmentTest extends TestCase
         assertEquals(expectedBiallelicProbability, biallelicProbability, 0.01);
     }
     
+    @Test
+    public void testVariantCopyNumber()
+    {
+        PurityAdjuster purityAdjuster = new PurityAdjuster(Map.of(HumanChromosome._1, 1.0), 0.6, 1.0);
+
+        SomaticPurityEnrichment purityEnrichment = new SomaticPurityEnrichment(
+                purityAdjuster, List.of(createCopyNumber(3.2, 0.7)), Collections.emptyList());
+
+        SomaticVariant variant = createVariant(15, 0);
+        variant.setContext(new VariantContextBuilder(variant.context()).rmAttribute(PURPLE_VARIANT_CN).make());
+
+        // matches the copy number set when enriching the full variant, as used for the somatic peak model
+        double variantCopyNumber = purityEnrichment.variantCopyNumber(variant, variant.tumorAlleleDepth());
+
+        purityEnrichment.processVariant(variant);
+
+        assertTrue(variantCopyNumber > 0);
+        assertEquals(variant.decorator().variantCopyNumber(), variantCopyNumber, 1e-10);
+    }
+
     private static SomaticVariant createVariant(int alleleReadCount, double variantCopyNumber)
     {
         GenotypeBuilder genotypeBuilder = new GenotypeBuilder(SAMPLE_ID);
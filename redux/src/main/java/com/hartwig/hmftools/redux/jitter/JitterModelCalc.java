@@ -13,6 +13,28 @@ public class JitterModelCalc
         return rawAsymmetricLaplace(x, scale, skew) / pdfSum;
     }
 
+    // the modified asymmetric Laplace value for each jitter from -5 to 5, sharing the normalising sum across them
+    public static double[] modifiedAsymmetricLaplace(double scale, double rawSkew)
+    {
+        double skew = 1 + (rawSkew - 1) * Math.min(scale, 1);
+        double[] values = new double[11];
+        double pdfSum = 0.0;
+        int index = 0;
+        for(double x1 = -5.0; x1 <= 5.0; x1 += 1.0)
+        {
+            values[index] = rawAsymmetricLaplace(x1, scale, skew);
+            pdfSum += values[index];
+            ++index;
+        }
+
+        for(int i = 0; i < values.length; ++i)
+        {
+            values[i] /= pdfSum;
+        }
+
+        return values;
+    }
+
     public static double rawAsymmetricLaplace(double x, double scale, double skew)
     {
         return 1 / (scale * (skew + 1 / skew)) * Math.exp((-x * sgn(x) * Math.pow(skew, sgn(x))) / scale);
@@ -257,9 +257,9 @@ public class JitterModelFitter
 
         JitterModelLoss lossCalc = new JitterModelLoss(row, numRepeats, lengthMinusOneScale);
 
-        for(double scale = 0.05; scale <= 5.001; scale = searchIncrement(scale))
+        for(double scale : SEARCH_VALUES)
         {
-            for(double skew = 0.05; skew <= 5.001; skew = searchIncrement(skew))
+            for(double skew : SEARCH_VALUES)
             {
                 double loss = lossCalc.totalLoss(scale, skew);
 
@@ -275,6 +275,21 @@ public class JitterModelFitter
         return ScaleSkew.of(scaleToReturn, bestSkew, minLoss);
     }
 
+    // the scale and skew values searched, finer at the lower end of the range
+    private static final double[] SEARCH_VALUES = searchValues();
+
+    private static double[] searchValues()
+    {
+        List<Double> values = new ArrayList<>();
+
+        for(double value = 0.05; value <= 5.001; value = searchIncrement(value))
+        {
+            values.add(value);
+        }
+
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
     private static double searchIncrement(double last)
     {
         if(Doubles.lessOrEqual(last, 0.25))
@@ -4,26 +4,44 @@ import com.hartwig.hmftools.common.redux.JitterTableRow;
 
 public class JitterModelLoss
 {
-    private JitterTableRow mStatsTableRow;
-    private double mNumRepeats;
-    private double mLengthMinusOneScale;
+    private final double mNumRepeats;
+    private final double mLengthMinusOneScale;
+
+    // the row's read frequency and its floored value for each jitter from -5 to 5, held as primitives since each is used for
+    // every point in the grid search
+    private final double[] mJitterFreqs;
+    private final double[] mFlooredJitterFreqs;
+
+    private static final int MAX_JITTER = 5;
+    private static final double MIN_FREQ = 1e-4;
 
     public JitterModelLoss(JitterTableRow statsTableRow, double numRepeats, double lengthMinusOneScale)
     {
-        mStatsTableRow = statsTableRow;
         mNumRepeats = numRepeats;
         mLengthMinusOneScale = lengthMinusOneScale;
+
+        mJitterFreqs = new double[MAX_JITTER * 2 + 1];
+        mFlooredJitterFreqs = new double[mJitterFreqs.length];
+
+        for(int x = -MAX_JITTER; x <= MAX_JITTER; ++x)
+        {
+            double freq = ((double)statsTableRow.getJitterReadCount(x)) / statsTableRow.totalReadCount();
+            mJitterFreqs[x + MAX_JITTER] = freq;
+            mFlooredJitterFreqs[x + MAX_JITTER] = Math.max(freq, MIN_FREQ);
+        }
     }
 
     // total loss is the sum of loss from jitter values from -5 to 5
     public double totalLoss(double scale, double skew)
     {
+        double[] modelFreqs = JitterModelCalc.modifiedAsymmetricLaplace(scale, skew);
+
         double lossSum = 0;
-        for(int x = -5; x <= 5; ++x)
+        for(int x = -MAX_JITTER; x <= MAX_JITTER; ++x)
         {
             if(x != 0)
             {
-                lossSum += loss(x, scale, skew);
+                lossSum += loss(x, modelFreqs[x + MAX_JITTER]);
             }
         }
 
@@ -39,13 +57,13 @@ public class JitterModelLoss
 
     public double loss(int x, double scale, double skew)
     {
-        double modelFreq = Math.max(JitterModelCalc.modifiedAsymmetricLaplace(x, scale, skew), 1e-4);
-        double flooredFreq = Math.max(freq(x), 1e-4);
-        return -10 * Math.log10(Math.min(flooredFreq, modelFreq) / Math.max(flooredFreq, modelFreq)) * freq(x);
+        return loss(x, JitterModelCalc.modifiedAsymmetricLaplace(x, scale, skew));
     }
 
-    private double freq(int x)
+    private double loss(int x, double rawModelFreq)
     {
-        return ((double)mStatsTableRow.getJitterReadCount(x)) / mStatsTableRow.totalReadCount();
+        double modelFreq = Math.max(rawModelFreq, MIN_FREQ);
+        double flooredFreq = mFlooredJitterFreqs[x + MAX_JITTER];
+        return -10 * Math.log10(Math.min(flooredFreq, modelFreq) / Math.max(flooredFreq, modelFreq)) * mJitterFreqs[x + MAX_JITTER];
     }
 }
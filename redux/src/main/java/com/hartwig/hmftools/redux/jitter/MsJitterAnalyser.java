@@ -19,6 +19,7 @@ import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
@@ -29,6 +30,7 @@ import com.hartwig.hmftools.common.redux.JitterModelParamsFile;
 import com.hartwig.hmftools.common.redux.JitterTableRow;
 import com.hartwig.hmftools.common.bam.ConsensusType;
 import com.hartwig.hmftools.common.redux.MsiModelPrediction;
+import com.hartwig.hmftools.common.perf.TaskExecutor;
 import com.hartwig.hmftools.common.utils.RExecutor;
 import com.hartwig.hmftools.redux.ReduxConfig;
 import com.hartwig.hmftools.redux.ms_model.MsModelCalculator;
@@ -211,7 +213,7 @@ public class MsJitterAnalyser
         return selectors;
     }
 
-    private List<JitterModelParams> fitJitterModels(final Collection<MicrosatelliteSiteData> microsatelliteSiteData)
+    private List<JitterModelParams> fitJitterModels(final Collection<MicrosatelliteSiteData> microsatelliteSiteData) throws IOException
     {
         // create nine summary / pivot table
         // {A/T, C/G, AT/TA, AG/GA/CT/TC, AC/CA/GT/TG, CG/GC, any 3 base, any 4 base, any 5 base}
@@ -224,7 +226,7 @@ public class MsJitterAnalyser
         selectors.add(MicrosatelliteSelector.fromUnits(DUAL_BASE_4));
         selectors.add(MicrosatelliteSelector.fromUnitLengthRange(3, 5));
 
-        List<JitterModelParams> fittedParams = Lists.newArrayList();
+        List<JitterModelFitter> fitters = Lists.newArrayList();
         for(ConsensusType consensusType : consensusTypes())
         {
             for(MicrosatelliteSelector selector : selectors)
@@ -233,13 +235,18 @@ public class MsJitterAnalyser
                         selector.unitName(), consensusType,
                         microsatelliteSiteData.stream().filter(selector::select).collect(Collectors.toList()));
 
-                JitterModelFitter fitter = new JitterModelFitter(msStatsTable);
-                fitter.performFit();
-                fittedParams.add(fitter.getJitterModelParams());
+                fitters.add(new JitterModelFitter(msStatsTable));
             }
         }
 
-        return fittedParams;
+        // each table is fitted independently, whereas the repeat counts within a table are fitted in order since each depends on the
+        // scale fitted for the count below it
+        List<Callable<Void>> fitTasks = fitters.stream().map(x -> (Callable<Void>) () -> { x.performFit(); return null; }).toList();
+
+        if(!TaskExecutor.executeTasks(fitTasks, mConfig.Threads))
+            throw new IOException("MS jitter model fitting failed");
+
+        return fitters.stream().map(JitterModelFitter::getJitterModelParams).collect(Collectors.toList());
     }
 
     private void drawMicrosatelliteCharts(final String statsTableFile) throws IOException, InterruptedException
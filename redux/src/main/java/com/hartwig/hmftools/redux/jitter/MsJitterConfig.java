@@ -3,6 +3,7 @@ package com.hartwig.hmftools.redux.jitter;
 import static com.hartwig.hmftools.redux.ReduxConfig.SEQUENCING_TYPE;
 import static com.hartwig.hmftools.redux.ReduxConstants.BQR_MIN_MAP_QUAL;
 import static com.hartwig.hmftools.redux.jitter.JitterConstants.DEFAULT_MAX_SINGLE_SITE_ALT_CONTRIBUTION;
+import static com.hartwig.hmftools.common.perf.TaskExecutor.parseThreads;
 import static com.hartwig.hmftools.common.sequencing.SequencingType.ILLUMINA;
 import static com.hartwig.hmftools.common.sequencing.SequencingType.SBX;
 import static com.hartwig.hmftools.common.sequencing.SequencingType.ULTIMA;
@@ -46,6 +47,7 @@ public class MsJitterConfig
 
     public final boolean WritePlots;
     public final boolean WriteSiteFile;
+    public final int Threads;
 
     public static final String JITTER_WRITE_MSI_PLOTS = "write_msi_plots";
     public static final String JITTER_WRITE_MSI_PLOTS_DESC = "Generate MSI jitter plots";
@@ -89,6 +91,7 @@ public class MsJitterConfig
 
         WritePlots = configBuilder.hasFlag(JITTER_WRITE_MSI_PLOTS);
         WriteSiteFile = configBuilder.hasFlag(JITTER_WRITE_SITE_FILE);
+        Threads = parseThreads(configBuilder);
 
         JITTER_APPLY_BQ_FILTER = !configBuilder.hasFlag(NO_BASE_QUAL_FILTER);
     }
@@ -45,6 +45,7 @@ import htsjdk.samtools.SAMRecord;
 public class ReadUnmapper
 {
     private final Map<String,List<UnmappingRegion>> mChrLocationsMap; // keyed by chromosome start
+    private final UnmapRegionIndex mRegionIndex;
     private boolean mEnabled;
     private UnmapStats mStats;
 
@@ -62,6 +63,7 @@ public class ReadUnmapper
     public ReadUnmapper(final Map<String,List<UnmappingRegion>> chrLocationsMap)
     {
         mChrLocationsMap = chrLocationsMap;
+        mRegionIndex = new UnmapRegionIndex(chrLocationsMap);
         mEnabled = mChrLocationsMap != null && !mChrLocationsMap.isEmpty();
         mStats = new UnmapStats();
     }
@@ -371,7 +373,7 @@ public class ReadUnmapper
     private boolean checkUnmapSupplementaryRead(final SAMRecord read)
     {
         // a supplementary should be dropped if its primary satisfies the unmapping criteria
-        List<SupplementaryReadData> alignments = SupplementaryReadData.extractAlignments(read);
+        List<SupplementaryReadData> alignments = extractNearbySupplementaryAlignments(read);
 
         if(alignments == null)
             return false;
@@ -399,7 +401,7 @@ public class ReadUnmapper
     private boolean checkUnmapSupplementaryAlignments(final SAMRecord read)
     {
         // checks if any supplementary alignment qualifies for unmapping
-        List<SupplementaryReadData> alignments = SupplementaryReadData.extractAlignments(read);
+        List<SupplementaryReadData> alignments = extractNearbySupplementaryAlignments(read);
 
         if(alignments == null)
             return false;
@@ -461,13 +463,15 @@ public class ReadUnmapper
         }
         else
         {
-            mateRegions = mChrLocationsMap.get(read.getMateReferenceName());
+            UnmapRegionIndex.ChromosomeRegions chrRegions = mRegionIndex.get(read.getMateReferenceName());
 
-            if(mateRegions == null)
+            if(chrRegions == null)
                 return RegionMatchType.NONE;
 
-            if(!isWithinRegionRange(read.getMateAlignmentStart(), mateRegions))
+            if(!isWithinRegionRange(read.getMateAlignmentStart(), chrRegions))
                 return RegionMatchType.NONE;
+
+            mateRegions = chrRegions.Regions;
         }
 
         // coordinate check must be identical to how the mate checks itself, which requires knowledge of aligned bases
@@ -491,33 +495,33 @@ public class ReadUnmapper
 
     private RegionMatchType supplementaryMaxDepthRegionOverlap(final SupplementaryReadData suppReadData)
     {
-        final List<UnmappingRegion> suppRegions = mChrLocationsMap.get(suppReadData.Chromosome);
+        UnmapRegionIndex.ChromosomeRegions chrRegions = mRegionIndex.get(suppReadData.Chromosome);
 
-        if(suppRegions == null)
+        if(chrRegions == null)
             return RegionMatchType.NONE;
 
-        if(!isWithinRegionRange(suppReadData.Position, suppRegions))
+        if(!isWithinRegionRange(suppReadData.Position, chrRegions))
             return RegionMatchType.NONE;
 
         int readEnd = getReadEndFromCigarStr(suppReadData.Position, suppReadData.Cigar);
-        return findMaxDepthRegionOverlap(suppReadData.Position, readEnd, suppRegions, null, false);
+        return findMaxDepthRegionOverlap(suppReadData.Position, readEnd, chrRegions.Regions, null, false);
     }
 
-    private static boolean isWithinRegionRange(final int readStart, final List<UnmappingRegion> regions)
+    private static boolean isWithinRegionRange(final int readStart, final UnmapRegionIndex.ChromosomeRegions chrRegions)
     {
-        int startIndex = binarySearch(readStart, regions);
-        for(int i = startIndex; i < regions.size(); ++i)
-        {
-            UnmappingRegion region = regions.get(i);
+        return chrRegions.overlapsAny(readStart, readStart + READ_END_APPROX_BUFFER);
+    }
 
-            if(positionsOverlap(readStart, readStart + READ_END_APPROX_BUFFER, region.start(), region.end()))
-                return true;
+    @Nullable
+    private List<SupplementaryReadData> extractNearbySupplementaryAlignments(final SAMRecord read)
+    {
+        // only parse the SA tag if one of its alignments is close to an unmapping region, since otherwise none can be unmapped
+        String suppAttribute = read.getStringAttribute(SUPPLEMENTARY_ATTRIBUTE);
 
-            if(region.start() > readStart + READ_END_APPROX_BUFFER)
-                break;
-        }
+        if(suppAttribute == null || !mRegionIndex.anySupplementaryOverlaps(suppAttribute, READ_END_APPROX_BUFFER))
+            return null;
 
-        return false;
+        return SupplementaryReadData.extractAlignments(suppAttribute);
     }
 
     private static final int NO_INDEX_MATCH = -1;
@@ -887,6 +891,7 @@ public class ReadUnmapper
         }
 
         regions.add(region);
+        mRegionIndex.update(chromosome, regions);
 
         mEnabled = true;
     }
@@ -0,0 +1,189 @@
+package com.hartwig.hmftools.redux.unmap;
+
+import static java.lang.Math.max;
+
+import java.util.List;
+import java.util.Map;
+
+import com.hartwig.hmftools.common.mappability.UnmappingRegion;
+
+// flat per-chromosome index of the unmapping regions, used to rule out reads, mates and supplementary alignments away from any region
+// without allocating, including when they are read straight from a read's SA tag
+public class UnmapRegionIndex
+{
+    public static class ChromosomeRegions
+    {
+        public final String Chromosome;
+        public final List<UnmappingRegion> Regions;
+
+        private final int[] mStarts;
+        private final int[] mMaxEnds; // the maximum end of this and all prior regions
+
+        public ChromosomeRegions(final String chromosome, final List<UnmappingRegion> regions)
+        {
+            Chromosome = chromosome;
+            Regions = regions;
+
+            mStarts = new int[regions.size()];
+            mMaxEnds = new int[regions.size()];
+
+            int maxEnd = 0;
+
+            for(int i = 0; i < regions.size(); ++i)
+            {
+                UnmappingRegion region = regions.get(i);
+                mStarts[i] = region.start();
+                maxEnd = max(maxEnd, region.end());
+                mMaxEnds[i] = maxEnd;
+            }
+        }
+
+        public boolean overlapsAny(int posStart, int posEnd)
+        {
+            // find the last region starting at or before the end of the range, and then check whether any region up to it reaches the start
+            int lowerIndex = 0;
+            int upperIndex = mStarts.length;
+
+            while(lowerIndex < upperIndex)
+            {
+                int midIndex = (lowerIndex + upperIndex) >>> 1;
+
+                if(mStarts[midIndex] <= posEnd)
+                    lowerIndex = midIndex + 1;
+                else
+                    upperIndex = midIndex;
+            }
+
+            return lowerIndex > 0 && mMaxEnds[lowerIndex - 1] >= posStart;
+        }
+    }
+
+    // open-addressing table so that chromosomes can be looked up from part of an SA tag without creating a string
+    private ChromosomeRegions[] mTable;
+    private int mCount;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final char ALIGNMENTS_DELIM = ';';
+    private static final char SUPP_DELIM = ',';
+
+    public UnmapRegionIndex(final Map<String,List<UnmappingRegion>> chrRegionsMap)
+    {
+        mTable = new ChromosomeRegions[INITIAL_CAPACITY];
+        mCount = 0;
+
+        if(chrRegionsMap != null)
+            chrRegionsMap.forEach(this::update);
+    }
+
+    public void update(final String chromosome, final List<UnmappingRegion> regions)
+    {
+        if((mCount + 1) * 2 > mTable.length)
+            resize();
+
+        int slot = findSlot(mTable, chromosome, 0, chromosome.length());
+
+        if(mTable[slot] == null)
+            ++mCount;
+
+        mTable[slot] = new ChromosomeRegions(chromosome, regions);
+    }
+
+    public ChromosomeRegions get(final String chromosome)
+    {
+        return mTable[findSlot(mTable, chromosome, 0, chromosome.length())];
+    }
+
+    public boolean overlapsAny(final String chromosome, int posStart, int posEnd)
+    {
+        ChromosomeRegions chrRegions = get(chromosome);
+        return chrRegions != null && chrRegions.overlapsAny(posStart, posEnd);
+    }
+
+    public boolean anySupplementaryOverlaps(final String suppAttribute, int positionBuffer)
+    {
+        // scans each alignment's chromosome and position in place, eg chr6,6068632,-,35M108S,0,0;chr3,5435688,-,23S39M81S,0,1;
+        if(suppAttribute.indexOf(SUPP_DELIM) < 0)
+            return true; // not in the standard form, so leave it to the full parse
+
+        int alignmentStart = 0;
+        int length = suppAttribute.length();
+
+        while(alignmentStart < length)
+        {
+            int chrEnd = suppAttribute.indexOf(SUPP_DELIM, alignmentStart);
+
+            if(chrEnd < 0)
+                return true;
+
+            int position = 0;
+            int index = chrEnd + 1;
+
+            for(; index < length; ++index)
+            {
+                int digit = suppAttribute.charAt(index) - '0';
+
+                if(digit < 0 || digit > 9)
+                    break;
+
+                position = position * 10 + digit;
+            }
+
+            if(index == chrEnd + 1)
+                return true;
+
+            ChromosomeRegions chrRegions = mTable[findSlot(mTable, suppAttribute, alignmentStart, chrEnd)];
+
+            if(chrRegions != null && chrRegions.overlapsAny(position, position + positionBuffer))
+                return true;
+
+            int alignmentEnd = suppAttribute.indexOf(ALIGNMENTS_DELIM, index);
+
+            if(alignmentEnd < 0)
+                break;
+
+            alignmentStart = alignmentEnd + 1;
+        }
+
+        return false;
+    }
+
+    private void resize()
+    {
+        ChromosomeRegions[] newTable = new ChromosomeRegions[mTable.length * 2];
+
+        for(ChromosomeRegions chrRegions : mTable)
+        {
+            if(chrRegions != null)
+                newTable[findSlot(newTable, chrRegions.Chromosome, 0, chrRegions.Chromosome.length())] = chrRegions;
+        }
+
+        mTable = newTable;
+    }
+
+    private static int findSlot(final ChromosomeRegions[] table, final String source, int start, int end)
+    {
+        // matches String.hashCode over the characters in the range
+        int hash = 0;
+
+        for(int i = start; i < end; ++i)
+        {
+            hash = 31 * hash + source.charAt(i);
+        }
+
+        int mask = table.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+
+        while(table[slot] != null)
+        {
+            String chromosome = table[slot].Chromosome;
+
+            if(chromosome.length() == end - start && chromosome.regionMatches(0, source, start, end - start))
+                return slot;
+
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+}
@@ -0,0 +1,57 @@
+package com.hartwig.hmftools.redux;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import com.hartwig.hmftools.common.bam.ConsensusType;
+import com.hartwig.hmftools.common.redux.JitterCountsTable;
+import com.hartwig.hmftools.common.redux.JitterTableRow;
+import com.hartwig.hmftools.redux.jitter.JitterModelCalc;
+import com.hartwig.hmftools.redux.jitter.JitterModelFitter;
+
+import org.junit.Test;
+
+public class JitterModelFitterTest
+{
+    @Test
+    public void testModelValues()
+    {
+        double[] values = JitterModelCalc.modifiedAsymmetricLaplace(0.4, 1.3);
+
+        for(int x = -5; x <= 5; ++x)
+        {
+            assertEquals(JitterModelCalc.modifiedAsymmetricLaplace(x, 0.4, 1.3), values[x + 5], 1e-15);
+        }
+    }
+
+    @Test
+    public void testGridSearch()
+    {
+        double scale = 0.3;
+        double skew = 1.5;
+        int totalReads = 100000;
+
+        JitterCountsTable table = new JitterCountsTable("A", ConsensusType.NONE);
+        JitterTableRow row = table.getOrCreateRow(5);
+
+        int totalCount = 0;
+        for(int x = -5; x <= 5; ++x)
+        {
+            int count = (int)Math.round(JitterModelCalc.modifiedAsymmetricLaplace(x, scale, skew) * totalReads);
+            row.setJitterReadCount(x, count);
+            totalCount += count;
+        }
+
+        row.setTotalReadCount(totalCount);
+
+        JitterModelFitter fitter = new JitterModelFitter(table);
+        JitterModelFitter.ScaleSkew scaleSkew = fitter.gridSearch(5, row, Double.NaN);
+
+        assertNotNull(scaleSkew);
+        assertEquals(scale, scaleSkew.scale, 0.011);
+        assertEquals(skew, scaleSkew.skew, 0.051);
+
+        fitter.performFit();
+        assertEquals(scaleSkew.scale, fitter.getJitterModelParams().OptimalScaleRepeat5, 1e-10);
+    }
+}
@@ -0,0 +1,70 @@
+package com.hartwig.hmftools.redux.unmap;
+
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_2;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_3;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.mappability.UnmappingRegion;
+
+import org.junit.Test;
+
+public class UnmapRegionIndexTest
+{
+    @Test
+    public void testRegionOverlaps()
+    {
+        Map<String,List<UnmappingRegion>> chrRegions = Maps.newHashMap();
+        chrRegions.put(CHR_1, Lists.newArrayList(
+                new UnmappingRegion(100, 200, 100), new UnmappingRegion(150, 1000, 100), new UnmappingRegion(5000, 5100, 100)));
+
+        UnmapRegionIndex regionIndex = new UnmapRegionIndex(chrRegions);
+
+        assertFalse(regionIndex.overlapsAny(CHR_1, 1, 99));
+        assertTrue(regionIndex.overlapsAny(CHR_1, 50, 100));
+        assertTrue(regionIndex.overlapsAny(CHR_1, 900, 950)); // only within the longer, earlier region
+        assertFalse(regionIndex.overlapsAny(CHR_1, 1001, 4999));
+        assertTrue(regionIndex.overlapsAny(CHR_1, 5100, 5200));
+        assertFalse(regionIndex.overlapsAny(CHR_1, 5101, 5200));
+        assertFalse(regionIndex.overlapsAny(CHR_2, 100, 200));
+
+        // regions added after construction, with enough contigs to grow the table
+        for(int i = 0; i < 200; ++i)
+        {
+            regionIndex.update("contig_" + i, Lists.newArrayList(new UnmappingRegion(1, 1000, 100)));
+        }
+
+        regionIndex.update(CHR_2, Lists.newArrayList(new UnmappingRegion(100, 200, 100)));
+
+        assertTrue(regionIndex.overlapsAny(CHR_2, 150, 150));
+        assertTrue(regionIndex.overlapsAny("contig_123", 500, 600));
+        assertTrue(regionIndex.overlapsAny(CHR_1, 5000, 5000));
+        assertNull(regionIndex.get("contig_200"));
+    }
+
+    @Test
+    public void testSupplementaryOverlaps()
+    {
+        Map<String,List<UnmappingRegion>> chrRegions = Maps.newHashMap();
+        chrRegions.put(CHR_1, Lists.newArrayList(new UnmappingRegion(1000, 2000, 100)));
+        chrRegions.put(CHR_3, Lists.newArrayList(new UnmappingRegion(1000, 2000, 100)));
+
+        UnmapRegionIndex regionIndex = new UnmapRegionIndex(chrRegions);
+
+        assertFalse(regionIndex.anySupplementaryOverlaps("1,500,+,50M50S,60,0;", 100));
+        assertTrue(regionIndex.anySupplementaryOverlaps("1,900,+,50M50S,60,0;", 100));
+        assertFalse(regionIndex.anySupplementaryOverlaps("2,1500,+,50M50S,60,0;1,2001,-,50M50S,60,0", 100));
+        assertTrue(regionIndex.anySupplementaryOverlaps("2,1500,+,50M50S,60,0;3,1500,-,50M50S,60,0;", 100));
+
+        // chromosome names which share a prefix with an indexed chromosome
+        assertFalse(regionIndex.anySupplementaryOverlaps("11,1500,+,50M50S,60,0;", 100));
+    }
+}
@@ -39,6 +39,7 @@ import com.hartwig.hmftools.common.utils.Matrix;
 import com.hartwig.hmftools.common.sigs.SigResiduals;
 import com.hartwig.hmftools.sigs.buckets.BaSampleFitter;
 import com.hartwig.hmftools.sigs.common.CommonUtils;
+import com.hartwig.hmftools.sigs.common.SampleFitTasks;
 import com.hartwig.hmftools.sigs.fitter.FitMethod;
 import com.hartwig.hmftools.sigs.nmf.NmfConfig;
 import com.hartwig.hmftools.sigs.nmf.NmfSampleFitter;
@@ -60,6 +61,7 @@ public class FitAnalyser
     private final String mOutputDir;
     private final String mOutputId;
     private final CommandLine mCmdLineArgs;
+    private final int mThreads;
 
     private final Matrix mSampleCounts;
     private final List<String> mSampleIds;
@@ -81,6 +83,7 @@ public class FitAnalyser
         mOutputDir = CommonUtils.parseOutputDir(cmd);
         mOutputId = cmd.getOptionValue(OUTPUT_FILE_ID);
         mCmdLineArgs = cmd;
+        mThreads = SampleFitTasks.parseThreads(cmd);
         mFitMethods = Lists.newArrayList();
 
         final String[] fitMethods = cmd.getOptionValue(FIT_METHODS).split(";", -1);
@@ -170,17 +173,25 @@ public class FitAnalyser
     {
         final Matrix sampleContribs = new Matrix(mSignatures.Cols, mSampleCounts.Cols);
 
-        LeastSquaresFit lsqFit = new LeastSquaresFit(mSignatures.Rows, mSignatures.Cols);
-
-        for(int i = 0; i < mSampleCounts.Cols; ++i)
+        SampleFitTasks.fitSamples(mSampleCounts.Cols, mThreads, () ->
         {
-            final double[] sampleCounts = mSampleCounts.getCol(i);
-            lsqFit.initialise(mSignatures.getData(), sampleCounts);
-            lsqFit.solve();
+            LeastSquaresFit lsqFit = new LeastSquaresFit(mSignatures.Rows, mSignatures.Cols);
 
-            final double[] sigAllocs = lsqFit.getContribs();
-            sampleContribs.setCol(i, sigAllocs);
-        }
+            return (sampleStart, sampleEnd) ->
+            {
+                for(int i = sampleStart; i < sampleEnd; ++i)
+                {
+                    final double[] sampleCounts = mSampleCounts.getCol(i);
+                    lsqFit.initialise(mSignatures.getData(), sampleCounts);
+                    lsqFit.solve();
+
+                    final double[] sigAllocs = lsqFit.getContribs();
+                    sampleContribs.setCol(i, sigAllocs);
+                }
+
+                return true;
+            };
+        });
 
         return sampleContribs;
     }
@@ -189,12 +200,17 @@ public class FitAnalyser
     {
         final Matrix sampleContribs = new Matrix(mSignatures.Cols, mSampleCounts.Cols);
 
-        for(int i = 0; i < mSampleCounts.Cols; ++i)
+        SampleFitTasks.fitSamples(mSampleCounts.Cols, mThreads, () -> (sampleStart, sampleEnd) ->
         {
-            final double[] sampleCounts = mSampleCounts.getCol(i);
-            final double[] sigAllocs = ExpectationMaxFit.performFit(sampleCounts, mSignatures, 0.001, 100);
-            sampleContribs.setCol(i, sigAllocs);
-        }
+            for(int i = sampleStart; i < sampleEnd; ++i)
+            {
+                final double[] sampleCounts = mSampleCounts.getCol(i);
+                final double[] sigAllocs = ExpectationMaxFit.performFit(sampleCounts, mSignatures, 0.001, 100);
+                sampleContribs.setCol(i, sigAllocs);
+            }
+
+            return true;
+        });
 
         return sampleContribs;
     }
@@ -217,6 +233,7 @@ public class FitAnalyser
         NmfConfig nmfConfig = new NmfConfig(1, 100);
 
         NmfSampleFitter nmfFitter = new NmfSampleFitter(nmfConfig, mSampleCounts, mSignatures);
+        nmfFitter.setThreads(mThreads);
 
         nmfFitter.fitSamples();
 
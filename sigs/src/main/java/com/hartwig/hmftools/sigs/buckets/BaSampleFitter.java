@@ -11,6 +11,7 @@ import java.util.Map;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.utils.Matrix;
+import com.hartwig.hmftools.sigs.common.SampleFitTasks;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
@@ -27,7 +28,7 @@ public class BaSampleFitter
     private final double mMinSigPercent;
     private final double mNoiseProbability;
 
-    private final SampleSigContribOptimiser mSigContribOptimiser;
+    private final int mThreads;
 
     private static final double DEFAULT_MIN_SIG_PERCENT = 0.01;
     private static final String MIN_SIG_PERCENT = "min_sig_percent";
@@ -56,7 +57,7 @@ public class BaSampleFitter
         // set the max of a sample's total which can be allocated to noise, effecively setting a cap on
         MAX_NOISE_ALLOC_PERCENT = Double.parseDouble(cmd.getOptionValue(BA_MAX_NOISE_ALLOC_PERCENT, String.valueOf(MAX_NOISE_ALLOC_PERCENT)));
 
-        mSigContribOptimiser = new SampleSigContribOptimiser(signatures.Rows, false, 1.0);
+        mThreads = SampleFitTasks.parseThreads(cmd);
     }
 
     public final Matrix getContributions() { return mContrbutions; }
@@ -70,95 +71,118 @@ public class BaSampleFitter
 
     public void fitAllSamples()
     {
-        // test each signature against the sample and then perform an fit optimisation with any which could contribute a sufficient amount
-        int bucketCount = mSampleCounts.Rows;
-        int sigCount = mSignatures.Cols;
-
-        double[] noiseCounts = new double[bucketCount];
-        double[] allocCounts = new double[bucketCount];
-        double[] emptyBucketData = new double[bucketCount];
-
-        final List<Integer> allBuckets = Lists.newArrayList();
+        SampleFitTasks.fitSamples(mSampleCounts.Cols, mThreads, () -> new SampleRangeFitter());
+    }
 
-        for(int b = 0; b < bucketCount; ++b)
+    private class SampleRangeFitter implements SampleFitTasks.SampleRangeFitter
+    {
+        // optimiser and working buffers for a single thread
+        private final SampleSigContribOptimiser mSigContribOptimiser;
+        private final double[] mNoiseCounts;
+        private final double[] mAllocCounts;
+        private final double[] mEmptyBucketData;
+        private final List<Integer> mAllBuckets;
+        private final List<double[]> mRatiosCollection;
+        private final List<Integer> mSigIds;
+        private final Map<Integer,Integer> mRangeCache;
+
+        public SampleRangeFitter()
         {
-            allBuckets.add(b);
-        }
+            int bucketCount = mSampleCounts.Rows;
 
-        final List<double[]> ratiosCollection = Lists.newArrayList();
-        final List<Integer> sigIds = Lists.newArrayList();
+            mSigContribOptimiser = new SampleSigContribOptimiser(bucketCount, false, 1.0);
+            mNoiseCounts = new double[bucketCount];
+            mAllocCounts = new double[bucketCount];
+            mEmptyBucketData = new double[bucketCount];
 
-        final Map<Integer,Integer> rangeCache = Maps.newHashMap();
+            mAllBuckets = Lists.newArrayList();
 
-        for(int s = 0; s < mSampleCounts.Cols; ++s)
-        {
-            SampleData sample = new SampleData(s);
-
-            if(mSampleIds.size() == mSampleCounts.Cols)
+            for(int b = 0; b < bucketCount; ++b)
             {
-                sample.setSampleName(mSampleIds.get(s));
+                mAllBuckets.add(b);
             }
 
-            final double[] sampleCounts = mSampleCounts.getCol(s);
-            double sampleTotal = sumVector(sampleCounts);
-
-            if(sampleTotal == 0)
-                continue;
+            mRatiosCollection = Lists.newArrayList();
+            mSigIds = Lists.newArrayList();
+            mRangeCache = Maps.newHashMap();
+        }
 
-            sample.setBucketCounts(sampleCounts);
+        @Override
+        public boolean fitSamples(int sampleStart, int sampleEnd)
+        {
+            // test each signature against the sample and then perform an fit optimisation with any which could contribute a sufficient amount
+            int bucketCount = mSampleCounts.Rows;
+            int sigCount = mSignatures.Cols;
 
-            for(int b = 0; b < bucketCount; ++b)
+            for(int s = sampleStart; s < sampleEnd; ++s)
             {
-                if(sampleCounts[b] > 0)
+                SampleData sample = new SampleData(s);
+
+                if(mSampleIds.size() == mSampleCounts.Cols)
                 {
-                    noiseCounts[b] = calcRangeValue(rangeCache, (int)sampleCounts[b], mNoiseProbability, DEFAULT_MIN_NOISE_COUNT, true);
+                    sample.setSampleName(mSampleIds.get(s));
                 }
-                else
+
+                final double[] sampleCounts = mSampleCounts.getCol(s);
+                double sampleTotal = sumVector(sampleCounts);
+
+                if(sampleTotal == 0)
+                    continue;
+
+                sample.setBucketCounts(sampleCounts);
+
+                for(int b = 0; b < bucketCount; ++b)
                 {
-                    noiseCounts[b] = DEFAULT_MIN_NOISE_COUNT;
+                    if(sampleCounts[b] > 0)
+                    {
+                        mNoiseCounts[b] = calcRangeValue(mRangeCache, (int)sampleCounts[b], mNoiseProbability, DEFAULT_MIN_NOISE_COUNT, true);
+                    }
+                    else
+                    {
+                        mNoiseCounts[b] = DEFAULT_MIN_NOISE_COUNT;
+                    }
                 }
-            }
 
-            sample.setElevatedBucketCounts(sample.getBucketCounts(), noiseCounts);
+                sample.setElevatedBucketCounts(sample.getBucketCounts(), mNoiseCounts);
 
-            ratiosCollection.clear();
-            sigIds.clear();
-
-            for(int i = 0; i < sigCount; ++i)
-            {
-                double[] sigRatios = mSignatures.getCol(i);
-                double allocTotal = sample.getPotentialUnallocCounts(sigRatios, allBuckets, emptyBucketData, allocCounts);
+                mRatiosCollection.clear();
+                mSigIds.clear();
 
-                if (allocTotal / sampleTotal < mMinSigPercent)
-                    continue;
+                for(int i = 0; i < sigCount; ++i)
+                {
+                    double[] sigRatios = mSignatures.getCol(i);
+                    double allocTotal = sample.getPotentialUnallocCounts(sigRatios, mAllBuckets, mEmptyBucketData, mAllocCounts);
 
-                // add the sig's data to the optimiser
-                ratiosCollection.add(sigRatios);
-                sigIds.add(i);
-            }
+                    if (allocTotal / sampleTotal < mMinSigPercent)
+                        continue;
 
-            mSigContribOptimiser.initialise(sample, ratiosCollection, mMinSigPercent, 1);
-            mSigContribOptimiser.setSigIds(sigIds);
-            // mSigContribOptimiser.setLogVerbose(mConfig.logSample(sample.Id));
+                    // add the sig's data to the optimiser
+                    mRatiosCollection.add(sigRatios);
+                    mSigIds.add(i);
+                }
 
-            // LOGGER.debug("sample({}) fitting with {} sigs", sample.Id, sigIds.size());
+                mSigContribOptimiser.initialise(sample, mRatiosCollection, mMinSigPercent, 1);
+                mSigContribOptimiser.setSigIds(mSigIds);
 
-            boolean validCalc = mSigContribOptimiser.fitToSample();
+                boolean validCalc = mSigContribOptimiser.fitToSample();
 
-            if (!validCalc)
-            {
-                LOGGER.error("sample({}) sig fit failed", sample.Id);
-                return;
-            }
+                if (!validCalc)
+                {
+                    LOGGER.error("sample({}) sig fit failed", sample.Id);
+                    return false;
+                }
 
-            // if all ok, allocate each contribution to the sample
-            double[] sigContribs = mSigContribOptimiser.getContribs();
+                // if all ok, allocate each contribution to the sample
+                double[] sigContribs = mSigContribOptimiser.getContribs();
 
-            for(int j = 0; j < sigIds.size(); ++j)
-            {
-                int sigIndex = sigIds.get(j);
-                mContrbutions.set(sigIndex, s, sigContribs[j]);
+                for(int j = 0; j < mSigIds.size(); ++j)
+                {
+                    int sigIndex = mSigIds.get(j);
+                    mContrbutions.set(sigIndex, s, sigContribs[j]);
+                }
             }
+
+            return true;
         }
     }
 }
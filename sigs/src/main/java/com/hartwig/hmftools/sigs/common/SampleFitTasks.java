@@ -0,0 +1,86 @@
+package com.hartwig.hmftools.sigs.common;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import static com.hartwig.hmftools.common.perf.TaskExecutor.THREADS;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.perf.TaskExecutor;
+
+import org.apache.commons.cli.CommandLine;
+
+// fits samples independently across threads - each thread is given a contiguous range of samples and its own fitter,
+// so optimiser workspaces are never shared and each sample's result is the same as when fitted sequentially
+public final class SampleFitTasks
+{
+    private SampleFitTasks() {}
+
+    @FunctionalInterface
+    public interface SampleRangeFitter
+    {
+        // fits samples from the start index up to but excluding the end index, returning false if a fit failed
+        boolean fitSamples(int sampleStart, int sampleEnd);
+    }
+
+    public static int parseThreads(final CommandLine cmd)
+    {
+        return max(Integer.parseInt(cmd.getOptionValue(THREADS, "1")), 1);
+    }
+
+    public static boolean fitSamples(int sampleCount, int threads, final Supplier<SampleRangeFitter> fitterSupplier)
+    {
+        if(sampleCount == 0)
+            return true;
+
+        if(threads <= 1)
+            return fitterSupplier.get().fitSamples(0, sampleCount);
+
+        int taskCount = min(threads, sampleCount);
+        int samplesPerTask = (sampleCount + taskCount - 1) / taskCount;
+
+        List<RangeTask> rangeTasks = Lists.newArrayListWithCapacity(taskCount);
+
+        for(int sampleStart = 0; sampleStart < sampleCount; sampleStart += samplesPerTask)
+        {
+            rangeTasks.add(new RangeTask(fitterSupplier, sampleStart, min(sampleStart + samplesPerTask, sampleCount)));
+        }
+
+        List<Callable<Void>> callables = Lists.newArrayList(rangeTasks);
+
+        if(!TaskExecutor.executeTasks(callables, taskCount))
+            return false;
+
+        return rangeTasks.stream().allMatch(x -> x.isValid());
+    }
+
+    private static class RangeTask implements Callable<Void>
+    {
+        private final Supplier<SampleRangeFitter> mFitterSupplier;
+        private final int mSampleStart;
+        private final int mSampleEnd;
+        private boolean mValid;
+
+        public RangeTask(final Supplier<SampleRangeFitter> fitterSupplier, int sampleStart, int sampleEnd)
+        {
+            mFitterSupplier = fitterSupplier;
+            mSampleStart = sampleStart;
+            mSampleEnd = sampleEnd;
+            mValid = false;
+        }
+
+        public boolean isValid() { return mValid; }
+
+        @Override
+        public Void call()
+        {
+            // the fitter and its workspace are created on the worker thread and confined to it
+            mValid = mFitterSupplier.get().fitSamples(mSampleStart, mSampleEnd);
+            return null;
+        }
+    }
+}
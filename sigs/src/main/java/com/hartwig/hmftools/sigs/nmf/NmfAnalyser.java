@@ -21,6 +21,7 @@ import com.hartwig.hmftools.common.perf.PerformanceCounter;
 import com.hartwig.hmftools.common.utils.GenericDataLoader;
 import com.hartwig.hmftools.common.utils.GenericDataCollection;
 import com.hartwig.hmftools.common.utils.Matrix;
+import com.hartwig.hmftools.common.utils.MatrixMultiplier;
 import com.hartwig.hmftools.sigs.common.CommonUtils;
 
 import org.apache.commons.cli.CommandLine;
@@ -48,6 +49,7 @@ public class NmfAnalyser
     private Matrix mReferenceContribs;
 
     private NmfCalculator mNmfCalculator;
+    private MatrixMultiplier mMultiplier;
 
     private List<NmfRun> mRuns;
 
@@ -63,6 +65,7 @@ public class NmfAnalyser
         mSampleCountsMatrix = null;
         mReferenceSigs = null;
         mNmfCalculator = null;
+        mMultiplier = null;
 
         mRuns = Lists.newArrayList();
 
@@ -84,7 +87,8 @@ public class NmfAnalyser
         mSampleCountsMatrix = extractNonZeros(mSampleCountsMatrix);
         mSampleCountsMatrix.cacheTranspose();
 
-        mNmfCalculator = new NmfCalculator(mSampleCountsMatrix, mConfig);
+        mMultiplier = new MatrixMultiplier(mConfig.Threads);
+        mNmfCalculator = new NmfCalculator(mSampleCountsMatrix, mConfig, mMultiplier);
 
         if(!mConfig.RefSigFilename.isEmpty())
         {
@@ -113,10 +117,17 @@ public class NmfAnalyser
 
     public void run() {
 
-        if(mConfig.FitOnly)
-            runFitOnly();
-        else
-            runNmf();
+        try
+        {
+            if(mConfig.FitOnly)
+                runFitOnly();
+            else
+                runNmf();
+        }
+        finally
+        {
+            mMultiplier.close();
+        }
     }
 
     private void runNmf()
@@ -178,6 +189,7 @@ public class NmfAnalyser
         mPerfCounter.start("NMF");
 
         NmfSampleFitter sampleFitter = new NmfSampleFitter(mConfig, mSampleCountsMatrix, mReferenceSigs);
+        sampleFitter.setThreads(mConfig.Threads);
 
         if(mConfig.FitRestrictToContribs)
         {
@@ -13,6 +13,7 @@ import java.util.Random;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.utils.Matrix;
+import com.hartwig.hmftools.common.utils.MatrixMultiplier;
 import com.hartwig.hmftools.common.utils.MatrixUtils;
 
 import org.apache.logging.log4j.LogManager;
@@ -56,10 +57,20 @@ public class NmfCalculator
 
     private Random mRandom;
 
+    private final MatrixMultiplier mMultiplier;
+
+    // workspaces for the multiplicative updates, sized once the signature count is known
+    private Matrix mWtV; // W' x sample counts
+    private Matrix mWtW; // W' x W
+    private Matrix mWtWH; // W' x W x H, equivalent to W' x fit
+    private Matrix mVHt; // sample counts x H'
+    private Matrix mHHt; // H x H'
+    private Matrix mWHHt; // W x H x H'
+
     // internal constants
     private static double MIN_COST_CHANGE_PERCENT = 0.00001;
 
-    public NmfCalculator(final Matrix sampleBucketCounts, final NmfConfig config)
+    public NmfCalculator(final Matrix sampleBucketCounts, final NmfConfig config, final MatrixMultiplier multiplier)
     {
         mConfig = config;
         mRunId = 0;
@@ -103,6 +114,9 @@ public class NmfCalculator
 
         // could seed from config instead
         mRandom = new Random(123456);
+
+        mMultiplier = multiplier;
+        mWtV = null;
     }
 
     public void setSigCount(int sigCount) { mSigCount = sigCount; }
@@ -157,9 +171,24 @@ public class NmfCalculator
         mPrevW = new Matrix(mBucketCount, mSigCount);
         mPrevH = new Matrix(mSigCount, mSampleCount);
 
+        initWorkspaces();
+
         calculate();
     }
 
+    private void initWorkspaces()
+    {
+        if(mWtV != null && mWtV.Rows == mSigCount)
+            return;
+
+        mWtV = new Matrix(mSigCount, mSampleCount);
+        mWtW = new Matrix(mSigCount, mSigCount);
+        mWtWH = new Matrix(mSigCount, mSampleCount);
+        mVHt = new Matrix(mBucketCount, mSigCount);
+        mHHt = new Matrix(mSigCount, mSigCount);
+        mWHHt = new Matrix(mBucketCount, mSigCount);
+    }
+
     private void initSignatures()
     {
         // to stick with convention, the signatures matrix is comprised of values between 0 - 1, with a sig's bucket ratios adding to 1
@@ -484,7 +513,7 @@ public class NmfCalculator
 
     public void produceFit()
     {
-        MatrixUtils.multiply(mW, mH, mV, true); // ensure fit is the latest
+        mMultiplier.multiply(mW, mH, mV); // ensure fit is the latest
     }
 
     private void applyAdjustments()
@@ -507,31 +536,60 @@ public class NmfCalculator
         // the multiplicative update method (described by Lee and Seund, 2001)
         // https://papers.nips.cc/paper/1861-algorithms-for-non-negative-matrix-factorization.pdf
 
-        // update contribution matrix
-        Matrix wt = mW.transpose();
-        Matrix hAdj = MatrixUtils.multiply(wt, mSampleCounts);
-        Matrix hd = MatrixUtils.multiply(wt, mV);
+        // the denominators W'WH and WHH' are formed from the small sig x sig products W'W and HH', avoiding
+        // a bucket x sample product for each
 
-        MatrixUtils.scalarDivide(hAdj, hd, true);
-        MatrixUtils.scalarMultiply(mH, hAdj);
+        // update contribution matrix: H = H * (W'V) / (W'WH)
+        mMultiplier.multiplyTransposeFirst(mW, mSampleCounts, mWtV);
+        mMultiplier.multiplyTransposeFirst(mW, mW, mWtW);
+        mMultiplier.multiply(mWtW, mH, mWtWH);
+
+        applyUpdate(mH, mWtV, mWtWH, 1, 0);
 
         if(mConfig.SigFloatRate > 0)
         {
-            // update signatures matrix
-            Matrix ht = mH.transpose();
-            Matrix wAdj = MatrixUtils.multiply(mSampleCounts, ht);
-            Matrix wd1 = MatrixUtils.multiply(mW, mH);
-            Matrix wd = MatrixUtils.multiply(wd1, ht);
-
-            MatrixUtils.scalarDivide(wAdj, wd, true);
+            // update signatures matrix using the new contributions: W = W * (VH') / (WHH')
+            mMultiplier.multiplyTransposeSecond(mSampleCounts, mH, mVHt);
+            mMultiplier.multiplyTransposeSecond(mH, mH, mHHt);
+            mMultiplier.multiply(mW, mHHt, mWHHt);
 
             if(mConfig.SigFloatRate == 1)
-            {
-                MatrixUtils.scalarMultiply(mW, wAdj);
-            }
+                applyUpdate(mW, mVHt, mWHHt, 1, 0);
             else
+                applyUpdate(mW, mVHt, mWHHt, mConfig.SigFloatRate, mRefSignatures.Cols);
+        }
+    }
+
+    private static void applyUpdate(
+            final Matrix matrix, final Matrix numerator, final Matrix denominator, double rateAdjust, int adjustColLimit)
+    {
+        // fused form of dividing the numerator by the denominator, leaving it unchanged where the denominator is zero,
+        // and then scaling the matrix by the result, dampened by the rate for the first X columns (the ref signatures)
+        final double[][] data = matrix.getData();
+        final double[][] numData = numerator.getData();
+        final double[][] denomData = denominator.getData();
+
+        for(int i = 0; i < matrix.Rows; ++i)
+        {
+            final double[] row = data[i];
+            final double[] numRow = numData[i];
+            final double[] denomRow = denomData[i];
+
+            for(int j = 0; j < matrix.Cols; ++j)
             {
-                MatrixUtils.scalarMultiplyRateAdjusted(mW, wAdj, mConfig.SigFloatRate, mRefSignatures.Cols);
+                double adjust = denomRow[j] != 0 ? numRow[j] / denomRow[j] : numRow[j];
+
+                if(j < adjustColLimit)
+                {
+                    if(adjust >= 1)
+                        row[j] *= 1 + (adjust - 1) * rateAdjust;
+                    else
+                        row[j] *= 1 - (1 - adjust) * rateAdjust;
+                }
+                else
+                {
+                    row[j] *= adjust;
+                }
             }
         }
     }
@@ -1,5 +1,8 @@
 package com.hartwig.hmftools.sigs.nmf;
 
+import static com.hartwig.hmftools.common.perf.TaskExecutor.THREADS;
+import static com.hartwig.hmftools.common.perf.TaskExecutor.THREADS_DESC;
+
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
 
@@ -37,6 +40,8 @@ public class NmfConfig {
 
     final public boolean LogVerbose;
 
+    final public int Threads; // used to split matrix multiplication within each run
+
     // command line args
     public static final String NMF_SIG_COUNT = "nmf_sig_count";
     public static final String NMF_RUN_COUNT = "nmf_run_count";
@@ -81,6 +86,7 @@ public class NmfConfig {
         options.addOption(NMF_FIT_RESTRICTED, false, "Fit to input ref sigs if has ref contribution");
 
         options.addOption(NMF_LOG_VERBOSE, false, "All NMF details logged");
+        options.addOption(THREADS, true, THREADS_DESC);
     }
 
     public NmfConfig(final CommandLine cmd)
@@ -119,6 +125,7 @@ public class NmfConfig {
         SigFloatRate = cmd.hasOption(NMF_SIG_FLOAT_RATE) ? Double.parseDouble(cmd.getOptionValue(NMF_SIG_FLOAT_RATE)) : 1.0;
 
         LogVerbose = cmd.hasOption(NMF_LOG_VERBOSE);
+        Threads = cmd.hasOption(THREADS) ? Integer.parseInt(cmd.getOptionValue(THREADS)) : 1;
     }
 
     public NmfConfig(double exitLevel, int maxIterations)
@@ -138,6 +145,7 @@ public class NmfConfig {
         RefSigFilename = "";
         Model = NmfModelMethod.STANDARD;
         ApplyPcawgRules = false;
+        Threads = 1;
     }
 
 }
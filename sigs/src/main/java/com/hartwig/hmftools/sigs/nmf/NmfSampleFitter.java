@@ -5,6 +5,8 @@ import static com.hartwig.hmftools.common.utils.VectorUtils.copyVector;
 import static com.hartwig.hmftools.common.utils.VectorUtils.sumVector;
 
 import com.hartwig.hmftools.common.utils.Matrix;
+import com.hartwig.hmftools.common.utils.MatrixMultiplier;
+import com.hartwig.hmftools.sigs.common.SampleFitTasks;
 import com.hartwig.hmftools.sigs.common.SigReporter;
 
 import org.apache.logging.log4j.LogManager;
@@ -23,6 +25,10 @@ public class NmfSampleFitter
     private Matrix mAllContributions;
 
     private int[] mSigCountFrequency;
+    private int mThreads;
+
+    // samples are fitted in parallel rather than splitting each small single-sample multiplication
+    private static final MatrixMultiplier SINGLE_THREAD_MULTIPLIER = new MatrixMultiplier(1);
 
     private boolean mIsValid;
 
@@ -42,24 +48,28 @@ public class NmfSampleFitter
         mRefSignatures = refSigs;
         mReferenceContribs = null;
         mIsValid = true;
+        mThreads = 1;
     }
 
+    public void setThreads(int threads) { mThreads = threads; }
+
     public void setRefContributions(final Matrix refContribs) { mReferenceContribs = refContribs; }
     public final Matrix getContributions() { return mAllContributions; }
     public boolean isValid() { return mIsValid; }
 
     public void fitSamples()
     {
-        for(int i = 0; i < mSampleCounts.Cols; ++i)
+        // each sample has its own calculator with a fixed seed, so results don't depend on the thread count
+        mIsValid = SampleFitTasks.fitSamples(mSampleCounts.Cols, mThreads, () -> (sampleStart, sampleEnd) ->
         {
-            boolean sampleValid = fitSample(i);
-
-            if(!sampleValid)
+            for(int i = sampleStart; i < sampleEnd; ++i)
             {
-                mIsValid = false;
-                break;
+                if(!fitSample(i))
+                    return false;
             }
-        }
+
+            return true;
+        });
 
         // report frequency of how many sigs are used across the cohort
         for(int i = 0; i < mSigCountFrequency.length; ++i)
@@ -125,7 +135,7 @@ public class NmfSampleFitter
             }
         }
 
-        NmfCalculator nmfCalc = new NmfCalculator(sampleMatrix, mConfig);
+        NmfCalculator nmfCalc = new NmfCalculator(sampleMatrix, mConfig, SINGLE_THREAD_MULTIPLIER);
 
         nmfCalc.setSigCount(refSigCount);
 
@@ -327,7 +337,10 @@ public class NmfSampleFitter
         }
         else
         {
-            mSigCountFrequency[currentSigCount] += 1;
+            synchronized(mSigCountFrequency)
+            {
+                mSigCountFrequency[currentSigCount] += 1;
+            }
         }
 
         return true;
@@ -0,0 +1,88 @@
+package com.hartwig.hmftools.sigs.nmf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import com.hartwig.hmftools.common.utils.Matrix;
+
+import org.junit.Test;
+
+public class NmfSampleFitterTest
+{
+    private static final int BUCKET_COUNT = 24;
+    private static final int SIG_COUNT = 5;
+    private static final int SAMPLE_COUNT = 37;
+
+    @Test
+    public void testParallelFitMatchesSequential()
+    {
+        Random random = new Random(42);
+
+        Matrix signatures = new Matrix(BUCKET_COUNT, SIG_COUNT);
+
+        for(int s = 0; s < SIG_COUNT; ++s)
+        {
+            double[] sig = new double[BUCKET_COUNT];
+            double total = 0;
+
+            for(int b = 0; b < BUCKET_COUNT; ++b)
+            {
+                sig[b] = random.nextDouble() * random.nextDouble();
+                total += sig[b];
+            }
+
+            for(int b = 0; b < BUCKET_COUNT; ++b)
+            {
+                signatures.set(b, s, sig[b] / total);
+            }
+        }
+
+        Matrix sampleCounts = new Matrix(BUCKET_COUNT, SAMPLE_COUNT);
+
+        for(int i = 0; i < SAMPLE_COUNT; ++i)
+        {
+            // each sample draws on a varying subset of the signatures
+            double[] contribs = new double[SIG_COUNT];
+
+            for(int s = 0; s < SIG_COUNT; ++s)
+            {
+                contribs[s] = (i + s) % 3 == 0 ? 0 : random.nextInt(2000);
+            }
+
+            for(int b = 0; b < BUCKET_COUNT; ++b)
+            {
+                double count = 0;
+
+                for(int s = 0; s < SIG_COUNT; ++s)
+                {
+                    count += signatures.get(b, s) * contribs[s];
+                }
+
+                sampleCounts.set(b, i, Math.round(count + random.nextInt(5)));
+            }
+        }
+
+        signatures.cacheTranspose();
+        sampleCounts.cacheTranspose();
+
+        Matrix sequentialContribs = fitSamples(sampleCounts, signatures, 1);
+        Matrix parallelContribs = fitSamples(sampleCounts, signatures, 4);
+
+        for(int i = 0; i < SAMPLE_COUNT; ++i)
+        {
+            assertArrayEquals(sequentialContribs.getCol(i), parallelContribs.getCol(i), 0);
+        }
+    }
+
+    private static Matrix fitSamples(final Matrix sampleCounts, final Matrix signatures, int threads)
+    {
+        NmfSampleFitter fitter = new NmfSampleFitter(new NmfConfig(1, 100), sampleCounts, signatures);
+        fitter.setThreads(threads);
+        fitter.fitSamples();
+
+        assertTrue(fitter.isValid());
+        return fitter.getContributions();
+    }
+}